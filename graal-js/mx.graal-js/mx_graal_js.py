@@ -50,6 +50,10 @@ def _graal_js_gate_runner(args, tasks):
         if t:
             unittest(['--enable-timing', '--very-verbose', 'com.oracle.truffle.js.scriptengine.test'])
 
+    with Task('InlineCacheStatistics', tasks, tags=[GraalJsDefaultTags.default, GraalJsDefaultTags.all]) as t:
+        if t:
+            unittest(['-Dtruffle.js.InlineCacheStatistics=true', '--enable-timing', '--very-verbose', 'com.oracle.truffle.js.test.debug.InlineCacheStatisticsTest'])
+
     gateTestConfigs = {
         GraalJsDefaultTags.default: ['gate'],
         'noic': ['-Dtruffle.js.PropertyCacheLimit=0', '-Dtruffle.js.FunctionCacheLimit=0', 'gate'],
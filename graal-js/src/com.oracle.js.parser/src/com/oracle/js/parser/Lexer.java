@@ -194,7 +194,7 @@ public class Lexer extends Scanner {
      */
     public Lexer(final Source source, final int start, final int len, final TokenStream stream, final boolean scripting, final int ecmaScriptVersion, final boolean shebang, final boolean isModule,
                     final boolean pauseOnFunctionBody, final boolean allowBigInt) {
-        super(source.getContent().toString().toCharArray(), 1, start, len);
+        super(contentArray(source, start, len), start, 1, start, len);
         this.source = source;
         this.stream = stream;
         this.scripting = scripting;
@@ -210,6 +210,23 @@ public class Lexer extends Scanner {
         this.internedStrings = new HashMap<>();
     }
 
+    /**
+     * Copies only the characters of the source segment that is lexed, so that lexing a single
+     * function of a large script does not copy the whole script.
+     */
+    private static char[] contentArray(final Source source, final int start, final int len) {
+        final CharSequence content = source.getContent();
+        final char[] array = new char[len];
+        if (content instanceof String) {
+            ((String) content).getChars(start, start + len, array, 0);
+        } else {
+            for (int i = 0; i < len; i++) {
+                array[i] = content.charAt(start + i);
+            }
+        }
+        return array;
+    }
+
     private Lexer(final Lexer lexer, final State state) {
         super(lexer, state);
 
@@ -931,7 +948,7 @@ public class Lexer extends Scanner {
         }
 
         for (int i = 0; i < len; ++i) {
-            if (content[start + i] != keyword.charAt(i)) {
+            if (content[start - contentStart + i] != keyword.charAt(i)) {
                 return false;
             }
         }
@@ -958,7 +975,7 @@ public class Lexer extends Scanner {
         // Scan until end of line or end of file.
         while (pos < end) {
 
-            char curCh0 = content[pos];
+            char curCh0 = content[pos - contentStart];
 
             // If escape character.
             if (convertUnicode && curCh0 == '\\' && charAt(pos + 1) == 'u') {
@@ -1000,7 +1017,7 @@ public class Lexer extends Scanner {
         // Scan identifier.
         final int length = scanIdentifier();
         // Check to see if it is a keyword.
-        final TokenType type = TokenLookup.lookupKeyword(content, start, length);
+        final TokenType type = TokenLookup.lookupKeyword(content, start - contentStart, length);
         if (type == FUNCTION && pauseOnFunctionBody) {
             pauseOnNextLeftBrace = true;
         }
@@ -1667,7 +1684,7 @@ public class Lexer extends Scanner {
     private boolean identifierEqual(final int aStart, final int aLength, final int bStart, final int bLength) {
         if (aLength == bLength) {
             for (int i = 0; i < aLength; i++) {
-                if (content[aStart + i] != content[bStart + i]) {
+                if (content[aStart - contentStart + i] != content[bStart - contentStart + i]) {
                     return false;
                 }
             }
@@ -1925,12 +1942,12 @@ public class Lexer extends Scanner {
             // Remove last end of line if specified.
             if (excludeLastEOL) {
                 // Handles \n.
-                if (content[stringEnd - 1] == '\n') {
+                if (charAt(stringEnd - 1) == '\n') {
                     stringEnd--;
                 }
 
                 // Handles \r and \r\n.
-                if (content[stringEnd - 1] == '\r') {
+                if (charAt(stringEnd - 1) == '\r') {
                     stringEnd--;
                 }
 
@@ -107,9 +107,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import com.oracle.js.parser.ir.AccessNode;
@@ -266,6 +268,12 @@ public class Parser extends AbstractParser {
 
     private RecompilableScriptFunctionData reparsedFunction;
 
+    /** Skip the bodies of function declarations and expressions, see {@link #preParseFunctionBody}. */
+    private boolean deferFunctionBodies;
+
+    /** Position of the function reparsed by {@link #parseFunction}, whose body must not be skipped. */
+    private int parseFunctionStart = -1;
+
     private boolean isModule;
 
     public static final boolean PROFILE_PARSING = Options.getBooleanProperty("parser.profiling", false);
@@ -351,6 +359,19 @@ public class Parser extends AbstractParser {
         this.reparsedFunction = reparsedFunction;
     }
 
+    /**
+     * Enables skipping the bodies of plain function declarations and expressions. Such bodies are
+     * only pre-parsed: they are checked for early errors and their free variables are recorded, but
+     * no AST is built for them. The resulting functions are marked with
+     * {@link FunctionNode#HAS_DEFERRED_BODY} and have an empty body, which the consumer of the AST
+     * has to recreate using {@link #parseFunction(int, int, int, boolean)} before it is used.
+     *
+     * @param deferFunctionBodies whether function bodies may be deferred
+     */
+    public void setDeferFunctionBodies(final boolean deferFunctionBodies) {
+        this.deferFunctionBodies = deferFunctionBodies;
+    }
+
     /**
      * Set up first token. Skips opening EOL.
      */
@@ -482,6 +503,64 @@ public class Parser extends AbstractParser {
         }
     }
 
+    /**
+     * Reparse a single function declaration or expression whose body has been deferred (see
+     * {@link #setDeferFunctionBodies(boolean)}). Parsing starts at the original position of the
+     * function in the source, so token positions and line numbers match the initial parse.
+     *
+     * @param startPos start position of the function in the source
+     * @param len length of the function source
+     * @param functionLine line number of the function
+     * @param strict whether the function is strict mode code
+     * @return function node resulting from successful parse
+     */
+    public FunctionNode parseFunction(final int startPos, final int len, final int functionLine, final boolean strict) {
+        final boolean oldStrictMode = isStrictMode;
+        try {
+            isStrictMode = strict;
+            parseFunctionStart = startPos;
+            stream = new TokenStream();
+            lexer = new Lexer(source, startPos, len, stream, scripting, env.ecmaScriptVersion, false, isModule, false, allowBigInt);
+            int lineStart = startPos;
+            final CharSequence content = source.getContent();
+            while (lineStart > 0 && !Lexer.isJSEOL(content.charAt(lineStart - 1))) {
+                lineStart--;
+            }
+            lexer.restoreState(new Lexer.State(startPos, startPos + len, functionLine, -1, lineStart, EOL));
+            line = functionLine;
+            linePosition = lineStart;
+
+            scanFirstToken();
+
+            // Parse the function in the context of an empty script.
+            final long scriptToken = Token.toDesc(FUNCTION, startPos, len);
+            final IdentNode ident = new IdentNode(scriptToken, startPos, PROGRAM_NAME);
+            final ParserContextFunctionNode script = createParserContextFunctionNode(ident, scriptToken, FunctionNode.IS_SCRIPT, functionLine, Collections.<IdentNode> emptyList(), 0);
+            lc.push(script);
+            final ParserContextBlockNode body = newBlock(Scope.createGlobal());
+            script.setBodyBlock(body);
+            functionDeclarations = new ArrayList<>();
+            final Expression function;
+            try {
+                function = type == ASYNC ? asyncFunctionExpression(false, false) : functionExpression(false, false);
+            } finally {
+                functionDeclarations = null;
+                restoreBlock(body);
+                lc.pop(script);
+            }
+
+            expect(EOF);
+
+            return (FunctionNode) function;
+        } catch (final Exception e) {
+            handleParseException(e);
+            return null;
+        } finally {
+            isStrictMode = oldStrictMode;
+            parseFunctionStart = -1;
+        }
+    }
+
     /**
      * Execute parse and return the resulting function node. Errors will be thrown and the error
      * manager will contain information if parsing should fail. This method is used to check if code
@@ -679,6 +758,7 @@ public class Parser extends AbstractParser {
                         body,
                         function.getEndParserState(),
                         function.getModule());
+        functionNode.setFreeVariables(function.getFreeVariables());
 
         return functionNode;
     }
@@ -4424,6 +4504,8 @@ public class Parser extends AbstractParser {
         final int functionLine = line;
         // FUNCTION is tested in caller.
         assert type == FUNCTION;
+        // Parenthesized function expressions are usually invoked immediately, do not defer them.
+        final boolean parenthesized = !async && Token.descType(previousToken) == LPAREN;
         next();
 
         boolean generator = false;
@@ -4434,6 +4516,7 @@ public class Parser extends AbstractParser {
             generator = true;
             next();
         }
+        final boolean deferBody = deferFunctionBodies && !parenthesized && !async && !generator && canDeferFunctionBody(functionToken);
 
         IdentNode name = null;
 
@@ -4483,7 +4566,7 @@ public class Parser extends AbstractParser {
                 lc.push(parameterBlock);
             }
             try {
-                functionBody = functionBody(functionNode);
+                functionBody = functionBody(functionNode, deferBody && functionNode.isSimpleParameterList(), isStatement || isAnonymous ? null : name.getName());
             } finally {
                 if (parameterBlock != null) {
                     lc.pop(parameterBlock);
@@ -4794,6 +4877,17 @@ public class Parser extends AbstractParser {
      * @return function node (body.)
      */
     private Block functionBody(final ParserContextFunctionNode functionNode) {
+        return functionBody(functionNode, false, null);
+    }
+
+    /**
+     * Parse function body, or only pre-parse it if {@code deferBody} is set.
+     *
+     * @param deferBody whether to try to skip the body, see {@link #preParseFunctionBody}
+     * @param selfName name of a named function expression, visible in its body
+     * @return function node (body.)
+     */
+    private Block functionBody(final ParserContextFunctionNode functionNode, final boolean deferBody, final String selfName) {
         final long bodyToken = token;
         final int bodyFinish;
         final boolean parseBody;
@@ -4831,7 +4925,9 @@ public class Parser extends AbstractParser {
                 bodyFinish = finish;
             } else {
                 expectDontAdvance(LBRACE);
-                if (parseBody || !skipFunctionBody(functionNode)) {
+                if (deferBody && preParseFunctionBody(functionNode, selfName)) {
+                    assert type == RBRACE;
+                } else if (parseBody || !skipFunctionBody(functionNode)) {
                     next();
                     // Gather the function elements.
                     final List<Statement> prevFunctionDecls = functionDeclarations;
@@ -4979,6 +5075,1324 @@ public class Parser extends AbstractParser {
         }
     }
 
+    /**
+     * Can the body of a function starting at {@code functionToken} be skipped (pre-parsed)?
+     * Syntax extensions, modules and legacy modes are always parsed completely. The function that
+     * is being reparsed by {@link #parseFunction} itself must not be skipped again.
+     */
+    private boolean canDeferFunctionBody(final long functionToken) {
+        return !isModule && reparsedFunction == null && isES6() && !env.syntaxExtensions && !env.constAsVar && Token.descPosition(functionToken) != parseFunctionStart;
+    }
+
+    /**
+     * Try to pre-parse the body of a plain function instead of parsing it. The pre-parser checks
+     * the body for early errors and collects the names the body refers to from enclosing scopes
+     * (see {@link ParserContextFunctionNode#getFreeVariables()}), but does not build an AST. It
+     * only supports a subset of the language; if it encounters anything it does not support (or
+     * a syntax error), the parser is reset to the start of the body, which is then parsed
+     * completely (so that any errors are reported as usual).
+     *
+     * @param functionNode the function whose body starts at the current (LBRACE) token
+     * @param selfName name of a named function expression, visible in its body
+     * @return true if the body was skipped and the parser is positioned at its RBRACE token
+     */
+    private boolean preParseFunctionBody(final ParserContextFunctionNode functionNode, final String selfName) {
+        assert type == LBRACE;
+        final long bodyToken = token;
+        final long savedPreviousToken = previousToken;
+        final TokenType savedLast = last;
+        final int savedFinish = finish;
+        final int savedLine = line;
+        final int savedLinePosition = linePosition;
+        final boolean savedPauseOnRightBrace = lexer.pauseOnRightBrace;
+        final boolean wasStrict = functionNode.isStrict();
+        final boolean oldStrictMode = isStrictMode;
+        try {
+            final String[] freeVariables = new PreParser(functionNode).functionBody(selfName);
+            functionNode.setFlag(FunctionNode.HAS_DEFERRED_BODY);
+            functionNode.setFreeVariables(freeVariables);
+            return true;
+        } catch (PreParseBailout | ParserException e) {
+            // Rewind to the LBRACE token and parse the body completely.
+            stream.reset();
+            lexer.restoreState(new Lexer.State(Token.descPosition(bodyToken), Integer.MAX_VALUE, savedLine, -1, savedLinePosition, SEMICOLON));
+            lexer.pauseOnRightBrace = savedPauseOnRightBrace;
+            line = savedLine;
+            linePosition = savedLinePosition;
+            type = SEMICOLON;
+            scanFirstToken();
+            assert token == bodyToken;
+            previousToken = savedPreviousToken;
+            last = savedLast;
+            finish = savedFinish;
+            if (!wasStrict) {
+                functionNode.clearFlag(FunctionNode.IS_STRICT);
+            }
+            return false;
+        } finally {
+            isStrictMode = oldStrictMode;
+        }
+    }
+
+    /**
+     * Thrown by the {@link PreParser} if it cannot handle the function body.
+     */
+    @SuppressWarnings("serial")
+    private static final class PreParseBailout extends RuntimeException {
+        static final PreParseBailout INSTANCE = new PreParseBailout();
+
+        private PreParseBailout() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Declarations and unresolved references of a block or function scope seen by the
+     * {@link PreParser}.
+     */
+    private static final class PreParseScope {
+        final PreParseScope parent;
+        /** Parameter names of a function scope, {@code null} for a block scope. */
+        final List<String> parameters;
+        /** Name of a named function expression, visible in its body. */
+        final String functionName;
+        private Set<String> lexicalNames;
+        private Set<String> varNames;
+        private Set<String> references;
+
+        PreParseScope(final PreParseScope parent, final List<String> parameters, final String functionName) {
+            this.parent = parent;
+            this.parameters = parameters;
+            this.functionName = functionName;
+        }
+
+        boolean isFunctionScope() {
+            return parameters != null;
+        }
+
+        boolean hasLexicalName(final String name) {
+            return lexicalNames != null && lexicalNames.contains(name);
+        }
+
+        boolean hasVarName(final String name) {
+            return varNames != null && varNames.contains(name);
+        }
+
+        void addLexicalName(final String name) {
+            if (lexicalNames == null) {
+                lexicalNames = new HashSet<>();
+            }
+            lexicalNames.add(name);
+        }
+
+        void addVarName(final String name) {
+            if (varNames == null) {
+                varNames = new HashSet<>();
+            }
+            varNames.add(name);
+        }
+
+        void addReference(final String name) {
+            if (references == null) {
+                references = new LinkedHashSet<>();
+            }
+            references.add(name);
+        }
+
+        Set<String> getReferences() {
+            return references == null ? Collections.<String> emptySet() : references;
+        }
+
+        boolean declares(final String name) {
+            if (hasLexicalName(name)) {
+                return true;
+            }
+            return isFunctionScope() && (hasVarName(name) || parameters.contains(name) || name.equals(functionName));
+        }
+    }
+
+    /**
+     * Pre-parser for function bodies, see {@link #preParseFunctionBody}. Follows the grammar of
+     * the full parser for the supported subset of the language, using the same token stream and
+     * lexer, and bails out (by throwing {@link PreParseBailout}) on everything else. It must
+     * never accept a body that the full parser would reject.
+     */
+    private final class PreParser {
+        /** Expression kinds, needed for directives, assignment targets and arrow functions. */
+        private static final int OTHER = 0;
+        private static final int IDENTIFIER = 1;
+        private static final int ARGUMENTS = 2;
+        private static final int MEMBER = 3;
+        private static final int STRING_LITERAL = 4;
+        private static final int ARROW_PARAMETERS = 5;
+
+        /** Statement contexts. */
+        private static final int FUNCTION_BODY = 0;
+        private static final int STATEMENT_LIST = 1;
+        private static final int SUB_STATEMENT = 2;
+
+        /** Variable declaration list properties. */
+        private static final int MULTIPLE = 1;
+        private static final int HAS_INITIALIZER = 1 << 1;
+        private static final int NEEDS_INITIALIZER = 1 << 2;
+
+        private final ParserContextFunctionNode function;
+        private final Set<String> freeVariables = new LinkedHashSet<>();
+        private PreParseScope scope;
+        private int breakableDepth;
+        private int loopDepth;
+        /** Parameter names of the arrow function whose ARROW token is the current token. */
+        private List<String> arrowParameters;
+
+        PreParser(final ParserContextFunctionNode function) {
+            this.function = function;
+        }
+
+        /**
+         * Pre-parse the body of the function, from its LBRACE token up to (but not including)
+         * its RBRACE token.
+         *
+         * @return the free variables of the function
+         */
+        String[] functionBody(final String selfName) {
+            final List<String> parameters = new ArrayList<>();
+            for (final IdentNode parameter : function.getParameters()) {
+                parameters.add(parameter.getName());
+            }
+            next();
+            pushScope(parameters, selfName);
+            functionStatements(true);
+            popScope();
+            assert type == RBRACE && scope == null;
+            return freeVariables.toArray(new String[freeVariables.size()]);
+        }
+
+        private void functionStatements(final boolean root) {
+            boolean directivePrologue = true;
+            List<Long> directives = null;
+            while (type != RBRACE) {
+                final long statementToken = token;
+                final int kind = statement(FUNCTION_BODY);
+                if (directivePrologue) {
+                    directivePrologue = kind == STRING_LITERAL;
+                    if (directivePrologue) {
+                        if (Token.descType(statementToken) == STRING && "use strict".equals(source.getString(Token.descPosition(statementToken), Token.descLength(statementToken)))) {
+                            if (!isStrictMode) {
+                                if (!root) {
+                                    throw PreParseBailout.INSTANCE;
+                                }
+                                useStrict(directives);
+                            }
+                        } else {
+                            if (directives == null) {
+                                directives = new ArrayList<>();
+                            }
+                            directives.add(statementToken);
+                        }
+                    }
+                }
+                stream.commit(k);
+            }
+        }
+
+        private void useStrict(final List<Long> directives) {
+            function.setFlag(FunctionNode.IS_STRICT);
+            isStrictMode = true;
+            if (directives != null) {
+                for (final long directive : directives) {
+                    lexer.getValueOf(directive, true);
+                }
+            }
+            verifyStrictIdent(function.getIdent(), "function name");
+            for (final IdentNode parameter : function.getParameters()) {
+                verifyStrictIdent(parameter, FUNCTION_PARAMETER_CONTEXT);
+            }
+        }
+
+        private int statement(final int context) {
+            switch (type) {
+                case LBRACE:
+                    block();
+                    break;
+                case VAR:
+                    next();
+                    variableDeclarations(VAR, true);
+                    endOfLine();
+                    break;
+                case LET:
+                    if (context == SUB_STATEMENT) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    final TokenType letLookahead = lookaheadOfLetDeclaration(false);
+                    if (letLookahead != IDENT && letLookahead != LBRACKET && letLookahead != LBRACE) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    next();
+                    variableDeclarations(LET, true);
+                    endOfLine();
+                    break;
+                case CONST:
+                    if (context == SUB_STATEMENT) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    next();
+                    variableDeclarations(CONST, true);
+                    endOfLine();
+                    break;
+                case SEMICOLON:
+                    next();
+                    break;
+                case IF:
+                    next();
+                    parenthesizedExpression();
+                    statement(SUB_STATEMENT);
+                    if (type == ELSE) {
+                        next();
+                        statement(SUB_STATEMENT);
+                    }
+                    break;
+                case FOR:
+                    forStatement();
+                    break;
+                case WHILE:
+                    next();
+                    parenthesizedExpression();
+                    loopBody();
+                    break;
+                case DO:
+                    next();
+                    loopBody();
+                    expect(WHILE);
+                    parenthesizedExpression();
+                    if (type == SEMICOLON) {
+                        endOfLine();
+                    }
+                    break;
+                case CONTINUE:
+                case BREAK: {
+                    final int depth = type == TokenType.BREAK ? breakableDepth : loopDepth;
+                    nextOrEOL();
+                    if (type != RBRACE && type != SEMICOLON && type != EOL && type != EOF) {
+                        // label
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    if (depth == 0) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    endOfLine();
+                    break;
+                }
+                case RETURN:
+                    nextOrEOL();
+                    if (type != RBRACE && type != SEMICOLON && type != EOL && type != EOF) {
+                        expression(true);
+                    }
+                    endOfLine();
+                    break;
+                case THROW:
+                    nextOrEOL();
+                    if (type == RBRACE || type == SEMICOLON || type == EOL) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    expression(true);
+                    endOfLine();
+                    break;
+                case SWITCH:
+                    switchStatement();
+                    break;
+                case TRY:
+                    tryStatement();
+                    break;
+                case DEBUGGER:
+                    next();
+                    endOfLine();
+                    break;
+                case FUNCTION:
+                    if (context != FUNCTION_BODY) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    functionDeclaration();
+                    break;
+                default:
+                    if (isIdentifierToken(type) && lookahead() == COLON) {
+                        // label
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    final int kind = expression(true);
+                    endOfLine();
+                    return kind;
+            }
+            return OTHER;
+        }
+
+        private void block() {
+            next();
+            pushScope(null, null);
+            while (type != RBRACE) {
+                statement(STATEMENT_LIST);
+            }
+            next();
+            popScope();
+        }
+
+        private void loopBody() {
+            breakableDepth++;
+            loopDepth++;
+            statement(SUB_STATEMENT);
+            breakableDepth--;
+            loopDepth--;
+        }
+
+        private void parenthesizedExpression() {
+            expect(LPAREN);
+            expression(true);
+            expect(RPAREN);
+        }
+
+        private void forStatement() {
+            next();
+            expect(LPAREN);
+            boolean lexicalScope = false;
+            int declarations = -1;
+            int kind = OTHER;
+            if (type == VAR || type == CONST || (type == LET && isLetDeclarationStart(lookaheadOfLetDeclaration(true)))) {
+                final TokenType varType = type;
+                if (varType != VAR) {
+                    lexicalScope = true;
+                    pushScope(null, null);
+                }
+                next();
+                declarations = variableDeclarations(varType, false);
+            } else if (type != SEMICOLON) {
+                kind = expression(false);
+            }
+
+            if (type == SEMICOLON) {
+                if (declarations != -1 && (declarations & NEEDS_INITIALIZER) != 0) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                next();
+                if (type != SEMICOLON) {
+                    expression(true);
+                }
+                expect(SEMICOLON);
+                if (type != RPAREN) {
+                    expression(true);
+                }
+            } else if ((type == OF && ES6_FOR_OF) || type == TokenType.IN) {
+                final boolean forOf = type == OF;
+                if (declarations != -1) {
+                    if ((declarations & (MULTIPLE | HAS_INITIALIZER)) != 0) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                } else if (kind != IDENTIFIER && kind != MEMBER) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                next();
+                if (forOf) {
+                    assignment(true);
+                } else {
+                    expression(true);
+                }
+            } else {
+                throw PreParseBailout.INSTANCE;
+            }
+            expect(RPAREN);
+            loopBody();
+            if (lexicalScope) {
+                popScope();
+            }
+        }
+
+        private void switchStatement() {
+            next();
+            parenthesizedExpression();
+            expect(LBRACE);
+            pushScope(null, null);
+            breakableDepth++;
+            boolean defaultSeen = false;
+            while (type != RBRACE) {
+                if (type == CASE) {
+                    next();
+                    expression(true);
+                } else if (type == TokenType.DEFAULT && !defaultSeen) {
+                    defaultSeen = true;
+                    next();
+                } else {
+                    throw PreParseBailout.INSTANCE;
+                }
+                expect(COLON);
+                while (type != RBRACE && type != CASE && type != TokenType.DEFAULT) {
+                    statement(STATEMENT_LIST);
+                }
+            }
+            next();
+            breakableDepth--;
+            popScope();
+        }
+
+        private void tryStatement() {
+            next();
+            if (type != LBRACE) {
+                throw PreParseBailout.INSTANCE;
+            }
+            block();
+            final boolean hasCatch = type == CATCH;
+            if (hasCatch) {
+                next();
+                pushScope(null, null);
+                if (!(type == LBRACE && ES2019_OPTIONAL_CATCH_BINDING)) {
+                    expect(LPAREN);
+                    declareLexical(bindingIdentifier());
+                    expect(RPAREN);
+                }
+                expect(LBRACE);
+                while (type != RBRACE) {
+                    statement(STATEMENT_LIST);
+                }
+                next();
+                popScope();
+                if (type == CATCH) {
+                    throw PreParseBailout.INSTANCE;
+                }
+            }
+            if (type == FINALLY) {
+                next();
+                if (type != LBRACE) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                block();
+            } else if (!hasCatch) {
+                throw PreParseBailout.INSTANCE;
+            }
+        }
+
+        private void functionDeclaration() {
+            next();
+            if (type == MUL) {
+                throw PreParseBailout.INSTANCE;
+            }
+            final String name = bindingIdentifier();
+            if (scope.hasLexicalName(name)) {
+                throw PreParseBailout.INSTANCE;
+            }
+            scope.addVarName(name);
+            functionRest(null);
+        }
+
+        /**
+         * Parse the declarations of a variable statement or a for statement head.
+         *
+         * @return a combination of {@link #MULTIPLE}, {@link #HAS_INITIALIZER} and
+         *         {@link #NEEDS_INITIALIZER}
+         */
+        private int variableDeclarations(final TokenType varType, final boolean in) {
+            int declarations = 0;
+            while (true) {
+                final boolean pattern = type == LBRACKET || type == LBRACE;
+                binding(varType);
+                if (type == ASSIGN) {
+                    next();
+                    assignment(in);
+                    declarations |= HAS_INITIALIZER;
+                } else if (pattern || varType == CONST) {
+                    declarations |= NEEDS_INITIALIZER;
+                }
+                if (type != COMMARIGHT) {
+                    break;
+                }
+                next();
+                declarations |= MULTIPLE;
+            }
+            if (in && (declarations & NEEDS_INITIALIZER) != 0) {
+                throw PreParseBailout.INSTANCE;
+            }
+            return declarations;
+        }
+
+        private void binding(final TokenType varType) {
+            if (type == LBRACKET) {
+                arrayBindingPattern(varType);
+            } else if (type == LBRACE) {
+                objectBindingPattern(varType);
+            } else {
+                declare(varType, bindingIdentifier());
+            }
+        }
+
+        private void bindingElement(final TokenType varType) {
+            binding(varType);
+            if (type == ASSIGN) {
+                next();
+                assignment(true);
+            }
+        }
+
+        private void arrayBindingPattern(final TokenType varType) {
+            next();
+            boolean elision = true;
+            while (type != RBRACKET) {
+                if (type == COMMARIGHT) {
+                    next();
+                    elision = true;
+                    continue;
+                }
+                if (!elision) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                if (type == ELLIPSIS) {
+                    next();
+                    binding(varType);
+                    if (type != RBRACKET) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                } else {
+                    bindingElement(varType);
+                }
+                elision = false;
+            }
+            next();
+        }
+
+        private void objectBindingPattern(final TokenType varType) {
+            next();
+            boolean commaSeen = true;
+            while (type != RBRACE) {
+                if (type == COMMARIGHT) {
+                    if (commaSeen) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    next();
+                    commaSeen = true;
+                    continue;
+                }
+                if (!commaSeen || type == ELLIPSIS) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                commaSeen = false;
+                final boolean identifier = isIdentifierToken(type);
+                final String key = propertyName();
+                if (type == COLON) {
+                    next();
+                    bindingElement(varType);
+                } else if (identifier) {
+                    declare(varType, checkBindingIdentifier(key));
+                    if (type == ASSIGN) {
+                        next();
+                        assignment(true);
+                    }
+                } else {
+                    throw PreParseBailout.INSTANCE;
+                }
+            }
+            next();
+        }
+
+        private void declare(final TokenType varType, final String name) {
+            if (varType == VAR) {
+                declareVar(name);
+            } else {
+                declareLexical(name);
+            }
+        }
+
+        private void declareVar(final String name) {
+            for (PreParseScope s = scope;; s = s.parent) {
+                if (s.hasLexicalName(name)) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                s.addVarName(name);
+                if (s.isFunctionScope()) {
+                    return;
+                }
+            }
+        }
+
+        private void declareLexical(final String name) {
+            if (scope.hasLexicalName(name) || scope.hasVarName(name) || (scope.isFunctionScope() && scope.parameters.contains(name))) {
+                throw PreParseBailout.INSTANCE;
+            }
+            scope.addLexicalName(name);
+        }
+
+        private void reference(final String name) {
+            scope.addReference(name);
+        }
+
+        private void pushScope(final List<String> parameters, final String functionName) {
+            scope = new PreParseScope(scope, parameters, functionName);
+        }
+
+        private void popScope() {
+            final PreParseScope inner = scope;
+            scope = inner.parent;
+            for (final String name : inner.getReferences()) {
+                if (!inner.declares(name)) {
+                    if (scope == null) {
+                        freeVariables.add(name);
+                    } else {
+                        scope.addReference(name);
+                    }
+                }
+            }
+        }
+
+        private int expression(final boolean in) {
+            int kind = assignment(in);
+            while (type == COMMARIGHT) {
+                next();
+                assignment(in);
+                kind = OTHER;
+            }
+            return kind;
+        }
+
+        private int assignment(final boolean in) {
+            final int kind = conditional(in);
+            if (type == ARROW) {
+                if (kind != ARROW_PARAMETERS || !ES6_ARROW_FUNCTION) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                final List<String> parameters = arrowParameters;
+                arrowParameters = null;
+                next();
+                arrowBody(parameters, in);
+                return OTHER;
+            } else if (type.isAssignment()) {
+                if (kind != IDENTIFIER && kind != MEMBER) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                next();
+                assignment(in);
+                return OTHER;
+            }
+            return kind;
+        }
+
+        private void arrowBody(final List<String> parameters, final boolean in) {
+            if (type == LBRACE) {
+                functionBody(parameters, null);
+            } else {
+                pushScope(parameters, null);
+                assignment(in);
+                popScope();
+            }
+        }
+
+        private int conditional(final boolean in) {
+            return binary(unary(), TERNARY.getPrecedence(), in);
+        }
+
+        private int binary(final int lhsKind, final int minPrecedence, final boolean in) {
+            int kind = lhsKind;
+            int precedence = type.getPrecedence();
+            while (checkOperator(in) && precedence >= minPrecedence) {
+                if (type == TokenType.NULLISHCOALESC) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                if (type == TERNARY) {
+                    next();
+                    assignment(true);
+                    expect(COLON);
+                    assignment(in);
+                } else {
+                    next();
+                    int rhsKind = unary();
+                    int nextPrecedence = type.getPrecedence();
+                    while (checkOperator(in) && (nextPrecedence > precedence || (nextPrecedence == precedence && !type.isLeftAssociative()))) {
+                        rhsKind = binary(rhsKind, nextPrecedence, in);
+                        nextPrecedence = type.getPrecedence();
+                    }
+                }
+                kind = OTHER;
+                precedence = type.getPrecedence();
+            }
+            return kind;
+        }
+
+        private int unary() {
+            switch (type) {
+                case DELETE: {
+                    next();
+                    final int kind = unary();
+                    if (type == TokenType.EXP || (isStrictMode && (kind == IDENTIFIER || kind == ARGUMENTS))) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    return OTHER;
+                }
+                case VOID:
+                case TYPEOF:
+                case ADD:
+                case SUB:
+                case BIT_NOT:
+                case NOT:
+                    next();
+                    unary();
+                    if (type == TokenType.EXP) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    return OTHER;
+                case INCPREFIX:
+                case DECPREFIX: {
+                    next();
+                    final int kind = unary();
+                    if (kind != IDENTIFIER && kind != MEMBER) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    return OTHER;
+                }
+                default:
+                    break;
+            }
+            final int kind = leftHandSide();
+            if (last != EOL && (type == INCPREFIX || type == DECPREFIX)) {
+                if (kind != IDENTIFIER && kind != MEMBER) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                next();
+                return OTHER;
+            }
+            return kind;
+        }
+
+        private int leftHandSide() {
+            int kind = member();
+            while (true) {
+                switch (type) {
+                    case LPAREN:
+                        arguments();
+                        kind = OTHER;
+                        break;
+                    case LBRACKET:
+                    case PERIOD:
+                        memberAccess();
+                        kind = MEMBER;
+                        break;
+                    case TEMPLATE:
+                    case TEMPLATE_HEAD:
+                        template(true);
+                        kind = OTHER;
+                        break;
+                    default:
+                        return kind;
+                }
+            }
+        }
+
+        private int member() {
+            int kind;
+            switch (type) {
+                case NEW:
+                    next();
+                    if (type == PERIOD) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    member();
+                    if (type == LPAREN) {
+                        arguments();
+                    }
+                    kind = OTHER;
+                    break;
+                case FUNCTION: {
+                    next();
+                    if (type == MUL) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    final String name = type == LPAREN ? null : bindingIdentifier();
+                    functionRest(name);
+                    kind = OTHER;
+                    break;
+                }
+                default:
+                    kind = primary();
+                    break;
+            }
+            while (true) {
+                switch (type) {
+                    case LBRACKET:
+                    case PERIOD:
+                        memberAccess();
+                        kind = MEMBER;
+                        break;
+                    case TEMPLATE:
+                    case TEMPLATE_HEAD:
+                        template(true);
+                        kind = OTHER;
+                        break;
+                    default:
+                        return kind;
+                }
+            }
+        }
+
+        private void memberAccess() {
+            if (type == LBRACKET) {
+                next();
+                expression(true);
+                expect(RBRACKET);
+            } else {
+                next();
+                if (type == IDENT) {
+                    identifierName();
+                } else if (!isKeywordName(type)) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                next();
+            }
+        }
+
+        private void arguments() {
+            expect(LPAREN);
+            boolean first = true;
+            while (type != RPAREN) {
+                if (!first) {
+                    expect(COMMARIGHT);
+                    if (ES8_TRAILING_COMMA && isES2017() && type == RPAREN) {
+                        break;
+                    }
+                } else {
+                    first = false;
+                }
+                if (ES6_SPREAD_ARGUMENT && type == ELLIPSIS) {
+                    next();
+                }
+                assignment(true);
+            }
+            next();
+        }
+
+        private int primary() {
+            switch (type) {
+                case THIS:
+                    next();
+                    return OTHER;
+                case IDENT:
+                case GET:
+                case SET:
+                case FROM:
+                case AS:
+                case OF: {
+                    final String name = identifierName();
+                    if (EVAL_NAME.equals(name)) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    if (lookaheadIsArrow()) {
+                        arrowParameters = Collections.singletonList(checkBindingIdentifier(name));
+                        next();
+                        return ARROW_PARAMETERS;
+                    }
+                    next();
+                    if (ARGUMENTS_NAME.equals(name)) {
+                        return ARGUMENTS;
+                    }
+                    reference(name);
+                    return IDENTIFIER;
+                }
+                case NON_OCTAL_DECIMAL:
+                case OCTAL_LEGACY:
+                    if (isStrictMode) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    next();
+                    return OTHER;
+                case DECIMAL:
+                case HEXADECIMAL:
+                case OCTAL:
+                case BINARY_NUMBER:
+                case FLOATING:
+                case BIGINT:
+                case TRUE:
+                case FALSE:
+                case NULL:
+                    next();
+                    return OTHER;
+                case STRING:
+                    next();
+                    return STRING_LITERAL;
+                case ESCSTRING:
+                    lexer.getValueOf(token, isStrictMode);
+                    next();
+                    return STRING_LITERAL;
+                case LBRACKET:
+                    arrayLiteral();
+                    return OTHER;
+                case LBRACE:
+                    objectLiteral();
+                    return OTHER;
+                case LPAREN:
+                    return parenthesized();
+                case TEMPLATE:
+                case TEMPLATE_HEAD:
+                    template(false);
+                    return OTHER;
+                default:
+                    // In this context some operator tokens mark the start of a literal.
+                    if (lexer.scanLiteral(token, type, lineInfoReceiver)) {
+                        next();
+                        if (type != TokenType.REGEX) {
+                            throw PreParseBailout.INSTANCE;
+                        }
+                        validateLexerToken((Lexer.LexerToken) lexer.getValueOf(token, isStrictMode));
+                        next();
+                        return OTHER;
+                    }
+                    throw PreParseBailout.INSTANCE;
+            }
+        }
+
+        private int parenthesized() {
+            if (isArrowParameterList()) {
+                next();
+                final List<String> parameters = new ArrayList<>();
+                while (type != RPAREN) {
+                    final String name = bindingIdentifier();
+                    if (parameters.contains(name)) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    parameters.add(name);
+                    if (type == COMMARIGHT) {
+                        next();
+                    }
+                }
+                next();
+                arrowParameters = parameters;
+                return ARROW_PARAMETERS;
+            }
+            next();
+            final int kind = expression(true);
+            expect(RPAREN);
+            // a parenthesized string literal is not a directive
+            return kind == STRING_LITERAL ? OTHER : kind;
+        }
+
+        /**
+         * Is the current LPAREN token the start of a simple arrow parameter list, i.e.
+         * {@code ()} or {@code (a, b)} followed by {@code =>} on the same line?
+         */
+        private boolean isArrowParameterList() {
+            assert type == LPAREN;
+            int i = k;
+            boolean empty = true;
+            boolean afterName = false;
+            while (true) {
+                final TokenType t = T(++i);
+                if (t == EOL || t == COMMENT) {
+                    continue;
+                } else if (t == RPAREN && (empty || afterName)) {
+                    break;
+                } else if (afterName ? t != COMMARIGHT : !isIdentifierToken(t)) {
+                    return false;
+                }
+                empty = false;
+                afterName = !afterName;
+            }
+            // find ARROW, skipping over COMMENT
+            TokenType t;
+            do {
+                t = T(++i);
+            } while (t == COMMENT);
+            return t == ARROW;
+        }
+
+        private void template(final boolean tagged) {
+            final boolean previousPauseOnRightBrace = lexer.pauseOnRightBrace;
+            try {
+                lexer.pauseOnRightBrace = true;
+                final boolean hasSubstitutions = type == TEMPLATE_HEAD;
+                templateString(tagged);
+                if (hasSubstitutions) {
+                    TokenType lastLiteralType;
+                    do {
+                        expression(true);
+                        if (type != RBRACE) {
+                            throw PreParseBailout.INSTANCE;
+                        }
+                        lexer.scanTemplateSpan();
+                        next();
+                        assert type == TEMPLATE_MIDDLE || type == TEMPLATE_TAIL;
+                        lastLiteralType = type;
+                        templateString(tagged);
+                    } while (lastLiteralType == TEMPLATE_MIDDLE);
+                }
+            } finally {
+                lexer.pauseOnRightBrace = previousPauseOnRightBrace;
+            }
+        }
+
+        private void templateString(final boolean tagged) {
+            if (!tagged) {
+                // invalid escape sequences are only allowed in tagged templates
+                lexer.getValueOf(token, isStrictMode);
+            }
+            next();
+        }
+
+        private void arrayLiteral() {
+            next();
+            boolean elision = true;
+            while (type != RBRACKET) {
+                if (type == COMMARIGHT) {
+                    next();
+                    elision = true;
+                    continue;
+                }
+                if (!elision) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                if (type == ELLIPSIS && ES6_SPREAD_ARRAY) {
+                    next();
+                }
+                assignment(true);
+                elision = false;
+            }
+            next();
+        }
+
+        private void objectLiteral() {
+            next();
+            boolean commaSeen = true;
+            boolean protoSeen = false;
+            while (type != RBRACE) {
+                if (type == COMMARIGHT) {
+                    if (commaSeen) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    next();
+                    commaSeen = true;
+                    continue;
+                }
+                if (!commaSeen) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                commaSeen = false;
+                if (propertyDefinition()) {
+                    if (protoSeen) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    protoSeen = true;
+                }
+            }
+            next();
+        }
+
+        /**
+         * @return true if this is a {@code __proto__: value} property
+         */
+        private boolean propertyDefinition() {
+            switch (type) {
+                case ASYNC:
+                case MUL:
+                    throw PreParseBailout.INSTANCE;
+                case ELLIPSIS:
+                    if (!(ES8_REST_SPREAD_PROPERTY && isES2017())) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    next();
+                    assignment(true);
+                    return false;
+                case GET:
+                case SET: {
+                    final TokenType getOrSet = type;
+                    next();
+                    if (type != COLON && type != COMMARIGHT && type != RBRACE && type != ASSIGN && type != LPAREN) {
+                        propertyName();
+                        accessor(getOrSet == GET);
+                        return false;
+                    }
+                    return propertyValue(getOrSet.getName(), true, false);
+                }
+                default: {
+                    final boolean identifier = isIdentifierToken(type);
+                    final boolean computed = type == LBRACKET;
+                    final String key = propertyName();
+                    return propertyValue(key, identifier, computed);
+                }
+            }
+        }
+
+        private boolean propertyValue(final String key, final boolean identifier, final boolean computed) {
+            if (type == LPAREN) {
+                functionRest(null);
+                return false;
+            } else if (identifier && (type == COMMARIGHT || type == RBRACE)) {
+                if (EVAL_NAME.equals(key)) {
+                    throw PreParseBailout.INSTANCE;
+                } else if (!ARGUMENTS_NAME.equals(key)) {
+                    reference(key);
+                }
+                return false;
+            }
+            expect(COLON);
+            assignment(true);
+            return !computed && PROTO_NAME.equals(key);
+        }
+
+        private void accessor(final boolean getter) {
+            expect(LPAREN);
+            final List<String> parameters = getter ? Collections.<String> emptyList() : Collections.singletonList(bindingIdentifier());
+            expect(RPAREN);
+            functionBody(parameters, null);
+        }
+
+        /**
+         * @return the name of a literal property name, or {@code null} for a numeric or computed
+         *         property name
+         */
+        private String propertyName() {
+            final String name;
+            switch (type) {
+                case LBRACKET:
+                    if (!ES6_COMPUTED_PROPERTY_NAME) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    next();
+                    assignment(true);
+                    expect(RBRACKET);
+                    return null;
+                case IDENT:
+                    name = identifierName();
+                    break;
+                case NON_OCTAL_DECIMAL:
+                case OCTAL_LEGACY:
+                    if (isStrictMode) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    name = null;
+                    break;
+                case DECIMAL:
+                case HEXADECIMAL:
+                case OCTAL:
+                case BINARY_NUMBER:
+                case FLOATING:
+                    name = null;
+                    break;
+                case STRING:
+                    name = source.getString(Token.descPosition(token), Token.descLength(token));
+                    break;
+                case ESCSTRING:
+                    name = (String) lexer.getValueOf(token, isStrictMode);
+                    break;
+                default:
+                    if (!isKeywordName(type)) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    name = type.getName();
+                    break;
+            }
+            next();
+            return name;
+        }
+
+        private void functionRest(final String functionName) {
+            expect(LPAREN);
+            final List<String> parameters = new ArrayList<>();
+            boolean first = true;
+            while (type != RPAREN) {
+                if (!first) {
+                    expect(COMMARIGHT);
+                    if (ES8_TRAILING_COMMA && isES2017() && type == RPAREN) {
+                        break;
+                    }
+                } else {
+                    first = false;
+                }
+                final String name = bindingIdentifier();
+                if (parameters.contains(name)) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                parameters.add(name);
+            }
+            next();
+            functionBody(parameters, functionName);
+        }
+
+        private void functionBody(final List<String> parameters, final String functionName) {
+            if (type != LBRACE) {
+                throw PreParseBailout.INSTANCE;
+            }
+            next();
+            final int outerBreakableDepth = breakableDepth;
+            final int outerLoopDepth = loopDepth;
+            breakableDepth = 0;
+            loopDepth = 0;
+            pushScope(parameters, functionName);
+            functionStatements(false);
+            next();
+            popScope();
+            breakableDepth = outerBreakableDepth;
+            loopDepth = outerLoopDepth;
+        }
+
+        /**
+         * Get the name of the current identifier token, without advancing. Escaped identifiers
+         * are not supported.
+         */
+        private String identifierName() {
+            if (type == IDENT) {
+                final String name = (String) lexer.getValueOf(token, isStrictMode);
+                if (name.length() != Token.descLength(token)) {
+                    throw PreParseBailout.INSTANCE;
+                }
+                return name;
+            } else if (isIdentifierToken(type)) {
+                return type.getName();
+            }
+            throw PreParseBailout.INSTANCE;
+        }
+
+        private String bindingIdentifier() {
+            final String name = checkBindingIdentifier(identifierName());
+            next();
+            return name;
+        }
+
+        private String checkBindingIdentifier(final String name) {
+            if (EVAL_NAME.equals(name) || ARGUMENTS_NAME.equals(name)) {
+                throw PreParseBailout.INSTANCE;
+            }
+            return name;
+        }
+
+        private boolean isIdentifierToken(final TokenType t) {
+            return t == IDENT || t == GET || t == SET || t == FROM || t == AS || t == OF;
+        }
+
+        private boolean isKeywordName(final TokenType t) {
+            final String name = t.getName();
+            return name != null && !name.isEmpty() && Character.isJavaIdentifierStart(name.charAt(0));
+        }
+
+        private boolean isLetDeclarationStart(final TokenType t) {
+            return t == IDENT || t == LBRACKET || t == LBRACE;
+        }
+
+        private void endOfLine() {
+            switch (type) {
+                case SEMICOLON:
+                case EOL:
+                    next();
+                    break;
+                case RPAREN:
+                case RBRACKET:
+                case RBRACE:
+                case EOF:
+                    break;
+                default:
+                    if (last != EOL) {
+                        throw PreParseBailout.INSTANCE;
+                    }
+                    break;
+            }
+        }
+
+        private void expect(final TokenType expected) {
+            if (type != expected) {
+                throw PreParseBailout.INSTANCE;
+            }
+            next();
+        }
+    }
+
     private void addFunctionDeclarations(final ParserContextFunctionNode functionNode) {
         VarNode lastDecl = null;
         for (int i = functionDeclarations.size() - 1; i >= 0; i--) {
@@ -91,6 +91,9 @@ class ParserContextFunctionNode extends ParserContextBaseNode {
     /** Opaque node for parser end state, see {@link Parser} */
     private Object endParserState;
 
+    /** Free variables of the skipped body, see {@link FunctionNode#getFreeVariables()} */
+    private String[] freeVariables;
+
     private int length;
     private int parameterCount;
     private HashSet<String> parameterBoundNames;
@@ -237,6 +240,24 @@ class ParserContextFunctionNode extends ParserContextBaseNode {
         this.endParserState = endParserState;
     }
 
+    /**
+     * Returns the free variables of the body of this function if it has been skipped.
+     *
+     * @return free variables, or null if the body has been parsed
+     */
+    public String[] getFreeVariables() {
+        return freeVariables;
+    }
+
+    /**
+     * Sets the free variables of the body of this function if it has been skipped.
+     *
+     * @param freeVariables the names referenced but not declared in the body
+     */
+    public void setFreeVariables(final String[] freeVariables) {
+        this.freeVariables = freeVariables;
+    }
+
     /**
      * Returns the if of this function
      *
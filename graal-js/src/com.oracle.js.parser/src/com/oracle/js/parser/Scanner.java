@@ -48,6 +48,9 @@ public class Scanner {
     /** Characters to scan. */
     protected final char[] content;
 
+    /** Position of the first character of content. */
+    protected final int contentStart;
+
     /** Position in content. */
     protected int position;
 
@@ -75,7 +78,21 @@ public class Scanner {
      * @param length length of input
      */
     protected Scanner(final char[] content, final int line, final int start, final int length) {
+        this(content, 0, line, start, length);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param content content to scan, holding the characters from position {@code contentStart}
+     * @param contentStart position of the first character of content
+     * @param line start line number
+     * @param start position where to start
+     * @param length length of input
+     */
+    protected Scanner(final char[] content, final int contentStart, final int line, final int start, final int length) {
         this.content = content;
+        this.contentStart = contentStart;
         this.position = start;
         this.limit = start + length;
         this.line = line;
@@ -91,6 +108,7 @@ public class Scanner {
      */
     Scanner(final Scanner scanner, final State state) {
         content = scanner.content;
+        contentStart = scanner.contentStart;
         position = state.position;
         limit = state.limit;
         line = state.line;
@@ -173,7 +191,7 @@ public class Scanner {
      */
     protected final char charAt(final int i) {
         // Get a character from the content, '\0' if beyond the end of file.
-        return i < limit ? content[i] : '\0';
+        return i < limit ? content[i - contentStart] : '\0';
     }
 
     /**
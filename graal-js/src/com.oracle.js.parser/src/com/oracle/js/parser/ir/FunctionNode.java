@@ -98,6 +98,12 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
 
     private boolean usesAncestorScope;
 
+    /**
+     * Names referenced but not declared in the body of this function, if the body has been
+     * skipped by the parser (see {@link #HAS_DEFERRED_BODY}).
+     */
+    private String[] freeVariables;
+
     /** Is anonymous function flag. */
     public static final int IS_ANONYMOUS = 1 << 0;
 
@@ -231,6 +237,9 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
     /** Does this function contain a {@code fn.apply(_, arguments)} call? */
     public static final int HAS_APPLY_ARGUMENTS_CALL = 1 << 29;
 
+    /** Has the body of this function been skipped by the parser, to be parsed on demand? */
+    public static final int HAS_DEFERRED_BODY = 1 << 30;
+
     /**
      * Constructor
      *
@@ -306,6 +315,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
         this.length = functionNode.length;
         this.numOfParams = functionNode.numOfParams;
         this.module = functionNode.module;
+        this.freeVariables = functionNode.freeVariables;
     }
 
     @Override
@@ -722,6 +732,18 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
         return getFlag(HAS_APPLY_ARGUMENTS_CALL);
     }
 
+    public boolean hasDeferredBody() {
+        return getFlag(HAS_DEFERRED_BODY);
+    }
+
+    public String[] getFreeVariables() {
+        return freeVariables;
+    }
+
+    public void setFreeVariables(String[] freeVariables) {
+        this.freeVariables = freeVariables;
+    }
+
     public boolean hasArrowEval() {
         return getFlag(HAS_ARROW_EVAL);
     }
@@ -128,6 +128,7 @@ import com.oracle.truffle.js.nodes.array.JSSetLengthNode;
 import com.oracle.truffle.js.nodes.array.TestArrayNode;
 import com.oracle.truffle.js.nodes.binary.JSIdenticalNode;
 import com.oracle.truffle.js.nodes.cast.JSToBooleanNode;
+import com.oracle.truffle.js.nodes.cast.JSToDoubleNode;
 import com.oracle.truffle.js.nodes.cast.JSToIntegerNode;
 import com.oracle.truffle.js.nodes.cast.JSToIntegerSpecialNode;
 import com.oracle.truffle.js.nodes.cast.JSToObjectArrayNode;
@@ -2403,15 +2404,21 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
 
     public abstract static class JSArraySortNode extends JSArrayOperation {
 
+        /** Length of the runs that are sorted by insertion sort before merging. */
+        private static final int MERGE_SORT_RUN_LENGTH = 8;
+
         @Child private DeletePropertyNode deletePropertyNode; // DeletePropertyOrThrow
         private final BranchProfile arrayIsSparseBranch = BranchProfile.create();
         private final BranchProfile arrayHasHolesBranch = BranchProfile.create();
         private final BranchProfile arrayIsDefaultBranch = BranchProfile.create();
+        private final BranchProfile arrayIsPrimitiveBranch = BranchProfile.create();
         private final BranchProfile hasCompareFnBranch = BranchProfile.create();
         private final BranchProfile noCompareFnBranch = BranchProfile.create();
         private final BranchProfile growProfile = BranchProfile.create();
         @Child private InteropLibrary interopNode;
         @Child private JSForeignToJSTypeNode importValueNode;
+        @Child private JSFunctionCallNode compareCallNode;
+        @Child private JSToDoubleNode compareResultToDoubleNode;
 
         public JSArraySortNode(JSContext context, JSBuiltin builtin, boolean isTypedArrayImplementation) {
             super(context, builtin, isTypedArrayImplementation);
@@ -2424,6 +2431,9 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             checkCompareFunction(compare);
             Object[] array;
             ScriptArray scriptArray = classProfile.profile(arrayGetArrayType(thisObj));
+            if (compare == Undefined.instance && sortPrimitive(thisObj, scriptArray)) {
+                return thisObj;
+            }
             long len = getLength(thisObj);
 
             if (scriptArray instanceof SparseArray) {
@@ -2441,7 +2451,7 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
                 array = arrayToObjectArrayNode.executeObjectArray(thisObj);
             }
 
-            sortIntl(getComparator(thisObj, compare), array);
+            sortElements(thisObj, compare, array);
             for (int i = 0; i < array.length; i++) {
                 write(thisObj, i, array[i]);
             }
@@ -2461,6 +2471,47 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             return thisObj;
         }
 
+        /**
+         * Sorts int and double arrays in place on their backing array if there is no comparator.
+         * The elements of sealed or non-extensible arrays cannot always be moved, so these take
+         * the generic path.
+         */
+        private boolean sortPrimitive(DynamicObject thisObj, ScriptArray scriptArray) {
+            if (scriptArray.isHolesType() || scriptArray.isSealed() || !scriptArray.isExtensible()) {
+                return false;
+            }
+            if (scriptArray instanceof AbstractIntArray) {
+                arrayIsPrimitiveBranch.enter();
+                ((AbstractIntArray) scriptArray).sortDefault(thisObj);
+                return true;
+            } else if (scriptArray instanceof AbstractDoubleArray) {
+                arrayIsPrimitiveBranch.enter();
+                return ((AbstractDoubleArray) scriptArray).sortDefault(thisObj);
+            }
+            return false;
+        }
+
+        @Specialization(guards = {"isJSArrayBufferView(thisObj)", "isUndefined(compare)"})
+        protected DynamicObject sortTypedArray(DynamicObject thisObj, Object compare,
+                        @Cached("createClassProfile()") ValueProfile typedArrayProfile) {
+            if (!isTypedArrayImplementation) {
+                return sortJSObject(compare, thisObj);
+            }
+            if (JSArrayBufferView.hasDetachedBuffer(thisObj, getContext())) {
+                errorBranch.enter();
+                throw Errors.createTypeErrorDetachedBuffer();
+            }
+            TypedArray typedArray = typedArrayProfile.profile(JSArrayBufferView.typedArrayGetArrayType(thisObj));
+            if (typedArray instanceof TypedArray.TypedIntArray) {
+                ((TypedArray.TypedIntArray<?>) typedArray).sort(thisObj);
+            } else if (typedArray instanceof TypedArray.TypedFloatArray) {
+                ((TypedArray.TypedFloatArray<?>) typedArray).sort(thisObj);
+            } else {
+                return sortJSObject(compare, thisObj);
+            }
+            return thisObj;
+        }
+
         private void delete(TruffleObject obj, Object i) {
             if (deletePropertyNode == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -2491,8 +2542,7 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             Iterable<Object> keys = getKeys(thisJSObj);
             Object[] array = objectToArray(thisJSObj, len, keys);
 
-            Comparator<Object> comparator = getComparator(thisJSObj, comparefn);
-            sortIntl(comparator, array);
+            sortElements(thisJSObj, comparefn, array);
 
             for (int i = 0; i < array.length; i++) {
                 write(thisJSObj, i, array[i]);
@@ -2506,8 +2556,7 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             long len = getLength(thisObj);
             Object[] array = truffleobjectToArray(thisObj, len);
 
-            Comparator<Object> comparator = getComparator(thisObj, comparefn);
-            sortIntl(comparator, array);
+            sortElements(thisObj, comparefn, array);
 
             for (int i = 0; i < array.length; i++) {
                 write(thisObj, i, array[i]);
@@ -2522,14 +2571,14 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             }
         }
 
-        private Comparator<Object> getComparator(final TruffleObject thisObj, final Object compare) {
+        private void sortElements(final TruffleObject thisObj, final Object compare, Object[] array) {
             if (isCallable(compare)) {
                 hasCompareFnBranch.enter();
                 DynamicObject arrayBufferObj = isTypedArrayImplementation && JSArrayBufferView.isJSArrayBufferView(thisObj) ? JSArrayBufferView.getArrayBuffer((DynamicObject) thisObj) : null;
-                return new SortComparator(compare, arrayBufferObj);
+                mergeSort(array, compare, arrayBufferObj);
             } else {
                 noCompareFnBranch.enter();
-                return getDefaultComparator(thisObj);
+                sortIntl(getDefaultComparator(thisObj), array);
             }
         }
 
@@ -2599,42 +2648,88 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             }
         }
 
-        private class SortComparator implements Comparator<Object> {
-            private final Object compFnObj;
-            private final DynamicObject arrayBufferObj;
-            private final boolean isFunction;
+        /**
+         * Stable merge sort that calls the comparison function through a call node, so that it can
+         * be inlined into the sort loops. Undefined elements are moved to the end without calling
+         * the comparison function.
+         */
+        private void mergeSort(Object[] array, Object comparefn, DynamicObject arrayBufferObj) {
+            int length = 0;
+            for (int i = 0; i < array.length; i++) {
+                if (array[i] != Undefined.instance) {
+                    array[length++] = array[i];
+                }
+            }
+            for (int i = length; i < array.length; i++) {
+                array[i] = Undefined.instance;
+            }
 
-            SortComparator(Object compFnObj, DynamicObject arrayBufferObj) {
-                this.compFnObj = compFnObj;
-                this.arrayBufferObj = arrayBufferObj;
-                this.isFunction = JSFunction.isJSFunction(compFnObj);
+            for (int lo = 0; lo < length; lo += MERGE_SORT_RUN_LENGTH) {
+                insertionSort(array, lo, Math.min(lo + MERGE_SORT_RUN_LENGTH, length), comparefn, arrayBufferObj);
+            }
+            if (length <= MERGE_SORT_RUN_LENGTH) {
+                return;
+            }
+            Object[] src = array;
+            Object[] dst = new Object[length];
+            for (int width = MERGE_SORT_RUN_LENGTH; width < length; width *= 2) {
+                for (int lo = 0; lo < length; lo += 2 * width) {
+                    int mid = Math.min(lo + width, length);
+                    int hi = Math.min(lo + 2 * width, length);
+                    merge(src, dst, lo, mid, hi, comparefn, arrayBufferObj);
+                }
+                Object[] tmp = src;
+                src = dst;
+                dst = tmp;
             }
+            if (src != array) {
+                System.arraycopy(src, 0, array, 0, length);
+            }
+        }
 
-            @Override
-            public int compare(Object arg0, Object arg1) {
-                if (arg0 == Undefined.instance) {
-                    if (arg1 == Undefined.instance) {
-                        return 0;
-                    }
-                    return 1;
-                } else if (arg1 == Undefined.instance) {
-                    return -1;
+        private void insertionSort(Object[] array, int lo, int hi, Object comparefn, DynamicObject arrayBufferObj) {
+            for (int i = lo + 1; i < hi; i++) {
+                Object value = array[i];
+                int j = i;
+                while (j > lo && callCompare(comparefn, array[j - 1], value, arrayBufferObj) > 0) {
+                    array[j] = array[j - 1];
+                    j--;
                 }
-                Object retObj;
-                if (isFunction) {
-                    retObj = JSFunction.call((DynamicObject) compFnObj, Undefined.instance, new Object[]{arg0, arg1});
+                array[j] = value;
+            }
+        }
+
+        private void merge(Object[] src, Object[] dst, int lo, int mid, int hi, Object comparefn, DynamicObject arrayBufferObj) {
+            if (mid == hi || callCompare(comparefn, src[mid - 1], src[mid], arrayBufferObj) <= 0) {
+                System.arraycopy(src, lo, dst, lo, hi - lo);
+                return;
+            }
+            int left = lo;
+            int right = mid;
+            for (int i = lo; i < hi; i++) {
+                if (left < mid && (right == hi || callCompare(comparefn, src[left], src[right], arrayBufferObj) <= 0)) {
+                    dst[i] = src[left++];
                 } else {
-                    retObj = JSRuntime.call(compFnObj, Undefined.instance, new Object[]{arg0, arg1});
+                    dst[i] = src[right++];
                 }
-                double d = JSRuntime.toDouble(retObj);
-                if (isTypedArrayImplementation) {
-                    if (!getContext().getTypedArrayNotDetachedAssumption().isValid() && JSArrayBuffer.isDetachedBuffer(arrayBufferObj)) {
-                        errorBranch.enter();
-                        throw Errors.createTypeErrorDetachedBuffer();
-                    }
+            }
+        }
+
+        private int callCompare(Object comparefn, Object arg0, Object arg1, DynamicObject arrayBufferObj) {
+            if (compareCallNode == null || compareResultToDoubleNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                compareCallNode = insert(JSFunctionCallNode.createCall());
+                compareResultToDoubleNode = insert(JSToDoubleNode.create());
+            }
+            Object retObj = compareCallNode.executeCall(JSArguments.create(Undefined.instance, comparefn, arg0, arg1));
+            double d = compareResultToDoubleNode.executeDouble(retObj);
+            if (isTypedArrayImplementation) {
+                if (!getContext().getTypedArrayNotDetachedAssumption().isValid() && JSArrayBuffer.isDetachedBuffer(arrayBufferObj)) {
+                    errorBranch.enter();
+                    throw Errors.createTypeErrorDetachedBuffer();
                 }
-                return d == 0 ? 0 : (d < 0 ? -1 : 1);
             }
+            return d < 0 ? -1 : (d > 0 ? 1 : 0);
         }
 
         @TruffleBoundary
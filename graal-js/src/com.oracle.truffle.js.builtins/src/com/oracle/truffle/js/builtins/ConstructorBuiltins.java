@@ -48,7 +48,6 @@ import java.util.EnumSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.StringJoiner;
-import java.util.WeakHashMap;
 
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
@@ -2058,15 +2057,15 @@ public final class ConstructorBuiltins extends JSBuiltinsContainer.SwitchEnum<Co
         }
 
         @TruffleBoundary
-        protected static Map<DynamicObject, Object> constructWeakHashMap() {
-            return new WeakHashMap<>();
+        protected static Map<DynamicObject, Object> constructWeakSetMap() {
+            return new WeakMap();
         }
 
         @Override
         @Specialization
         protected DynamicObject constructSet(DynamicObject newTarget, Object iterable) {
             JSContext context = getContext();
-            DynamicObject setObj = JSObject.create(context, context.getWeakSetFactory(), constructWeakHashMap());
+            DynamicObject setObj = JSObject.create(context, context.getWeakSetFactory(), constructWeakSetMap());
             fillWithIterable(setObj, iterable);
             return swapPrototype(setObj, newTarget);
         }
@@ -100,6 +100,7 @@ import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSDate;
 import com.oracle.truffle.js.runtime.builtins.JSDateTimeFormat;
 import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.util.IntlObjectCache;
 
 /**
  * Contains builtins for {@linkplain JSDate}.prototype.
@@ -354,7 +355,20 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
             }
         }
 
-        protected DynamicObject createDateTimeFormat(InitializeDateTimeFormatNode initDateTimeFormatNode, Object locales, Object options) {
+        protected DynamicObject createDateTimeFormat(InitializeDateTimeFormatNode initDateTimeFormatNode, IntlObjectCache.Kind kind, Object locales, Object options) {
+            if (IntlObjectCache.isCacheable(locales, options)) {
+                IntlObjectCache cache = getContext().getRealm().getIntlObjectCache();
+                DynamicObject dateTimeFormatObj = cache.get(kind, locales);
+                if (dateTimeFormatObj == null) {
+                    dateTimeFormatObj = createDateTimeFormat(initDateTimeFormatNode, locales, options);
+                    cache.put(kind, locales, dateTimeFormatObj);
+                }
+                return dateTimeFormatObj;
+            }
+            return createDateTimeFormat(initDateTimeFormatNode, locales, options);
+        }
+
+        private DynamicObject createDateTimeFormat(InitializeDateTimeFormatNode initDateTimeFormatNode, Object locales, Object options) {
             DynamicObject dateTimeFormatObj = JSDateTimeFormat.create(getContext());
             initDateTimeFormatNode.executeInit(dateTimeFormatObj, locales, options);
             return dateTimeFormatObj;
@@ -420,7 +434,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
             if (isNaN.profile(Double.isNaN(t))) {
                 return JSDate.INVALID_DATE_STRING;
             }
-            DynamicObject formatter = createDateTimeFormat(initDateTimeFormatNode, locales, options);
+            DynamicObject formatter = createDateTimeFormat(initDateTimeFormatNode, IntlObjectCache.Kind.DATE_TIME_FORMAT_ANY, locales, options);
             return JSDateTimeFormat.format(getContext(), formatter, t);
         }
     }
@@ -488,7 +502,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
             if (isNaN.profile(Double.isNaN(t))) {
                 return JSDate.INVALID_DATE_STRING;
             }
-            DynamicObject formatter = createDateTimeFormat(initDateTimeFormatNode, locales, options);
+            DynamicObject formatter = createDateTimeFormat(initDateTimeFormatNode, IntlObjectCache.Kind.DATE_TIME_FORMAT_DATE, locales, options);
             return JSDateTimeFormat.format(getContext(), formatter, t);
         }
     }
@@ -524,7 +538,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
             if (isNaN.profile(Double.isNaN(t))) {
                 return JSDate.INVALID_DATE_STRING;
             }
-            DynamicObject formatter = createDateTimeFormat(initDateTimeFormatNode, locales, options);
+            DynamicObject formatter = createDateTimeFormat(initDateTimeFormatNode, IntlObjectCache.Kind.DATE_TIME_FORMAT_TIME, locales, options);
             return JSDateTimeFormat.format(getContext(), formatter, t);
         }
     }
@@ -983,7 +997,7 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
                 return iday;
             } else {
                 dstNeededProfile.enter();
-                timeInDay += JSDate.daylightSavingTA(realm.getLocalTimeZoneId(), t);
+                timeInDay += realm.getLocalDaylightSavingTA(t);
                 return (timeInDay < JSDate.MS_PER_DAY) ? iday : (iday + 1);
             }
         }
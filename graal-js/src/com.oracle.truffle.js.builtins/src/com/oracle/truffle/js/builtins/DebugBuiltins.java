@@ -72,6 +72,7 @@ import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugCreateLazyString
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugDumpCountersNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugDumpFunctionTreeNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugHeapDumpNodeGen;
+import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugInlineCacheStatisticsNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugInspectNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugIsHolesArrayNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugJSStackNodeGen;
@@ -79,6 +80,7 @@ import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugLoadModuleNodeGe
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugNeverPartOfCompilationNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugPrintObjectNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugPrintSourceAttributionNodeGen;
+import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugRegexCacheStatisticsNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugShapeNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugStringCompareNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugSystemGCNodeGen;
@@ -93,6 +95,7 @@ import com.oracle.truffle.js.nodes.ScriptNode;
 import com.oracle.truffle.js.nodes.cast.JSToObjectNode;
 import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
+import com.oracle.truffle.js.runtime.CompiledRegexCache;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.Evaluator;
 import com.oracle.truffle.js.runtime.JSContext;
@@ -118,6 +121,7 @@ import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.InlineCacheStatistics;
 import com.oracle.truffle.object.DynamicObjectImpl;
 
 /**
@@ -154,7 +158,9 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
         systemProperty(1),
         systemProperties(0),
         neverPartOfCompilation(0),
-        dumpHeap(2);
+        dumpHeap(2),
+        regexCacheStatistics(0),
+        inlineCacheStatistics(0);
 
         private final int length;
 
@@ -226,6 +232,10 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
 
             case dumpHeap:
                 return DebugHeapDumpNodeGen.create(context, builtin, args().fixedArgs(2).createArgumentNodes(context));
+            case regexCacheStatistics:
+                return DebugRegexCacheStatisticsNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case inlineCacheStatistics:
+                return DebugInlineCacheStatisticsNodeGen.create(context, builtin, args().createArgumentNodes(context));
         }
         return null;
     }
@@ -698,6 +708,51 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
         }
     }
 
+    public abstract static class DebugRegexCacheStatisticsNode extends JSBuiltinNode {
+
+        public DebugRegexCacheStatisticsNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object regexCacheStatistics() {
+            CompiledRegexCache cache = getContext().getCompiledRegexCache();
+            if (cache == null) {
+                return Undefined.instance;
+            }
+            DynamicObject result = JSUserObject.create(getContext());
+            JSObject.set(result, "size", cache.size());
+            JSObject.set(result, "maxSize", cache.getMaxSize());
+            JSObject.set(result, "hits", (double) cache.getHits());
+            JSObject.set(result, "misses", (double) cache.getMisses());
+            JSObject.set(result, "evictions", (double) cache.getEvictions());
+            return result;
+        }
+    }
+
+    /**
+     * Returns the per-site inline cache statistics of this context as a JSON string, see
+     * {@link InlineCacheStatistics}, or {@code undefined} if they are not recorded, i.e., without
+     * the {@code InlineCacheStatistics} option.
+     */
+    public abstract static class DebugInlineCacheStatisticsNode extends JSBuiltinNode {
+
+        public DebugInlineCacheStatisticsNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object inlineCacheStatistics() {
+            InlineCacheStatistics statistics = getContext().getInlineCacheStatistics();
+            if (statistics == null) {
+                return Undefined.instance;
+            }
+            return statistics.toJSON();
+        }
+    }
+
     public abstract static class DebugSystemProperty extends JSBuiltinNode {
 
         public DebugSystemProperty(JSContext context, JSBuiltin builtin) {
@@ -52,9 +52,14 @@ import java.io.PrintWriter;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.EnumSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.StringTokenizer;
 
 import javax.script.Bindings;
@@ -123,6 +128,7 @@ import com.oracle.truffle.js.runtime.JSConsoleUtil;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSErrorType;
 import com.oracle.truffle.js.runtime.JSException;
+import com.oracle.truffle.js.runtime.JSFrameUtil;
 import com.oracle.truffle.js.runtime.JSRealm;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.JSTruffleOptions;
@@ -142,6 +148,7 @@ import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.truffleinterop.JSInteropUtil;
+import com.oracle.truffle.regex.util.LRUCache;
 
 /**
  * Contains builtins for the global object.
@@ -1115,9 +1122,13 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
      * {@link EvalNode}.
      */
     public abstract static class JSGlobalIndirectEvalNode extends JSBuiltinNode {
+        /** Parsed sources, keyed by source name and code. */
+        private final LRUCache<CachedEvalKey, ScriptNode> evalCache;
 
         public JSGlobalIndirectEvalNode(JSContext context, JSBuiltin builtin) {
             super(context, builtin);
+            int evalCacheSize = context.getContextOptions().getEvalCacheSize();
+            this.evalCache = evalCacheSize > 0 ? new LRUCache<>(evalCacheSize) : null;
         }
 
         @Specialization
@@ -1149,7 +1160,45 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
             if (sourceName == null) {
                 sourceName = Evaluator.EVAL_SOURCE_NAME;
             }
-            return getContext().getEvaluator().evaluate(realm, this, Source.newBuilder(JavaScriptLanguage.ID, source, sourceName).build());
+            if (evalCache == null || !EvalNode.isCacheableEvalSource(source)) {
+                return getContext().getEvaluator().evaluate(realm, this, Source.newBuilder(JavaScriptLanguage.ID, source, sourceName).build());
+            }
+            CachedEvalKey key = new CachedEvalKey(source, sourceName);
+            ScriptNode scriptNode;
+            synchronized (evalCache) {
+                scriptNode = evalCache.get(key);
+            }
+            if (scriptNode == null) {
+                scriptNode = getContext().getEvaluator().parseEval(getContext(), this, Source.newBuilder(JavaScriptLanguage.ID, source, sourceName).build());
+                synchronized (evalCache) {
+                    evalCache.put(key, scriptNode);
+                }
+            }
+            return getContext().getEvaluator().runParsedEval(realm, scriptNode, JSFrameUtil.NULL_MATERIALIZED_FRAME, realm.getGlobalObject());
+        }
+
+        private static final class CachedEvalKey {
+            private final String code;
+            private final String sourceName;
+
+            CachedEvalKey(String code, String sourceName) {
+                this.code = code;
+                this.sourceName = sourceName;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof CachedEvalKey)) {
+                    return false;
+                }
+                CachedEvalKey k = (CachedEvalKey) o;
+                return k.code.equals(code) && k.sourceName.equals(sourceName);
+            }
+
+            @Override
+            public int hashCode() {
+                return Objects.hash(code, sourceName);
+            }
         }
 
         @Specialization
@@ -1475,6 +1524,12 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
 
     /**
      * Non-standard readbuffer() to provide compatibility with V8.
+     *
+     * If the context uses direct byte buffers, files of at least
+     * {@link com.oracle.truffle.js.runtime.JSContextOptions#READBUFFER_MAP_THRESHOLD} bytes are
+     * mapped into a direct ArrayBuffer instead of being read, so that pages are loaded on demand
+     * and the data is never copied. The mapping is private: writes to the ArrayBuffer are not
+     * written back to the file.
      */
     public abstract static class JSGlobalReadBufferNode extends JSBuiltinNode {
 
@@ -1488,6 +1543,14 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
             TruffleFile file = getFileFromArgument(fileParam, getContext().getRealm().getEnv());
 
             try {
+                int mapThreshold = getContext().getContextOptions().getReadBufferMapThreshold();
+                if (mapThreshold >= 0 && getContext().isOptionDirectByteBuffer()) {
+                    DynamicObject mappedBuffer = mapFile(file, mapThreshold);
+                    if (mappedBuffer != null) {
+                        return mappedBuffer;
+                    }
+                }
+
                 final byte[] bytes = file.readAllBytes();
 
                 final DynamicObject arrayBuffer;
@@ -1500,10 +1563,35 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
                     arrayBuffer = JSArrayBuffer.createArrayBuffer(getContext(), bytes);
                 }
                 return arrayBuffer;
+            } catch (JSException ex) {
+                throw ex;
             } catch (Exception ex) {
                 throw Errors.createErrorFromException(ex);
             }
         }
+
+        /**
+         * Maps the file into a direct ArrayBuffer, or returns {@code null} if the file is smaller
+         * than the threshold or the file system does not support mapping. The channel can be closed
+         * right away, the mapping stays valid until the buffer is garbage collected (see
+         * {@link JSArrayBuffer#detachArrayBuffer}).
+         */
+        private DynamicObject mapFile(TruffleFile file, int mapThreshold) throws IOException {
+            try (SeekableByteChannel channel = file.newByteChannel(EnumSet.of(StandardOpenOption.READ))) {
+                if (!(channel instanceof FileChannel)) {
+                    return null;
+                }
+                long size = channel.size();
+                if (size < mapThreshold) {
+                    return null;
+                } else if (size > Integer.MAX_VALUE) {
+                    throw Errors.createRangeError("File too large for an ArrayBuffer: " + size + " bytes");
+                }
+                // private (copy-on-write) mapping: the buffer is writable like any other ArrayBuffer
+                ByteBuffer buffer = ((FileChannel) channel).map(FileChannel.MapMode.PRIVATE, 0, size).order(ByteOrder.nativeOrder());
+                return JSArrayBuffer.createDirectArrayBuffer(getContext(), buffer);
+            }
+        }
     }
 
     /**
@@ -140,6 +140,13 @@ public final class MapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<M
             }
             return normalizeNode.execute(value);
         }
+
+        /**
+         * Whether the key is normalized to an {@code int} key (see {@link JSCollectionsNormalizeNode}).
+         */
+        protected static boolean isIntKey(double key) {
+            return JSRuntime.doubleIsRepresentableAsInt(key, true);
+        }
     }
 
     /**
@@ -172,6 +179,16 @@ public final class MapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<M
             super(context, builtin);
         }
 
+        @Specialization(guards = "isJSMap(thisObj)")
+        protected static boolean deleteInt(DynamicObject thisObj, int key) {
+            return JSMap.getInternalMap(thisObj).removeInt(key);
+        }
+
+        @Specialization(guards = {"isJSMap(thisObj)", "!isIntKey(key)"})
+        protected static boolean deleteDouble(DynamicObject thisObj, double key) {
+            return JSMap.getInternalMap(thisObj).removeDouble(key);
+        }
+
         @Specialization(guards = "isJSMap(thisObj)")
         protected boolean delete(DynamicObject thisObj, Object key) {
             Object normalizedKey = normalize(key);
@@ -194,10 +211,23 @@ public final class MapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<M
             super(context, builtin);
         }
 
+        @Specialization(guards = "isJSMap(thisObj)")
+        protected static Object getInt(DynamicObject thisObj, int key) {
+            return valueOrUndefined(JSMap.getInternalMap(thisObj).getInt(key));
+        }
+
+        @Specialization(guards = {"isJSMap(thisObj)", "!isIntKey(key)"})
+        protected static Object getDouble(DynamicObject thisObj, double key) {
+            return valueOrUndefined(JSMap.getInternalMap(thisObj).getDouble(key));
+        }
+
         @Specialization(guards = "isJSMap(thisObj)")
         protected Object get(DynamicObject thisObj, Object key) {
             Object normalizedKey = normalize(key);
-            Object value = JSMap.getInternalMap(thisObj).get(normalizedKey);
+            return valueOrUndefined(JSMap.getInternalMap(thisObj).get(normalizedKey));
+        }
+
+        private static Object valueOrUndefined(Object value) {
             if (value != null) {
                 return value;
             } else {
@@ -221,6 +251,18 @@ public final class MapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<M
             super(context, builtin);
         }
 
+        @Specialization(guards = "isJSMap(thisObj)")
+        protected static DynamicObject setInt(DynamicObject thisObj, int key, Object value) {
+            JSMap.getInternalMap(thisObj).putInt(key, value);
+            return thisObj;
+        }
+
+        @Specialization(guards = {"isJSMap(thisObj)", "!isIntKey(key)"})
+        protected static DynamicObject setDouble(DynamicObject thisObj, double key, Object value) {
+            JSMap.getInternalMap(thisObj).putDouble(key, value);
+            return thisObj;
+        }
+
         @Specialization(guards = "isJSMap(thisObj)")
         protected DynamicObject set(DynamicObject thisObj, Object key, Object value) {
             Object normalizedKey = normalize(key);
@@ -244,6 +286,16 @@ public final class MapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<M
             super(context, builtin);
         }
 
+        @Specialization(guards = "isJSMap(thisObj)")
+        protected static boolean hasInt(DynamicObject thisObj, int key) {
+            return JSMap.getInternalMap(thisObj).hasInt(key);
+        }
+
+        @Specialization(guards = {"isJSMap(thisObj)", "!isIntKey(key)"})
+        protected static boolean hasDouble(DynamicObject thisObj, double key) {
+            return JSMap.getInternalMap(thisObj).hasDouble(key);
+        }
+
         @Specialization(guards = "isJSMap(thisObj)")
         protected boolean has(DynamicObject thisObj, Object key) {
             Object normalizedKey = normalize(key);
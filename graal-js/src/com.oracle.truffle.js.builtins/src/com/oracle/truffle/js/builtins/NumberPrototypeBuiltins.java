@@ -71,6 +71,7 @@ import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSNumber;
 import com.oracle.truffle.js.runtime.builtins.JSNumberFormat;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.IntlObjectCache;
 
 /**
  * Contains builtins for {@linkplain JSNumber}.prototype.
@@ -302,6 +303,16 @@ public final class NumberPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
 
         @TruffleBoundary
         private DynamicObject createNumberFormat(Object locales, Object options) {
+            if (IntlObjectCache.isCacheable(locales, options)) {
+                IntlObjectCache cache = getContext().getRealm().getIntlObjectCache();
+                DynamicObject numberFormatObj = cache.get(IntlObjectCache.Kind.NUMBER_FORMAT, locales);
+                if (numberFormatObj == null) {
+                    numberFormatObj = JSNumberFormat.create(getContext());
+                    initNumberFormatNode.executeInit(numberFormatObj, locales, options);
+                    cache.put(IntlObjectCache.Kind.NUMBER_FORMAT, locales, numberFormatObj);
+                }
+                return numberFormatObj;
+            }
             DynamicObject numberFormatObj = JSNumberFormat.create(getContext());
             initNumberFormatNode.executeInit(numberFormatObj, locales, options);
             return numberFormatObj;
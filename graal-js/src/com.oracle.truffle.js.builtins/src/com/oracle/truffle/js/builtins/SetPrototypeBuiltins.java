@@ -137,6 +137,13 @@ public final class SetPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<S
             }
             return normalizeNode.execute(value);
         }
+
+        /**
+         * Whether the key is normalized to an {@code int} key (see {@link JSCollectionsNormalizeNode}).
+         */
+        protected static boolean isIntKey(double key) {
+            return JSRuntime.doubleIsRepresentableAsInt(key, true);
+        }
     }
 
     /**
@@ -169,6 +176,16 @@ public final class SetPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<S
             super(context, builtin);
         }
 
+        @Specialization(guards = "isJSSet(thisObj)")
+        protected static boolean deleteInt(DynamicObject thisObj, int key) {
+            return JSSet.getInternalSet(thisObj).removeInt(key);
+        }
+
+        @Specialization(guards = {"isJSSet(thisObj)", "!isIntKey(key)"})
+        protected static boolean deleteDouble(DynamicObject thisObj, double key) {
+            return JSSet.getInternalSet(thisObj).removeDouble(key);
+        }
+
         @Specialization(guards = "isJSSet(thisObj)")
         protected boolean delete(DynamicObject thisObj, Object key) {
             Object normalizedKey = normalize(key);
@@ -191,6 +208,18 @@ public final class SetPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<S
             super(context, builtin);
         }
 
+        @Specialization(guards = "isJSSet(thisObj)")
+        protected static DynamicObject addInt(DynamicObject thisObj, int key) {
+            JSSet.getInternalSet(thisObj).putInt(key, PRESENT);
+            return thisObj;
+        }
+
+        @Specialization(guards = {"isJSSet(thisObj)", "!isIntKey(key)"})
+        protected static DynamicObject addDouble(DynamicObject thisObj, double key) {
+            JSSet.getInternalSet(thisObj).putDouble(key, PRESENT);
+            return thisObj;
+        }
+
         @Specialization(guards = "isJSSet(thisObj)")
         protected DynamicObject add(DynamicObject thisObj, Object key) {
             Object normalizedKey = normalize(key);
@@ -214,6 +243,16 @@ public final class SetPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<S
             super(context, builtin);
         }
 
+        @Specialization(guards = "isJSSet(thisObj)")
+        protected static boolean hasInt(DynamicObject thisObj, int key) {
+            return JSSet.getInternalSet(thisObj).hasInt(key);
+        }
+
+        @Specialization(guards = {"isJSSet(thisObj)", "!isIntKey(key)"})
+        protected static boolean hasDouble(DynamicObject thisObj, double key) {
+            return JSSet.getInternalSet(thisObj).hasDouble(key);
+        }
+
         @Specialization(guards = "isJSSet(thisObj)")
         protected boolean has(DynamicObject thisObj, Object key) {
             Object normalizedKey = normalize(key);
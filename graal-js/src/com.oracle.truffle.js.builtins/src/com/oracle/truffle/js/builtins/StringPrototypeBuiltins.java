@@ -133,6 +133,7 @@ import com.oracle.truffle.js.runtime.builtins.JSString;
 import com.oracle.truffle.js.runtime.objects.JSLazyString;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.IntlObjectCache;
 import com.oracle.truffle.js.runtime.util.IntlUtil;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 import com.oracle.truffle.js.runtime.util.StringBuilderProfile;
@@ -551,6 +552,15 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
             }
         }
 
+        @Specialization
+        protected String lazyStringCharAt(JSLazyString thisStr, int pos) {
+            if (indexOutOfBounds.profile(pos < 0 || pos >= thisStr.length())) {
+                return "";
+            } else {
+                return String.valueOf(thisStr.charAt(pos));
+            }
+        }
+
         @Specialization
         protected String charAt(Object thisObj, Object index) {
             requireObjectCoercible(thisObj);
@@ -601,13 +611,11 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @Specialization
-        protected Object charCodeAtLazyString(JSLazyString thisStr, int index,
-                        @Cached("createBinaryProfile()") ConditionProfile flatten) {
+        protected Object charCodeAtLazyString(JSLazyString thisStr, int index) {
             if (indexOutOfBounds.profile(0 > index || index >= thisStr.length())) {
                 return Double.NaN;
             } else {
-                String s = thisStr.toString(flatten);
-                return Integer.valueOf(s.charAt(index));
+                return Integer.valueOf(thisStr.charAt(index));
             }
         }
 
@@ -675,7 +683,23 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @Specialization
-        protected String substring(String thisStr, int start, int end) {
+        protected CharSequence substring(String thisStr, int start, int end) {
+            int len = thisStr.length();
+            int finalStart = within(start, 0, len);
+            int finalEnd = within(end, 0, len);
+            return substringIntl(thisStr, finalStart, finalEnd);
+        }
+
+        @Specialization(guards = "isUndefined(end)")
+        protected CharSequence substringStart(String thisStr, int start, @SuppressWarnings("unused") Object end) {
+            int len = thisStr.length();
+            int finalStart = within(start, 0, len);
+            int finalEnd = len;
+            return substringIntl(thisStr, finalStart, finalEnd);
+        }
+
+        @Specialization
+        protected CharSequence substringLazyString(JSLazyString thisStr, int start, int end) {
             int len = thisStr.length();
             int finalStart = within(start, 0, len);
             int finalEnd = within(end, 0, len);
@@ -683,23 +707,23 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @Specialization(guards = "isUndefined(end)")
-        protected String substringStart(String thisStr, int start, @SuppressWarnings("unused") Object end) {
+        protected CharSequence substringStartLazyString(JSLazyString thisStr, int start, @SuppressWarnings("unused") Object end) {
             int len = thisStr.length();
             int finalStart = within(start, 0, len);
             int finalEnd = len;
             return substringIntl(thisStr, finalStart, finalEnd);
         }
 
-        private String substringIntl(String thisStr, int start, int end) {
+        private CharSequence substringIntl(CharSequence thisStr, int start, int end) {
             if (startLowerEnd.profile(start <= end)) {
-                return Boundaries.substring(thisStr, start, end);
+                return JSLazyString.substring(thisStr, start, end);
             } else {
-                return Boundaries.substring(thisStr, end, start);
+                return JSLazyString.substring(thisStr, end, start);
             }
         }
 
-        @Specialization(replaces = {"substring", "substringStart"})
-        protected String substringGeneric(Object thisObj, Object start, Object end,
+        @Specialization(replaces = {"substring", "substringStart", "substringLazyString", "substringStartLazyString"})
+        protected CharSequence substringGeneric(Object thisObj, Object start, Object end,
                         @Cached("create()") JSToNumberNode toNumber2Node,
                         @Cached("createBinaryProfile()") ConditionProfile startUndefined,
                         @Cached("createBinaryProfile()") ConditionProfile endUndefined) {
@@ -733,7 +757,7 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
 
             @Override
             @Specialization
-            protected String substringGeneric(Object thisObj, Object start, Object end,
+            protected CharSequence substringGeneric(Object thisObj, Object start, Object end,
                             @Cached("create()") JSToNumberNode toNumber2Node,
                             @Cached("createBinaryProfile()") ConditionProfile startUndefined,
                             @Cached("createBinaryProfile()") ConditionProfile endUndefined) {
@@ -772,7 +796,14 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
             return indexOfIntl(args, thisStr, searchStr);
         }
 
-        @Specialization(replaces = "indexOf")
+        @Specialization
+        protected int indexOfLazyString(JSLazyString thisStr, Object[] args) {
+            String searchStr = toString(JSRuntime.getArgOrUndefined(args, 0));
+            int startPos = hasPos.profile(args.length >= 2) ? Math.min(toInteger(args[1]), thisStr.length()) : 0;
+            return thisStr.indexOf(searchStr, startPos);
+        }
+
+        @Specialization(replaces = {"indexOf", "indexOfLazyString"})
         protected int indexOfGeneric(Object thisObj, Object[] args,
                         @Cached("create()") JSToStringNode toString2Node) {
             requireObjectCoercible(thisObj);
@@ -2116,6 +2147,16 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
 
         @TruffleBoundary
         private DynamicObject createCollator(Object locales, Object options) {
+            if (IntlObjectCache.isCacheable(locales, options)) {
+                IntlObjectCache cache = getContext().getRealm().getIntlObjectCache();
+                DynamicObject collatorObj = cache.get(IntlObjectCache.Kind.COLLATOR, locales);
+                if (collatorObj == null) {
+                    collatorObj = JSCollator.create(getContext());
+                    initCollatorNode.executeInit(collatorObj, locales, options);
+                    cache.put(IntlObjectCache.Kind.COLLATOR, locales, collatorObj);
+                }
+                return collatorObj;
+            }
             DynamicObject collatorObj = JSCollator.create(getContext());
             initCollatorNode.executeInit(collatorObj, locales, options);
             return collatorObj;
@@ -2147,25 +2188,34 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
         }
 
         @Specialization
-        protected String sliceString(String str, int start, int end) {
+        protected CharSequence sliceString(String str, int start, int end) {
+            return sliceIntl(str, start, end);
+        }
+
+        @Specialization
+        protected CharSequence sliceLazyString(JSLazyString str, int start, int end) {
+            return sliceIntl(str, start, end);
+        }
+
+        private CharSequence sliceIntl(CharSequence str, int start, int end) {
             int len = str.length();
             int istart = JSRuntime.getOffset(start, len, offsetProfile1);
             int iend = JSRuntime.getOffset(end, len, offsetProfile2);
             if (canReturnEmpty.profile(iend > istart)) {
-                return Boundaries.substring(str, istart, iend);
+                return JSLazyString.substring(str, istart, iend);
             } else {
                 return "";
             }
         }
 
-        @Specialization(replaces = "sliceString")
-        protected String sliceObject(Object thisObj, int start, int end) {
+        @Specialization(replaces = {"sliceString", "sliceLazyString"})
+        protected CharSequence sliceObject(Object thisObj, int start, int end) {
             requireObjectCoercible(thisObj);
             return sliceString(toString(thisObj), start, end);
         }
 
-        @Specialization(replaces = {"sliceString", "sliceObject"})
-        protected String slice(Object thisObj, Object start, Object end) {
+        @Specialization(replaces = {"sliceString", "sliceLazyString", "sliceObject"})
+        protected CharSequence slice(Object thisObj, Object start, Object end) {
             requireObjectCoercible(thisObj);
             String s = toString(thisObj);
 
@@ -2173,7 +2223,7 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
             long istart = JSRuntime.getOffset(toInteger(start), len, offsetProfile1);
             long iend = isUndefined.profile(end == Undefined.instance) ? len : JSRuntime.getOffset(toInteger(end), len, offsetProfile2);
             if (canReturnEmpty.profile(iend > istart)) {
-                return Boundaries.substring(s, (int) istart, (int) iend);
+                return JSLazyString.substring(s, (int) istart, (int) iend);
             } else {
                 return "";
             }
@@ -2208,6 +2258,11 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
             return true;
         }
 
+        @Specialization(guards = "isUndefined(position)")
+        protected boolean startsWithLazyString(JSLazyString thisObj, String searchStr, @SuppressWarnings("unused") DynamicObject position) {
+            return thisObj.regionMatches(0, searchStr);
+        }
+
         @Specialization
         protected boolean startsWith(Object thisObj, Object searchString, Object position,
                         @Cached("create()") JSToStringNode toString2Node,
@@ -2241,6 +2296,11 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
 
         private final BranchProfile noStringBranch = BranchProfile.create();
 
+        @Specialization(guards = "isUndefined(position)")
+        protected boolean endsWithLazyString(JSLazyString thisObj, String searchStr, @SuppressWarnings("unused") DynamicObject position) {
+            return thisObj.regionMatches(thisObj.length() - searchStr.length(), searchStr);
+        }
+
         @Specialization
         protected boolean endsWith(Object thisObj, Object searchString, Object position,
                         @Cached("create()") JSToStringNode toString2Node,
@@ -2261,8 +2321,8 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
             } else if (fromIndex < 0) {
                 return false;
             }
-            int foundIndex = Boundaries.stringLastIndexOf(thisStr, searchStr, fromIndex);
-            return foundIndex >= 0 && foundIndex == fromIndex - searchStr.length();
+            int startIndex = fromIndex - searchStr.length();
+            return startIndex >= 0 && Boundaries.stringStartsWith(thisStr, searchStr, startIndex);
         }
     }
 
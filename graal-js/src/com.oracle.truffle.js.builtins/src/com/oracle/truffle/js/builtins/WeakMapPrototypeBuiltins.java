@@ -61,8 +61,6 @@ import com.oracle.truffle.js.runtime.builtins.JSWeakMap;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.WeakMap;
 
-import java.util.WeakHashMap;
-
 /**
  * Contains builtins for {@linkplain JSWeakMap}.prototype.
  */
@@ -178,14 +176,13 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
             WeakMap map = (WeakMap) weakMapKlassProfile.profile(storageGetter.getValue(thisObj));
             if (hasInvertedProfile.profile(invertedHas.executeHasHiddenKey(key))) {
                 Object inverted = invertedKlassProfile.profile(invertedGetter.getValue(key));
-                @SuppressWarnings("unchecked")
-                WeakHashMap<WeakMap, Object> invertedMap = (WeakHashMap<WeakMap, Object>) inverted;
-                Object value = mapGet(map, invertedMap);
+                Object value = mapGet(map, inverted);
                 if (value != null) {
                     return value;
                 }
             }
-            return Undefined.instance;
+            Object value = mapGetTable(map, key);
+            return value != null ? value : Undefined.instance;
         }
 
         @Specialization(guards = {"isJSWeakMap(thisObj)", "isJSObject(key)"})
@@ -211,8 +208,13 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
         }
 
         @TruffleBoundary(allowInlining = true)
-        private static Object mapGet(WeakMap map, WeakHashMap<WeakMap, Object> invertedMap) {
-            return invertedMap.get(map);
+        private static Object mapGet(WeakMap map, Object inverted) {
+            return map.getInverted(inverted);
+        }
+
+        @TruffleBoundary
+        private static Object mapGetTable(WeakMap map, DynamicObject key) {
+            return map.getTableValue(key);
         }
     }
 
@@ -236,12 +238,11 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
             WeakMap map = (WeakMap) weakMapKlassProfile.profile(storageGetter.getValue(thisObj));
             if (hasInvertedProfile.profile(invertedHas.executeHasHiddenKey(key))) {
                 Object inverted = invertedKlassProfile.profile(invertedGetter.getValue(key));
-                @SuppressWarnings("unchecked")
-                WeakHashMap<WeakMap, Object> invertedMap = (WeakHashMap<WeakMap, Object>) inverted;
-                mapPut(map, invertedMap, value);
-            } else {
-                Boundaries.mapPut(JSWeakMap.getInternalWeakMap(thisObj), key, value);
+                if (mapReplace(map, inverted, value)) {
+                    return thisObj;
+                }
             }
+            Boundaries.mapPut(map, key, value);
             return thisObj;
         }
 
@@ -264,8 +265,8 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
         }
 
         @TruffleBoundary(allowInlining = true)
-        private static Object mapPut(WeakMap map, WeakHashMap<WeakMap, Object> invertedMap, Object value) {
-            return invertedMap.put(map, value);
+        private static boolean mapReplace(WeakMap map, Object inverted, Object value) {
+            return map.replaceInverted(inverted, value);
         }
     }
 
@@ -289,16 +290,21 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
             WeakMap map = (WeakMap) weakMapKlassProfile.profile(storageGetter.getValue(thisObj));
             if (hasInvertedProfile.profile(invertedHas.executeHasHiddenKey(key))) {
                 Object inverted = invertedKlassProfile.profile(invertedGetter.getValue(key));
-                @SuppressWarnings("unchecked")
-                WeakHashMap<WeakMap, Object> invertedMap = (WeakHashMap<WeakMap, Object>) inverted;
-                return mapHas(map, invertedMap);
+                if (mapHas(map, inverted)) {
+                    return true;
+                }
             }
-            return false;
+            return mapHasTable(map, key);
         }
 
         @TruffleBoundary(allowInlining = true)
-        private static boolean mapHas(WeakMap map, WeakHashMap<WeakMap, Object> invertedMap) {
-            return invertedMap.containsKey(map);
+        private static boolean mapHas(WeakMap map, Object inverted) {
+            return map.containsInverted(inverted);
+        }
+
+        @TruffleBoundary
+        private static boolean mapHasTable(WeakMap map, DynamicObject key) {
+            return map.containsTableKey(key);
         }
 
         @Specialization(guards = {"isJSWeakMap(thisObj)", "isJSObject(key)"})
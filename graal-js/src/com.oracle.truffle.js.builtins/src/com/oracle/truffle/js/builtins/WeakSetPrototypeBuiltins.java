@@ -91,8 +91,11 @@ public final class WeakSetPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
         return null;
     }
 
-    /** Dummy value to associate with a key in the backing map. */
-    protected static final Object PRESENT = new Object();
+    /**
+     * Dummy value to associate with a key in the backing map. A primitive, so that it is stored in
+     * the map's own table and does not change the shape of the key.
+     */
+    protected static final Object PRESENT = Boolean.TRUE;
 
     protected static RuntimeException typeErrorKeyIsNotObject() {
         throw Errors.createTypeError("WeakSet key must be an object");
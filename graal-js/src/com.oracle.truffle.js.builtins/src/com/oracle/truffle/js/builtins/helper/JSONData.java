@@ -43,8 +43,12 @@ package com.oracle.truffle.js.builtins.helper;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.graalvm.collections.EconomicMap;
+
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
 
 public class JSONData {
 
@@ -53,8 +57,10 @@ public class JSONData {
     private final String gap;
     private final List<String> propertyList;
     private final DynamicObject replacerFnObj;
+    private EconomicMap<Shape, ShapeKeys> shapeKeysCache;
 
     private static final int MAX_STACK_SIZE = 1000;
+    private static final int MAX_SHAPE_KEYS_CACHE_SIZE = 64;
 
     public JSONData(String gap, DynamicObject replacerFnObj, List<String> replacerList) {
         this.gap = gap;
@@ -93,4 +99,38 @@ public class JSONData {
     public void popStack() {
         stack.remove(stack.size() - 1);
     }
+
+    /**
+     * Returns the cached property keys of objects with the given shape, or {@code null}.
+     */
+    public ShapeKeys getShapeKeys(Shape shape) {
+        return shapeKeysCache == null ? null : shapeKeysCache.get(shape);
+    }
+
+    public void putShapeKeys(ShapeKeys shapeKeys) {
+        if (shapeKeysCache == null) {
+            shapeKeysCache = EconomicMap.create();
+        }
+        if (shapeKeysCache.size() < MAX_SHAPE_KEYS_CACHE_SIZE) {
+            shapeKeysCache.put(shapeKeys.shape, shapeKeys);
+        }
+    }
+
+    /**
+     * The enumerable property keys of objects of a shape, along with their properties and the
+     * serialized form of the keys (quoted, followed by the colon and gap).
+     */
+    public static final class ShapeKeys {
+        final Shape shape;
+        final String[] names;
+        final Property[] properties;
+        final String[] serializedNames;
+
+        ShapeKeys(Shape shape, String[] names, Property[] properties, String[] serializedNames) {
+            this.shape = shape;
+            this.names = names;
+            this.properties = properties;
+            this.serializedNames = serializedNames;
+        }
+    }
 }
@@ -51,6 +51,8 @@ import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnknownIdentifierException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.nodes.JSGuards;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
 import com.oracle.truffle.js.nodes.access.PropertyGetNode;
@@ -59,7 +61,14 @@ import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.JSTruffleOptions;
 import com.oracle.truffle.js.runtime.Symbol;
+import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.array.dyn.AbstractDoubleArray;
+import com.oracle.truffle.js.runtime.array.dyn.AbstractIntArray;
+import com.oracle.truffle.js.runtime.array.dyn.ConstantDoubleArray;
+import com.oracle.truffle.js.runtime.array.dyn.ConstantIntArray;
+import com.oracle.truffle.js.runtime.builtins.JSAbstractArray;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSBigInt;
 import com.oracle.truffle.js.runtime.builtins.JSBoolean;
@@ -67,6 +76,8 @@ import com.oracle.truffle.js.runtime.builtins.JSClass;
 import com.oracle.truffle.js.runtime.builtins.JSNumber;
 import com.oracle.truffle.js.runtime.builtins.JSString;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
+import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.truffleinterop.JSInteropUtil;
@@ -78,6 +89,14 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
     @Child private PropertyGetNode getToJSONProperty;
     @Child private JSFunctionCallNode callToJSONFunction;
     private final StringBuilderProfile stringBuilderProfile;
+    /**
+     * Running average of the result lengths, used to size the builder of the next result. Averaging
+     * lets the estimate decay again after a single large result.
+     */
+    private int lengthEstimate = MIN_INITIAL_CAPACITY;
+
+    private static final int MIN_INITIAL_CAPACITY = 16;
+    private static final int MAX_INITIAL_CAPACITY = 1 << 14;
 
     protected JSONStringifyStringNode(JSContext context) {
         this.context = context;
@@ -99,8 +118,10 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
             if (!isStringifyable(value)) {
                 return Undefined.instance;
             }
-            StringBuilder builder = new StringBuilder();
+            StringBuilder builder = new StringBuilder(lengthEstimate);
             jsonStrExecute(builder, data, value);
+            int length = Math.min(builder.length(), MAX_INITIAL_CAPACITY);
+            lengthEstimate = Math.max(MIN_INITIAL_CAPACITY, (lengthEstimate + length) >>> 1);
             return stringBuilderProfile.toString(builder);
         } catch (StackOverflowError ex) {
             throwStackError();
@@ -160,13 +181,18 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
     }
 
     private void appendNumber(StringBuilder builder, Number n) {
-        double d = JSRuntime.doubleValue(n);
-        if (Double.isNaN(d) || Double.isInfinite(d)) {
-            stringBuilderProfile.append(builder, Null.NAME);
-        } else if (n instanceof Integer) {
+        if (n instanceof Integer) {
             stringBuilderProfile.append(builder, ((Integer) n).intValue());
         } else if (n instanceof Long) {
             stringBuilderProfile.append(builder, ((Long) n).longValue());
+        } else {
+            appendDouble(builder, JSRuntime.doubleValue(n));
+        }
+    }
+
+    private void appendDouble(StringBuilder builder, double d) {
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            stringBuilderProfile.append(builder, Null.NAME);
         } else {
             stringBuilderProfile.append(builder, JSRuntime.doubleToString(d));
         }
@@ -266,7 +292,12 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
         boolean hasContent;
         if (data.getPropertyList() == null) {
             if (JSObject.isJSObject(value)) {
-                hasContent = serializeJSONObjectProperties(builder, data, value, indent, JSObject.enumerableOwnNames((DynamicObject) value));
+                DynamicObject object = (DynamicObject) value;
+                if (JSTruffleOptions.FastOwnKeys && JSObject.getJSClass(object).hasOnlyShapeProperties(object)) {
+                    hasContent = serializeJSONObjectShapeProperties(builder, data, object, indent, getShapeKeys(data, object.getShape()));
+                } else {
+                    hasContent = serializeJSONObjectProperties(builder, data, value, indent, JSObject.enumerableOwnNames(object));
+                }
             } else {
                 hasContent = serializeForeignObjectProperties(builder, data, value, indent);
             }
@@ -301,6 +332,62 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
         return hasContent;
     }
 
+    /**
+     * Like {@link #serializeJSONObjectProperties}, but using the keys, properties and serialized
+     * keys cached for the shape of the object. The cached properties are only used as long as the
+     * object still has that shape, i.e., no getter or toJSON function changed it.
+     */
+    private boolean serializeJSONObjectShapeProperties(StringBuilder builder, JSONData data, DynamicObject object, int indent, JSONData.ShapeKeys shapeKeys) {
+        boolean isFirst = true;
+        boolean hasContent = false;
+        String[] names = shapeKeys.names;
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            Object propertyValue;
+            if (object.getShape() == shapeKeys.shape) {
+                propertyValue = JSProperty.getValue(shapeKeys.properties[i], object, object, false);
+            } else {
+                propertyValue = JSObject.get(object, name);
+            }
+            Object strPPrepared = jsonStrPreparePart2(data, name, object, propertyValue);
+            if (isStringifyable(strPPrepared)) {
+                if (isFirst) {
+                    concatFirstStep(builder, data);
+                    isFirst = false;
+                } else {
+                    appendSeparator(builder, data, indent);
+                }
+                stringBuilderProfile.append(builder, shapeKeys.serializedNames[i]);
+                jsonStrExecute(builder, data, strPPrepared);
+                hasContent = true;
+            }
+        }
+        return hasContent;
+    }
+
+    private JSONData.ShapeKeys getShapeKeys(JSONData data, Shape shape) {
+        JSONData.ShapeKeys shapeKeys = data.getShapeKeys(shape);
+        if (shapeKeys == null) {
+            List<String> nameList = JSShape.getEnumerablePropertyNames(shape);
+            int size = nameList.size();
+            String[] names = new String[size];
+            Property[] properties = new Property[size];
+            String[] serializedNames = new String[size];
+            for (int i = 0; i < size; i++) {
+                String name = nameList.get(i);
+                names[i] = name;
+                properties[i] = shape.getProperty(name);
+                StringBuilder serializedName = new StringBuilder(name.length() + 4);
+                jsonQuote(serializedName, name);
+                appendColon(serializedName, data);
+                serializedNames[i] = serializedName.toString();
+            }
+            shapeKeys = new JSONData.ShapeKeys(shape, names, properties, serializedNames);
+            data.putShapeKeys(shapeKeys);
+        }
+        return shapeKeys;
+    }
+
     private void appendColon(StringBuilder builder, JSONData data) {
         stringBuilderProfile.append(builder, ':');
         if (data.getGap().length() > 0) {
@@ -381,6 +468,9 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
             } else {
                 appendSeparator(builder, data, indent);
             }
+            if (isArray && data.getReplacerFnObj() == null && appendPrimitiveElement(builder, (DynamicObject) value, index)) {
+                continue;
+            }
             Object strPPrepared;
             if (isArray) {
                 strPPrepared = jsonStrPrepareArray(data, index, (DynamicObject) value);
@@ -402,6 +492,32 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
         data.setIndent(stepback);
     }
 
+    /**
+     * Appends the element directly if the array is a dense int or double array, avoiding boxing
+     * and the generic element lookup. Primitive elements need no toJSON lookup, so without a
+     * replacer function no user code can run while such an array is serialized.
+     *
+     * @return {@code false} if the element has to be serialized the generic way
+     */
+    private boolean appendPrimitiveElement(StringBuilder builder, DynamicObject array, int index) {
+        ScriptArray arrayType = JSAbstractArray.arrayGetArrayType(array);
+        if (arrayType.isHolesType() || !arrayType.isInBoundsFast(array, index)) {
+            return false;
+        }
+        if (arrayType instanceof AbstractIntArray) {
+            stringBuilderProfile.append(builder, ((AbstractIntArray) arrayType).getInBoundsFastInt(array, index, true));
+        } else if (arrayType instanceof AbstractDoubleArray) {
+            appendDouble(builder, ((AbstractDoubleArray) arrayType).getInBoundsFastDouble(array, index, true));
+        } else if (arrayType instanceof ConstantIntArray) {
+            stringBuilderProfile.append(builder, ConstantIntArray.getElementInt(array, index, true));
+        } else if (arrayType instanceof ConstantDoubleArray) {
+            appendDouble(builder, ConstantDoubleArray.getElementDouble(array, index, true));
+        } else {
+            return false;
+        }
+        return true;
+    }
+
     private static void checkStackDepth(JSONData data) {
         if (data.stackTooDeep()) {
             throwStackError();
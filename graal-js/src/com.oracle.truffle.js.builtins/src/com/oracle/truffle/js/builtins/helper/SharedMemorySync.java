@@ -43,6 +43,9 @@ package com.oracle.truffle.js.builtins.helper;
 import static com.oracle.truffle.js.runtime.builtins.JSArrayBufferView.typedArrayGetArrayType;
 
 import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -91,6 +94,89 @@ public final class SharedMemorySync {
                 throw new RuntimeException();
             }
         }
+
+        /** Offset of {@link Buffer}'s native address field, or -1 if not accessible. */
+        private static final long BUFFER_ADDRESS_OFFSET = getBufferAddressOffset();
+        private static final boolean BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+        @SuppressWarnings("restriction")
+        private static long getBufferAddressOffset() {
+            try {
+                return UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+            } catch (NoSuchFieldException | SecurityException | UnsupportedOperationException e) {
+                return -1;
+            }
+        }
+    }
+
+    // ##### Hardware atomics on the native memory of shared buffers
+
+    /**
+     * Returns the native address of the element at {@code index}, or 0 if hardware atomics cannot
+     * be used for the array, in which case the buffer-wide atomic section is used instead. The
+     * result only depends on the buffer and element, so all agents agree on the access path.
+     */
+    private static long elementAddress(DynamicObject target, TypedArray array, int index) {
+        if (SyncUtils.BUFFER_ADDRESS_OFFSET < 0) {
+            return 0;
+        }
+        ByteBuffer buffer = JSArrayBufferView.typedArrayGetByteBuffer(target, JSArrayBufferView.isJSArrayBufferView(target));
+        if (!buffer.isDirect()) {
+            return 0;
+        }
+        int bytesPerElement = array.bytesPerElement();
+        long address = SyncUtils.UNSAFE.getLong(buffer, SyncUtils.BUFFER_ADDRESS_OFFSET) + JSArrayBufferView.typedArrayGetOffset(target) + (long) index * bytesPerElement;
+        if ((address & (bytesPerElement - 1)) != 0) {
+            return 0;
+        }
+        return address;
+    }
+
+    /**
+     * Atomically replaces the 1, 2, or 4 byte element at {@code address} if its bits equal those of
+     * {@code expected}. Elements smaller than 4 bytes are updated with a CAS loop on the enclosing
+     * aligned int. Returns the raw (zero-extended) bits of the previous element value.
+     */
+    @SuppressWarnings("restriction")
+    private static int hardwareCompareExchangeInt(long address, int bytesPerElement, int expected, int replacement) {
+        long wordAddress = address & ~3L;
+        int shift;
+        int elementMask;
+        if (bytesPerElement == 4) {
+            shift = 0;
+            elementMask = 0xFFFFFFFF;
+        } else {
+            int byteInWord = (int) (address & 3);
+            shift = (SyncUtils.BIG_ENDIAN ? 4 - bytesPerElement - byteInWord : byteInWord) * 8;
+            elementMask = bytesPerElement == 1 ? 0xFF : 0xFFFF;
+        }
+        int wordMask = elementMask << shift;
+        int expectedBits = expected & elementMask;
+        int replacementBits = (replacement & elementMask) << shift;
+        while (true) {
+            int word = SyncUtils.UNSAFE.getIntVolatile(null, wordAddress);
+            int read = (word & wordMask) >>> shift;
+            if (read != expectedBits) {
+                return read;
+            }
+            if (SyncUtils.UNSAFE.compareAndSwapInt(null, wordAddress, word, (word & ~wordMask) | replacementBits)) {
+                return read;
+            }
+        }
+    }
+
+    @SuppressWarnings("restriction")
+    private static long hardwareCompareExchangeLong(long address, long expected, long replacement) {
+        while (true) {
+            long read = SyncUtils.UNSAFE.getLongVolatile(null, address);
+            if (read != expected || SyncUtils.UNSAFE.compareAndSwapLong(null, address, read, replacement)) {
+                return read;
+            }
+        }
+    }
+
+    private static BigInt bigIntFromBits(TypedArray array, long bits) {
+        return array instanceof TypedArray.DirectBigUint64Array ? BigInt.valueOfUnsigned(bits) : BigInt.valueOf(bits);
     }
 
     // ##### Getters and setters with ordering and memory barriers
@@ -130,6 +216,13 @@ public final class SharedMemorySync {
     // ##### Atomic CAS primitives
     @TruffleBoundary
     public static boolean compareAndSwapInt(JSContext cx, DynamicObject target, int intArrayOffset, int initial, int result) {
+        TypedArray array = typedArrayGetArrayType(target);
+        long address = elementAddress(target, array, intArrayOffset);
+        if (address != 0) {
+            int bytesPerElement = array.bytesPerElement();
+            int elementMask = bytesPerElement == 4 ? 0xFFFFFFFF : (1 << (bytesPerElement * 8)) - 1;
+            return hardwareCompareExchangeInt(address, bytesPerElement, initial, result) == (initial & elementMask);
+        }
         cx.getJSAgent().atomicSectionEnter(target);
         try {
             int value = doVolatileGet(target, intArrayOffset);
@@ -145,6 +238,11 @@ public final class SharedMemorySync {
 
     @TruffleBoundary
     public static boolean compareAndSwapBigInt(JSContext cx, DynamicObject target, int intArrayOffset, BigInt initial, BigInt result) {
+        long address = elementAddress(target, typedArrayGetArrayType(target), intArrayOffset);
+        if (address != 0) {
+            long expected = initial.longValue();
+            return hardwareCompareExchangeLong(address, expected, result.longValue()) == expected;
+        }
         cx.getJSAgent().atomicSectionEnter(target);
         try {
             BigInt value = doVolatileGetBigInt(target, intArrayOffset);
@@ -161,13 +259,20 @@ public final class SharedMemorySync {
     // ##### Atomic Fetch-or-Get primitives
     @TruffleBoundary
     public static long atomicFetchOrGetUnsigned(JSContext cx, DynamicObject target, int intArrayOffset, Object expected, Object replacement) {
+        long address = elementAddress(target, typedArrayGetArrayType(target), intArrayOffset);
+        if (address != 0) {
+            return hardwareCompareExchangeInt(address, 4, (int) JSRuntime.toUInt32(expected), (int) JSRuntime.toUInt32(replacement)) & 0xFFFFFFFFL;
+        }
         cx.getJSAgent().atomicSectionEnter(target);
-        long read = JSRuntime.toUInt32(doVolatileGet(target, intArrayOffset));
-        if (read == JSRuntime.toUInt32(expected)) {
-            doVolatilePut(target, intArrayOffset, (int) JSRuntime.toUInt32(replacement));
+        try {
+            long read = JSRuntime.toUInt32(doVolatileGet(target, intArrayOffset));
+            if (read == JSRuntime.toUInt32(expected)) {
+                doVolatilePut(target, intArrayOffset, (int) JSRuntime.toUInt32(replacement));
+            }
+            return read;
+        } finally {
+            cx.getJSAgent().atomicSectionLeave(target);
         }
-        cx.getJSAgent().atomicSectionLeave(target);
-        return read;
     }
 
     @TruffleBoundary
@@ -186,6 +291,10 @@ public final class SharedMemorySync {
 
     @TruffleBoundary
     public static int atomicFetchOrGetInt(JSContext cx, DynamicObject target, int intArrayOffset, int expected, int replacement) {
+        long address = elementAddress(target, typedArrayGetArrayType(target), intArrayOffset);
+        if (address != 0) {
+            return hardwareCompareExchangeInt(address, 4, expected, replacement);
+        }
         cx.getJSAgent().atomicSectionEnter(target);
         try {
             int read = doVolatileGet(target, intArrayOffset);
@@ -200,20 +309,33 @@ public final class SharedMemorySync {
 
     @TruffleBoundary
     public static int atomicFetchOrGetShort(JSContext cx, DynamicObject target, int intArrayOffset, int expected, int replacement, boolean sign) {
+        long address = elementAddress(target, typedArrayGetArrayType(target), intArrayOffset);
+        if (address != 0) {
+            int read = hardwareCompareExchangeInt(address, 2, expected, replacement);
+            return sign ? (short) read : read;
+        }
         cx.getJSAgent().atomicSectionEnter(target);
-        int read = doVolatileGet(target, intArrayOffset);
-        read = sign ? read : read & 0xFFFF;
-        int expectedChopped = sign ? (short) expected : expected & 0xFFFF;
-        if (read == expectedChopped) {
-            int signed = sign ? replacement : replacement & 0xFFFF;
-            SharedMemorySync.doVolatilePut(target, intArrayOffset, (short) signed);
+        try {
+            int read = doVolatileGet(target, intArrayOffset);
+            read = sign ? read : read & 0xFFFF;
+            int expectedChopped = sign ? (short) expected : expected & 0xFFFF;
+            if (read == expectedChopped) {
+                int signed = sign ? replacement : replacement & 0xFFFF;
+                SharedMemorySync.doVolatilePut(target, intArrayOffset, (short) signed);
+            }
+            return read;
+        } finally {
+            cx.getJSAgent().atomicSectionLeave(target);
         }
-        cx.getJSAgent().atomicSectionLeave(target);
-        return read;
     }
 
     @TruffleBoundary
     public static int atomicFetchOrGetByte(JSContext cx, DynamicObject target, int intArrayOffset, int expected, int replacement, boolean sign) {
+        long address = elementAddress(target, typedArrayGetArrayType(target), intArrayOffset);
+        if (address != 0) {
+            int read = hardwareCompareExchangeInt(address, 1, expected, replacement);
+            return sign ? (byte) read : read;
+        }
         cx.getJSAgent().atomicSectionEnter(target);
         try {
             int read = doVolatileGet(target, intArrayOffset);
@@ -231,6 +353,11 @@ public final class SharedMemorySync {
 
     @TruffleBoundary
     public static BigInt atomicFetchOrGetBigInt(JSContext cx, DynamicObject target, int intArrayOffset, BigInt expected, BigInt replacement) {
+        TypedArray array = typedArrayGetArrayType(target);
+        long address = elementAddress(target, array, intArrayOffset);
+        if (address != 0) {
+            return bigIntFromBits(array, hardwareCompareExchangeLong(address, expected.longValue(), replacement.longValue()));
+        }
         cx.getJSAgent().atomicSectionEnter(target);
         try {
             BigInt read = doVolatileGetBigInt(target, intArrayOffset);
@@ -72,10 +72,21 @@ public class TruffleJSONParser {
     }
 
     public Object parse(String value) {
-        this.pos = 0;
-        this.parseDepth = 0;
         this.parseStr = value;
         this.len = parseStr.length();
+        try {
+            return parseInput();
+        } finally {
+            parseStr = null;
+        }
+    }
+
+    /**
+     * Parses the input from position 0 to {@link #len}, accessed via {@link #get(int)}.
+     */
+    protected final Object parseInput() {
+        this.pos = 0;
+        this.parseDepth = 0;
         try {
             skipWhitespace();
             Object result = parseJSONText();
@@ -88,12 +99,10 @@ public class TruffleJSONParser {
             throwStackError();
         } catch (JSException ex) {
             throw ex;
-        } catch (StringIndexOutOfBoundsException ex) {
+        } catch (IndexOutOfBoundsException ex) {
             throwSyntaxError(unexpectedEndOfInputMessage());
         } catch (Exception ex) {
             throwSyntaxError(null);
-        } finally {
-            parseStr = null;
         }
         return null;
     }
@@ -255,7 +264,7 @@ public class TruffleJSONParser {
             pos++; // don't skip whitespace here
             c = get();
         }
-        String s = parseStr.substring(startPos, pos);
+        String s = substring(startPos, pos);
         if (hasEscapes) {
             return unquoteJSON(s);
         } else {
@@ -396,7 +405,7 @@ public class TruffleJSONParser {
         } else if (fractionPos == -1 && !hasExponent && (endPos - startPos <= JSRuntime.MAX_SAFE_INTEGER_DIGITS)) {
             // safe integer but not zero
             final int radix = 10;
-            long safeInt = JSRuntime.parseSafeInteger(parseStr, startPos, endPos, radix);
+            long safeInt = parseSafeInteger(startPos, endPos, radix);
             assert safeInt != 0;
             if (safeInt != JSRuntime.INVALID_SAFE_INTEGER) {
                 safeInt *= sign;
@@ -407,7 +416,7 @@ public class TruffleJSONParser {
                 }
             }
         }
-        String valueStr = parseStr.substring(startPos, endPos);
+        String valueStr = substring(startPos, endPos);
         return parseAsDouble(sign, valueStr);
     }
 
@@ -440,7 +449,7 @@ public class TruffleJSONParser {
         if (pos == startPos) {
             error("Expected number but found ident");
         }
-        return sign * Integer.parseInt(parseStr.substring(startPos, pos));
+        return sign * Integer.parseInt(substring(startPos, pos));
     }
 
     protected boolean isExponentPart() {
@@ -478,7 +487,7 @@ public class TruffleJSONParser {
     }
 
     protected Object error(String message) {
-        context.getEvaluator().parseJSON(context, parseStr);
+        context.getEvaluator().parseJSON(context, getInputString());
         // TruffleJSONParser expects an error, but the string got parsed
         // without a problem using context.getEvaluator().parseJSON().
         // So, there is a problem in the former or the latter parser.
@@ -502,6 +511,25 @@ public class TruffleJSONParser {
         return parseStr.charAt(posParam);
     }
 
+    /**
+     * Returns the input between the given positions. Only called for ranges that do not contain
+     * non-ASCII characters, except for string literals.
+     */
+    protected String substring(int startPos, int endPos) {
+        return parseStr.substring(startPos, endPos);
+    }
+
+    protected long parseSafeInteger(int startPos, int endPos, int radix) {
+        return JSRuntime.parseSafeInteger(parseStr, startPos, endPos, radix);
+    }
+
+    /**
+     * The complete input as a string, used to produce a detailed error message.
+     */
+    protected String getInputString() {
+        return parseStr;
+    }
+
     protected void read() {
         assert len > pos;
         pos++;
@@ -510,7 +538,7 @@ public class TruffleJSONParser {
 
     protected void read(String expected) {
         assert len >= pos + expected.length();
-        assert parseStr.substring(pos, pos + expected.length()).equals(expected);
+        assert substring(pos, pos + expected.length()).equals(expected);
         pos += expected.length();
         skipWhitespace();
     }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.helper;
+
+import static com.oracle.truffle.js.runtime.util.BufferUtil.asBaseBuffer;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRuntime;
+
+/**
+ * JSON parser reading UTF-8 encoded bytes directly from a {@link ByteBuffer} (heap or direct), so
+ * that the input does not have to be decoded into a {@link String} first. Only string literals are
+ * decoded, one at a time. The result is the same as parsing the decoded input with
+ * {@link TruffleJSONParser#parse(String)}, i.e., malformed UTF-8 sequences are replaced with
+ * U+FFFD.
+ */
+public class TruffleJSONUTF8Parser extends TruffleJSONParser {
+
+    private ByteBuffer input;
+
+    public TruffleJSONUTF8Parser(JSContext context) {
+        super(context);
+    }
+
+    /**
+     * Parses the bytes between the position and the limit of the buffer. The position of the
+     * buffer is not changed.
+     */
+    @TruffleBoundary
+    public Object parse(ByteBuffer buffer) {
+        this.input = buffer.slice();
+        this.len = input.limit();
+        try {
+            return parseInput();
+        } finally {
+            input = null;
+        }
+    }
+
+    @Override
+    protected char get(int posParam) {
+        return (char) (input.get(posParam) & 0xFF);
+    }
+
+    @Override
+    protected String substring(int startPos, int endPos) {
+        for (int i = startPos; i < endPos; i++) {
+            if (input.get(i) < 0) {
+                return decode(startPos, endPos);
+            }
+        }
+        char[] chars = new char[endPos - startPos];
+        for (int i = startPos; i < endPos; i++) {
+            chars[i - startPos] = (char) input.get(i);
+        }
+        return new String(chars);
+    }
+
+    @Override
+    protected long parseSafeInteger(int startPos, int endPos, int radix) {
+        assert radix == 10 && endPos - startPos <= JSRuntime.MAX_SAFE_INTEGER_DIGITS;
+        long value = 0;
+        for (int i = startPos; i < endPos; i++) {
+            char c = get(i);
+            if (!JSRuntime.isAsciiDigit(c)) {
+                return JSRuntime.INVALID_SAFE_INTEGER;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value <= JSRuntime.MAX_SAFE_INTEGER_LONG ? value : JSRuntime.INVALID_SAFE_INTEGER;
+    }
+
+    @Override
+    protected String getInputString() {
+        return decode(0, len);
+    }
+
+    private String decode(int startPos, int endPos) {
+        ByteBuffer range = input.duplicate();
+        asBaseBuffer(range).limit(endPos).position(startPos);
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        decoder.onMalformedInput(CodingErrorAction.REPLACE);
+        decoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+        try {
+            CharBuffer decoded = decoder.decode(range);
+            return decoded.toString();
+        } catch (CharacterCodingException e) {
+            throw Errors.shouldNotReachHere(e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.nodes.JSNodeDecoder;
+import com.oracle.truffle.js.nodes.NodeFactory;
+import com.oracle.truffle.js.nodes.ScriptNode;
+import com.oracle.truffle.js.nodes.function.FunctionRootNode;
+import com.oracle.truffle.js.parser.snapshot.Recording;
+import com.oracle.truffle.js.parser.snapshot.RecordingProxy;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSTruffleOptions;
+
+/**
+ * Persistent on-disk cache of parsed scripts (option {@code js.code-cache-dir}).
+ *
+ * Entries are binary snapshots named after a SHA-256 digest of the source name and characters, the
+ * parser options, the context options that affect translation, and the snapshot format checksum, so
+ * any change to the engine's node encoding or to the parsing mode simply results in a different
+ * file. Entries are written to a temporary file first
+ * and atomically moved into place; entries that fail verification or decoding are deleted and the
+ * script is parsed normally.
+ */
+final class CodeCache {
+    private static final String FILE_SUFFIX = ".bin";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final String ENGINE_VERSION = engineVersion();
+
+    private CodeCache() {
+    }
+
+    /**
+     * Identifies the build of the engine. Unpackaged builds have no implementation version and are
+     * identified by the time their classes were built; if that is unknown, the cache is disabled.
+     */
+    private static String engineVersion() {
+        String version = JavaScriptLanguage.class.getPackage().getImplementationVersion();
+        if (version != null) {
+            return version;
+        }
+        try {
+            URL classFile = JavaScriptLanguage.class.getResource(JavaScriptLanguage.class.getSimpleName() + ".class");
+            long lastModified = classFile == null ? 0 : classFile.openConnection().getLastModified();
+            return lastModified == 0 ? null : "unpackaged-" + lastModified;
+        } catch (IOException | SecurityException e) {
+            return null;
+        }
+    }
+
+    static ScriptNode parseScriptNode(JSContext context, Source source, boolean isStrict, String cacheDir) {
+        CompilerAsserts.neverPartOfCompilation();
+        NodeFactory nodeFactory = NodeFactory.getInstance(context);
+        if (!source.hasCharacters() || ENGINE_VERSION == null) {
+            return JavaScriptTranslator.translateScript(nodeFactory, context, source, isStrict);
+        }
+        Path cacheFile = Paths.get(cacheDir, cacheKey(context, source, isStrict) + FILE_SUFFIX);
+        ScriptNode cached = load(nodeFactory, context, source, cacheFile);
+        if (cached != null) {
+            return cached;
+        }
+        // Recording requires eagerly translated function bodies and a proxy of the node factory.
+        if (JSTruffleOptions.SubstrateVM || JSTruffleOptions.LazyTranslation || JSTruffleOptions.LazyParsing) {
+            return JavaScriptTranslator.translateScript(nodeFactory, context, source, isStrict);
+        }
+        Recording rec = new Recording();
+        ScriptNode program = JavaScriptTranslator.translateScript(RecordingProxy.createRecordingNodeFactory(rec, nodeFactory), context, source, isStrict);
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        try {
+            rec.finish(program.getRootNode());
+            rec.saveToStream(source.getName(), snapshot, true);
+        } catch (RuntimeException e) {
+            // the script could not be recorded, it is not cached
+            return program;
+        }
+        store(cacheFile, snapshot.toByteArray());
+        return program;
+    }
+
+    private static ScriptNode load(NodeFactory nodeFactory, JSContext context, Source source, Path cacheFile) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(cacheFile);
+        } catch (IOException | SecurityException e) {
+            // cache miss
+            return null;
+        }
+        try {
+            return ScriptNode.fromFunctionRoot(context, (FunctionRootNode) new BinarySnapshotProvider(ByteBuffer.wrap(bytes)).apply(nodeFactory, context, source));
+        } catch (RuntimeException e) {
+            // stale or corrupted entry
+            delete(cacheFile);
+            return null;
+        }
+    }
+
+    private static void store(Path cacheFile, byte[] snapshot) {
+        Path tempFile = null;
+        try {
+            Path dir = cacheFile.getParent();
+            Files.createDirectories(dir);
+            tempFile = Files.createTempFile(dir, cacheFile.getFileName().toString(), ".tmp");
+            Files.write(tempFile, snapshot);
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempFile = null;
+        } catch (IOException | SecurityException e) {
+            // the cache is best-effort only
+        } finally {
+            if (tempFile != null) {
+                delete(tempFile);
+            }
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException | SecurityException e) {
+        }
+    }
+
+    static String cacheKey(JSContext context, Source source, boolean isStrict) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        String name = source.getName();
+        String header = JavaScriptLanguage.IMPLEMENTATION_NAME + '|' + ENGINE_VERSION + '|' + JSNodeDecoder.getChecksum() + '|' + context.getParserOptions() + '|' + isStrict + '|' +
+                        translationOptions(context) + '|' + name.length() + ':' + name + '|';
+        digest.update(header.getBytes(StandardCharsets.UTF_8));
+        digest.update(source.getCharacters().toString().getBytes(StandardCharsets.UTF_8));
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Context options that are not parser options but change the translated nodes.
+     */
+    private static String translationOptions(JSContext context) {
+        return "annexB=" + context.isOptionAnnexB() + ",v8LegacyConst=" + context.getContextOptions().isV8LegacyConst() + ",v8Compat=" + context.isOptionV8CompatibilityMode() +
+                        ",disableWith=" + context.isOptionDisableWith() + ",nashornCompat=" + context.isOptionNashornCompatibilityMode();
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
@@ -57,6 +57,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
 
+import com.oracle.js.parser.ErrorManager;
+import com.oracle.js.parser.Lexer.RegexToken;
 import com.oracle.js.parser.ir.Expression;
 import com.oracle.js.parser.ir.Module;
 import com.oracle.js.parser.ir.Module.ExportEntry;
@@ -102,6 +104,7 @@ import com.oracle.truffle.js.runtime.JSRealm;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.JSTruffleOptions;
 import com.oracle.truffle.js.runtime.JavaScriptRootNode;
+import com.oracle.truffle.js.runtime.RegexCompilerInterface;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.builtins.JSModuleNamespace;
@@ -185,6 +188,26 @@ public final class GraalJSEvaluator implements JSParser {
         return doEvaluate(realm, lastNode, outerEnv, thisObj, frame.materialize(), source, outerEnv.isStrictMode());
     }
 
+    @TruffleBoundary(transferToInterpreterOnException = false)
+    @Override
+    public ScriptNode parseEval(JSContext context, Node lastNode, Source source) {
+        return parseEval(context, lastNode, null, source, false);
+    }
+
+    @TruffleBoundary(transferToInterpreterOnException = false)
+    @Override
+    public ScriptNode parseEval(JSContext context, Node lastNode, Source source, Object currEnvironment) {
+        assert currEnvironment instanceof Environment;
+        Environment outerEnv = (Environment) currEnvironment;
+        return parseEval(context, lastNode, outerEnv, source, outerEnv.isStrictMode());
+    }
+
+    @TruffleBoundary(transferToInterpreterOnException = false)
+    @Override
+    public Object runParsedEval(JSRealm realm, ScriptNode scriptNode, MaterializedFrame frame, Object thisObj) {
+        return runParsed(scriptNode, realm, thisObj, frame);
+    }
+
     @Override
     public JavaScriptNode parseInlineScript(JSContext context, Source source, Environment env, boolean isStrict) {
         ScriptNode script = JavaScriptTranslator.translateInlineScript(NodeFactory.getInstance(context), context, env, source, isStrict);
@@ -266,6 +289,10 @@ public final class GraalJSEvaluator implements JSParser {
             return fakeScriptForModule(context, source);
         }
         try {
+            String codeCacheDir = context.getContextOptions().getCodeCacheDir();
+            if (!codeCacheDir.isEmpty()) {
+                return CodeCache.parseScriptNode(context, source, context.getParserOptions().isStrict(), codeCacheDir);
+            }
             return JavaScriptTranslator.translateScript(NodeFactory.getInstance(context), context, source, context.getParserOptions().isStrict());
         } catch (com.oracle.js.parser.ParserException e) {
             throw Errors.createSyntaxError(e.getMessage());
@@ -335,6 +362,50 @@ public final class GraalJSEvaluator implements JSParser {
         }
     }
 
+    @TruffleBoundary
+    @Override
+    public Object preparseModule(JSContext context, Source source) {
+        List<RegexToken> regexLiterals = new ArrayList<>();
+        ErrorManager.StringBuilderErrorManager errors = new ErrorManager.StringBuilderErrorManager();
+        com.oracle.js.parser.ir.FunctionNode parsed = GraalJSParserHelper.preparseModule(context, source, context.getParserOptions().putStrict(true), regexLiterals, errors);
+        return new PreparsedModule(parsed, regexLiterals, errors);
+    }
+
+    @TruffleBoundary
+    @Override
+    public JSModuleRecord parseModule(JSContext context, Source source, JSModuleLoader moduleLoader, Object preparsedModule) {
+        PreparsedModule preparsed = (PreparsedModule) preparsedModule;
+        if (preparsed.parsed == null) {
+            GraalJSParserHelper.throwErrors(source, preparsed.errors);
+        }
+        if (context.getContextOptions().isValidateRegExpLiterals()) {
+            int ecmaScriptVersion = context.getParserOptions().getEcmaScriptVersion();
+            for (RegexToken regex : preparsed.regexLiterals) {
+                try {
+                    RegexCompilerInterface.validate(context, regex.getExpression(), regex.getOptions(), ecmaScriptVersion);
+                } catch (JSException e) {
+                    // parse again to report the error with its source location
+                    return parseModule(context, source, moduleLoader);
+                }
+            }
+        }
+        return JavaScriptTranslator.translateModule(NodeFactory.getInstance(context), context, source, moduleLoader, preparsed.parsed);
+    }
+
+    private static final class PreparsedModule {
+        final com.oracle.js.parser.ir.FunctionNode parsed;
+        /** Regular expression literals that still need to be validated on the context thread. */
+        final List<RegexToken> regexLiterals;
+        /** Syntax errors, reported on the context thread if {@link #parsed} is {@code null}. */
+        final ErrorManager errors;
+
+        PreparsedModule(com.oracle.js.parser.ir.FunctionNode parsed, List<RegexToken> regexLiterals, ErrorManager errors) {
+            this.parsed = parsed;
+            this.regexLiterals = regexLiterals;
+            this.errors = errors;
+        }
+    }
+
     @TruffleBoundary
     @Override
     public JSModuleRecord hostResolveImportedModule(JSContext context, ScriptOrModule referrer, String specifier) {
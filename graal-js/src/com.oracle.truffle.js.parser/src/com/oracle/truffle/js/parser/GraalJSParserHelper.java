@@ -41,6 +41,7 @@
 package com.oracle.truffle.js.parser;
 
 import java.io.PrintWriter;
+import java.util.List;
 import java.util.function.Function;
 
 import com.oracle.js.parser.ErrorManager;
@@ -65,6 +66,7 @@ import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSException;
 import com.oracle.truffle.js.runtime.JSParserOptions;
 import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.JSTruffleOptions;
 import com.oracle.truffle.js.runtime.RegexCompilerInterface;
 
 public final class GraalJSParserHelper {
@@ -80,20 +82,30 @@ public final class GraalJSParserHelper {
     }
 
     public static FunctionNode parseScript(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions, boolean eval, boolean evalInGlobalScope) {
-        return parseSource(context, truffleSource, parserOptions, false, eval, evalInGlobalScope);
+        return parseSource(context, truffleSource, parserOptions, false, eval, evalInGlobalScope, null);
     }
 
     public static FunctionNode parseModule(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions) {
-        return parseSource(context, truffleSource, parserOptions, true, false, false);
+        return parseSource(context, truffleSource, parserOptions, true, false, false, null);
     }
 
-    private static FunctionNode parseSource(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions,
-                    boolean parseModule, boolean eval, boolean evalInGlobalScope) {
-        CompilerAsserts.neverPartOfCompilation(NEVER_PART_OF_COMPILATION_MESSAGE);
-        CharSequence code = truffleSource.getCharacters();
-        com.oracle.js.parser.Source source = com.oracle.js.parser.Source.sourceFor(truffleSource.getName(), code, eval);
+    /**
+     * Parses a module on a thread that is not necessarily entered into the context. No JavaScript
+     * errors are created: regular expression literals are not validated but added to
+     * {@code deferredRegexLiterals}, and syntax errors are only recorded in {@code errors}. Both
+     * are to be checked on the context thread before translation, see {@link #throwErrors}.
+     *
+     * @return the parsed module, or {@code null} if there were syntax errors
+     */
+    public static FunctionNode preparseModule(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions, List<RegexToken> deferredRegexLiterals,
+                    ErrorManager.StringBuilderErrorManager errors) {
+        errors.setLimit(0);
+        FunctionNode parsed = parseSource(context, truffleSource, parserOptions, true, false, false, deferredRegexLiterals, errors);
+        return errors.hasErrors() ? null : parsed;
+    }
 
-        ScriptEnvironment env = makeScriptEnvironment(parserOptions);
+    private static FunctionNode parseSource(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions,
+                    boolean parseModule, boolean eval, boolean evalInGlobalScope, List<RegexToken> deferredRegexLiterals) {
         ErrorManager errors;
         if (eval) {
             errors = new ErrorManager.ThrowErrorManager();
@@ -102,7 +114,24 @@ public final class GraalJSParserHelper {
         }
         errors.setLimit(0);
 
-        Parser parser = createParser(context, env, source, errors, parserOptions);
+        FunctionNode parsed = parseSource(context, truffleSource, parserOptions, parseModule, eval, evalInGlobalScope, deferredRegexLiterals, errors);
+        if (errors.hasErrors()) {
+            throwErrors(truffleSource, errors);
+        }
+        return parsed;
+    }
+
+    private static FunctionNode parseSource(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions,
+                    boolean parseModule, boolean eval, boolean evalInGlobalScope, List<RegexToken> deferredRegexLiterals, ErrorManager errors) {
+        CompilerAsserts.neverPartOfCompilation(NEVER_PART_OF_COMPILATION_MESSAGE);
+        CharSequence code = truffleSource.getCharacters();
+        com.oracle.js.parser.Source source = com.oracle.js.parser.Source.sourceFor(truffleSource.getName(), code, eval);
+
+        ScriptEnvironment env = makeScriptEnvironment(parserOptions);
+        Parser parser = createParser(context, env, source, errors, parserOptions, deferredRegexLiterals);
+        if (JSTruffleOptions.LazyParsing && !parseModule && !eval) {
+            parser.setDeferFunctionBodies(true);
+        }
 
         FunctionNode parsed;
         if (parseModule) {
@@ -112,10 +141,6 @@ public final class GraalJSParserHelper {
         } else {
             parsed = parser.parse();
         }
-
-        if (errors.hasErrors()) {
-            throwErrors(truffleSource, errors);
-        }
         return parsed;
     }
 
@@ -137,14 +162,44 @@ public final class GraalJSParserHelper {
         return expression;
     }
 
+    /**
+     * Reparses a function whose body was deferred during the initial parse of the script.
+     *
+     * @see Parser#parseFunction(int, int, int, boolean)
+     */
+    public static FunctionNode parseFunction(JSContext context, com.oracle.truffle.api.source.Source truffleSource, int startPos, int length, int line, boolean strict) {
+        CompilerAsserts.neverPartOfCompilation(NEVER_PART_OF_COMPILATION_MESSAGE);
+        com.oracle.js.parser.Source source = com.oracle.js.parser.Source.sourceFor(truffleSource.getName(), truffleSource.getCharacters(), false);
+        JSParserOptions parserOptions = context.getParserOptions();
+        ScriptEnvironment env = makeScriptEnvironment(parserOptions);
+        ErrorManager errors = new ErrorManager.ThrowErrorManager();
+        errors.setLimit(0);
+
+        Parser parser = createParser(context, env, source, errors, parserOptions);
+        // nested functions are only pre-parsed again
+        parser.setDeferFunctionBodies(true);
+        try {
+            return parser.parseFunction(startPos, length, line, strict);
+        } catch (ParserException e) {
+            throw Errors.createSyntaxError(e.getMessage());
+        }
+    }
+
     private static Parser createParser(JSContext context, ScriptEnvironment env, com.oracle.js.parser.Source source, ErrorManager errors, JSParserOptions parserOptions) {
+        return createParser(context, env, source, errors, parserOptions, null);
+    }
+
+    private static Parser createParser(JSContext context, ScriptEnvironment env, com.oracle.js.parser.Source source, ErrorManager errors, JSParserOptions parserOptions,
+                    List<RegexToken> deferredRegexLiterals) {
         return new Parser(env, source, errors) {
             @Override
             protected void validateLexerToken(LexerToken lexerToken) {
                 if (lexerToken instanceof RegexToken) {
                     final RegexToken regex = (RegexToken) lexerToken;
-                    // validate regular expression
-                    if (context.getContextOptions().isValidateRegExpLiterals()) {
+                    if (deferredRegexLiterals != null) {
+                        deferredRegexLiterals.add(regex);
+                    } else if (context.getContextOptions().isValidateRegExpLiterals()) {
+                        // validate regular expression
                         try {
                             RegexCompilerInterface.validate(context, regex.getExpression(), regex.getOptions(), parserOptions.getEcmaScriptVersion());
                         } catch (JSException e) {
@@ -193,7 +248,7 @@ public final class GraalJSParserHelper {
         parser.parseFunctionBody(generator, async);
     }
 
-    private static void throwErrors(com.oracle.truffle.api.source.Source source, ErrorManager errors) {
+    static void throwErrors(com.oracle.truffle.api.source.Source source, ErrorManager errors) {
         ParserException parserException = errors.getParserException();
         SourceSection sourceLocation = null;
         boolean isIncompleteSource = false;
@@ -338,7 +338,9 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
         }
         boolean functionMode = !isGlobal || (isStrict && isIndirectEval);
 
-        boolean lazyTranslation = JSTruffleOptions.LazyTranslation && functionMode && !functionNode.isProgram() && !inDirectEval;
+        boolean lazyParsing = functionNode.hasDeferredBody();
+        boolean lazyTranslation = (JSTruffleOptions.LazyTranslation || lazyParsing) && functionMode && !functionNode.isProgram() && !inDirectEval;
+        assert !lazyParsing || lazyTranslation;
 
         String functionName = getFunctionName(functionNode);
         JSFunctionData functionData;
@@ -353,11 +355,27 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                             needsParentFrame, isGeneratorFunction, isAsyncFunction, isClassConstructor, strictFunctionProperties, needsNewTarget);
 
             Environment parentEnv = environment;
-            functionData.setLazyInit(fd -> {
-                GraalJSTranslator translator = newTranslator(parentEnv);
-                translator.translateFunctionOnDemand(functionNode, fd, isStrict, isArrowFunction, isGeneratorFunction, isAsyncFunction, isDerivedConstructor, isGlobal,
-                                needsNewTarget, needsParentFrame, functionName);
-            });
+            if (lazyParsing) {
+                // The body has only been pre-parsed; parse the function on first invocation.
+                Source functionSource = source;
+                int start = functionNode.getStart();
+                int length = functionNode.getFinish() - start;
+                int lineNumber = functionNode.getLineNumber();
+                int flags = functionNode.getFlags();
+                String[] ancestorVariables = functionNode.getFreeVariables();
+                functionData.setLazyInit(fd -> {
+                    FunctionNode reparsedFunctionNode = reparseFunction(functionSource, start, length, lineNumber, isStrict, flags, needsParentFrame, ancestorVariables);
+                    GraalJSTranslator translator = newTranslator(parentEnv);
+                    translator.translateFunctionOnDemand(reparsedFunctionNode, fd, isStrict, isArrowFunction, isGeneratorFunction, isAsyncFunction, isDerivedConstructor, isGlobal,
+                                    needsNewTarget, needsParentFrame, functionName);
+                });
+            } else {
+                functionData.setLazyInit(fd -> {
+                    GraalJSTranslator translator = newTranslator(parentEnv);
+                    translator.translateFunctionOnDemand(functionNode, fd, isStrict, isArrowFunction, isGeneratorFunction, isAsyncFunction, isDerivedConstructor, isGlobal,
+                                    needsNewTarget, needsParentFrame, functionName);
+                });
+            }
             functionRoot = null;
         } else {
             try (EnvironmentCloseable functionEnv = enterFunctionEnvironment(isStrict, isArrowFunction, isGeneratorFunction, isDerivedConstructor, isAsyncFunction, isGlobal)) {
@@ -384,7 +402,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                 }
 
                 if (functionNode.isProgram()) {
-                    functionNeedsParentFramePass(functionNode);
+                    functionNeedsParentFramePass(functionNode, new String[0]);
                 }
 
                 boolean needsParentFrame = functionNode.usesAncestorScope();
@@ -495,6 +513,23 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
         }
     }
 
+    /**
+     * Parses a function whose body has been skipped by the initial parse and restores the
+     * information computed for it by the original parse and the {@link #functionNeedsParentFramePass
+     * parent frame analysis}.
+     *
+     * @param ancestorVariables free variables of the function that are resolved in an ancestor scope
+     */
+    private FunctionNode reparseFunction(Source functionSource, int start, int length, int lineNumber, boolean isStrict, int flags, boolean usesAncestorScope, String[] ancestorVariables) {
+        FunctionNode functionNode = GraalJSParserHelper.parseFunction(context, functionSource, start, length, lineNumber, isStrict);
+        assert functionNode.getStart() == start && functionNode.getFinish() == start + length;
+        // declaration vs. expression is inferred from the context of the original parse
+        functionNode = functionNode.setFlags(null, functionNode.getFlags() | (flags & (FunctionNode.IS_DECLARED | FunctionNode.IS_STATEMENT)));
+        functionNode.setUsesAncestorScope(usesAncestorScope);
+        functionNeedsParentFramePass(functionNode, ancestorVariables);
+        return functionNode;
+    }
+
     private FunctionRootNode createFunctionRoot(FunctionNode functionNode, JSFunctionData functionData, FunctionEnvironment currentFunction, JavaScriptNode body) {
         SourceSection functionSourceSection = createSourceSection(functionNode);
         FunctionBodyNode functionBody = factory.createFunctionBody(body);
@@ -924,10 +959,17 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
         return Collections.emptyList();
     }
 
-    private static void functionNeedsParentFramePass(FunctionNode rootFunctionNode) {
-        if (!JSTruffleOptions.LazyTranslation) {
+    /**
+     * Marks the functions that need the frame of their parent function.
+     *
+     * @param ancestorVariables names referenced by {@code rootFunctionNode} that are resolved in an
+     *            ancestor scope of it, if it is not a program
+     */
+    private static void functionNeedsParentFramePass(FunctionNode rootFunctionNode, String[] ancestorVariables) {
+        if (!JSTruffleOptions.LazyTranslation && !JSTruffleOptions.LazyParsing) {
             return; // nothing to do
         }
+        List<String> ancestorVariableList = Arrays.asList(ancestorVariables);
 
         com.oracle.js.parser.ir.visitor.NodeVisitor<LexicalContext> visitor = new com.oracle.js.parser.ir.visitor.NodeVisitor<LexicalContext>(new LexicalContext()) {
             @Override
@@ -939,8 +981,13 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                 return true;
             }
 
-            private void findSymbol(String varName) {
+            /**
+             * @return whether the variable is resolved in an ancestor scope of the function that
+             *         references it (or might be, due to {@code with} or {@code eval})
+             */
+            private boolean findSymbol(String varName) {
                 boolean local = true;
+                boolean dynamic = false;
                 FunctionNode lastFunction = null;
                 for (Iterator<LexicalContextNode> iterator = lc.getAllNodes(); iterator.hasNext();) {
                     LexicalContextNode node = iterator.next();
@@ -950,7 +997,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                             if (!local) {
                                 markUsesAncestorScopeUntil(lastFunction, true);
                             }
-                            break;
+                            return !local;
                         }
                     } else if (node instanceof FunctionNode) {
                         FunctionNode function = (FunctionNode) node;
@@ -958,7 +1005,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                             if (!local) {
                                 markUsesAncestorScopeUntil(lastFunction, true);
                             }
-                            break;
+                            return !local;
                         } else if (function.isArrow() && isVarLexicallyScopedInArrowFunction(varName)) {
                             FunctionNode nonArrowFunction = lc.getCurrentNonArrowFunction();
                             // `this` is read from the arrow function object,
@@ -968,14 +1015,15 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                                     markUsesAncestorScopeUntil(nonArrowFunction, false);
                                 }
                             }
-                            break;
+                            return false;
                         } else if (!function.isProgram() && varName.equals(Environment.ARGUMENTS_NAME)) {
                             assert !function.isArrow();
                             assert local;
-                            break;
+                            return false;
                         } else if (function.hasEval() && !function.isProgram()) {
                             if (!local) {
                                 markUsesAncestorScopeUntil(lastFunction, true);
+                                dynamic = true;
                             }
                         }
                         lastFunction = function;
@@ -983,9 +1031,16 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                     } else if (node instanceof WithNode) {
                         if (!local) {
                             markUsesAncestorScopeUntil(lastFunction, true);
+                            dynamic = true;
                         }
                     }
                 }
+                if (!local && ancestorVariableList.contains(varName)) {
+                    // resolved outside of the reparsed function
+                    markUsesAncestorScopeUntil(lastFunction, true);
+                    return true;
+                }
+                return dynamic;
             }
 
             private boolean isVarLexicallyScopedInArrowFunction(String varName) {
@@ -1018,6 +1073,17 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                 if (functionNode.hasEval()) {
                     markUsesAncestorScopeUntil(null, false);
                 }
+                if (functionNode.hasDeferredBody()) {
+                    // the body has not been parsed yet, resolve its free variables instead
+                    List<String> resolved = new ArrayList<>();
+                    for (String varName : functionNode.getFreeVariables()) {
+                        if (findSymbol(varName)) {
+                            resolved.add(varName);
+                        }
+                    }
+                    functionNode.setFreeVariables(resolved.toArray(new String[resolved.size()]));
+                    return false;
+                }
                 // TODO if function does not have nested functions we can skip it
                 return true;
             }
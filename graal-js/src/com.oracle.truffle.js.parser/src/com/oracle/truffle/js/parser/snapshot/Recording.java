@@ -38,7 +38,7 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-package com.oracle.truffle.js.snapshot;
+package com.oracle.truffle.js.parser.snapshot;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -1847,7 +1847,7 @@ public class Recording {
         }
     }
 
-    static void logv(String format, Object... args) {
+    public static void logv(String format, Object... args) {
         if (VERBOSE) {
             System.out.println(String.format(format, args));
         }
@@ -38,7 +38,7 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-package com.oracle.truffle.js.snapshot;
+package com.oracle.truffle.js.parser.snapshot;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
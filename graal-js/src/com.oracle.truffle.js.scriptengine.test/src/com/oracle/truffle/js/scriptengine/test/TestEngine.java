@@ -41,19 +41,27 @@
 package com.oracle.truffle.js.scriptengine.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeFalse;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.ref.WeakReference;
 
 import javax.script.Bindings;
 import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.Invocable;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
 
+import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Source;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -190,4 +198,111 @@ public class TestEngine {
         // null is returned for unknown parameters (i.e. no exception is thrown)
         assertEquals(null, factory.getParameter("noValueIsAssignedToThisKey"));
     }
+
+    @Test
+    public void compiledScriptInManyContexts() throws ScriptException {
+        ScriptEngine engine = getEngine();
+        CompiledScript script = ((Compilable) engine).compile("var counter = (typeof counter === 'undefined') ? x : counter + x; counter;");
+        for (int i = 0; i < 10; i++) {
+            ScriptContext ctx = new SimpleScriptContext();
+            ctx.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
+            ctx.getBindings(ScriptContext.ENGINE_SCOPE).put("x", i);
+            // every context starts with a fresh global object
+            assertEquals(i, script.eval(ctx));
+            assertEquals(2 * i, script.eval(ctx));
+        }
+        Bindings bindings = engine.createBindings();
+        bindings.put("x", 42);
+        assertEquals(42, script.eval(bindings));
+    }
+
+    @Test
+    public void compileReportsSyntaxError() {
+        try {
+            ((Compilable) getEngine()).compile("var = ;");
+            fail("expected ScriptException");
+        } catch (ScriptException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void compiledScriptDoesNotRetainContext() throws ScriptException, InterruptedException {
+        ScriptEngine engine = getEngine();
+        CompiledScript script = ((Compilable) engine).compile("42");
+        ScriptContext ctx = new SimpleScriptContext();
+        ctx.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
+        assertEquals(42, script.eval(ctx));
+        Context polyglotContext = ((GraalJSScriptEngine) engine).getPolyglotContext(ctx);
+        polyglotContext.close();
+        WeakReference<Context> contextRef = new WeakReference<>(polyglotContext);
+        polyglotContext = null;
+        ctx = null;
+        for (int i = 0; i < 100 && contextRef.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(null, contextRef.get());
+        assertEquals(42, script.eval());
+    }
+
+    @Test
+    public void contextPool() throws ScriptException {
+        GraalJSScriptEngine engine = (GraalJSScriptEngine) getEngine();
+        engine.setContextPoolSize(2);
+        CompiledScript script = engine.compile("typeof y === 'undefined' ? (y = 1) : ++y");
+        Context previous = null;
+        for (int i = 0; i < 5; i++) {
+            ScriptContext ctx = new SimpleScriptContext();
+            ctx.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
+            assertEquals(1, script.eval(ctx));
+            Context polyglotContext = engine.getPolyglotContext(ctx);
+            if (previous != null) {
+                assertNotSame(previous, polyglotContext);
+            }
+            previous = polyglotContext;
+        }
+        engine.setContextPoolSize(0);
+        engine.close();
+    }
+
+    @Test
+    public void contextPoolStreams() throws ScriptException {
+        GraalJSScriptEngine engine = (GraalJSScriptEngine) getEngine();
+        engine.setContextPoolSize(2);
+        for (int i = 0; i < 10; i++) {
+            ScriptContext ctx = new SimpleScriptContext();
+            ctx.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
+            StringWriter out = new StringWriter();
+            ctx.setWriter(out);
+            engine.eval("print('context " + i + "')", ctx);
+            assertEquals("context " + i + "\n", out.toString());
+        }
+        engine.close();
+    }
+
+    @Test
+    public void customizedContextDoesNotChangeConfig() throws ScriptException {
+        // nashorn compatibility mode allows everything
+        assumeFalse(Boolean.getBoolean("polyglot.js.nashorn-compat"));
+        GraalJSScriptEngine engine = (GraalJSScriptEngine) getEngine();
+        engine.setContextPoolSize(1);
+        String hostAccess = "try { Java.type('java.lang.Object'); true; } catch (e) { false; }";
+        Bindings customized = engine.createBindings();
+        customized.put("polyglot.js.allowHostAccess", true);
+        customized.put("polyglot.js.allowHostClassLookup", true);
+        assertEquals(true, engine.eval(hostAccess, customized));
+        assertEquals(false, engine.eval(hostAccess, engine.createBindings()));
+        engine.setContextPoolSize(0);
+        assertEquals(false, engine.eval(hostAccess, engine.createBindings()));
+        engine.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void customizedContextWithCustomConfig() {
+        GraalJSScriptEngine engine = GraalJSScriptEngine.create(null, Context.newBuilder("js").allowExperimentalOptions(true));
+        // the custom configuration is shared and must not be changed
+        engine.createBindings().put("polyglot.js.allowHostAccess", true);
+        fail();
+    }
 }
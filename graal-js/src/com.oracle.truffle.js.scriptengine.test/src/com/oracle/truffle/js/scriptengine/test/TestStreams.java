@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.scriptengine.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
+
+/**
+ * Tests the bridging of the polyglot context streams to the reader and writers of the
+ * ScriptContext.
+ */
+public class TestStreams {
+
+    private static final String NON_ASCII = "a\u00e9\u4e2d\ud83d\ude00";
+
+    private static ScriptEngine getEngine() {
+        return new ScriptEngineManager().getEngineByName(TestEngine.TESTED_ENGINE_NAME);
+    }
+
+    private static void assumeUnicodeCharset() {
+        assumeTrue(Charset.defaultCharset().newEncoder().canEncode(NON_ASCII));
+    }
+
+    @Test
+    public void writeNonAscii() throws ScriptException {
+        assumeUnicodeCharset();
+        ScriptEngine engine = getEngine();
+        StringWriter out = new StringWriter();
+        StringWriter err = new StringWriter();
+        engine.getContext().setWriter(out);
+        engine.getContext().setErrorWriter(err);
+        engine.eval("print('" + NON_ASCII + "'); console.error('" + NON_ASCII + "');");
+        assertEquals(NON_ASCII + "\n", out.toString());
+        assertEquals(NON_ASCII + "\n", err.toString());
+    }
+
+    @Test
+    public void readNonAscii() throws ScriptException {
+        assumeUnicodeCharset();
+        ScriptEngine engine = GraalJSScriptEngine.create(null, Context.newBuilder("js").allowExperimentalOptions(true).option("js.shell", "true"));
+        engine.getContext().setReader(new StringReader(NON_ASCII + "\n"));
+        assertEquals(NON_ASCII, engine.eval("readline()"));
+    }
+
+    @Test
+    public void writeManyLines() throws ScriptException {
+        assumeUnicodeCharset();
+        ScriptEngine engine = getEngine();
+        StringWriter out = new StringWriter();
+        engine.getContext().setWriter(out);
+        ScriptContext ctx = engine.getContext();
+        int lines = 20000;
+        String line = "line " + NON_ASCII + " 0123456789abcdefghijklmnopqrstuvwxyz";
+        engine.put("line", line);
+        engine.eval("for (var i = 0; i < " + lines + "; i++) { print(line); }", ctx);
+
+        String output = out.toString();
+        assertEquals(lines * (line.length() + 1), output.length());
+        assertEquals(line + "\n", output.substring(0, line.length() + 1));
+        assertEquals(line + "\n", output.substring(output.length() - line.length() - 1));
+    }
+}
@@ -43,10 +43,12 @@ package com.oracle.truffle.js.scriptengine;
 import java.util.AbstractMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import javax.script.Bindings;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.TypeLiteral;
 import org.graalvm.polyglot.Value;
 
@@ -61,10 +63,14 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
     private Map<String, Object> global;
     private Value deleteProperty;
     private Value clear;
+    /** Private configuration of a context customized with graal-js options. */
     private Context.Builder contextBuilder;
+    private GraalJSScriptEngine engine;
+    /** Compiled scripts parsed in this context, weakly keyed by the owning CompiledScript. */
+    private Map<Object, Value> parsedScripts;
 
-    GraalJSBindings(Context.Builder contextBuilder) {
-        this.contextBuilder = contextBuilder;
+    GraalJSBindings(GraalJSScriptEngine engine) {
+        this.engine = engine;
     }
 
     GraalJSBindings(Context context) {
@@ -79,7 +85,11 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
     }
 
     private void initContext() {
-        context = GraalJSScriptEngine.createDefaultContext(contextBuilder);
+        if (contextBuilder != null) {
+            context = GraalJSScriptEngine.createDefaultContext(contextBuilder);
+        } else {
+            context = engine.createDefaultContext();
+        }
         initGlobal();
     }
 
@@ -87,6 +97,19 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
         this.global = GraalJSScriptEngine.evalInternal(context, "this").as(STRING_MAP);
     }
 
+    Value getParsedScript(Object compiledScript, Source source) {
+        requireContext();
+        if (parsedScripts == null) {
+            parsedScripts = new WeakHashMap<>();
+        }
+        Value parsed = parsedScripts.get(compiledScript);
+        if (parsed == null) {
+            parsed = context.parse(source);
+            parsedScripts.put(compiledScript, parsed);
+        }
+        return parsed;
+    }
+
     private Value deletePropertyFunction() {
         if (this.deleteProperty == null) {
             this.deleteProperty = GraalJSScriptEngine.evalInternal(context, "(function(obj, prop) {delete obj[prop]})");
@@ -109,6 +132,10 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
                 if (optionSetter == null) {
                     throw new IllegalArgumentException("unkown graal-js option \"" + name + "\"");
                 } else {
+                    if (contextBuilder == null) {
+                        // customized contexts cannot be taken from the engine's context pool
+                        contextBuilder = engine.newCustomizedContextConfig(name);
+                    }
                     contextBuilder = optionSetter.setOption(contextBuilder, v);
                     return true;
                 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.scriptengine;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.graalvm.polyglot.Context;
+
+/**
+ * A bounded pool of initialized polyglot contexts created from the base configuration of a
+ * {@link GraalJSScriptEngine}. Contexts are handed out at most once and never returned to the
+ * pool, since a used context carries global state of its previous owner. The pool is refilled in
+ * the background, so that creating bindings for a new ScriptContext does not pay for context and
+ * realm initialization. The refill thread terminates when it is idle, and {@link #close()} stops it
+ * and closes the contexts that were never handed out.
+ */
+final class GraalJSContextPool implements AutoCloseable {
+
+    /** Supplies the configuration of each context; the refill thread must not share a builder. */
+    private final Supplier<Context.Builder> contextConfig;
+    private final int capacity;
+    private final ConcurrentLinkedQueue<Context> contexts = new ConcurrentLinkedQueue<>();
+    /** Number of pooled contexts, including those that are still being created. */
+    private final AtomicInteger size = new AtomicInteger();
+    private static final long IDLE_TIMEOUT_SECONDS = 10;
+
+    private final ThreadPoolExecutor executor;
+    private volatile boolean closed;
+
+    GraalJSContextPool(Supplier<Context.Builder> contextConfig, int capacity) {
+        assert capacity > 0;
+        this.contextConfig = contextConfig;
+        this.capacity = capacity;
+        this.executor = new ThreadPoolExecutor(1, 1, IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "graaljs-script-engine-context-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        refill();
+    }
+
+    /**
+     * Takes a warm context from the pool, or creates a new one if the pool is currently empty.
+     */
+    Context take() {
+        Context ctx = contexts.poll();
+        if (ctx != null) {
+            size.decrementAndGet();
+        }
+        refill();
+        return ctx != null ? ctx : GraalJSScriptEngine.createDefaultContext(contextConfig.get());
+    }
+
+    private void refill() {
+        while (!closed) {
+            int current = size.get();
+            if (current >= capacity) {
+                break;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                executor.execute(this::createPooledContext);
+            }
+        }
+    }
+
+    private void createPooledContext() {
+        if (closed) {
+            return;
+        }
+        Context ctx;
+        try {
+            ctx = GraalJSScriptEngine.createDefaultContext(contextConfig.get());
+            // initialize the realm so that the first evaluation does not have to
+            GraalJSScriptEngine.evalInternal(ctx, "this");
+        } catch (RuntimeException e) {
+            // the failure will be reported when a context is created on demand
+            size.decrementAndGet();
+            return;
+        }
+        contexts.add(ctx);
+        if (closed) {
+            closePooledContexts();
+        }
+    }
+
+    private void closePooledContexts() {
+        Context ctx;
+        while ((ctx = contexts.poll()) != null) {
+            ctx.close();
+        }
+    }
+
+    /**
+     * Stops refilling the pool and closes all contexts that have not been handed out. A context
+     * that is being created concurrently is closed by the refill thread once it is done.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdown();
+        closePooledContexts();
+    }
+}
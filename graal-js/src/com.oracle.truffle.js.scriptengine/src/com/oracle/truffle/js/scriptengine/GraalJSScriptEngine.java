@@ -45,6 +45,13 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.util.function.Predicate;
 
 import javax.script.AbstractScriptEngine;
@@ -82,6 +89,8 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     private static final String JS_SCRIPT_ENGINE_GLOBAL_SCOPE_IMPORT_OPTION = "js.script-engine-global-scope-import";
     private static final String SCRIPT_CONTEXT_GLOBAL_BINDINGS_IMPORT_FUNCTION_NAME = "importScriptEngineGlobalBindings";
     private static final String NASHORN_COMPATIBILITY_MODE_SYSTEM_PROPERTY = "polyglot.js.nashorn-compat";
+    private static final String CONTEXT_POOL_SIZE_SYSTEM_PROPERTY = "polyglot.js.script-engine-context-pool-size";
+    private static final String STREAM_BUFFER_SIZE_SYSTEM_PROPERTY = "polyglot.js.script-engine-stream-buffer-size";
     static final String MAGIC_OPTION_PREFIX = "polyglot.js.";
 
     interface MagicBindingsOptionSetter {
@@ -212,6 +221,8 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     private static final EconomicSet<String> MAGIC_BINDINGS_OPTION_KEYS = EconomicSet.create();
     static final EconomicMap<String, MagicBindingsOptionSetter> MAGIC_BINDINGS_OPTION_MAP = EconomicMap.create();
     private static final boolean NASHORN_COMPATIBILITY_MODE = Boolean.getBoolean(NASHORN_COMPATIBILITY_MODE_SYSTEM_PROPERTY);
+    private static final int DEFAULT_CONTEXT_POOL_SIZE = Integer.getInteger(CONTEXT_POOL_SIZE_SYSTEM_PROPERTY, 0);
+    private static final int STREAM_BUFFER_SIZE = Math.max(64, Integer.getInteger(STREAM_BUFFER_SIZE_SYSTEM_PROPERTY, 8192));
 
     static {
         for (MagicBindingsOptionSetter setter : MAGIC_OPTION_SETTERS) {
@@ -221,10 +232,12 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     }
 
     private final GraalJSEngineFactory factory;
+    /** Base configuration provided by the embedder, or {@code null} for the default one. */
     private final Context.Builder contextConfig;
 
     private volatile boolean closed;
     private boolean evalCalled;
+    private volatile GraalJSContextPool contextPool;
 
     GraalJSScriptEngine(GraalJSEngineFactory factory) {
         this(factory.getPolyglotEngine(), null);
@@ -235,26 +248,86 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         if (engineToUse == null) {
             engineToUse = Engine.newBuilder().allowExperimentalOptions(true).build();
         }
-        Context.Builder contextConfigToUse = contextConfig;
-        if (contextConfigToUse == null) {
-            // default config
-            if (NASHORN_COMPATIBILITY_MODE) {
-                contextConfigToUse = Context.newBuilder(ID).allowExperimentalOptions(true).allowAllAccess(true).option(JS_SYNTAX_EXTENSIONS_OPTION, "true");
-            } else {
-                contextConfigToUse = Context.newBuilder(ID).allowExperimentalOptions(true).option(JS_SYNTAX_EXTENSIONS_OPTION, "true");
-            }
-        }
         this.factory = new GraalJSEngineFactory(engineToUse);
-        this.contextConfig = contextConfigToUse.option(JS_SCRIPT_ENGINE_GLOBAL_SCOPE_IMPORT_OPTION, "true").engine(engineToUse);
-        this.context.setBindings(new GraalJSBindings(this.contextConfig), ScriptContext.ENGINE_SCOPE);
+        this.contextConfig = contextConfig == null ? null : contextConfig.option(JS_SCRIPT_ENGINE_GLOBAL_SCOPE_IMPORT_OPTION, "true").engine(engineToUse);
+        if (DEFAULT_CONTEXT_POOL_SIZE > 0) {
+            this.contextPool = new GraalJSContextPool(this::newContextConfig, DEFAULT_CONTEXT_POOL_SIZE);
+        }
+        this.context.setBindings(new GraalJSBindings(this), ScriptContext.ENGINE_SCOPE);
+    }
+
+    private static Context.Builder newDefaultContextConfig(Engine engine) {
+        Context.Builder builder = Context.newBuilder(ID).allowExperimentalOptions(true).option(JS_SYNTAX_EXTENSIONS_OPTION, "true");
+        if (NASHORN_COMPATIBILITY_MODE) {
+            builder.allowAllAccess(true);
+        }
+        return builder.option(JS_SCRIPT_ENGINE_GLOBAL_SCOPE_IMPORT_OPTION, "true").engine(engine);
+    }
+
+    /**
+     * Returns a builder with the base configuration of this engine. Builders are not thread-safe,
+     * so the default configuration is instantiated for every context. A configuration provided by
+     * the embedder cannot be copied; it is shared and only used while holding its lock.
+     */
+    Context.Builder newContextConfig() {
+        return contextConfig != null ? contextConfig : newDefaultContextConfig(getPolyglotEngine());
+    }
+
+    /**
+     * Returns a private builder with the base configuration of this engine, to be customized with
+     * <code>polyglot.js.*</code> options.
+     */
+    Context.Builder newCustomizedContextConfig(String optionKey) {
+        if (contextConfig != null) {
+            throw new IllegalArgumentException(String.format("failed to set graal-js option \"%s\": not supported with a custom context configuration", optionKey));
+        }
+        return newDefaultContextConfig(getPolyglotEngine());
+    }
+
+    /**
+     * Sets the number of initialized polyglot contexts that are kept ready for new
+     * {@link ScriptContext} instances, e.g. bindings created by {@link #createBindings()}. Only
+     * contexts using the base configuration of this engine are pooled, i.e., bindings with
+     * <code>polyglot.js.*</code> options always create a new context. Pooled contexts are created
+     * in the background and are never reused after they have been handed out. A size of
+     * <code>0</code> disables the pool. The initial size can be set with the
+     * <code>polyglot.js.script-engine-context-pool-size</code> system property.
+     */
+    public synchronized void setContextPoolSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("invalid context pool size: " + size);
+        }
+        if (closed) {
+            throw new IllegalStateException("Context already closed.");
+        }
+        GraalJSContextPool oldPool = contextPool;
+        contextPool = size > 0 ? new GraalJSContextPool(this::newContextConfig, size) : null;
+        if (oldPool != null) {
+            oldPool.close();
+        }
+    }
+
+    /**
+     * Creates a context with the base configuration of this engine, taking it from the context
+     * pool if there is one.
+     */
+    Context createDefaultContext() {
+        GraalJSContextPool pool = contextPool;
+        if (pool != null) {
+            return pool.take();
+        }
+        return createDefaultContext(newContextConfig());
     }
 
     static Context createDefaultContext(Context.Builder builder) {
         DelegatingInputStream in = new DelegatingInputStream();
         DelegatingOutputStream out = new DelegatingOutputStream();
         DelegatingOutputStream err = new DelegatingOutputStream();
-        builder.in(in).out(out).err(err);
-        Context ctx = builder.build();
+        Context ctx;
+        synchronized (builder) {
+            // a shared builder must not be reconfigured by another thread before it is built
+            ctx = builder.in(in).out(out).err(err).build();
+        }
         ctx.getPolyglotBindings().putMember(OUT_SYMBOL, out);
         ctx.getPolyglotBindings().putMember(ERR_SYMBOL, err);
         ctx.getPolyglotBindings().putMember(IN_SYMBOL, in);
@@ -267,8 +340,13 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
      */
     @Override
     public void close() {
-        getPolyglotContext().close();
         closed = true;
+        GraalJSContextPool pool = contextPool;
+        if (pool != null) {
+            contextPool = null;
+            pool.close();
+        }
+        getPolyglotContext().close();
     }
 
     /**
@@ -303,7 +381,7 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
 
     @Override
     public Bindings createBindings() {
-        return new GraalJSBindings(contextConfig);
+        return new GraalJSBindings(this);
     }
 
     @Override
@@ -334,6 +412,10 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     }
 
     private Object eval(Source source, ScriptContext scriptContext) throws ScriptException {
+        return eval(source, null, scriptContext);
+    }
+
+    private Object eval(Source source, GraalJSCompiledScript compiledScript, ScriptContext scriptContext) throws ScriptException {
         GraalJSBindings engineBindings = getOrCreateGraalJSBindings(scriptContext);
         Context polyglotContext = engineBindings.getContext();
         ((DelegatingOutputStream) polyglotContext.getPolyglotBindings().getMember(OUT_SYMBOL).asProxyObject()).setWriter(scriptContext.getWriter());
@@ -344,6 +426,9 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
                 jrunscriptInitWorkaround(source, polyglotContext);
             }
             importGlobalBindings(scriptContext, engineBindings);
+            if (compiledScript != null) {
+                return engineBindings.getParsedScript(compiledScript, source).execute().as(Object.class);
+            }
             return polyglotContext.eval(source).as(Object.class);
         } catch (PolyglotException e) {
             throw new ScriptException(e);
@@ -373,15 +458,19 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     private Context createContext(Bindings engineB) {
         Object ctx = engineB.get(POLYGLOT_CONTEXT);
         if (!(ctx instanceof Context)) {
-            Context.Builder builder = contextConfig;
+            Context.Builder builder = null;
             for (MagicBindingsOptionSetter optionSetter : MAGIC_OPTION_SETTERS) {
                 Object value = engineB.get(optionSetter.getOptionKey());
                 if (value != null) {
+                    if (builder == null) {
+                        builder = newCustomizedContextConfig(optionSetter.getOptionKey());
+                    }
                     builder = optionSetter.setOption(builder, value);
                     engineB.remove(optionSetter.getOptionKey());
                 }
             }
-            ctx = createDefaultContext(builder);
+            // customized contexts are never taken from the context pool
+            ctx = builder != null ? createDefaultContext(builder) : createDefaultContext();
             engineB.put(POLYGLOT_CONTEXT, ctx);
         }
         return (Context) ctx;
@@ -445,18 +534,7 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         if (closed) {
             throw new IllegalStateException("Context already closed.");
         }
-        Source source = createSource(script, getContext());
-        return new CompiledScript() {
-            @Override
-            public ScriptEngine getEngine() {
-                return GraalJSScriptEngine.this;
-            }
-
-            @Override
-            public Object eval(ScriptContext ctx) throws ScriptException {
-                return GraalJSScriptEngine.this.eval(source, ctx);
-            }
-        };
+        return compile(createSource(script, getContext()));
     }
 
     @Override
@@ -464,46 +542,203 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         if (closed) {
             throw new IllegalStateException("Context already closed.");
         }
-        Source source = createSource(reader, getContext());
-        return new CompiledScript() {
-            @Override
-            public ScriptEngine getEngine() {
-                return GraalJSScriptEngine.this;
-            }
+        return compile(createSource(reader, getContext()));
+    }
 
-            @Override
-            public Object eval(ScriptContext ctx) throws ScriptException {
-                return GraalJSScriptEngine.this.eval(source, ctx);
-            }
-        };
+    private CompiledScript compile(Source source) throws ScriptException {
+        GraalJSCompiledScript compiledScript = new GraalJSCompiledScript(source);
+        try {
+            // Parsing once reports syntax errors eagerly and populates the source cache of the
+            // shared polyglot engine, so other contexts of this engine do not parse the script
+            // again.
+            getOrCreateGraalJSBindings(getContext()).getParsedScript(compiledScript, source);
+        } catch (PolyglotException e) {
+            throw new ScriptException(e);
+        }
+        return compiledScript;
     }
 
+    /**
+     * A script parsed in the shared polyglot engine of this script engine. It can be evaluated in
+     * any ScriptContext whose polyglot context belongs to the same engine: parsing it in another
+     * context is served from the source cache of the engine. The parsed executables are kept by
+     * the bindings of each context (see {@link GraalJSBindings#getParsedScript}), so the compiled
+     * script does not keep any polyglot context alive.
+     */
+    private final class GraalJSCompiledScript extends CompiledScript {
+
+        private final Source source;
+
+        GraalJSCompiledScript(Source source) {
+            this.source = source;
+        }
+
+        @Override
+        public ScriptEngine getEngine() {
+            return GraalJSScriptEngine.this;
+        }
+
+        @Override
+        public Object eval(ScriptContext ctx) throws ScriptException {
+            return GraalJSScriptEngine.this.eval(source, this, ctx);
+        }
+    }
+
+    /**
+     * Bridges the byte oriented input stream of the polyglot context to the {@link Reader} of the
+     * current ScriptContext. Characters are read in bulk and encoded with the default charset, which
+     * is also the charset the JavaScript runtime uses to decode its input stream.
+     */
     private static class DelegatingInputStream extends InputStream implements Proxy {
 
+        private final CharsetEncoder encoder = Charset.defaultCharset().newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(
+                        CodingErrorAction.REPLACE);
+        private final CharBuffer chars = CharBuffer.allocate(STREAM_BUFFER_SIZE);
+        private final ByteBuffer bytes = ByteBuffer.allocate(STREAM_BUFFER_SIZE * 4);
         private Reader reader;
+        private boolean endOfInput;
+
+        DelegatingInputStream() {
+            bytes.flip();
+        }
 
         @Override
         public int read() throws IOException {
-            if (reader != null) {
-                return reader.read();
+            if (!fill()) {
+                return -1;
+            }
+            return bytes.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            } else if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(len, bytes.remaining());
+            bytes.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return bytes.remaining();
+        }
+
+        /**
+         * Makes sure there are encoded bytes available, reading from the reader if necessary.
+         * Returns {@code false} at the end of the input.
+         */
+        private boolean fill() throws IOException {
+            while (!bytes.hasRemaining()) {
+                if (reader == null || endOfInput) {
+                    return false;
+                }
+                // chars is in write mode here and may hold a split surrogate pair
+                int n = reader.read(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+                if (n < 0) {
+                    endOfInput = true;
+                } else {
+                    chars.position(chars.position() + n);
+                }
+                chars.flip();
+                bytes.clear();
+                encoder.encode(chars, bytes, endOfInput);
+                if (endOfInput) {
+                    encoder.flush(bytes);
+                }
+                chars.compact();
+                bytes.flip();
             }
-            return 0;
+            return true;
         }
 
         void setReader(Reader reader) {
-            this.reader = reader;
+            if (this.reader != reader) {
+                this.reader = reader;
+                this.endOfInput = false;
+                encoder.reset();
+                chars.clear();
+                bytes.clear();
+                bytes.flip();
+            }
         }
 
     }
 
+    /**
+     * Bridges the byte oriented output streams of the polyglot context to the {@link Writer} of the
+     * current ScriptContext. Bytes are decoded in bulk with the default charset, which is also the
+     * charset the JavaScript runtime uses to encode its output. Decoded characters are passed on to
+     * the writer at the end of every write, only an incomplete multi-byte sequence is kept until the
+     * next write. The size of the decoding buffer can be set with the
+     * <code>polyglot.js.script-engine-stream-buffer-size</code> system property.
+     */
     private static class DelegatingOutputStream extends OutputStream implements Proxy {
 
+        private final CharsetDecoder decoder = Charset.defaultCharset().newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(
+                        CodingErrorAction.REPLACE);
+        private final CharBuffer chars = CharBuffer.allocate(STREAM_BUFFER_SIZE);
+        /** Bytes of a multi-byte sequence that has been split between writes. */
+        private final ByteBuffer pending = ByteBuffer.allocate(16);
+        private final byte[] singleByte = new byte[1];
         private Writer writer;
 
         @Override
         public void write(int b) throws IOException {
-            if (writer != null) {
-                writer.write(b);
+            singleByte[0] = (byte) b;
+            write(singleByte, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (writer == null) {
+                return;
+            }
+            int offset = off;
+            int end = off + len;
+            // complete a split sequence first, one byte at a time
+            while (pending.position() > 0 && offset < end) {
+                pending.put(b[offset++]);
+                pending.flip();
+                decode(pending);
+                pending.compact();
+            }
+            if (offset < end) {
+                ByteBuffer in = ByteBuffer.wrap(b, offset, end - offset);
+                decode(in);
+                if (in.hasRemaining()) {
+                    pending.put(in);
+                }
+            }
+            writeChars();
+        }
+
+        private void decode(ByteBuffer in) throws IOException {
+            while (true) {
+                CoderResult result = decoder.decode(in, chars, false);
+                if (result.isOverflow()) {
+                    writeChars();
+                } else {
+                    // underflow: remaining bytes (if any) are the start of an incomplete sequence
+                    assert result.isUnderflow();
+                    return;
+                }
+            }
+        }
+
+        private void writeChars() throws IOException {
+            if (chars.position() > 0) {
+                writer.write(chars.array(), chars.arrayOffset(), chars.position());
+                chars.clear();
             }
         }
 
@@ -515,7 +750,11 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         }
 
         void setWriter(Writer writer) {
-            this.writer = writer;
+            if (this.writer != writer) {
+                this.writer = writer;
+                decoder.reset();
+                pending.clear();
+            }
         }
 
     }
@@ -536,6 +775,8 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
      * {@link Builder#out(OutputStream) out},{@link Builder#err(OutputStream) err} and
      * {@link Builder#in(InputStream) in} stream configuration are not inherited from the provided
      * polyglot context config. Instead {@link ScriptContext} output and input streams are used.
+     * The provided configuration is shared by all contexts of the engine, so it cannot be
+     * customized with <code>polyglot.js.*</code> options in {@link Bindings}.
      *
      * @param engine the engine to be used for context configurations or <code>null</code> if a
      *            default engine should be used.
@@ -56,6 +56,8 @@ import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.NodeFactory;
 import com.oracle.truffle.js.nodes.ScriptNode;
 import com.oracle.truffle.js.parser.JavaScriptTranslator;
+import com.oracle.truffle.js.parser.snapshot.Recording;
+import com.oracle.truffle.js.parser.snapshot.RecordingProxy;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRealm;
 import com.oracle.truffle.js.runtime.JSTruffleOptions;
@@ -63,6 +65,7 @@ import com.oracle.truffle.js.runtime.JSTruffleOptions;
 public class SnapshotTool {
     static {
         System.setProperty("truffle.js.LazyTranslation", "false");
+        System.setProperty("truffle.js.LazyParsing", "false");
     }
 
     private final TimeStats timeStats = new TimeStats();
@@ -72,6 +75,7 @@ public class SnapshotTool {
 
     public static void main(String[] args) throws IOException {
         assert !JSTruffleOptions.LazyTranslation;
+        assert !JSTruffleOptions.LazyParsing;
 
         boolean binary = true;
         String outDir = null;
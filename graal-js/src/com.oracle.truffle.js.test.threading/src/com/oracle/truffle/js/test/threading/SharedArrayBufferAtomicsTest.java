@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.threading;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+/**
+ * Several agents hammering on the same SharedArrayBuffer with Atomics read-modify-write operations
+ * on neighboring elements of different sizes.
+ */
+public class SharedArrayBufferAtomicsTest {
+
+    private static final int AGENTS = 4;
+    private static final int ITERATIONS = 40000;
+
+    private static final String AGENT_SOURCE = "$262.agent.receiveBroadcast(function(sab) {\n" +
+                    "  var i32 = new Int32Array(sab, 0, 4);\n" +
+                    "  var u8 = new Uint8Array(sab, 16, 8);\n" +
+                    "  var i16 = new Int16Array(sab, 24, 4);\n" +
+                    "  var i64 = new BigInt64Array(sab, 32, 2);\n" +
+                    "  for (var i = 0; i < " + ITERATIONS + "; i++) {\n" +
+                    "    Atomics.add(i32, i & 3, 1);\n" +
+                    "    Atomics.add(u8, i & 7, 1);\n" +
+                    "    Atomics.sub(i16, i & 3, 1);\n" +
+                    "    Atomics.add(i64, i & 1, 1n);\n" +
+                    "  }\n" +
+                    "  $262.agent.report('done');\n" +
+                    "  $262.agent.leaving();\n" +
+                    "});\n";
+
+    private static final String MAIN_SOURCE = "var sab = new SharedArrayBuffer(48);\n" +
+                    "for (var a = 0; a < " + AGENTS + "; a++) {\n" +
+                    "  $262.agent.start(agentSource);\n" +
+                    "}\n" +
+                    "$262.agent.broadcast(sab);\n" +
+                    "for (var done = 0; done < " + AGENTS + ";) {\n" +
+                    "  if ($262.agent.getReport() === null) {\n" +
+                    "    $262.agent.sleep(1);\n" +
+                    "  } else {\n" +
+                    "    done++;\n" +
+                    "  }\n" +
+                    "}\n" +
+                    "({\n" +
+                    "  i32: Array.from(new Int32Array(sab, 0, 4)),\n" +
+                    "  u8: Array.from(new Uint8Array(sab, 16, 8)),\n" +
+                    "  i16: Array.from(new Int16Array(sab, 24, 4)),\n" +
+                    "  i64: Array.from(new BigInt64Array(sab, 32, 2), String)\n" +
+                    "});\n";
+
+    @Test(timeout = 120000)
+    public void concurrentReadModifyWrite() {
+        try (Context context = Context.newBuilder("js").allowExperimentalOptions(true).option("js.test262-mode", "true").build()) {
+            context.getBindings("js").putMember("agentSource", AGENT_SOURCE);
+            Value result = context.eval("js", MAIN_SOURCE);
+
+            int total = AGENTS * ITERATIONS;
+            for (int i = 0; i < 4; i++) {
+                assertEquals(total / 4, result.getMember("i32").getArrayElement(i).asInt());
+                assertEquals((short) -(total / 4), result.getMember("i16").getArrayElement(i).asInt());
+            }
+            for (int i = 0; i < 8; i++) {
+                assertEquals((total / 8) & 0xFF, result.getMember("u8").getArrayElement(i).asInt());
+            }
+            for (int i = 0; i < 2; i++) {
+                assertEquals(String.valueOf(total / 2), result.getMember("i64").getArrayElement(i).asString());
+            }
+        }
+    }
+}
@@ -80,4 +80,39 @@ public class ArrayPrototypeBuiltins {
         }
     }
 
+    @Test
+    public void testSortDefault() {
+        try (Context context = Context.newBuilder().build()) {
+            String code = "var a = [10, 9, 1, -1, -10, 100, 2147483647, -2147483648, 0, 21]; a.sort();\n" +
+                            "var b = [5, 3, 30, 4, 1]; b.shift(); b.sort();\n" +
+                            "var c = [3.5, 1, 2, 10]; c.sort();\n" +
+                            "var d = [1e15, 2, -0, 0, 10, -3]; d.sort();\n" +
+                            "var e = new Float64Array([3, NaN, -0, 0, -Infinity, 1.5]); e.sort();\n" +
+                            "var f = new Uint32Array([4294967295, 1, 2147483648, 0]); f.sort();\n" +
+                            "var g = new Int8Array([5, -128, 127, 0]); g.sort();\n" +
+                            "var h = [4, 3]; h[5] = 1; h.sort();\n" +
+                            "function str(x) { return Object.is(x, -0) ? '-0' : String(x); }\n" +
+                            "[a.join(), b.join(), c.join(), d.map(str).join(), Array.from(e, str).join(), f.join(), g.join(), h.length + ':' + h.join() + ':' + (5 in h)].join(';');";
+            Value value = context.eval(JavaScriptLanguage.ID, code);
+            assertEquals("-1,-10,-2147483648,0,1,10,100,21,2147483647,9;1,3,30,4;1,10,2,3.5;-3,-0,0,10,1000000000000000,2;" +
+                            "-Infinity,-0,0,1.5,3,NaN;0,1,2147483648,4294967295;-128,0,5,127;6:1,3,4,,,:false", value.asString());
+        }
+    }
+
+    @Test
+    public void testSortComparator() {
+        try (Context context = Context.newBuilder().build()) {
+            String code = "var a = []; for (var i = 0; i < 100; i++) a.push({k: i % 7, i: i});\n" +
+                            "a.sort((x, y) => x.k - y.k);\n" +
+                            "var stable = a.every((e, j) => j == 0 || a[j - 1].k < e.k || (a[j - 1].k == e.k && a[j - 1].i < e.i));\n" +
+                            "var b = [3, undefined, 1, , 2]; b.sort((x, y) => { if (x === undefined || y === undefined) throw new Error(); return y - x; });\n" +
+                            "var c = [2, 1, 3]; c.sort(() => NaN);\n" +
+                            "var thrown; try { [1, 2, 3].sort(() => { throw 'boom'; }); } catch (e) { thrown = e; }\n" +
+                            "var t = new Int32Array([1, 3, 2]); t.sort((x, y) => y - x);\n" +
+                            "[stable, b.length + ':' + b.join() + ':' + (4 in b), c.join(), thrown, t.join()].join(';');";
+            Value value = context.eval(JavaScriptLanguage.ID, code);
+            assertEquals("true;5:3,2,1,,:false;2,1,3;boom;3,2,1", value.asString());
+        }
+    }
+
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.builtins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.oracle.truffle.js.builtins.helper.TruffleJSONParser;
+import com.oracle.truffle.js.builtins.helper.TruffleJSONUTF8Parser;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSErrorType;
+import com.oracle.truffle.js.runtime.JSException;
+import com.oracle.truffle.js.test.JSTest;
+
+public class JSONParseUTF8Test extends JSTest {
+
+    private static final String JSON = "{\"a\": [1, 2.5, -3e2, 9007199254740993, true, null, {}], " +
+                    "\"\u00e4\u20ac\ud83d\ude00\": \"x\\u0041\\n\u00f6\", \"\": [[]]}";
+
+    private void assertSameResult(Object expected, Object actual) {
+        testHelper.putBinding("expected", expected);
+        testHelper.putBinding("actual", actual);
+        assertTrue(testHelper.runBoolean("JSON.stringify(expected) === JSON.stringify(actual)"));
+    }
+
+    @Test
+    public void testParseDirectBuffer() {
+        byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 4);
+        direct.position(2);
+        direct.put(bytes);
+        direct.position(2).limit(2 + bytes.length);
+
+        testHelper.enterContext();
+        try {
+            JSContext context = testHelper.getJSContext();
+            Object expected = new TruffleJSONParser(context).parse(JSON);
+            Object actual = new TruffleJSONUTF8Parser(context).parse(direct);
+            assertSameResult(expected, actual);
+        } finally {
+            testHelper.leaveContext();
+        }
+        assertEquals(2, direct.position());
+    }
+
+    @Test
+    public void testSyntaxError() {
+        testHelper.enterContext();
+        try {
+            JSContext context = testHelper.getJSContext();
+            new TruffleJSONUTF8Parser(context).parse(ByteBuffer.wrap("{\"a\": [1, }".getBytes(StandardCharsets.UTF_8)));
+            fail("SyntaxError expected");
+        } catch (JSException e) {
+            assertEquals(JSErrorType.SyntaxError, e.getErrorType());
+        } finally {
+            testHelper.leaveContext();
+        }
+    }
+
+    @Test
+    public void testSyntaxErrorPosition() {
+        // the error is reported at the same (character, not byte) position as for the string
+        String json = "{\"\u00e4\u20ac\ud83d\ude00\": [1, }";
+        testHelper.enterContext();
+        try {
+            JSContext context = testHelper.getJSContext();
+            String expected = null;
+            try {
+                new TruffleJSONParser(context).parse(json);
+                fail("SyntaxError expected");
+            } catch (JSException e) {
+                expected = e.getMessage();
+            }
+            try {
+                new TruffleJSONUTF8Parser(context).parse(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+                fail("SyntaxError expected");
+            } catch (JSException e) {
+                assertEquals(JSErrorType.SyntaxError, e.getErrorType());
+                assertEquals(expected, e.getMessage());
+            }
+        } finally {
+            testHelper.leaveContext();
+        }
+    }
+}
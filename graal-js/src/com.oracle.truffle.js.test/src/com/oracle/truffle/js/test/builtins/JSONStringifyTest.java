@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.builtins;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+/**
+ * Tests for the per-shape key cache and the dense array fast path of {@code JSON.stringify}.
+ */
+public class JSONStringifyTest {
+
+    /**
+     * Evaluates the expression repeatedly in one call site, so that later iterations use the
+     * cached data of earlier ones.
+     */
+    private static void assertStringify(String expected, String setup, String expression) {
+        try (Context context = Context.newBuilder().build()) {
+            context.eval(ID, setup);
+            context.eval(ID, "function test(i) { return " + expression + "; }");
+            for (int i = 0; i < 10; i++) {
+                assertEquals(expected, context.eval(ID, "test(" + i + ")").asString());
+            }
+        }
+    }
+
+    private static void assertStringify(String expected, String expression) {
+        assertStringify(expected, "", expression);
+    }
+
+    @Test
+    public void testSameShapeDifferentValues() {
+        assertStringify("[{\"a\":1,\"b\":\"x\"},{\"a\":2.5,\"b\":\"y\"},{\"a\":\"s\"},{\"a\":null,\"b\":[true]}]",
+                        "JSON.stringify([{a: 1, b: 'x'}, {a: 2.5, b: 'y'}, {a: 's', b: undefined}, {a: null, b: [true]}])");
+        assertStringify("[{\"a\":0},{\"b\":1}]", "JSON.stringify([{a: 0, b: function() {}}, {a: Symbol(), b: 1}])");
+        assertStringify("{\"1\":\"y\",\"2\":\"x\",\"b\":1,\"a\":2}", "JSON.stringify({b: 1, 2: 'x', a: 2, 1: 'y'})");
+        assertStringify("[\n  {\n    \"a\": 1\n  },\n  {\n    \"a\": 2\n  }\n]", "JSON.stringify([{a: 1}, {a: 2}], null, 2)");
+    }
+
+    @Test
+    public void testGetterDeletesLaterProperty() {
+        assertStringify("[{\"a\":1,\"b\":2,\"c\":3},{\"a\":1,\"c\":3},{\"a\":1,\"b\":2,\"c\":3}]",
+                        "function o(del) { return {get a() { if (del) { delete this.b; } return 1; }, b: 2, c: 3}; }",
+                        "JSON.stringify([o(false), o(true), o(false)])");
+    }
+
+    @Test
+    public void testGetterAddsLaterProperty() {
+        // the keys are collected before the first value is read
+        assertStringify("[{\"a\":1,\"b\":2},{\"a\":1,\"b\":2}]",
+                        "function o() { return {get a() { this.z = 3; return 1; }, b: 2}; }",
+                        "JSON.stringify([o(), o()])");
+    }
+
+    @Test
+    public void testGetterRedefinesLaterProperty() {
+        assertStringify("[{\"a\":1,\"b\":2},{\"a\":1,\"b\":\"x\"},{\"a\":1,\"b\":2}]",
+                        "function o(redefine) { return {get a() { if (redefine) { Object.defineProperty(this, 'b', {get() { return 'x'; }, enumerable: true}); } return 1; }, b: 2}; }",
+                        "JSON.stringify([o(false), o(true), o(false)])");
+        // the keys are collected before the first value is read
+        assertStringify("{\"a\":1,\"b\":\"hidden\",\"c\":3}",
+                        "function o() { return {get a() { Object.defineProperty(this, 'b', {value: 'hidden', enumerable: false}); return 1; }, b: 2, c: 3}; }",
+                        "JSON.stringify(o())");
+    }
+
+    @Test
+    public void testToJSONChangesParent() {
+        assertStringify("[{\"a\":0,\"b\":2,\"c\":3},{\"a\":1,\"b\":\"changed\"}]",
+                        "function o(change) { var p = {a: {toJSON() { if (change) { p.b = 'changed'; delete p.c; } return change ? 1 : 0; }}, b: 2, c: 3}; return p; }",
+                        "JSON.stringify([o(false), o(true)])");
+    }
+
+    @Test
+    public void testIntArray() {
+        assertStringify("[1,-2,0,2147483647]", "var a = [1, -2, 0]; a.push(2147483647);", "JSON.stringify(a)");
+        assertStringify("[0,1,4]", "JSON.stringify([0, 1, 2].map(x => x * x))");
+    }
+
+    @Test
+    public void testDoubleArray() {
+        assertStringify("[1.5,null,null,null,0,-1e-7]", "var a = [1.5]; a.push(NaN, Infinity, -Infinity, -0, -1e-7);", "JSON.stringify(a)");
+        assertStringify("[0,0.5]", "var a = [-0]; a.push(0.5);", "JSON.stringify(a)");
+    }
+
+    @Test
+    public void testConstantArray() {
+        assertStringify("[1,2,3]", "JSON.stringify([1, 2, 3])");
+        assertStringify("[1.5,null,null,null,0]", "JSON.stringify([1.5, NaN, Infinity, -Infinity, -0])");
+    }
+
+    @Test
+    public void testHoleyArray() {
+        assertStringify("[1,null,3]", "JSON.stringify([1, , 3])");
+        assertStringify("[1.5,null,null,2.5]", "var a = [1.5]; a[3] = 2.5;", "JSON.stringify(a)");
+        assertStringify("[1,\"p\",3]", "Array.prototype[1] = 'p'; var a = [1, 2, 3]; delete a[1];", "JSON.stringify(a)");
+    }
+
+    @Test
+    public void testArrayWithReplacerFunction() {
+        assertStringify("[2,null,0,5]", "JSON.stringify([1, NaN, -0, 2.5], (k, v) => typeof v === 'number' ? v * 2 : v)");
+        assertStringify("[\"1\",\"2\"]", "var a = [1]; a.push(2);", "JSON.stringify(a, (k, v) => typeof v === 'number' ? String(v) : v)");
+    }
+
+    @Test
+    public void testPropertyList() {
+        assertStringify("[{\"b\":2},{\"b\":4}]", "JSON.stringify([{a: 1, b: 2}, {a: 3, b: 4}], ['b'])");
+        assertStringify("{\"c\":[1,null,0],\"a\":1}", "JSON.stringify({a: 1, b: 2, c: [1, NaN, -0]}, ['c', 'a'])");
+    }
+}
@@ -80,4 +80,14 @@ public class NumberPrototypeBuiltins {
         }
     }
 
+    @Test
+    public void testNumberToStringLocaleRepeated() {
+        // repeated calls reuse the realm's cached formats; they must not mix up locales/options
+        assertTrue(testIntl("var ok = true; for (var i = 0; i < 3; i++) {" +
+                        "  ok = ok && (1234.5).toLocaleString() === '1.234,5';" +
+                        "  ok = ok && (1234.5).toLocaleString('en') === '1,234.5';" +
+                        "  ok = ok && (1234.5).toLocaleString('en', {minimumFractionDigits: 2}) === '1,234.50';" +
+                        "} ok;", "de"));
+    }
+
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.builtins;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+
+/**
+ * Tests for the memory-mapped variant of the shell builtin readbuffer().
+ */
+public class ReadBufferTest {
+
+    private static Context newContext(int mapThreshold, boolean directByteBuffer) {
+        return Context.newBuilder(JavaScriptLanguage.ID).allowIO(true).allowExperimentalOptions(true).option(JSContextOptions.SHELL_NAME, "true").option(
+                        JSContextOptions.TEST262_MODE_NAME, "true").option(JSContextOptions.READBUFFER_MAP_THRESHOLD_NAME, String.valueOf(mapThreshold)).option(
+                                        JSContextOptions.DIRECT_BYTE_BUFFER_NAME, String.valueOf(directByteBuffer)).build();
+    }
+
+    private static void testReadBuffer(int mapThreshold, boolean directByteBuffer) throws IOException {
+        byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        File file = File.createTempFile("readbuffer", ".bin");
+        try {
+            Files.write(file.toPath(), data);
+            try (Context context = newContext(mapThreshold, directByteBuffer)) {
+                context.getBindings(JavaScriptLanguage.ID).putMember("fileName", file.getPath());
+                Value result = context.eval(JavaScriptLanguage.ID, "var buffer = readbuffer(fileName);" +
+                                "var bytes = new Uint8Array(buffer);" +
+                                "var sum = 0; for (var i = 0; i < bytes.length; i++) { sum += bytes[i]; }" +
+                                "var u32 = new Uint32Array(buffer, 0, 1)[0] === new DataView(buffer).getUint32(0, true);" +
+                                "bytes[0] = 42;" +
+                                "[buffer.byteLength, sum, bytes[0], bytes[257], u32].join();");
+                int sum = 0;
+                for (byte b : data) {
+                    sum += b & 0xff;
+                }
+                assertEquals(data.length + "," + sum + ",42,1,true", result.asString());
+                assertEquals(true, context.eval(JavaScriptLanguage.ID, "$262.detachArrayBuffer(buffer); bytes.length === 0").asBoolean());
+            }
+            // writes to the buffer are not written back to the file
+            assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        testReadBuffer(-1, false);
+        testReadBuffer(-1, true);
+    }
+
+    @Test
+    public void testMapped() throws IOException {
+        testReadBuffer(0, true);
+    }
+
+    @Test
+    public void testHeapBuffer() throws IOException {
+        // not mapped: the context does not use direct byte buffers
+        testReadBuffer(0, false);
+    }
+
+    @Test
+    public void testBelowThreshold() throws IOException {
+        testReadBuffer(Integer.MAX_VALUE, true);
+    }
+}
@@ -75,6 +75,39 @@ public class StringPrototypeBuiltins {
         assertFalse(testIntl("'abc'.localeCompare('def') === 0;"));
     }
 
+    @Test
+    public void testLocaleCompareRepeated() {
+        // repeated calls reuse the realm's cached collators; they must not mix up locales/options
+        assertTrue(testIntl("var ok = true; for (var i = 0; i < 3; i++) {" +
+                        "  ok = ok && 'a'.localeCompare('A') !== 0;" +
+                        "  ok = ok && 'a'.localeCompare('A', undefined, {sensitivity: 'base'}) === 0;" +
+                        "  ok = ok && '\\u00e4'.localeCompare('z', 'de') < 0;" +
+                        "  ok = ok && '\\u00e4'.localeCompare('z', 'sv') > 0;" +
+                        "} ok;"));
+    }
+
+    @Test
+    public void testLazyStringOperations() {
+        // operations on ropes and substring views must agree with the flattened string
+        assertTrue(testIntl("var s = '', ok = true;" +
+                        "for (var i = 0; i < 500; i++) {" +
+                        "  s = (i % 7 === 0) ? ('<' + i + '>' + s) : (s + 'item' + i + ';');" +
+                        "  var f = s.split('').join('');" +
+                        "  ok = ok && s.length === f.length && s.charAt(0) === f.charAt(0) && s[s.length - 1] === f[f.length - 1];" +
+                        "  ok = ok && s.charCodeAt(s.length >> 1) === f.charCodeAt(f.length >> 1);" +
+                        "  ok = ok && s.endsWith(i + ';') === f.endsWith(i + ';') && s.startsWith('<') === f.startsWith('<');" +
+                        "  ok = ok && s.indexOf('item', s.length - 20) === f.indexOf('item', f.length - 20);" +
+                        "  ok = ok && s.slice(-15) === f.slice(-15) && s.substring(3, 40) === f.substring(3, 40);" +
+                        "}" +
+                        "var big = 'token '.repeat(2000), count = 0;" +
+                        "while (big.length > 0) {" +
+                        "  var end = big.indexOf(' ');" +
+                        "  ok = ok && big.slice(0, end) === 'token' && big.charAt(end) === ' ';" +
+                        "  big = big.slice(end + 1); count++;" +
+                        "}" +
+                        "ok && count === 2000;"));
+    }
+
     @Test
     public void testToLocaleLowerCase() {
         String code = "'I'.toLocaleLowerCase()";
@@ -77,6 +77,7 @@ public class DebugBuiltinsTest {
         ctx.eval("js", "Debug.systemProperty();");
         ctx.eval("js", "Debug.systemProperties();");
         ctx.eval("js", "Debug.neverPartOfCompilation();");
+        ctx.eval("js", "Debug.inlineCacheStatistics();");
 
         String heapDumpName = ctx.eval("js", "Debug.dumpHeap();").asString();
         File heapDump = new File(heapDumpName);
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.debug;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.JSTruffleOptions;
+
+/**
+ * Tests {@code Debug.inlineCacheStatistics()}. The statistics are only recorded with
+ * {@code -Dtruffle.js.InlineCacheStatistics=true}, so this test is skipped otherwise; the gate runs
+ * it in a separate VM with that option.
+ */
+public class InlineCacheStatisticsTest {
+
+    private static final String SOURCE_NAME = "ic.js";
+
+    private static final String CODE = "" +
+                    "function get(o) { return o.x; }\n" +
+                    "function set(o) { o.y = 1; }\n" +
+                    "function has(o) { return 'x' in o; }\n" +
+                    "function read(a, i) { return a[i]; }\n" +
+                    "function write(a, i, v) { a[i] = v; }\n" +
+                    "function call(f) { return f(); }\n" +
+                    "function getMegamorphic(o) { return o.x; }\n" +
+                    "function callMegamorphic(f) { return f(); }\n" +
+                    "function callNonFunction(f) { try { return f(); } catch (e) { return e; } }\n" +
+                    "[{x: 1}, {x: 1, a: 1}, {x: 1, b: 1}].forEach(o => { get(o); get(o); has(o); });\n" +
+                    "[{x: 1}, {a: 1}, {b: 1}].forEach(o => set(o));\n" +
+                    "read([1, 2], 0); read([1.5, 2.5], 1);\n" +
+                    "write([1, 2], 0, 3); write([1.5, 2.5], 1, 3.5);\n" +
+                    "[() => 1, () => 2, () => 3].forEach(f => call(f));\n" +
+                    "for (let i = 0; i <= " + JSTruffleOptions.PropertyCacheLimit + "; i++) { let o = {x: i}; o['p' + i] = i; getMegamorphic(o); }\n" +
+                    "for (let i = 0; i <= " + JSTruffleOptions.FunctionCacheLimit + "; i++) { callMegamorphic(new Function('return ' + i)); }\n" +
+                    "callNonFunction(1);\n" +
+                    "function site(kind, line) {\n" +
+                    "  return JSON.parse(Debug.inlineCacheStatistics()).sites.find(s => s.kind === kind && s.location.startsWith('" + SOURCE_NAME + ":' + line + ':'));\n" +
+                    "}\n";
+
+    private static Context createContext() {
+        return Context.newBuilder("js").allowExperimentalOptions(true).option("js.debug-builtin", "true").build();
+    }
+
+    private static Value site(Context context, String kind, int line) {
+        Value site = context.eval("js", "site('" + kind + "', " + line + ")");
+        assertFalse(kind + " site in line " + line, site.isNull());
+        return site;
+    }
+
+    private static void assertSite(Value site, int depth, int shapes, boolean generic) {
+        assertEquals(depth, site.getMember("depth").asInt());
+        assertEquals(shapes, site.getMember("shapes").asInt());
+        assertEquals(generic, site.getMember("generic").asBoolean());
+    }
+
+    @Test
+    public void testSites() {
+        Assume.assumeTrue(JSTruffleOptions.InlineCacheStatistics);
+        try (Context context = createContext()) {
+            context.eval(Source.newBuilder("js", CODE, SOURCE_NAME).buildLiteral());
+
+            Value get = site(context, "get", 1);
+            assertEquals("x", get.getMember("key").asString());
+            assertSite(get, 3, 3, false);
+            assertFalse(get.hasMember("reason"));
+            Value set = site(context, "set", 2);
+            assertEquals("y", set.getMember("key").asString());
+            assertSite(set, 3, 3, false);
+            Value has = site(context, "has", 3);
+            assertEquals("x", has.getMember("key").asString());
+            assertSite(has, 3, 3, false);
+
+            for (Value element : new Value[]{site(context, "readElement", 4), site(context, "writeElement", 5)}) {
+                assertFalse(element.hasMember("key"));
+                assertTrue(element.getMember("depth").asInt() >= 2);
+                assertTrue(element.getMember("shapes").asInt() >= 2);
+                assertFalse(element.getMember("generic").asBoolean());
+            }
+
+            assertSite(site(context, "call", 6), 3, 3, false);
+
+            Value getMegamorphic = site(context, "get", 7);
+            assertTrue(getMegamorphic.getMember("generic").asBoolean());
+            assertEquals("cache limit reached", getMegamorphic.getMember("reason").asString());
+            assertEquals(JSTruffleOptions.PropertyCacheLimit, getMegamorphic.getMember("shapes").asInt());
+
+            Value callMegamorphic = site(context, "call", 8);
+            assertTrue(callMegamorphic.getMember("generic").asBoolean());
+            assertEquals("cache limit reached", callMegamorphic.getMember("reason").asString());
+
+            Value callNonFunction = site(context, "call", 9);
+            assertTrue(callNonFunction.getMember("generic").asBoolean());
+            assertEquals("not a function", callNonFunction.getMember("reason").asString());
+        }
+    }
+
+    @Test
+    public void testStatisticsArePerContext() {
+        Assume.assumeTrue(JSTruffleOptions.InlineCacheStatistics);
+        try (Context context = createContext()) {
+            context.eval(Source.newBuilder("js", CODE, SOURCE_NAME).buildLiteral());
+            site(context, "get", 1);
+        }
+        try (Context context = createContext()) {
+            Value sites = context.eval("js", "JSON.parse(Debug.inlineCacheStatistics()).sites.filter(s => s.location.startsWith('" + SOURCE_NAME + ":'))");
+            assertEquals(0, sites.getArraySize());
+        }
+    }
+
+    @Test
+    public void testDisabled() {
+        Assume.assumeFalse(JSTruffleOptions.InlineCacheStatistics);
+        try (Context context = createContext()) {
+            assertTrue(context.eval("js", "Debug.inlineCacheStatistics()").isNull());
+        }
+    }
+}
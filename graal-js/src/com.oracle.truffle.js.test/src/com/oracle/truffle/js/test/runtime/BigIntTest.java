@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.BigInt;
+
+/**
+ * Checks the inline long representation of {@link BigInt} against {@link BigInteger} arithmetic,
+ * in particular around the boundaries of the long range.
+ */
+public class BigIntTest {
+
+    private static final long[] INTERESTING = {0, 1, -1, 2, -2, 3, 63, 64, Integer.MAX_VALUE, Integer.MIN_VALUE, 1L << 32, (1L << 53) + 1, 3037000499L, 3037000500L, -3037000500L,
+                    Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE - 1, Long.MIN_VALUE + 1};
+
+    private static BigInteger[] operands() {
+        Random random = new Random(17);
+        BigInteger[] operands = new BigInteger[INTERESTING.length * 2 + 40];
+        int i = 0;
+        for (long value : INTERESTING) {
+            operands[i++] = BigInteger.valueOf(value);
+        }
+        // just outside of the long range
+        operands[i++] = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+        operands[i++] = BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE);
+        while (i < operands.length) {
+            operands[i++] = (i % 3 == 0) ? new BigInteger(100, random).negate() : BigInteger.valueOf(random.nextLong() >> random.nextInt(64));
+        }
+        return operands;
+    }
+
+    private static void check(BigInteger expected, BigInt actual) {
+        assertEquals(expected, actual.bigIntegerValue());
+        assertEquals(expected.bitLength() < Long.SIZE, actual.isSmall());
+        assertEquals(BigInt.fromBigInteger(expected), actual);
+        assertEquals(BigInt.fromBigInteger(expected).hashCode(), actual.hashCode());
+    }
+
+    @Test
+    public void testArithmetic() {
+        BigInteger[] operands = operands();
+        for (BigInteger x : operands) {
+            BigInt a = BigInt.fromBigInteger(x);
+            check(x.negate(), a.negate());
+            check(x.not(), a.not());
+            assertEquals(x.signum(), a.signum());
+            assertEquals(x.longValue(), a.longValue());
+            assertEquals(x.intValue(), a.intValue());
+            assertEquals(x.doubleValue(), a.doubleValue(), 0);
+            assertEquals(x.toString(16), a.toString(16));
+            check(x.mod(BigInteger.ONE.shiftLeft(64)), a.toBigUint64());
+            check(BigInteger.valueOf(x.longValue()), a.toBigInt64());
+            for (int n : new int[]{0, 1, 31, 62, 63, 64, 100}) {
+                assertEquals(x.testBit(n), a.testBit(n));
+                check(x.shiftLeft(n), a.shiftLeft(n));
+                check(x.shiftRight(n), a.shiftRight(n));
+            }
+            for (BigInteger y : operands) {
+                BigInt b = BigInt.fromBigInteger(y);
+                check(x.add(y), a.add(b));
+                check(x.subtract(y), a.subtract(b));
+                check(x.multiply(y), a.multiply(b));
+                check(x.and(y), a.and(b));
+                check(x.or(y), a.or(b));
+                check(x.xor(y), a.xor(b));
+                assertEquals(x.compareTo(y), a.compareTo(b));
+                assertEquals(x.equals(y), a.equals(b));
+                if (y.signum() != 0) {
+                    check(x.divide(y), a.divide(b));
+                    check(x.remainder(y), a.remainder(b));
+                }
+                if (y.signum() > 0) {
+                    check(x.mod(y), a.mod(b));
+                }
+                if (y.bitLength() < Long.SIZE) {
+                    assertEquals(Integer.signum(x.compareTo(y)), Integer.signum(a.compareValueTo(y.longValue())));
+                }
+                double d = y.doubleValue();
+                assertEquals(Integer.signum(new java.math.BigDecimal(x).compareTo(new java.math.BigDecimal(d))), Integer.signum(a.compareValueTo(d)));
+            }
+        }
+    }
+
+    @Test
+    public void testCanonicalRepresentation() {
+        assertTrue(BigInt.valueOf(Long.MAX_VALUE).isSmall());
+        assertTrue(BigInt.valueOf(Long.MAX_VALUE).add(BigInt.ONE).subtract(BigInt.ONE).isSmall());
+        assertTrue(!BigInt.valueOfUnsigned(-1L).isSmall());
+        assertEquals(BigInt.valueOf(5), new BigInt(BigInteger.valueOf(5)));
+        assertEquals(BigInt.valueOf(-7), BigInt.valueOf("-7"));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.JSContextOptions;
+
+/**
+ * Tests for the persistent code cache (option {@code js.code-cache-dir}).
+ */
+public class CodeCacheTest {
+
+    private Path cacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheDir = Files.createTempDirectory("codecache");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(cacheDir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private int eval(String code, String name, String... options) {
+        Context.Builder builder = Context.newBuilder(ID).allowExperimentalOptions(true).option(JSContextOptions.CODE_CACHE_DIR_NAME, cacheDir.toString());
+        for (int i = 0; i < options.length; i += 2) {
+            builder.option(options[i], options[i + 1]);
+        }
+        try (Context context = builder.build()) {
+            return context.eval(Source.newBuilder(ID, code, name).buildLiteral()).asInt();
+        }
+    }
+
+    private List<Path> entries() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private Path singleNewEntry(List<Path> before) throws IOException {
+        List<Path> after = entries();
+        after.removeAll(before);
+        assertEquals(after.toString(), 1, after.size());
+        return after.get(0);
+    }
+
+    @Test
+    public void testMissAndHit() throws IOException {
+        assertEquals(42, eval("40+2", "test.js"));
+        Path entry = singleNewEntry(Arrays.asList());
+        List<Path> before = entries();
+        assertEquals(59, eval("50+9", "test.js"));
+        Path otherEntry = singleNewEntry(before);
+
+        // a hit is served from the cache entry without looking at the source
+        Files.copy(otherEntry, entry, StandardCopyOption.REPLACE_EXISTING);
+        assertEquals(59, eval("40+2", "test.js"));
+        assertEquals(2, entries().size());
+    }
+
+    @Test
+    public void testCorruptEntry() throws IOException {
+        assertEquals(42, eval("40+2", "test.js"));
+        Path entry = singleNewEntry(Arrays.asList());
+        byte[] garbage = "not a snapshot".getBytes(StandardCharsets.UTF_8);
+        Files.write(entry, garbage);
+
+        // the corrupt entry is discarded and replaced by a new recording
+        assertEquals(42, eval("40+2", "test.js"));
+        assertEquals(1, entries().size());
+        assertFalse(Arrays.equals(garbage, Files.readAllBytes(entry)));
+        assertEquals(42, eval("40+2", "test.js"));
+    }
+
+    @Test
+    public void testOptionMismatch() throws IOException {
+        String code = "(function() { const c = 1; try { c = 2; } catch (e) { return -1; } return c; })()";
+        assertEquals(1, eval(code, "test.js", JSContextOptions.V8_LEGACY_CONST_NAME, "true"));
+        List<Path> before = entries();
+        // with different translation options, the entry above must not be used
+        assertEquals(-1, eval(code, "test.js"));
+        singleNewEntry(before);
+
+        before = entries();
+        assertEquals(1, eval("1", "test.js", JSContextOptions.DISABLE_WITH_NAME, "true"));
+        assertEquals(1, eval("1", "other.js", JSContextOptions.DISABLE_WITH_NAME, "true"));
+        assertEquals(2, entries().size() - before.size());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+
+public class CompiledRegexCacheTest {
+
+    private static Context newContext(int cacheSize) {
+        return Context.newBuilder(JavaScriptLanguage.ID).allowExperimentalOptions(true).option(JSContextOptions.DEBUG_BUILTIN_NAME, "true").option(
+                        JSContextOptions.REGEX_CACHE_SIZE_NAME, String.valueOf(cacheSize)).build();
+    }
+
+    private static final String COMPILE_PATTERNS = "function compile(count, distinct) {" +
+                    "  var matches = 0;" +
+                    "  for (var i = 0; i < count; i++) {" +
+                    "    if (new RegExp('x' + (i % distinct) + '$', 'i').test('X' + (i % distinct))) { matches++; }" +
+                    "  }" +
+                    "  return matches;" +
+                    "}";
+
+    @Test
+    public void testHits() {
+        try (Context context = newContext(16)) {
+            context.eval(JavaScriptLanguage.ID, COMPILE_PATTERNS);
+            Value before = context.eval(JavaScriptLanguage.ID, "Debug.regexCacheStatistics()");
+            assertEquals(1000, context.eval(JavaScriptLanguage.ID, "compile(1000, 10)").asInt());
+            Value after = context.eval(JavaScriptLanguage.ID, "Debug.regexCacheStatistics()");
+            assertEquals(10, after.getMember("misses").asLong() - before.getMember("misses").asLong());
+            assertEquals(990, after.getMember("hits").asLong() - before.getMember("hits").asLong());
+            assertTrue(after.getMember("size").asInt() <= 16);
+        }
+    }
+
+    @Test
+    public void testEvictions() {
+        try (Context context = newContext(4)) {
+            context.eval(JavaScriptLanguage.ID, COMPILE_PATTERNS);
+            assertEquals(100, context.eval(JavaScriptLanguage.ID, "compile(100, 5)").asInt());
+            Value stats = context.eval(JavaScriptLanguage.ID, "Debug.regexCacheStatistics()");
+            assertEquals(4, stats.getMember("size").asInt());
+            assertTrue(stats.getMember("evictions").asLong() > 0);
+        }
+    }
+
+    @Test
+    public void testDisabled() {
+        try (Context context = newContext(0)) {
+            context.eval(JavaScriptLanguage.ID, COMPILE_PATTERNS);
+            assertEquals(100, context.eval(JavaScriptLanguage.ID, "compile(100, 5)").asInt());
+            assertTrue(context.eval(JavaScriptLanguage.ID, "Debug.regexCacheStatistics()").isNull());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Random;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+
+/**
+ * Checks the cached daylight saving time lookups of the local time zone against the zone rules.
+ */
+public class DateLocalTimeTest {
+
+    private static final String[] ZONES = {"Europe/Berlin", "America/New_York", "America/Indiana/Petersburg", "Australia/Lord_Howe", "Asia/Tokyo", "UTC"};
+
+    @Test
+    public void testTimezoneOffset() {
+        Random random = new Random(42);
+        for (String zone : ZONES) {
+            ZoneRules rules = ZoneId.of(zone).getRules();
+            long localTZA = rules.getOffset(Instant.ofEpochMilli(0)).getTotalSeconds() * 1000L;
+            try (Context context = Context.newBuilder(JavaScriptLanguage.ID).option(JSContextOptions.TIME_ZONE_NAME, zone).build()) {
+                Value offsetAt = context.eval(JavaScriptLanguage.ID, "(function(t) { return new Date(t).getTimezoneOffset(); })");
+                for (int i = 0; i < 2000; i++) {
+                    // mostly nearby dates, with some far in the past and future
+                    long t = (i % 4 == 0) ? -4000000000000L + (long) (random.nextDouble() * 10000000000000L) : 1500000000000L + i * 3600000L * 7;
+                    long dst = rules.getDaylightSavings(Instant.ofEpochMilli(t)).getSeconds() * 1000L;
+                    double expected = -(localTZA + dst) / 60000.0;
+                    assertEquals(zone + " at " + t, expected, offsetAt.execute(t).asDouble(), 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLocalTimeRoundTrip() {
+        for (String zone : ZONES) {
+            try (Context context = Context.newBuilder(JavaScriptLanguage.ID).option(JSContextOptions.TIME_ZONE_NAME, zone).build()) {
+                Value result = context.eval(JavaScriptLanguage.ID, "var ok = true;" +
+                                "for (var h = 0; h < 24 * 800; h += 5) {" +
+                                "  var d = new Date(2019, 0, 1, h, 30);" +
+                                "  var e = new Date(d.getFullYear(), d.getMonth(), d.getDate(), d.getHours(), d.getMinutes());" +
+                                "  ok = ok && d.getTime() === e.getTime();" +
+                                "} ok;");
+                assertEquals(zone, true, result.asBoolean());
+            }
+        }
+    }
+}
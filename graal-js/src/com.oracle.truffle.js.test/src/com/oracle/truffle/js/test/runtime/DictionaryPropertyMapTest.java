@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.objects.JSAttributes;
+import com.oracle.truffle.js.runtime.util.DictionaryPropertyMap;
+
+public class DictionaryPropertyMapTest {
+
+    @Test
+    public void testBasic() {
+        DictionaryPropertyMap map = new DictionaryPropertyMap();
+        assertTrue(map.isEmpty());
+        for (int i = 0; i < 1000; i++) {
+            map.put("k" + i, i, JSAttributes.getDefault());
+        }
+        assertEquals(1000, map.size());
+        int entry = map.find("k42");
+        assertEquals(42, map.getValue(entry));
+        assertEquals(JSAttributes.getDefault(), map.getFlags(entry));
+        assertEquals(entry, map.find("k42", DictionaryPropertyMap.hash("k42")));
+        assertEquals(-1, map.find("k1000"));
+
+        map.put("k42", "updated", JSAttributes.notConfigurableNotEnumerableNotWritable());
+        entry = map.find("k42");
+        assertEquals("updated", map.getValue(entry));
+        assertEquals(JSAttributes.notConfigurableNotEnumerableNotWritable(), map.getFlags(entry));
+        map.setValue(entry, 42);
+        assertEquals(42, map.getValue(map.find("k42")));
+
+        assertTrue(map.remove("k42"));
+        assertFalse(map.remove("k42"));
+        assertFalse(map.containsKey("k42"));
+        assertEquals(999, map.size());
+    }
+
+    @Test
+    public void testInsertionOrder() {
+        DictionaryPropertyMap map = new DictionaryPropertyMap();
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            String key = "p" + random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                expected.putIfAbsent(key, i);
+                if (!map.containsKey(key)) {
+                    map.put(key, i, JSAttributes.getDefault());
+                }
+            }
+        }
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < map.getEntryCount(); i++) {
+            Object key = map.getKey(i);
+            if (key != null) {
+                keys.add((String) key);
+                assertEquals(expected.get(key), map.getValue(i));
+            }
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), keys);
+        assertEquals(expected.size(), map.size());
+    }
+
+    @Test
+    public void testDictionaryObject() {
+        try (Context context = Context.create(JavaScriptLanguage.ID)) {
+            String code = "var o = {};\n" +
+                            "for (var i = 0; i < 5000; i++) { o['k' + i] = i; }\n" +
+                            "Object.defineProperty(o, 'ro', {value: 1, enumerable: false});\n" +
+                            "var hidden = 0; Object.defineProperty(o, 'acc', {get: function() { return hidden; }, set: function(v) { hidden = v; }, enumerable: true, configurable: true});\n" +
+                            "function get(obj) { return obj.k4999 + obj.acc + obj.ro + (obj.missing === undefined ? 1 : 0) + obj.hasOwnProperty('k0'); }\n" +
+                            "function set(obj, v) { obj.k4999 = v; obj.acc = v; obj.ro = v; }\n" +
+                            "var r;\n" +
+                            "for (var j = 0; j < 10; j++) { set(o, j); r = get(o); }\n" +
+                            "delete o.k0;\n" +
+                            "var keys = Object.keys(o);\n" +
+                            "[r, hidden, keys.length, keys[0], keys[keys.length - 1], Object.getOwnPropertyDescriptor(o, 'ro').writable, JSON.stringify(Object.getOwnPropertyDescriptor(o, 'k1'))].join();";
+            assertEquals("21,9,5000,k1,acc,false,{\"value\":1,\"writable\":true,\"enumerable\":true,\"configurable\":true}", context.eval(JavaScriptLanguage.ID, code).asString());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+
+public class EvalCacheTest {
+
+    private static Context newContext(int cacheSize) {
+        return Context.newBuilder(JavaScriptLanguage.ID).allowExperimentalOptions(true).option(JSContextOptions.EVAL_CACHE_SIZE_NAME, String.valueOf(cacheSize)).build();
+    }
+
+    private static void assertEvalResults(int cacheSize) {
+        try (Context context = newContext(cacheSize)) {
+            // locals of different frames
+            assertEquals(4950, context.eval(JavaScriptLanguage.ID, "function sum(n) { var s = 0; for (var i = 0; i < n; i++) { s = eval('s + i'); } return s; } sum(100);").asInt());
+            assertEquals(3, context.eval(JavaScriptLanguage.ID, "function make(v) { return eval('(function() { return v; })'); } make(1)() + make(2)();").asInt());
+            assertTrue(context.eval(JavaScriptLanguage.ID, "make(1) !== make(1);").asBoolean());
+
+            // var declarations of sloppy and strict eval code
+            assertEquals(14, context.eval(JavaScriptLanguage.ID, "function declare(k) { eval('var z = k * 2'); return z; } declare(3) + declare(4);").asInt());
+            assertEquals("undefined", context.eval(JavaScriptLanguage.ID, "function strict() { 'use strict'; eval('var q = 1'); return typeof q; } strict(); strict();").asString());
+            assertEquals("number", context.eval(JavaScriptLanguage.ID, "function sloppy() { eval('var q = 1'); return typeof q; } sloppy(); sloppy();").asString());
+
+            // indirect eval
+            assertEquals(3, context.eval(JavaScriptLanguage.ID, "for (var i = 0; i < 3; i++) { (0, eval)('var counter = (typeof counter === \"number\" ? counter : 0) + 1'); } counter;").asInt());
+            assertEquals(30, context.eval(JavaScriptLanguage.ID, "var total = 0; for (var i = 0; i < 3; i++) { total += (0, eval)('10'); } total;").asInt());
+
+            // template objects are per evaluation of eval code
+            assertTrue(context.eval(JavaScriptLanguage.ID, "function tag(t) { return t; } var t = []; for (var i = 0; i < 2; i++) { t.push(eval('tag`x`')); } t[0] !== t[1];").asBoolean());
+            assertTrue(context.eval(JavaScriptLanguage.ID, "var t = []; for (var i = 0; i < 2; i++) { t.push((0, eval)('tag`x`')); } t[0] !== t[1];").asBoolean());
+
+            // errors are not cached
+            assertEquals(2, context.eval(JavaScriptLanguage.ID, "var errors = 0; for (var i = 0; i < 2; i++) { try { eval('('); } catch (e) { if (e instanceof SyntaxError) errors++; } } errors;").asInt());
+        }
+    }
+
+    @Test
+    public void testCached() {
+        assertEvalResults(16);
+    }
+
+    @Test
+    public void testSmallCache() {
+        assertEvalResults(1);
+    }
+
+    @Test
+    public void testDisabled() {
+        assertEvalResults(0);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.util.JSHashMap;
+
+public class JSHashMapTest {
+
+    private static List<Object> keys(JSHashMap.Cursor cursor) {
+        List<Object> result = new ArrayList<>();
+        while (cursor.advance()) {
+            result.add(cursor.getKey());
+        }
+        return result;
+    }
+
+    @Test
+    public void testBasic() {
+        JSHashMap map = new JSHashMap();
+        for (int i = 0; i < 1000; i++) {
+            map.putInt(i, "v" + i);
+            map.put("k" + i, i);
+        }
+        map.putDouble(0.5, "half");
+        assertEquals(2001, map.size());
+        assertEquals("v42", map.get(42));
+        assertEquals("v42", map.getInt(42));
+        assertEquals(42, map.get("k42"));
+        assertEquals("half", map.get(0.5));
+        assertTrue(map.hasDouble(0.5));
+        assertFalse(map.hasInt(1000));
+        assertNull(map.get("k1000"));
+
+        map.put("k42", "updated");
+        assertEquals("updated", map.get("k42"));
+        assertEquals(2001, map.size());
+
+        for (int i = 0; i < 1000; i += 2) {
+            assertTrue(map.removeInt(i));
+            assertTrue(map.remove("k" + i));
+        }
+        assertFalse(map.remove("k0"));
+        assertEquals(1001, map.size());
+        assertEquals("v1", map.getInt(1));
+        assertNull(map.getInt(2));
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.has("k1"));
+    }
+
+    @Test
+    public void testInsertionOrder() {
+        JSHashMap map = new JSHashMap();
+        map.put("c", 1);
+        map.putInt(2, 2);
+        map.put("a", 3);
+        map.put("c", 4);
+        map.remove("c");
+        map.put("c", 5);
+        List<Object> expected = new ArrayList<>();
+        expected.add(2);
+        expected.add("a");
+        expected.add("c");
+        assertEquals(expected, keys(map.getEntries()));
+    }
+
+    @Test
+    public void testCursorSurvivesRehash() {
+        JSHashMap map = new JSHashMap();
+        for (int i = 0; i < 100; i++) {
+            map.putInt(i, i);
+        }
+        JSHashMap.Cursor cursor = map.getEntries();
+        for (int i = 0; i < 50; i++) {
+            assertTrue(cursor.advance());
+        }
+        assertEquals(49, cursor.getKey());
+        // delete visited and unvisited entries, then force compaction
+        for (int i = 0; i < 100; i += 2) {
+            map.removeInt(i);
+        }
+        for (int i = 100; i < 300; i++) {
+            map.putInt(i, i);
+        }
+        JSHashMap.Cursor copy = cursor.copy();
+        List<Object> remaining = keys(cursor);
+        assertEquals(51, remaining.get(0));
+        assertEquals(25 + 200, remaining.size());
+        assertEquals(remaining, keys(copy));
+        assertFalse(cursor.advance());
+    }
+
+    @Test
+    public void testPrimitiveKeys() {
+        JSHashMap map = new JSHashMap();
+        map.put(1, "generic int");
+        map.putDouble(1.5, "double");
+        map.put("1", "string");
+        map.putInt(2, "int");
+        map.put(Double.NaN, "nan");
+        assertEquals("generic int", map.getInt(1));
+        assertEquals("double", map.get(1.5));
+        assertEquals("int", map.get(2));
+        assertEquals("nan", map.getDouble(Double.NaN));
+        assertNull(map.getDouble(1.0));
+        assertNull(map.get(2.0));
+        List<Object> expected = new ArrayList<>();
+        expected.add(1);
+        expected.add(1.5);
+        expected.add("1");
+        expected.add(2);
+        expected.add(Double.NaN);
+        assertEquals(expected, keys(map.getEntries()));
+        assertEquals(Integer.class, keys(map.getEntries()).get(0).getClass());
+    }
+
+    @Test
+    public void testCursorAfterClear() {
+        JSHashMap map = new JSHashMap();
+        map.put("a", 1);
+        map.put("b", 2);
+        JSHashMap.Cursor cursor = map.getEntries();
+        assertTrue(cursor.advance());
+        map.clear();
+        map.put("c", 3);
+        assertTrue(cursor.advance());
+        assertEquals("c", cursor.getKey());
+        assertEquals(3, cursor.getValue());
+        assertFalse(cursor.advance());
+    }
+}
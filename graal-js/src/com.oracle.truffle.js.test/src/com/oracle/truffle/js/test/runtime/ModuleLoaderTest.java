@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.MODULE_MIME_TYPE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.JSContextOptions;
+
+public class ModuleLoaderTest {
+
+    private Path moduleDir;
+
+    @Before
+    public void setUp() throws IOException {
+        moduleDir = Files.createTempDirectory("modules");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(moduleDir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private File writeModule(String name, String code) throws IOException {
+        return Files.write(moduleDir.resolve(name), code.getBytes(StandardCharsets.UTF_8)).toFile();
+    }
+
+    private static Context newContext(int parseThreads) {
+        return Context.newBuilder(ID).allowIO(true).option(JSContextOptions.MODULE_PARSE_THREADS_NAME, String.valueOf(parseThreads)).build();
+    }
+
+    @Test
+    public void testModuleGraph() throws IOException {
+        final int moduleCount = 20;
+        StringBuilder main = new StringBuilder();
+        StringBuilder sum = new StringBuilder("0");
+        for (int i = 0; i < moduleCount; i++) {
+            String dependency = i == 0 ? "" : "import { value" + (i - 1) + " } from './m" + (i - 1) + ".mjs';\n";
+            writeModule("m" + i + ".mjs", dependency + "export const value" + i + " = " + i + " + (/x+/.test('xx') ? 0 : 1);\n");
+            main.append("import { value").append(i).append(" } from './m").append(i).append(".mjs';\n");
+            sum.append(" + value").append(i);
+        }
+        main.append("globalThis.result = ").append(sum).append(";\n");
+        File mainFile = writeModule("main.mjs", main.toString());
+        for (int threads : new int[]{0, 2}) {
+            try (Context context = newContext(threads)) {
+                context.eval(Source.newBuilder(ID, mainFile).mimeType(MODULE_MIME_TYPE).build());
+                assertEquals(moduleCount * (moduleCount - 1) / 2, context.getBindings(ID).getMember("result").asInt());
+            }
+        }
+    }
+
+    @Test
+    public void testParseThreadsStopWithContext() throws IOException, InterruptedException {
+        writeModule("dep.mjs", "export const value = 42;\n");
+        File mainFile = writeModule("main.mjs", "import { value } from './dep.mjs';\nglobalThis.result = value;\n");
+        try (Context context = newContext(2)) {
+            context.eval(Source.newBuilder(ID, mainFile).mimeType(MODULE_MIME_TYPE).build());
+            assertEquals(42, context.getBindings(ID).getMember("result").asInt());
+        }
+        // the pool would only time out after 10 seconds if it were not shut down
+        for (int i = 0; i < 50 && hasModuleParserThread(); i++) {
+            Thread.sleep(100);
+        }
+        assertFalse(hasModuleParserThread());
+    }
+
+    @Test
+    public void testParseThreadsStopWithContextWithChildRealm() throws IOException, InterruptedException {
+        writeModule("dep.mjs", "export const value = 42;\n");
+        File mainFile = writeModule("main.mjs", "import { value } from './dep.mjs';\nglobalThis.result = value;\n");
+        try (Context context = Context.newBuilder(ID).allowIO(true).allowExperimentalOptions(true).option(JSContextOptions.MODULE_PARSE_THREADS_NAME, "2").option(
+                        JSContextOptions.V8_REALM_BUILTIN_NAME, "true").build()) {
+            // child realms are not disposed separately and must not keep the parse threads alive
+            context.eval(ID, "Realm.create()");
+            context.eval(Source.newBuilder(ID, mainFile).mimeType(MODULE_MIME_TYPE).build());
+            assertEquals(42, context.getBindings(ID).getMember("result").asInt());
+        }
+        for (int i = 0; i < 50 && hasModuleParserThread(); i++) {
+            Thread.sleep(100);
+        }
+        assertFalse(hasModuleParserThread());
+    }
+
+    private static boolean hasModuleParserThread() {
+        return Thread.getAllStackTraces().keySet().stream().anyMatch(t -> t.getName().equals("graaljs-module-parser"));
+    }
+
+    @Test
+    public void testSyntaxErrorInImportedModule() throws IOException {
+        writeModule("bad.mjs", "export const re = /(/;\n");
+        File mainFile = writeModule("main.mjs", "import { re } from './bad.mjs';\n");
+        for (int threads : new int[]{0, 2}) {
+            try (Context context = newContext(threads)) {
+                context.eval(Source.newBuilder(ID, mainFile).mimeType(MODULE_MIME_TYPE).build());
+                fail("expected SyntaxError");
+            } catch (PolyglotException e) {
+                assertTrue(e.getMessage(), e.isSyntaxError());
+            }
+        }
+    }
+
+    @Test
+    public void testParserErrorInImportedModule() throws IOException {
+        writeModule("bad.mjs", "export const a = 1;\nexport const b = ;\n");
+        File mainFile = writeModule("main.mjs", "import { a } from './bad.mjs';\n");
+        for (int threads : new int[]{0, 2}) {
+            try (Context context = newContext(threads)) {
+                context.eval(Source.newBuilder(ID, mainFile).mimeType(MODULE_MIME_TYPE).build());
+                fail("expected SyntaxError");
+            } catch (PolyglotException e) {
+                assertTrue(e.getMessage(), e.isSyntaxError());
+                assertEquals(2, e.getSourceLocation().getStartLine());
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.util.SortedLongMap;
+
+public class SortedLongMapTest {
+
+    @Test
+    public void testBasic() {
+        SortedLongMap map = new SortedLongMap();
+        assertTrue(map.isEmpty());
+        assertEquals(-1, map.higherKey(0, -1));
+        for (long i = 0; i < 100000; i += 10) {
+            assertNull(map.put(i, "v" + i));
+        }
+        assertEquals(10000, map.size());
+        assertEquals("v420", map.get(420));
+        assertNull(map.get(421));
+        assertEquals(0, map.firstKey());
+        assertEquals(99990, map.lastKey());
+        assertEquals(430, map.higherKey(420, -1));
+        assertEquals(430, map.ceilingKey(421, -1));
+        assertEquals(410, map.lowerKey(420, -1));
+        assertEquals(-1, map.lowerKey(0, -1));
+        assertEquals(-1, map.higherKey(99990, -1));
+
+        assertEquals("v420", map.put(420, "updated"));
+        assertEquals("updated", map.remove(420));
+        assertFalse(map.containsKey(420));
+
+        map.removeRange(0, 999);
+        assertEquals(1000, map.firstKey());
+        map.shiftKeys(1000, -1000);
+        assertEquals(0, map.firstKey());
+        assertEquals("v1010", map.get(10));
+        map.removeFrom(500);
+        assertEquals(490, map.lastKey());
+        assertEquals(50, map.size());
+    }
+
+    @Test
+    public void testAgainstTreeMap() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            SortedLongMap map = new SortedLongMap();
+            TreeMap<Long, Object> expected = new TreeMap<>();
+            int range = 10 + random.nextInt(5000);
+            for (int op = 0; op < 5000; op++) {
+                long key = random.nextInt(range);
+                int choice = random.nextInt(100);
+                if (choice < 50) {
+                    String value = "v" + op;
+                    assertEquals(expected.put(key, value), map.put(key, value));
+                } else if (choice < 70) {
+                    assertEquals(expected.remove(key), map.remove(key));
+                } else if (choice < 73) {
+                    long toKey = key + random.nextInt(50);
+                    map.removeRange(key, toKey);
+                    expected.subMap(key, true, toKey, true).clear();
+                } else if (choice < 76) {
+                    long delta = 1 + random.nextInt(30);
+                    boolean down = random.nextBoolean();
+                    if (down) {
+                        map.removeRange(key - delta, key - 1);
+                        expected.subMap(key - delta, true, key - 1, true).clear();
+                    }
+                    map.shiftKeys(key, down ? -delta : delta);
+                    expected = shifted(expected, key, down ? -delta : delta);
+                } else {
+                    assertEquals(expected.get(key), map.get(key));
+                    Long higher = expected.higherKey(key);
+                    assertEquals(higher == null ? -1 : higher, map.higherKey(key, -1));
+                    Long lower = expected.lowerKey(key);
+                    assertEquals(lower == null ? -1 : lower, map.lowerKey(key, -1));
+                }
+                assertEquals(expected.size(), map.size());
+            }
+            assertArrayEquals(expected.keySet().stream().mapToLong(Long::longValue).toArray(), map.keys());
+        }
+    }
+
+    private static TreeMap<Long, Object> shifted(TreeMap<Long, Object> map, long fromKey, long delta) {
+        TreeMap<Long, Object> result = new TreeMap<>(map.headMap(fromKey));
+        for (Map.Entry<Long, Object> entry : map.tailMap(fromKey).entrySet()) {
+            result.put(entry.getKey() + delta, entry.getValue());
+        }
+        return result;
+    }
+
+    @Test
+    public void testSparseArrayRangeOperations() {
+        try (Context context = Context.create(JavaScriptLanguage.ID)) {
+            String code = "var a = []; a[1e6] = 'x'; a[5] = 'b'; a[3] = 'a'; a[2e6] = 'y';" +
+                            "a.splice(4, 1);" + // removes nothing but shifts down by one
+                            "a.unshift(0, 1);" +
+                            "a.shift();" +
+                            "Object.keys(a).join() + '|' + a.length;";
+            assertEquals("0,4,5,1000000,2000000|2000001", context.eval(JavaScriptLanguage.ID, code).asString());
+        }
+    }
+}
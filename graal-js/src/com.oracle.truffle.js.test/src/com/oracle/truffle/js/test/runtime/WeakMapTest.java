@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.builtins.JSUserObject;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.util.WeakMap;
+import com.oracle.truffle.js.test.JSTest;
+
+public class WeakMapTest extends JSTest {
+
+    @Override
+    public void setup() {
+        super.setup();
+        testHelper.enterContext();
+    }
+
+    @Override
+    public void close() {
+        testHelper.leaveContext();
+        super.close();
+    }
+
+    @Test
+    public void testNonExtensibleKey() {
+        JSContext context = testHelper.getJSContext();
+        WeakMap map = new WeakMap();
+        DynamicObject frozen = JSUserObject.create(context);
+        JSObject.setIntegrityLevel(frozen, true);
+        map.put(frozen, "frozen");
+        assertEquals("frozen", map.get(frozen));
+        assertFalse(JSObject.isExtensible(frozen));
+        assertTrue(JSObject.testIntegrityLevel(frozen, true));
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        JSContext context = testHelper.getJSContext();
+        WeakMap map = new WeakMap();
+        List<DynamicObject> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            DynamicObject key = JSUserObject.create(context);
+            keys.add(key);
+            assertNull(map.put(key, i));
+        }
+        for (int i = 0; i < keys.size(); i += 2) {
+            assertEquals(i, map.remove(keys.get(i)));
+            assertNull(map.remove(keys.get(i)));
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i % 2 != 0, map.containsKey(keys.get(i)));
+        }
+        for (int i = 0; i < keys.size(); i += 2) {
+            assertNull(map.put(keys.get(i), -i));
+        }
+        assertEquals(-10, map.get(keys.get(10)));
+        assertEquals(11, map.put(keys.get(11), 0));
+        assertEquals(0, map.get(keys.get(11)));
+    }
+
+    @Test
+    public void testKeyInSeveralMaps() {
+        JSContext context = testHelper.getJSContext();
+        DynamicObject key = JSUserObject.create(context);
+        WeakMap[] maps = new WeakMap[4];
+        for (int i = 0; i < maps.length; i++) {
+            maps[i] = new WeakMap();
+            maps[i].put(key, i);
+        }
+        for (int i = 0; i < maps.length; i++) {
+            assertEquals(i, maps[i].get(key));
+        }
+        // remove the first and the last entry of the key
+        assertEquals(0, maps[0].remove(key));
+        assertEquals(3, maps[3].remove(key));
+        assertFalse(maps[0].containsKey(key));
+        assertFalse(maps[3].containsKey(key));
+        assertEquals(1, maps[1].get(key));
+        assertEquals(2, maps[2].get(key));
+        assertNull(maps[0].put(key, "again"));
+        assertEquals("again", maps[0].get(key));
+        assertEquals(2, maps[2].get(key));
+    }
+
+    /**
+     * A value that references its own key must not keep the key alive while the map is alive.
+     */
+    @Test
+    public void testValueReferencingKeyIsCollected() {
+        JSContext context = testHelper.getJSContext();
+        WeakMap map = new WeakMap();
+        WeakReference<DynamicObject> keyRef = putSelfReferencingEntry(context, map);
+        for (int i = 0; i < 100 && keyRef.get() != null; i++) {
+            System.gc();
+        }
+        assertNull(keyRef.get());
+
+        // the map is still in use
+        DynamicObject key = JSUserObject.create(context);
+        map.put(key, key);
+        assertSame(key, map.get(key));
+    }
+
+    @Test
+    public void testPrimitiveValueKeepsShape() {
+        JSContext context = testHelper.getJSContext();
+        WeakMap map = new WeakMap();
+        DynamicObject key = JSUserObject.create(context);
+        Shape shape = key.getShape();
+        assertNull(map.put(key, 42));
+        assertEquals(42, map.put(key, "value"));
+        assertSame(shape, key.getShape());
+        assertTrue(map.containsTableKey(key));
+
+        // an object value is stored in the key, and moves back to the table when replaced
+        DynamicObject value = JSUserObject.create(context);
+        assertEquals("value", map.put(key, value));
+        assertFalse(map.containsTableKey(key));
+        assertSame(value, map.get(key));
+        assertSame(value, map.put(key, 1));
+        assertTrue(map.containsTableKey(key));
+        assertEquals(1, map.get(key));
+        assertEquals(1, map.remove(key));
+        assertFalse(map.containsKey(key));
+    }
+
+    /**
+     * The value of a collected map must not stay reachable from a long-lived key until the key is
+     * added to another map.
+     */
+    @Test
+    public void testValueOfCollectedMapIsReleasedOnAccess() {
+        JSContext context = testHelper.getJSContext();
+        DynamicObject key = JSUserObject.create(context);
+        WeakMap map = new WeakMap();
+        map.put(key, JSUserObject.create(context));
+        WeakReference<DynamicObject> valueRef = putInTemporaryMap(context, key);
+        for (int i = 0; i < 100 && valueRef.get() != null; i++) {
+            System.gc();
+            map.get(key);
+        }
+        assertNull(valueRef.get());
+    }
+
+    private static WeakReference<DynamicObject> putInTemporaryMap(JSContext context, DynamicObject key) {
+        WeakMap map = new WeakMap();
+        DynamicObject value = JSUserObject.create(context);
+        map.put(key, value);
+        return new WeakReference<>(value);
+    }
+
+    private static WeakReference<DynamicObject> putSelfReferencingEntry(JSContext context, WeakMap map) {
+        DynamicObject key = JSUserObject.create(context);
+        DynamicObject value = JSUserObject.create(context);
+        JSObject.set(value, "key", key);
+        map.put(key, value);
+        assertSame(value, map.get(key));
+        return new WeakReference<>(key);
+    }
+}
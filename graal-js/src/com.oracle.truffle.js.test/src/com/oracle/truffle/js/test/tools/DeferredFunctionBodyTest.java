@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.tools;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.oracle.js.parser.ErrorManager;
+import com.oracle.js.parser.Parser;
+import com.oracle.js.parser.ParserException;
+import com.oracle.js.parser.ScriptEnvironment;
+import com.oracle.js.parser.Source;
+import com.oracle.js.parser.ir.FunctionNode;
+import com.oracle.js.parser.ir.LexicalContext;
+import com.oracle.js.parser.ir.visitor.NodeVisitor;
+
+public class DeferredFunctionBodyTest {
+
+    private static final String CODE = "'use strict';\n" +
+                    "var x = 1;\n" +
+                    "function declared(a, b) {\n" +
+                    "  function inner() { return a + x; }\n" +
+                    "  return inner() + b;\n" +
+                    "}\n" +
+                    "var expression = function(s) {\n" +
+                    "  return s.split('').map(c => c + x).join('');\n" +
+                    "};\n" +
+                    "var gen = function* named() { yield* [1, 2]; };\n" +
+                    "async function asyncFn() { await null; }\n" +
+                    "function defaults(a, b = 2) { return a + b; }\n" +
+                    "(function iife() { return 42; })();\n" +
+                    "var arrow = (y) => y * x;\n" +
+                    "var obj = { method() { return this; } };\n";
+
+    private static ScriptEnvironment createEnvironment() {
+        return ScriptEnvironment.builder().ecmaScriptVersion(9).syntaxExtensions(false).build();
+    }
+
+    private static FunctionNode parse(Source source, boolean deferFunctionBodies) {
+        Parser parser = new Parser(createEnvironment(), source, new ErrorManager.ThrowErrorManager());
+        parser.setDeferFunctionBodies(deferFunctionBodies);
+        return parser.parse();
+    }
+
+    private static List<FunctionNode> collectFunctions(FunctionNode program) {
+        List<FunctionNode> functions = new ArrayList<>();
+        program.accept(new NodeVisitor<LexicalContext>(new LexicalContext()) {
+            @Override
+            public boolean enterFunctionNode(FunctionNode functionNode) {
+                if (!functionNode.isProgram()) {
+                    functions.add(functionNode);
+                }
+                return true;
+            }
+        });
+        return functions;
+    }
+
+    private static FunctionNode findFunction(List<FunctionNode> functions, String name) {
+        for (FunctionNode functionNode : functions) {
+            if (functionNode.getIdent().getName().equals(name)) {
+                return functionNode;
+            }
+        }
+        throw new AssertionError(name);
+    }
+
+    private static FunctionNode findFunction(List<FunctionNode> functions, int start) {
+        for (FunctionNode functionNode : functions) {
+            if (functionNode.getStart() == start) {
+                return functionNode;
+            }
+        }
+        throw new AssertionError(start);
+    }
+
+    @Test
+    public void testDeferredFunctions() {
+        List<FunctionNode> functions = collectFunctions(parse(Source.sourceFor("test", CODE), true));
+        FunctionNode declared = findFunction(functions, "declared");
+        assertTrue(declared.hasDeferredBody());
+        assertTrue(declared.getBody().getStatements().isEmpty());
+        assertArrayEquals(new String[]{"x"}, declared.getFreeVariables());
+        FunctionNode expression = findFunction(functions, "expression");
+        assertTrue(expression.hasDeferredBody());
+        assertArrayEquals(new String[]{"x"}, expression.getFreeVariables());
+        // nested functions of skipped bodies are not part of the AST
+        assertEquals(8, functions.size());
+
+        assertFalse(findFunction(functions, "named").hasDeferredBody());
+        assertFalse(findFunction(functions, "asyncFn").hasDeferredBody());
+        assertFalse(findFunction(functions, "defaults").hasDeferredBody());
+        // immediately invoked function expression
+        assertFalse(findFunction(functions, "iife").hasDeferredBody());
+        assertFalse(findFunction(functions, "method").hasDeferredBody());
+        for (FunctionNode functionNode : functions) {
+            if (functionNode.isArrow()) {
+                assertFalse(functionNode.hasDeferredBody());
+            }
+        }
+
+        for (FunctionNode functionNode : collectFunctions(parse(Source.sourceFor("test", CODE), false))) {
+            assertFalse(functionNode.hasDeferredBody());
+        }
+    }
+
+    @Test
+    public void testStrictDirective() {
+        String code = "function strict(a) { 'use strict'; return a; }\n" +
+                        "function sloppy(a) { return function() { 'use strict'; return a; }; }\n";
+        List<FunctionNode> functions = collectFunctions(parse(Source.sourceFor("test", code), true));
+        FunctionNode strict = findFunction(functions, "strict");
+        assertTrue(strict.hasDeferredBody());
+        assertTrue(strict.isStrict());
+        // strict nested functions of sloppy functions are not handled by the pre-parser
+        assertFalse(findFunction(functions, "sloppy").hasDeferredBody());
+    }
+
+    @Test
+    public void testNoDeferralWithEval() {
+        String code = "function outer() { function withEval() { return eval('1'); } return withEval(); }";
+        List<FunctionNode> functions = collectFunctions(parse(Source.sourceFor("test", code), true));
+        assertFalse(findFunction(functions, "outer").hasDeferredBody());
+        assertFalse(findFunction(functions, "withEval").hasDeferredBody());
+    }
+
+    @Test
+    public void testEarlyErrors() {
+        String[] bodies = {
+                        "let a; let a;",
+                        "let a; { var a; }",
+                        "const a;",
+                        "'use strict'; var a = 010;",
+                        "'\\07'; 'use strict';",
+                        "'use strict'; delete a;",
+                        "break;",
+                        "while (true) { function g() { continue; } }",
+                        "a + 1 = 2;",
+                        "({a = 1});",
+                        "return { __proto__: 1, __proto__: 2 };",
+                        "return `${a}\\u{110000}`;",
+                        "try {}",
+        };
+        for (String body : bodies) {
+            String code = "function f(p) { " + body + " }";
+            try {
+                parse(Source.sourceFor("test", code), true);
+                fail(code);
+            } catch (ParserException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testReparseFunction() {
+        Source source = Source.sourceFor("test", CODE);
+        List<FunctionNode> fullyParsed = collectFunctions(parse(source, false));
+        int reparsed = 0;
+        for (FunctionNode functionNode : collectFunctions(parse(source, true))) {
+            if (!functionNode.hasDeferredBody()) {
+                continue;
+            }
+            FunctionNode expected = findFunction(fullyParsed, functionNode.getStart());
+            Parser parser = new Parser(createEnvironment(), source, new ErrorManager.ThrowErrorManager());
+            int start = functionNode.getStart();
+            FunctionNode reparsedNode = parser.parseFunction(start, functionNode.getFinish() - start, functionNode.getLineNumber(), functionNode.isStrict());
+            assertEquals(expected.getStart(), reparsedNode.getStart());
+            assertEquals(expected.getFinish(), reparsedNode.getFinish());
+            assertEquals(expected.getLineNumber(), reparsedNode.getLineNumber());
+            assertEquals(expected.getBody().getStart(), reparsedNode.getBody().getStart());
+            assertEquals(expected.getBody().toString(), reparsedNode.getBody().toString());
+            assertEquals(expected.getBody().getStatements().get(0).getLineNumber(), reparsedNode.getBody().getStatements().get(0).getLineNumber());
+            assertEquals(expected.isStrict(), reparsedNode.isStrict());
+            assertEquals(collectFunctions(expected).size(), collectFunctions(reparsedNode).size());
+            reparsed++;
+        }
+        assertEquals(2, reparsed);
+    }
+}
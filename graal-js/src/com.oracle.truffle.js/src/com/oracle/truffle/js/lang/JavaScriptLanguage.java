@@ -458,6 +458,7 @@ public class JavaScriptLanguage extends AbstractJavaScriptLanguage {
     protected void disposeContext(JSRealm realm) {
         CompilerAsserts.neverPartOfCompilation();
         realm.setGlobalObject(Undefined.instance);
+        realm.getContext().realmDisposed();
     }
 
     @Override
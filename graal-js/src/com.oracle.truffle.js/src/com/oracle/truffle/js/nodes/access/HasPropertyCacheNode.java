@@ -60,6 +60,7 @@ import com.oracle.truffle.js.runtime.builtins.JSProxy;
 import com.oracle.truffle.js.runtime.java.JavaImporter;
 import com.oracle.truffle.js.runtime.java.JavaPackage;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.util.InlineCacheStatistics;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
 
 /**
@@ -347,6 +348,11 @@ public class HasPropertyCacheNode extends PropertyCacheNode<HasPropertyCacheNode
         return hasOwnProperty;
     }
 
+    @Override
+    protected InlineCacheStatistics.Kind getStatisticsKind() {
+        return InlineCacheStatistics.Kind.HAS;
+    }
+
     @Override
     protected HasCacheNode createTruffleObjectPropertyNode(TruffleObject thisObject) {
         return new ForeignHasPropertyCacheNode();
@@ -83,6 +83,7 @@ import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.DebugCounter;
+import com.oracle.truffle.js.runtime.util.InlineCacheStatistics;
 
 /**
  * Common base class for property cache nodes. Unifies the cache handling and receiver checks.
@@ -1122,6 +1123,15 @@ public abstract class PropertyCacheNode<T extends PropertyCacheNode.CacheNode<T>
 
     protected abstract T createTruffleObjectPropertyNode(TruffleObject thisObj);
 
+    /**
+     * Creates a node that looks up the (non-hidden) key in the property map of a dictionary
+     * object, guarded by its shape, or returns {@code null} to go generic.
+     */
+    @SuppressWarnings("unused")
+    protected T createDictionaryObjectPropertyNode(DynamicObject store) {
+        return null;
+    }
+
     protected T specialize(Object thisObj) {
         CompilerAsserts.neverPartOfCompilation();
         return specialize(thisObj, null);
@@ -1217,7 +1227,12 @@ public abstract class PropertyCacheNode<T extends PropertyCacheNode.CacheNode<T>
             Shape cacheShape = store.getShape();
 
             if (JSTruffleOptions.DictionaryObject && JSDictionaryObject.isJSDictionaryObject(store)) {
-                // TODO: could probably specialize on shape as well.
+                if (depth == 0 && !(key instanceof HiddenKey)) {
+                    specialized = createDictionaryObjectPropertyNode(store);
+                    if (specialized != null) {
+                        break;
+                    }
+                }
                 return rewriteToGeneric(currentHead, "dictionary object");
             }
 
@@ -1313,6 +1328,9 @@ public abstract class PropertyCacheNode<T extends PropertyCacheNode.CacheNode<T>
         specialized.setNext(currentHead);
         this.cacheNode = specialized;
         traceRewriteInsert(specialized, cachedCount);
+        if (JSTruffleOptions.InlineCacheStatistics) {
+            context.getInlineCacheStatistics().recordRewrite(this, getStatisticsKind(), key, cachedCount + 1, specialized.receiverCheck == null ? null : specialized.receiverCheck.getShape());
+        }
         if (JSTruffleOptions.TracePolymorphicPropertyAccess && cachedCount > 0) {
             System.out.printf("POLYMORPHIC PROPERTY ACCESS key='%s' %s\n%s\n---\n", key, getEncapsulatingSourceSection(), specialized.debugString());
         }
@@ -1324,6 +1342,9 @@ public abstract class PropertyCacheNode<T extends PropertyCacheNode.CacheNode<T>
         if (JSTruffleOptions.TraceMegamorphicPropertyAccess) {
             System.out.printf("MEGAMORPHIC PROPERTY ACCESS key='%s' %s\n%s\n---\n", key, getEncapsulatingSourceSection(), currentHead.debugString());
         }
+        if (JSTruffleOptions.InlineCacheStatistics) {
+            context.getInlineCacheStatistics().recordGeneric(this, getStatisticsKind(), key, reason);
+        }
 
         assert currentHead == this.cacheNode;
         // replace the entire cache with the generic case
@@ -1519,6 +1540,8 @@ public abstract class PropertyCacheNode<T extends PropertyCacheNode.CacheNode<T>
 
     protected abstract boolean isOwnProperty();
 
+    protected abstract InlineCacheStatistics.Kind getStatisticsKind();
+
     public final JSContext getContext() {
         return context;
     }
@@ -97,6 +97,7 @@ import com.oracle.truffle.js.runtime.builtins.JSAdapter;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
 import com.oracle.truffle.js.runtime.builtins.JSClass;
+import com.oracle.truffle.js.runtime.builtins.JSDictionaryObject;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.builtins.JSModuleNamespace;
@@ -112,6 +113,8 @@ import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.DictionaryPropertyMap;
+import com.oracle.truffle.js.runtime.util.InlineCacheStatistics;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 import com.oracle.truffle.js.runtime.util.TRegexUtil.TRegexMaterializeResultNode;
 
@@ -882,6 +885,64 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
         }
     }
 
+    /**
+     * Own property of a dictionary object, looked up in its property map by the cached key hash.
+     * Falls back to the prototype chain if the key is absent.
+     */
+    public static final class DictionaryObjectPropertyGetNode extends LinkedPropertyGetNode {
+        private final Property hashMapProperty;
+        private final int keyHash;
+        @Child private JSFunctionCallNode callNode;
+        @Child private GetPropertyFromJSObjectNode getFromPrototypeNode;
+        private final BranchProfile accessorBranch = BranchProfile.create();
+        private final BranchProfile notFoundBranch = BranchProfile.create();
+
+        public DictionaryObjectPropertyGetNode(Object key, Property hashMapProperty, ReceiverCheckNode receiverCheck) {
+            super(receiverCheck);
+            this.hashMapProperty = hashMapProperty;
+            this.keyHash = DictionaryPropertyMap.hash(key);
+        }
+
+        @Override
+        protected Object getValue(Object thisObj, Object receiver, PropertyGetNode root, boolean guard) {
+            return getValueOrDefault(thisObj, receiver, Undefined.instance, root, guard);
+        }
+
+        @Override
+        protected Object getValueOrDefault(Object thisObj, Object receiver, Object defaultValue, PropertyGetNode root, boolean guard) {
+            DynamicObject store = receiverCheck.getStore(thisObj);
+            DictionaryPropertyMap hashMap = (DictionaryPropertyMap) hashMapProperty.get(store, guard);
+            int entry = find(hashMap, root.getKey(), keyHash);
+            if (entry >= 0) {
+                Object value = hashMap.getValue(entry);
+                if (!JSDictionaryObject.isAccessor(hashMap.getFlags(entry))) {
+                    return value;
+                }
+                accessorBranch.enter();
+                DynamicObject getter = ((Accessor) value).getGetter();
+                if (getter != Undefined.instance) {
+                    if (callNode == null) {
+                        CompilerDirectives.transferToInterpreterAndInvalidate();
+                        callNode = insert(JSFunctionCallNode.createCall());
+                    }
+                    return callNode.executeCall(JSArguments.createZeroArg(receiver, getter));
+                }
+                return Undefined.instance;
+            }
+            notFoundBranch.enter();
+            if (getFromPrototypeNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                getFromPrototypeNode = insert(GetPropertyFromJSObjectNode.create(root.getKey(), root.isRequired()));
+            }
+            return getFromPrototypeNode.executeWithJSObject(store, receiver, defaultValue, root);
+        }
+
+        @TruffleBoundary(allowInlining = true)
+        static int find(DictionaryPropertyMap hashMap, Object key, int hash) {
+            return hashMap.find(key, hash);
+        }
+    }
+
     public static final class UnspecializedPropertyGetNode extends LinkedPropertyGetNode {
         public UnspecializedPropertyGetNode(ReceiverCheckNode receiverCheck) {
             super(receiverCheck);
@@ -1701,6 +1762,15 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
         }
     }
 
+    @Override
+    protected GetCacheNode createDictionaryObjectPropertyNode(DynamicObject store) {
+        if (isOwnProperty()) {
+            return null;
+        }
+        Shape shape = store.getShape();
+        return new DictionaryObjectPropertyGetNode(key, JSDictionaryObject.getHashMapProperty(shape), new ShapeCheckNode(shape));
+    }
+
     /**
      * Make a generic-case node, for when polymorphism becomes too high.
      */
@@ -1723,6 +1793,11 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
         return getOwnProperty;
     }
 
+    @Override
+    protected final InlineCacheStatistics.Kind getStatisticsKind() {
+        return InlineCacheStatistics.Kind.GET;
+    }
+
     protected boolean isMethod() {
         return isMethod;
     }
@@ -84,6 +84,7 @@ import com.oracle.truffle.js.runtime.Symbol;
 import com.oracle.truffle.js.runtime.builtins.JSAdapter;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
+import com.oracle.truffle.js.runtime.builtins.JSDictionaryObject;
 import com.oracle.truffle.js.runtime.builtins.JSGlobalObject;
 import com.oracle.truffle.js.runtime.builtins.JSProxy;
 import com.oracle.truffle.js.runtime.objects.Accessor;
@@ -96,6 +97,8 @@ import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.DictionaryPropertyMap;
+import com.oracle.truffle.js.runtime.util.InlineCacheStatistics;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
 
 /**
@@ -964,6 +967,42 @@ public class PropertySetNode extends PropertyCacheNode<PropertySetNode.SetCacheN
         }
     }
 
+    /**
+     * Own property of a dictionary object, looked up in its property map by the cached key hash.
+     * Writable data properties are updated in place; everything else takes the ordinary [[Set]].
+     */
+    public static final class DictionaryObjectPropertySetNode extends LinkedPropertySetNode {
+        private final Property hashMapProperty;
+        private final int keyHash;
+        private final JSClassProfile jsclassProfile = JSClassProfile.create();
+        private final BranchProfile slowPathBranch = BranchProfile.create();
+
+        public DictionaryObjectPropertySetNode(Object key, Property hashMapProperty, ReceiverCheckNode receiverCheck) {
+            super(receiverCheck);
+            this.hashMapProperty = hashMapProperty;
+            this.keyHash = DictionaryPropertyMap.hash(key);
+        }
+
+        @Override
+        protected boolean setValue(Object thisObj, Object value, Object receiver, PropertySetNode root, boolean guard) {
+            DynamicObject store = receiverCheck.getStore(thisObj);
+            DictionaryPropertyMap hashMap = (DictionaryPropertyMap) hashMapProperty.get(store, guard);
+            int entry = find(hashMap, root.getKey(), keyHash);
+            if (entry >= 0 && receiver == store && JSDictionaryObject.isWritableData(hashMap.getFlags(entry))) {
+                hashMap.setValue(entry, value);
+            } else {
+                slowPathBranch.enter();
+                JSObject.setWithReceiver(store, root.getKey(), value, receiver, root.isStrict(), jsclassProfile);
+            }
+            return true;
+        }
+
+        @TruffleBoundary(allowInlining = true)
+        static int find(DictionaryPropertyMap hashMap, Object key, int hash) {
+            return hashMap.find(key, hash);
+        }
+    }
+
     @NodeInfo(cost = NodeCost.MEGAMORPHIC)
     public static final class GenericPropertySetNode extends SetCacheNode {
         @Child private JSToObjectNode toObjectNode;
@@ -1347,6 +1386,15 @@ public class PropertySetNode extends PropertyCacheNode<PropertySetNode.SetCacheN
         return null;
     }
 
+    @Override
+    protected SetCacheNode createDictionaryObjectPropertyNode(DynamicObject store) {
+        if (isOwnProperty() || isGlobal()) {
+            return null;
+        }
+        Shape shape = store.getShape();
+        return new DictionaryObjectPropertySetNode(key, JSDictionaryObject.getHashMapProperty(shape), new ShapeCheckNode(shape));
+    }
+
     @Override
     protected SetCacheNode createGenericPropertyNode() {
         return new GenericPropertySetNode(context);
@@ -1362,6 +1410,11 @@ public class PropertySetNode extends PropertyCacheNode<PropertySetNode.SetCacheN
         return setOwnProperty;
     }
 
+    @Override
+    protected InlineCacheStatistics.Kind getStatisticsKind() {
+        return InlineCacheStatistics.Kind.SET;
+    }
+
     protected final boolean isStrict() {
         return this.isStrict;
     }
@@ -111,6 +111,7 @@ import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.PropertyReference;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.InlineCacheStatistics;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 
@@ -407,6 +408,13 @@ public class ReadElementNode extends JSTargetableNode implements ReadNode {
             if (currentHead != null) {
                 reportPolymorphicSpecialize();
             }
+            if (JSTruffleOptions.InlineCacheStatistics) {
+                int depth = 0;
+                for (ReadElementTypeCacheNode c = newCacheNode; c != null; c = c.typeCacheNext) {
+                    depth++;
+                }
+                context.getInlineCacheStatistics().recordRewrite(this, InlineCacheStatistics.Kind.READ_ELEMENT, null, depth, newCacheNode.getClass());
+            }
             if (!newCacheNode.guard(target)) {
                 throw Errors.shouldNotReachHere();
             }
@@ -487,7 +495,7 @@ public class ReadElementNode extends JSTargetableNode implements ReadNode {
                 }
             }
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            ArrayReadElementCacheNode specialization = specialize(target, array);
+            ArrayReadElementCacheNode specialization = specialize(target, array, root);
             return specialization.executeArrayGet(target, array, index, receiver, defaultValue, arrayCondition, root);
         }
 
@@ -501,7 +509,7 @@ public class ReadElementNode extends JSTargetableNode implements ReadNode {
                 }
             }
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            ArrayReadElementCacheNode specialization = specialize(target, array);
+            ArrayReadElementCacheNode specialization = specialize(target, array, root);
             return specialization.executeArrayGetInt(target, array, index, receiver, defaultValue, arrayCondition, root);
         }
 
@@ -515,11 +523,11 @@ public class ReadElementNode extends JSTargetableNode implements ReadNode {
                 }
             }
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            ArrayReadElementCacheNode specialization = specialize(target, array);
+            ArrayReadElementCacheNode specialization = specialize(target, array, root);
             return specialization.executeArrayGetDouble(target, array, index, receiver, defaultValue, arrayCondition, root);
         }
 
-        private ArrayReadElementCacheNode specialize(DynamicObject target, ScriptArray array) {
+        private ArrayReadElementCacheNode specialize(DynamicObject target, ScriptArray array, JSContext context) {
             CompilerAsserts.neverPartOfCompilation();
             Lock lock = getLock();
             lock.lock();
@@ -539,6 +547,13 @@ public class ReadElementNode extends JSTargetableNode implements ReadNode {
                 if (currentHead != null) {
                     reportPolymorphicSpecialize();
                 }
+                if (JSTruffleOptions.InlineCacheStatistics) {
+                    int depth = 0;
+                    for (ArrayReadElementCacheNode c = newCacheNode; c != null; c = c.arrayCacheNext) {
+                        depth++;
+                    }
+                    context.getInlineCacheStatistics().recordRewrite(this, InlineCacheStatistics.Kind.READ_ELEMENT, null, depth, array);
+                }
                 if (!newCacheNode.guard(target, array)) {
                     throw Errors.shouldNotReachHere();
                 }
@@ -1353,10 +1368,12 @@ public class ReadElementNode extends JSTargetableNode implements ReadNode {
 
         @Override
         protected Object executeWithTargetAndIndexUnchecked(Object target, int index, Object receiver, Object defaultValue, ReadElementNode root) {
-            String str = ((JSLazyString) target).toString(isFlatProfile);
-            if (stringIndexInBounds.profile(index >= 0 && index < str.length())) {
-                return String.valueOf(str.charAt(index));
+            JSLazyString lazyString = (JSLazyString) target;
+            if (stringIndexInBounds.profile(index >= 0 && index < lazyString.length())) {
+                // does not need to flatten the rope
+                return String.valueOf(lazyString.charAt(index));
             } else {
+                String str = lazyString.toString(isFlatProfile);
                 return JSObject.getOrDefault(JSString.create(root.context, str), index, receiver, defaultValue, jsclassProfile);
             }
         }
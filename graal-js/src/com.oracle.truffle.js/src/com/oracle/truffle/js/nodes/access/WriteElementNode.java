@@ -123,6 +123,7 @@ import com.oracle.truffle.js.runtime.builtins.JSSlowArray;
 import com.oracle.truffle.js.runtime.builtins.JSString;
 import com.oracle.truffle.js.runtime.builtins.JSSymbol;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.util.InlineCacheStatistics;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 
@@ -460,6 +461,13 @@ public class WriteElementNode extends JSTargetableNode {
             if (currentHead != null) {
                 reportPolymorphicSpecialize();
             }
+            if (JSTruffleOptions.InlineCacheStatistics) {
+                int depth = 0;
+                for (WriteElementTypeCacheNode c = newCacheNode; c != null; c = c.typeCacheNext) {
+                    depth++;
+                }
+                context.getInlineCacheStatistics().recordRewrite(this, InlineCacheStatistics.Kind.WRITE_ELEMENT, null, depth, newCacheNode.getClass());
+            }
             if (!newCacheNode.guard(target)) {
                 throw Errors.shouldNotReachHere();
             }
@@ -604,11 +612,11 @@ public class WriteElementNode extends JSTargetableNode {
                 }
             }
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            ArrayWriteElementCacheNode specialization = specialize(targetObject, array);
+            ArrayWriteElementCacheNode specialization = specialize(targetObject, array, root.context);
             return specialization.executeSetArray(targetObject, array, index, value, arrayCondition, root);
         }
 
-        private ArrayWriteElementCacheNode specialize(DynamicObject target, ScriptArray array) {
+        private ArrayWriteElementCacheNode specialize(DynamicObject target, ScriptArray array, JSContext context) {
             CompilerAsserts.neverPartOfCompilation();
             Lock lock = getLock();
             lock.lock();
@@ -628,6 +636,13 @@ public class WriteElementNode extends JSTargetableNode {
                 if (currentHead != null) {
                     reportPolymorphicSpecialize();
                 }
+                if (JSTruffleOptions.InlineCacheStatistics) {
+                    int depth = 0;
+                    for (ArrayWriteElementCacheNode c = newCacheNode; c != null; c = c.arrayCacheNext) {
+                        depth++;
+                    }
+                    context.getInlineCacheStatistics().recordRewrite(this, InlineCacheStatistics.Kind.WRITE_ELEMENT, null, depth, array);
+                }
                 if (!newCacheNode.guard(target, array)) {
                     throw Errors.shouldNotReachHere();
                 }
@@ -176,7 +176,12 @@ public abstract class JSAddNode extends JSBinaryNode implements Truncatable {
         return a + b;
     }
 
-    @Specialization
+    @Specialization(guards = {"left.isSmall()", "right.isSmall()"}, rewriteOn = ArithmeticException.class)
+    protected static BigInt doBigIntSmall(BigInt left, BigInt right) {
+        return BigInt.valueOf(Math.addExact(left.longValue(), right.longValue()));
+    }
+
+    @Specialization(replaces = "doBigIntSmall")
     protected BigInt doBigInt(BigInt left, BigInt right) {
         return left.add(right);
     }
@@ -212,7 +217,7 @@ public abstract class JSAddNode extends JSBinaryNode implements Truncatable {
     }
 
     @Specialization(replaces = {"doInt", "doIntOverflow", "doIntTruncate", "doLargeInteger", "doIntLargeInteger", "doLargeIntegerInt", "doLargeIntegerTruncate", "doIntLargeIntegerTruncate",
-                    "doLargeIntegerIntTruncate", "doDouble", "doBigInt", "doString", "doStringInt", "doIntString", "doStringNumber", "doNumberString"})
+                    "doLargeIntegerIntTruncate", "doDouble", "doBigIntSmall", "doBigInt", "doString", "doStringInt", "doIntString", "doStringNumber", "doNumberString"})
     protected Object doPrimitiveConversion(Object a, Object b,
                     @Cached("createHintNone()") JSToPrimitiveNode toPrimitiveA,
                     @Cached("createHintNone()") JSToPrimitiveNode toPrimitiveB,
@@ -40,7 +40,6 @@
  */
 package com.oracle.truffle.js.nodes.binary;
 
-import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
@@ -110,8 +109,12 @@ public abstract class JSMultiplyNode extends JSBinaryNode {
         return a * b;
     }
 
-    @Specialization
-    @TruffleBoundary
+    @Specialization(guards = {"a.isSmall()", "b.isSmall()"}, rewriteOn = ArithmeticException.class)
+    protected static BigInt doBigIntsSmall(BigInt a, BigInt b) {
+        return BigInt.valueOf(Math.multiplyExact(a.longValue(), b.longValue()));
+    }
+
+    @Specialization(replaces = "doBigIntsSmall")
     protected BigInt doBigInts(BigInt a, BigInt b) {
         try {
             return a.multiply(b);
@@ -89,12 +89,17 @@ public abstract class JSSubtractNode extends JSBinaryNode implements Truncatable
         return a - b;
     }
 
-    @Specialization()
+    @Specialization(guards = {"a.isSmall()", "b.isSmall()"}, rewriteOn = ArithmeticException.class)
+    protected static BigInt doBigIntSmall(BigInt a, BigInt b) {
+        return BigInt.valueOf(Math.subtractExact(a.longValue(), b.longValue()));
+    }
+
+    @Specialization(replaces = "doBigIntSmall")
     protected BigInt doBigInt(BigInt a, BigInt b) {
         return a.subtract(b);
     }
 
-    @Specialization(replaces = {"doDouble", "doBigInt"})
+    @Specialization(replaces = {"doDouble", "doBigIntSmall", "doBigInt"})
     protected Object doGeneric(Object a, Object b,
                     @Cached("create()") JSToNumericNode toNumericA,
                     @Cached("create()") JSToNumericNode toNumericB,
@@ -58,6 +58,7 @@ import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
 import com.oracle.truffle.js.nodes.JavaScriptNode;
+import com.oracle.truffle.js.nodes.ScriptNode;
 import com.oracle.truffle.js.nodes.instrumentation.JSTags.EvalCallTag;
 import com.oracle.truffle.js.runtime.BigInt;
 import com.oracle.truffle.js.runtime.Errors;
@@ -68,6 +69,7 @@ import com.oracle.truffle.js.runtime.LargeInteger;
 import com.oracle.truffle.js.runtime.Symbol;
 import com.oracle.truffle.js.runtime.builtins.JSError;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.regex.util.LRUCache;
 
 public abstract class EvalNode extends JavaScriptNode {
     private final JSContext context;
@@ -121,6 +123,15 @@ public abstract class EvalNode extends JavaScriptNode {
         return EvalNodeGen.create(context, env, functionNode, args, thisObject);
     }
 
+    /**
+     * Whether the parse result of an eval source may be reused for another eval of the same source.
+     * Template objects are cached per parse node, so two evaluations of a tagged template must not
+     * share one parse.
+     */
+    public static boolean isCacheableEvalSource(String code) {
+        return code.indexOf('`') < 0;
+    }
+
     @TruffleBoundary
     private static String formatEvalOrigin(Node callNode) {
         if (callNode == null) {
@@ -157,12 +168,19 @@ public abstract class EvalNode extends JavaScriptNode {
         private final JSContext context;
         private final Object currEnv;
         private final JavaScriptNode thisNode;
+        /**
+         * Parsed sources of this call site. The parse result only depends on the source code, since
+         * the execution context (and its strictness) and the source name are fixed per call site.
+         */
+        private final LRUCache<String, ScriptNode> evalCache;
 
         protected DirectEvalNode(JSContext context, Object currEnv, JavaScriptNode thisNode) {
             assert currEnv != null;
             this.context = context;
             this.currEnv = currEnv;
             this.thisNode = thisNode;
+            int evalCacheSize = context.getContextOptions().getEvalCacheSize();
+            this.evalCache = evalCacheSize > 0 ? new LRUCache<>(evalCacheSize) : null;
         }
 
         protected static DirectEvalNode create(JSContext context, Object currEnv, JavaScriptNode thisNode) {
@@ -217,8 +235,27 @@ public abstract class EvalNode extends JavaScriptNode {
         }
 
         private Object directEvalImpl(VirtualFrame frame, CharSequence sourceCode) {
-            final Source source = sourceFromString(sourceCode);
-            return context.getEvaluator().evaluate(context.getRealm(), getParent(), source, currEnv, frame.materialize(), thisNode.execute(frame));
+            ScriptNode scriptNode = parse(sourceCode);
+            return context.getEvaluator().runParsedEval(context.getRealm(), scriptNode, frame.materialize(), thisNode.execute(frame));
+        }
+
+        @TruffleBoundary(transferToInterpreterOnException = false)
+        private ScriptNode parse(CharSequence sourceCode) {
+            String code = sourceCode.toString();
+            if (evalCache == null || !isCacheableEvalSource(code)) {
+                return context.getEvaluator().parseEval(context, getParent(), sourceFromString(code), currEnv);
+            }
+            ScriptNode scriptNode;
+            synchronized (evalCache) {
+                scriptNode = evalCache.get(code);
+            }
+            if (scriptNode == null) {
+                scriptNode = context.getEvaluator().parseEval(context, getParent(), sourceFromString(code), currEnv);
+                synchronized (evalCache) {
+                    evalCache.put(code, scriptNode);
+                }
+            }
+            return scriptNode;
         }
 
         @Specialization(guards = {"isForeignObject(sourceCode)"}, limit = "3")
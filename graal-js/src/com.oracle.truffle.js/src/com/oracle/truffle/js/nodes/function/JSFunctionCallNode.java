@@ -109,6 +109,7 @@ import com.oracle.truffle.js.runtime.java.JavaPackage;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.DebugCounter;
+import com.oracle.truffle.js.runtime.util.InlineCacheStatistics;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 
 public abstract class JSFunctionCallNode extends JavaScriptNode implements JavaScriptFunctionCallNode {
@@ -284,6 +285,9 @@ public abstract class JSFunctionCallNode extends JavaScriptNode implements JavaS
                     }
                 }
                 assert c.getParent() != null;
+                if (JSTruffleOptions.InlineCacheStatistics) {
+                    recordCacheStatistics(c);
+                }
             }
         } finally {
             lock.unlock();
@@ -292,6 +296,22 @@ public abstract class JSFunctionCallNode extends JavaScriptNode implements JavaS
         return c.executeCall(arguments);
     }
 
+    private void recordCacheStatistics(AbstractCacheNode c) {
+        InlineCacheStatistics statistics = JavaScriptLanguage.getCurrentJSRealm().getContext().getInlineCacheStatistics();
+        if (c instanceof GenericJSFunctionCacheNode) {
+            statistics.recordGeneric(this, InlineCacheStatistics.Kind.CALL, getPropertyKey(), "cache limit reached");
+        } else if (c instanceof GenericFallbackCacheNode) {
+            statistics.recordGeneric(this, InlineCacheStatistics.Kind.CALL, getPropertyKey(), "not a function");
+        } else {
+            int depth = 0;
+            for (AbstractCacheNode node = cacheNode; node != null; node = node.nextNode) {
+                depth++;
+            }
+            Object target = isCached(c) ? ((JSFunctionCacheNode) c).getFunctionData() : c.getClass();
+            statistics.recordRewrite(this, InlineCacheStatistics.Kind.CALL, getPropertyKey(), depth, target);
+        }
+    }
+
     private static boolean isCached(AbstractCacheNode c) {
         return c instanceof JSFunctionCacheNode;
     }
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.nodes.promise;
+
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.LoopNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RepeatingNode;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.nodes.function.JSFunctionCallNode;
+import com.oracle.truffle.js.runtime.JSArguments;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.JavaScriptRootNode;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Runs the pending promise jobs of one realm in a loop. The realm is passed as the only argument
+ * and has to be entered by the caller. Jobs are dispatched through an inline-cached call node, and
+ * the loop stops at the first job that belongs to another realm (or when the queue is empty), so
+ * that the caller can switch realms.
+ *
+ * @see com.oracle.truffle.js.runtime.JSAgent#processAllPromises()
+ */
+public final class PromiseJobsDrainRootNode extends JavaScriptRootNode {
+
+    @Child private LoopNode loop;
+
+    public PromiseJobsDrainRootNode(JSContext context) {
+        super(context.getLanguage(), null, null);
+        this.loop = Truffle.getRuntime().createLoopNode(new DrainRepeatingNode());
+    }
+
+    @Override
+    public Object execute(VirtualFrame frame) {
+        loop.executeLoop(frame);
+        return Undefined.instance;
+    }
+
+    @Override
+    public boolean isInternal() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return "PromiseJobs";
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+    private static final class DrainRepeatingNode extends Node implements RepeatingNode {
+
+        @Child private JSFunctionCallNode callNode = JSFunctionCallNode.createCall();
+
+        @Override
+        public boolean executeRepeating(VirtualFrame frame) {
+            JSRealm realm = (JSRealm) frame.getArguments()[0];
+            DynamicObject job = realm.getAgent().pollPromiseJob(realm);
+            if (job == null) {
+                return false;
+            }
+            callNode.executeCall(JSArguments.createZeroArg(Undefined.instance, job));
+            return true;
+        }
+    }
+}
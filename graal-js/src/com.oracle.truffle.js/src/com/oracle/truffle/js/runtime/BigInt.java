@@ -51,41 +51,56 @@ import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
 
+/**
+ * BigInt value. Values that fit into a {@code long} are stored inline ({@link #isSmall()}) and the
+ * arithmetic on them is done on longs, with overflow detection and promotion to a
+ * {@link BigInteger}. Only values that do not fit are backed by a {@link BigInteger}. The
+ * representation is canonical, i.e. a value is small if and only if it fits into a {@code long}.
+ */
 @ExportLibrary(InteropLibrary.class)
 @ValueType
 public final class BigInt implements Comparable<BigInt>, TruffleObject {
 
     static final long serialVersionUID = 6019523258212492110L;
 
+    /** The value if it does not fit into a long, {@code null} otherwise. */
     private final BigInteger value;
+    /** The value if it fits into a long, undefined otherwise. */
+    private final long smallValue;
 
-    public static final BigInt ZERO = new BigInt(BigInteger.ZERO);
-    public static final BigInt ONE = new BigInt(BigInteger.ONE);
-    public static final BigInt NEGATIVE_ONE = new BigInt(BigInteger.valueOf(-1));
-    public static final BigInt TWO = new BigInt(BigInteger.valueOf(2));
+    public static final BigInt ZERO = new BigInt(0L);
+    public static final BigInt ONE = new BigInt(1L);
+    public static final BigInt NEGATIVE_ONE = new BigInt(-1L);
+    public static final BigInt TWO = new BigInt(2L);
 
-    public static final BigInt MAX_INT = new BigInt(BigInteger.valueOf(Integer.MAX_VALUE));
-    public static final BigInt MIN_INT = new BigInt(BigInteger.valueOf(Integer.MIN_VALUE));
+    public static final BigInt MAX_INT = new BigInt(Integer.MAX_VALUE);
+    public static final BigInt MIN_INT = new BigInt(Integer.MIN_VALUE);
 
     private static final BigInteger TWO64 = BigInteger.ONE.shiftLeft(64);
+    private static final long MAX_SAFE_DOUBLE_INTEGER = 1L << 53;
 
     public BigInt(String s, int r) {
-        this.value = new BigInteger(s, r);
+        this(new BigInteger(s, r));
     }
 
     public BigInt(BigInteger v) {
-        this.value = v;
+        if (v.bitLength() < Long.SIZE) {
+            this.value = null;
+            this.smallValue = v.longValue();
+        } else {
+            this.value = v;
+            this.smallValue = 0;
+        }
+    }
+
+    private BigInt(long v) {
+        this.value = null;
+        this.smallValue = v;
     }
 
     @TruffleBoundary
     public static BigInt fromBigInteger(BigInteger value) {
-        if (value.equals(BigInteger.ZERO)) {
-            return ZERO;
-        } else if (value.equals(BigInteger.ONE)) {
-            return ONE;
-        } else {
-            return new BigInt(value);
-        }
+        return new BigInt(value);
     }
 
     @TruffleBoundary
@@ -93,20 +108,23 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
         return new BigInt(parseBigInteger(s));
     }
 
-    @TruffleBoundary
     public static BigInt valueOf(long i) {
-        return new BigInt(BigInteger.valueOf(i));
+        return new BigInt(i);
     }
 
-    @TruffleBoundary
     public static BigInt valueOfUnsigned(long i) {
         if (i >= 0) {
-            return new BigInt(BigInteger.valueOf(i));
+            return new BigInt(i);
         } else {
-            return new BigInt(BigInteger.valueOf(i).mod(TWO64));
+            return valueOfUnsignedSlow(i);
         }
     }
 
+    @TruffleBoundary
+    private static BigInt valueOfUnsignedSlow(long i) {
+        return new BigInt(BigInteger.valueOf(i).mod(TWO64));
+    }
+
     @TruffleBoundary
     private static BigInteger parseBigInteger(final String valueString) {
 
@@ -138,187 +156,383 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
         return new BigInteger(trimmedString, 10);
     }
 
-    @TruffleBoundary
+    /**
+     * Returns whether this value fits into a long and is stored inline.
+     */
+    public boolean isSmall() {
+        return value == null;
+    }
+
     public int intValue() {
-        return value.intValue();
+        if (isSmall()) {
+            return (int) smallValue;
+        }
+        return intValueSlow();
     }
 
     @TruffleBoundary
+    private int intValueSlow() {
+        return value.intValue();
+    }
+
     public double doubleValue() {
+        if (isSmall()) {
+            return smallValue;
+        }
+        return doubleValueSlow();
+    }
+
+    @TruffleBoundary
+    private double doubleValueSlow() {
         return value.doubleValue();
     }
 
     public BigInteger bigIntegerValue() {
+        if (isSmall()) {
+            return toBigInteger(smallValue);
+        }
         return value;
     }
 
     @TruffleBoundary
+    private static BigInteger toBigInteger(long v) {
+        return BigInteger.valueOf(v);
+    }
+
     public BigInt toBigInt64() {
-        return valueOf(value.longValue());
+        if (isSmall()) {
+            return this;
+        }
+        return valueOf(longValue());
     }
 
-    @TruffleBoundary
     public BigInt toBigUint64() {
-        return new BigInt(value.mod(TWO64));
+        if (isSmall() && smallValue >= 0) {
+            return this;
+        }
+        return toBigUint64Slow();
     }
 
     @TruffleBoundary
-    public BigInt pow(int e) {
-        return new BigInt(value.pow(e));
+    private BigInt toBigUint64Slow() {
+        return new BigInt(bigIntegerValue().mod(TWO64));
     }
 
     @TruffleBoundary
+    public BigInt pow(int e) {
+        return new BigInt(bigIntegerValue().pow(e));
+    }
+
     public BigInt mod(BigInt m) {
-        return new BigInt(value.mod(m.value));
+        if (isSmall() && m.isSmall() && m.smallValue > 0) {
+            return new BigInt(Math.floorMod(smallValue, m.smallValue));
+        }
+        return modSlow(m);
     }
 
-    @Override
     @TruffleBoundary
+    private BigInt modSlow(BigInt m) {
+        return new BigInt(bigIntegerValue().mod(m.bigIntegerValue()));
+    }
+
+    @Override
     public int compareTo(BigInt b) {
-        return value.compareTo(b.value);
+        if (isSmall() && b.isSmall()) {
+            return Long.compare(smallValue, b.smallValue);
+        }
+        return compareToSlow(b);
     }
 
     @TruffleBoundary
+    private int compareToSlow(BigInt b) {
+        return bigIntegerValue().compareTo(b.bigIntegerValue());
+    }
+
     public int compareValueTo(long b) {
-        return value.compareTo(BigInteger.valueOf(b));
+        if (isSmall()) {
+            return Long.compare(smallValue, b);
+        }
+        // a large value is out of the long range
+        return value.signum();
     }
 
-    @TruffleBoundary
     public int compareValueTo(double b) {
-
         assert !Double.isNaN(b) : "unexpected NAN in BigInt value comparison";
+        if (isSmall() && -MAX_SAFE_DOUBLE_INTEGER <= smallValue && smallValue <= MAX_SAFE_DOUBLE_INTEGER) {
+            // exactly representable as a double
+            double thisValue = smallValue;
+            return thisValue < b ? -1 : (thisValue > b ? 1 : 0);
+        }
+        return compareValueToSlow(b);
+    }
 
+    @TruffleBoundary
+    private int compareValueToSlow(double b) {
         if (b == Double.POSITIVE_INFINITY) {
             return -1;
         } else if (b == Double.NEGATIVE_INFINITY) {
             return 1;
         } else {
-            BigDecimal thisValue = new BigDecimal(value);
+            BigDecimal thisValue = new BigDecimal(bigIntegerValue());
             BigDecimal theOtherValue = new BigDecimal(b);
             return thisValue.compareTo(theOtherValue);
         }
     }
 
-    @TruffleBoundary
     public BigInt subtract(BigInt b) {
-        return new BigInt(value.subtract(b.value));
+        if (isSmall() && b.isSmall()) {
+            long x = smallValue;
+            long y = b.smallValue;
+            long r = x - y;
+            if (((x ^ y) & (x ^ r)) >= 0) {
+                return new BigInt(r);
+            }
+        }
+        return subtractSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt subtractSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().subtract(b.bigIntegerValue()));
+    }
+
     public BigInt add(BigInt b) {
-        return new BigInt(value.add(b.value));
+        if (isSmall() && b.isSmall()) {
+            long x = smallValue;
+            long y = b.smallValue;
+            long r = x + y;
+            if (((x ^ r) & (y ^ r)) >= 0) {
+                return new BigInt(r);
+            }
+        }
+        return addSlow(b);
+    }
+
+    @TruffleBoundary
+    private BigInt addSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().add(b.bigIntegerValue()));
     }
 
     @TruffleBoundary
     public String toString(int radix) {
+        if (isSmall()) {
+            return Long.toString(smallValue, radix);
+        }
         return value.toString(radix);
     }
 
-    @TruffleBoundary
     public boolean testBit(int n) {
-        return value.testBit(n);
+        if (isSmall() && n >= 0) {
+            return ((smallValue >> Math.min(n, Long.SIZE - 1)) & 1) != 0;
+        }
+        return testBitSlow(n);
+    }
+
+    @TruffleBoundary
+    private boolean testBitSlow(int n) {
+        return bigIntegerValue().testBit(n);
     }
 
     public int signum() {
+        if (isSmall()) {
+            return Long.signum(smallValue);
+        }
         return value.signum();
     }
 
-    @TruffleBoundary
     public BigInt negate() {
-        return new BigInt(value.negate());
+        if (isSmall() && smallValue != Long.MIN_VALUE) {
+            return new BigInt(-smallValue);
+        }
+        return negateSlow();
     }
 
     @TruffleBoundary
+    private BigInt negateSlow() {
+        return new BigInt(bigIntegerValue().negate());
+    }
+
     public BigInt not() {
+        if (isSmall()) {
+            return new BigInt(~smallValue);
+        }
+        return notSlow();
+    }
+
+    @TruffleBoundary
+    private BigInt notSlow() {
         return new BigInt(value.not());
     }
 
     @Override
-    @TruffleBoundary
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((value == null) ? 0 : value.hashCode());
-        return result;
+        if (isSmall()) {
+            return Long.hashCode(smallValue);
+        }
+        return hashCodeSlow();
     }
 
-    @Override
     @TruffleBoundary
+    private int hashCodeSlow() {
+        return value.hashCode();
+    }
+
+    @Override
     public boolean equals(Object obj) {
         if (this == obj) {
             return true;
         }
-        if (obj == null) {
-            return false;
-        }
-        if (getClass() != obj.getClass()) {
+        if (!(obj instanceof BigInt)) {
             return false;
         }
         BigInt other = (BigInt) obj;
-        if (value == null) {
-            if (other.value != null) {
-                return false;
-            }
-        } else if (!value.equals(other.value)) {
-            return false;
+        if (isSmall() || other.isSmall()) {
+            // canonical representation: small and large values are never equal
+            return isSmall() && other.isSmall() && smallValue == other.smallValue;
         }
-        return true;
+        return equalsSlow(other);
     }
 
     @TruffleBoundary
+    private boolean equalsSlow(BigInt other) {
+        return value.equals(other.value);
+    }
+
     public BigInt and(BigInt b) {
-        return new BigInt(value.and(b.value));
+        if (isSmall() && b.isSmall()) {
+            return new BigInt(smallValue & b.smallValue);
+        }
+        return andSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt andSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().and(b.bigIntegerValue()));
+    }
+
     public BigInt or(BigInt b) {
-        return new BigInt(value.or(b.value));
+        if (isSmall() && b.isSmall()) {
+            return new BigInt(smallValue | b.smallValue);
+        }
+        return orSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt orSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().or(b.bigIntegerValue()));
+    }
+
     public BigInt xor(BigInt b) {
-        return new BigInt(value.xor(b.value));
+        if (isSmall() && b.isSmall()) {
+            return new BigInt(smallValue ^ b.smallValue);
+        }
+        return xorSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt xorSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().xor(b.bigIntegerValue()));
+    }
+
     public BigInt multiply(BigInt b) {
-        return new BigInt(value.multiply(b.value));
+        if (isSmall() && b.isSmall()) {
+            long x = smallValue;
+            long y = b.smallValue;
+            long r = x * y;
+            long ax = Math.abs(x);
+            long ay = Math.abs(y);
+            // same overflow check as Math.multiplyExact
+            if (((ax | ay) >>> 31 == 0) || ((y == 0 || r / y == x) && !(x == Long.MIN_VALUE && y == -1))) {
+                return new BigInt(r);
+            }
+        }
+        return multiplySlow(b);
     }
 
     @TruffleBoundary
+    private BigInt multiplySlow(BigInt b) {
+        return new BigInt(bigIntegerValue().multiply(b.bigIntegerValue()));
+    }
+
     public BigInt divide(BigInt b) {
-        return new BigInt(value.divide(b.value));
+        if (isSmall() && b.isSmall() && b.smallValue != 0 && !(smallValue == Long.MIN_VALUE && b.smallValue == -1)) {
+            return new BigInt(smallValue / b.smallValue);
+        }
+        return divideSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt divideSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().divide(b.bigIntegerValue()));
+    }
+
     public BigInt remainder(BigInt b) {
-        return new BigInt(value.remainder(b.value));
+        if (isSmall() && b.isSmall() && b.smallValue != 0) {
+            return new BigInt(smallValue % b.smallValue);
+        }
+        return remainderSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt remainderSlow(BigInt b) {
+        return new BigInt(bigIntegerValue().remainder(b.bigIntegerValue()));
+    }
+
     public BigInt shiftLeft(int b) {
-        return new BigInt(value.shiftLeft(b));
+        if (isSmall() && b >= 0 && b < Long.SIZE) {
+            long r = smallValue << b;
+            if ((r >> b) == smallValue) {
+                return new BigInt(r);
+            }
+        }
+        return shiftLeftSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt shiftLeftSlow(int b) {
+        return new BigInt(bigIntegerValue().shiftLeft(b));
+    }
+
     public BigInt shiftRight(int b) {
-        return new BigInt(value.shiftRight(b));
+        if (isSmall() && b >= 0) {
+            return new BigInt(smallValue >> Math.min(b, Long.SIZE - 1));
+        }
+        return shiftRightSlow(b);
     }
 
     @TruffleBoundary
+    private BigInt shiftRightSlow(int b) {
+        return new BigInt(bigIntegerValue().shiftRight(b));
+    }
+
     public long longValueExact() {
-        return value.longValueExact();
+        if (isSmall()) {
+            return smallValue;
+        }
+        throw longValueExactOverflow();
     }
 
     @TruffleBoundary
+    private static ArithmeticException longValueExactOverflow() {
+        return new ArithmeticException("BigInteger out of long range");
+    }
+
     public long longValue() {
+        if (isSmall()) {
+            return smallValue;
+        }
+        return longValueSlow();
+    }
+
+    @TruffleBoundary
+    private long longValueSlow() {
         return value.longValue();
     }
 
     @Override
     @TruffleBoundary
     public String toString() {
-        return value.toString(10);
+        return toString(10);
     }
 
     @ExportMessage
@@ -327,102 +541,92 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInByte() {
-        return value.bitLength() < Byte.SIZE;
+        return isSmall() && smallValue == (byte) smallValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInShort() {
-        return value.bitLength() < Short.SIZE;
+        return isSmall() && smallValue == (short) smallValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInInt() {
-        return value.bitLength() < Integer.SIZE;
+        return isSmall() && smallValue == (int) smallValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     public boolean fitsInLong() {
-        return value.bitLength() < Long.SIZE;
+        return isSmall();
     }
 
     @ExportMessage
     @TruffleBoundary
     boolean fitsInDouble() {
-        if (value.bitLength() <= 53) { // 53 = size of double mantissa + 1
+        BigInteger bigValue = bigIntegerValue();
+        if (bigValue.bitLength() <= 53) { // 53 = size of double mantissa + 1
             return true;
         } else {
-            double doubleValue = value.doubleValue();
+            double doubleValue = bigValue.doubleValue();
             if (!Double.isFinite(doubleValue)) {
                 return false;
             }
-            return new BigDecimal(doubleValue).toBigIntegerExact().equals(value);
+            return new BigDecimal(doubleValue).toBigIntegerExact().equals(bigValue);
         }
     }
 
     @ExportMessage
     @TruffleBoundary
     boolean fitsInFloat() {
-        if (value.bitLength() <= 24) { // 24 = size of float mantissa + 1
+        BigInteger bigValue = bigIntegerValue();
+        if (bigValue.bitLength() <= 24) { // 24 = size of float mantissa + 1
             return true;
         } else {
-            float floatValue = value.floatValue();
+            float floatValue = bigValue.floatValue();
             if (!Float.isFinite(floatValue)) {
                 return false;
             }
-            return new BigDecimal(floatValue).toBigIntegerExact().equals(value);
+            return new BigDecimal(floatValue).toBigIntegerExact().equals(bigValue);
         }
     }
 
     @ExportMessage
-    @TruffleBoundary
     byte asByte() throws UnsupportedMessageException {
-        try {
-            return value.byteValueExact();
-        } catch (ArithmeticException e) {
-            throw UnsupportedMessageException.create();
+        if (fitsInByte()) {
+            return (byte) smallValue;
         }
+        throw UnsupportedMessageException.create();
     }
 
     @ExportMessage
-    @TruffleBoundary
     short asShort() throws UnsupportedMessageException {
-        try {
-            return value.shortValueExact();
-        } catch (ArithmeticException e) {
-            throw UnsupportedMessageException.create();
+        if (fitsInShort()) {
+            return (short) smallValue;
         }
+        throw UnsupportedMessageException.create();
     }
 
     @ExportMessage
-    @TruffleBoundary
     int asInt() throws UnsupportedMessageException {
-        try {
-            return value.intValueExact();
-        } catch (ArithmeticException e) {
-            throw UnsupportedMessageException.create();
+        if (fitsInInt()) {
+            return (int) smallValue;
         }
+        throw UnsupportedMessageException.create();
     }
 
     @ExportMessage
-    @TruffleBoundary
     long asLong() throws UnsupportedMessageException {
-        try {
-            return longValueExact();
-        } catch (ArithmeticException e) {
-            throw UnsupportedMessageException.create();
+        if (fitsInLong()) {
+            return smallValue;
         }
+        throw UnsupportedMessageException.create();
     }
 
     @ExportMessage
     @TruffleBoundary
     float asFloat() throws UnsupportedMessageException {
         if (fitsInFloat()) {
-            return value.floatValue();
+            return bigIntegerValue().floatValue();
         } else {
             throw UnsupportedMessageException.create();
         }
@@ -432,7 +636,7 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
     @TruffleBoundary
     double asDouble() throws UnsupportedMessageException {
         if (fitsInDouble()) {
-            return value.doubleValue();
+            return bigIntegerValue().doubleValue();
         } else {
             throw UnsupportedMessageException.create();
         }
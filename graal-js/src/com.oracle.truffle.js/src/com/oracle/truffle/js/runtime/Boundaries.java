@@ -249,6 +249,11 @@ public final class Boundaries {
         return a.equals(b);
     }
 
+    @TruffleBoundary
+    public static int hashCode(Object o) {
+        return o.hashCode();
+    }
+
     @TruffleBoundary
     public static <K, V> Set<Map.Entry<K, V>> mapEntrySet(Map<K, V> map) {
         return map.entrySet();
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Bounded, thread-safe LRU cache of compiled regular expressions, keyed by pattern and flags. It is
+ * shared by all realms of a {@link JSContext}, since compiled regexes belong to the context's regex
+ * engine. This complements the per-node inline caches of {@code CompileRegexNode}, so that dynamic
+ * patterns compiled from many call sites are compiled only once.
+ */
+public final class CompiledRegexCache {
+
+    private final int maxSize;
+    private final Map<Key, Object> map;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    CompiledRegexCache(int maxSize) {
+        assert maxSize > 0;
+        this.maxSize = maxSize;
+        this.map = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() > CompiledRegexCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the compiled regex for the pattern and flags, or {@code null} if it is not cached.
+     */
+    @TruffleBoundary
+    public synchronized Object get(String pattern, String flags) {
+        Object compiledRegex = map.get(new Key(pattern, flags));
+        if (compiledRegex != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return compiledRegex;
+    }
+
+    @TruffleBoundary
+    public synchronized void put(String pattern, String flags, Object compiledRegex) {
+        map.put(new Key(pattern, flags), compiledRegex);
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CompiledRegexCache[size=" + map.size() + "/" + maxSize + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+
+    private static final class Key {
+        private final String pattern;
+        private final String flags;
+
+        Key(String pattern, String flags) {
+            this.pattern = pattern;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return pattern.equals(other.pattern) && flags.equals(other.flags);
+        }
+
+        @Override
+        public int hashCode() {
+            return pattern.hashCode() * 31 + flags.hashCode();
+        }
+    }
+}
@@ -73,6 +73,29 @@ public interface Evaluator {
      */
     Object evaluate(JSRealm realm, Node lastNode, Source source, Object currEnv, MaterializedFrame frame, Object thisObj);
 
+    /**
+     * Parses the source of an indirect call to eval. The result can be evaluated any number of times
+     * using {@link #runParsedEval}.
+     *
+     * @param lastNode the node invoking the eval or {@code null}
+     */
+    ScriptNode parseEval(JSContext context, Node lastNode, Source source);
+
+    /**
+     * Parses the source of a direct call to eval in the local execution context {@code currEnv}.
+     * The result can be evaluated any number of times using {@link #runParsedEval}, with frames of
+     * the same execution context.
+     *
+     * @param lastNode the node invoking the eval or {@code null}
+     */
+    ScriptNode parseEval(JSContext context, Node lastNode, Source source, Object currEnv);
+
+    /**
+     * Evaluates the result of {@link #parseEval}. For indirect eval, {@code frame} is
+     * {@code JSFrameUtil.NULL_MATERIALIZED_FRAME}.
+     */
+    Object runParsedEval(JSRealm realm, ScriptNode scriptNode, MaterializedFrame frame, Object thisObj);
+
     Object parseJSON(JSContext context, String jsonString);
 
     Integer[] parseDate(JSRealm realm, String date);
@@ -86,6 +109,19 @@ public interface Evaluator {
 
     JSModuleRecord parseModule(JSContext context, Source source, JSModuleLoader moduleLoader);
 
+    /**
+     * Parses a module without translating it, so that imported modules can be parsed ahead of
+     * time. May be called from a thread that is not entered into the context: it does not create
+     * any JavaScript objects, syntax errors are kept in the result and thrown by
+     * {@link #parseModule(JSContext, Source, JSModuleLoader, Object)}.
+     *
+     * @return an opaque parse result to be passed to
+     *         {@link #parseModule(JSContext, Source, JSModuleLoader, Object)} at most once
+     */
+    Object preparseModule(JSContext context, Source source);
+
+    JSModuleRecord parseModule(JSContext context, Source source, JSModuleLoader moduleLoader, Object preparsedModule);
+
     JSModuleRecord hostResolveImportedModule(JSContext context, ScriptOrModule referencingScriptOrModule, String specifier);
 
     void moduleInstantiation(JSModuleRecord moduleRecord);
@@ -40,8 +40,7 @@
  */
 package com.oracle.truffle.js.runtime;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -50,7 +49,6 @@ import com.oracle.truffle.js.runtime.JSAgentWaiterList.JSAgentWaiterListEntry;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSSharedArrayBuffer;
-import com.oracle.truffle.js.runtime.objects.Undefined;
 
 /**
  * Base class for ECMA2017 8.7 Agents.
@@ -58,6 +56,7 @@ import com.oracle.truffle.js.runtime.objects.Undefined;
 public abstract class JSAgent implements EcmaAgent {
 
     private static final AtomicInteger signifierGenerator = new AtomicInteger(0);
+    private static final int INITIAL_PROMISE_JOBS_CAPACITY = 16;
 
     /* ECMA2017 Agent Record */
     private final int signifier;
@@ -67,9 +66,11 @@ public abstract class JSAgent implements EcmaAgent {
     private boolean inCriticalSection;
 
     /**
-     * ECMA 8.4 "PromiseJobs" job queue.
+     * ECMA 8.4 "PromiseJobs" job queue, a FIFO ring buffer whose capacity is a power of two.
      */
-    private final Deque<DynamicObject> promiseJobsQueue;
+    private DynamicObject[] promiseJobs;
+    private int promiseJobsHead;
+    private int promiseJobsCount;
 
     /**
      * According to ECMA2017 8.4 the queue of pending jobs (promises reactions) must be processed
@@ -83,7 +84,7 @@ public abstract class JSAgent implements EcmaAgent {
     public JSAgent(boolean canBlock) {
         this.signifier = signifierGenerator.incrementAndGet();
         this.canBlock = canBlock;
-        this.promiseJobsQueue = new ArrayDeque<>(4);
+        this.promiseJobs = new DynamicObject[INITIAL_PROMISE_JOBS_CAPACITY];
     }
 
     public abstract void wakeAgent(int w);
@@ -132,28 +133,83 @@ public abstract class JSAgent implements EcmaAgent {
 
     @TruffleBoundary
     public final void enqueuePromiseJob(DynamicObject job) {
-        promiseJobsQueue.push(job);
+        DynamicObject[] jobs = promiseJobs;
+        if (promiseJobsCount == jobs.length) {
+            jobs = growPromiseJobs();
+        }
+        jobs[(promiseJobsHead + promiseJobsCount) & (jobs.length - 1)] = job;
+        promiseJobsCount++;
+    }
+
+    private DynamicObject[] growPromiseJobs() {
+        DynamicObject[] jobs = promiseJobs;
+        DynamicObject[] newJobs = new DynamicObject[jobs.length * 2];
+        int firstPart = jobs.length - promiseJobsHead;
+        System.arraycopy(jobs, promiseJobsHead, newJobs, 0, firstPart);
+        System.arraycopy(jobs, 0, newJobs, firstPart, promiseJobsHead);
+        promiseJobs = newJobs;
+        promiseJobsHead = 0;
+        return newJobs;
+    }
+
+    private DynamicObject removeFirstPromiseJob() {
+        DynamicObject[] jobs = promiseJobs;
+        DynamicObject job = jobs[promiseJobsHead];
+        jobs[promiseJobsHead] = null;
+        promiseJobsHead = (promiseJobsHead + 1) & (jobs.length - 1);
+        promiseJobsCount--;
+        return job;
     }
 
+    /**
+     * Removes and returns the next pending promise job if it is a function of the given realm;
+     * otherwise, returns {@code null} and leaves the queue unchanged.
+     */
+    public final DynamicObject pollPromiseJob(JSRealm realm) {
+        if (promiseJobsCount == 0) {
+            return null;
+        }
+        DynamicObject job = promiseJobs[promiseJobsHead];
+        if (!JSFunction.isJSFunction(job) || JSFunction.getRealm(job) != realm) {
+            return null;
+        }
+        return removeFirstPromiseJob();
+    }
+
+    /**
+     * Runs all pending promise jobs, including the ones enqueued while doing so. Consecutive jobs
+     * of the same realm are run as one batch by a compiled drain loop, so the realm is entered
+     * once per batch rather than once per job.
+     */
     @TruffleBoundary
     public final void processAllPromises() {
         try {
-            while (!promiseJobsQueue.isEmpty()) {
-                DynamicObject nextJob = promiseJobsQueue.pollLast();
-                if (JSFunction.isJSFunction(nextJob)) {
-                    JSRealm functionRealm = JSFunction.getRealm(nextJob);
-                    Object prev = functionRealm.getTruffleContext().enter();
-                    try {
-                        JSFunction.call(nextJob, Undefined.instance, JSArguments.EMPTY_ARGUMENTS_ARRAY);
-                    } finally {
-                        functionRealm.getTruffleContext().leave(prev);
-                    }
+            while (promiseJobsCount > 0) {
+                DynamicObject nextJob = promiseJobs[promiseJobsHead];
+                if (!JSFunction.isJSFunction(nextJob)) {
+                    removeFirstPromiseJob();
+                    continue;
+                }
+                JSRealm functionRealm = JSFunction.getRealm(nextJob);
+                Object prev = functionRealm.getTruffleContext().enter();
+                try {
+                    functionRealm.getContext().getPromiseJobsDrainCallTarget().call(functionRealm);
+                } finally {
+                    functionRealm.getTruffleContext().leave(prev);
                 }
             }
         } finally {
             // Ensure that there are no leftovers when the processing
             // is terminated by an exception (like ExitException).
-            promiseJobsQueue.clear();
+            clearPromiseJobs();
+        }
+    }
+
+    private void clearPromiseJobs() {
+        if (promiseJobsCount > 0) {
+            Arrays.fill(promiseJobs, null);
+            promiseJobsHead = 0;
+            promiseJobsCount = 0;
         }
     }
 
@@ -63,14 +63,21 @@ public class JSAgentWaiterList {
     }
 
     public JSAgentWaiterListEntry getListForIndex(int indexPos) {
-        JSAgentWaiterListEntry list = Boundaries.mapPutIfAbsent(waiters, indexPos, new JSAgentWaiterListEntry());
+        JSAgentWaiterListEntry list = Boundaries.mapGet(waiters, indexPos);
         if (list == null) {
-            return Boundaries.mapGet(waiters, indexPos);
-        } else {
-            return list;
+            JSAgentWaiterListEntry newList = new JSAgentWaiterListEntry();
+            list = Boundaries.mapPutIfAbsent(waiters, indexPos, newList);
+            if (list == null) {
+                list = newList;
+            }
         }
+        return list;
     }
 
+    /**
+     * Buffer-wide lock, only used for atomic read-modify-write operations that cannot be performed
+     * with hardware atomics. Waiting and waking use the per-index {@link JSAgentWaiterListEntry}.
+     */
     public void lock() {
         globalMonitor.lock();
     }
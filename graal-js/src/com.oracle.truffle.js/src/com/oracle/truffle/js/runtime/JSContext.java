@@ -40,11 +40,16 @@
  */
 package com.oracle.truffle.js.runtime;
 
+import java.nio.file.attribute.FileTime;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
@@ -73,6 +78,7 @@ import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.access.GetPrototypeNode;
 import com.oracle.truffle.js.nodes.cast.JSToObjectNode;
+import com.oracle.truffle.js.nodes.promise.PromiseJobsDrainRootNode;
 import com.oracle.truffle.js.runtime.array.TypedArray;
 import com.oracle.truffle.js.runtime.array.TypedArrayFactory;
 import com.oracle.truffle.js.runtime.builtins.Builtin;
@@ -133,6 +139,8 @@ import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.CompilableBiFunction;
 import com.oracle.truffle.js.runtime.util.CompilableFunction;
 import com.oracle.truffle.js.runtime.util.DebugJSAgent;
+import com.oracle.truffle.js.runtime.util.InlineCacheStatistics;
+import com.oracle.truffle.js.runtime.util.Pair;
 import com.oracle.truffle.js.runtime.util.TimeProfiler;
 
 public class JSContext {
@@ -184,6 +192,12 @@ public class JSContext {
 
     private final TimeProfiler timeProfiler;
 
+    /** Engine-wide cache of compiled regexes, or {@code null} if disabled. */
+    private final CompiledRegexCache compiledRegexCache;
+
+    /** Inline cache statistics of all realms of this context, or {@code null} if disabled. */
+    private final InlineCacheStatistics inlineCacheStatistics;
+
     private final JSObjectFactory.BoundProto moduleNamespaceFactory;
 
     /** The RegExp engine in use, may be JoniRegexEngine or the TRegex engine. */
@@ -210,6 +224,7 @@ public class JSContext {
     private volatile CallTarget boundFunctionCallTargetCache;
     private volatile CallTarget boundFunctionConstructTargetCache;
     private volatile CallTarget boundFunctionConstructNewTargetCache;
+    private volatile CallTarget promiseJobsDrainCallTargetCache;
 
     public enum BuiltinFunctionKey {
         ArrayFlattenIntoArray,
@@ -306,6 +321,17 @@ public class JSContext {
 
     private final Map<Builtin, JSFunctionData> builtinFunctionDataMap = new ConcurrentHashMap<>();
 
+    /** Module sources shared by all realms, keyed by canonical path. */
+    private final Map<String, Pair<FileTime, Source>> moduleSourceCache = new ConcurrentHashMap<>();
+    private volatile ExecutorService moduleParseExecutor;
+    /** Set if modules are parsed on the evaluating thread only. */
+    private volatile boolean moduleParseExecutorDisabled;
+    /**
+     * Number of top-level realms created by {@link #createRealm} that have not been disposed yet.
+     * Child realms are not disposed separately.
+     */
+    private final AtomicInteger liveRealmCount = new AtomicInteger();
+
     private final JSPrototypeData nullPrototypeData = new JSPrototypeData();
     private final JSPrototypeData inObjectPrototypeData = new JSPrototypeData();
 
@@ -432,6 +458,9 @@ public class JSContext {
         this.builtinFunctionData = new JSFunctionData[BuiltinFunctionKey.values().length];
 
         this.timeProfiler = JSTruffleOptions.ProfileTime ? new TimeProfiler() : null;
+        int regexCacheSize = contextOptions.getRegexCacheSize();
+        this.compiledRegexCache = regexCacheSize > 0 ? new CompiledRegexCache(regexCacheSize) : null;
+        this.inlineCacheStatistics = JSTruffleOptions.InlineCacheStatistics ? new InlineCacheStatistics() : null;
 
         this.singleRealmAssumption = Truffle.getRuntime().createAssumption("single realm");
         this.noChildRealmsAssumption = Truffle.getRuntime().createAssumption("no child realms");
@@ -610,6 +639,7 @@ public class JSContext {
         newRealm.setupGlobals();
 
         if (isTop) {
+            liveRealmCount.incrementAndGet();
             if (contextOptions.isTest262Mode() || contextOptions.isTestV8Mode()) {
                 newRealm.setAgent(new DebugJSAgent(contextOptions.canAgentBlock(), env.getOptions()));
             } else {
@@ -698,6 +728,14 @@ public class JSContext {
         return timeProfiler;
     }
 
+    public CompiledRegexCache getCompiledRegexCache() {
+        return compiledRegexCache;
+    }
+
+    public InlineCacheStatistics getInlineCacheStatistics() {
+        return inlineCacheStatistics;
+    }
+
     /**
      * Get the current Realm using {@link ContextReference}.
      */
@@ -976,6 +1014,63 @@ public class JSContext {
         this.symbolRegistry = newSymbolRegistry;
     }
 
+    public Map<String, Pair<FileTime, Source>> getModuleSourceCache() {
+        return moduleSourceCache;
+    }
+
+    /**
+     * Returns the worker pool used to parse imported modules ahead of time, or {@code null} if
+     * modules are parsed on the evaluating thread only.
+     */
+    public ExecutorService getModuleParseExecutor() {
+        ExecutorService executor = moduleParseExecutor;
+        if (executor == null && !moduleParseExecutorDisabled) {
+            executor = createModuleParseExecutor();
+        }
+        return executor;
+    }
+
+    private synchronized ExecutorService createModuleParseExecutor() {
+        ExecutorService executor = moduleParseExecutor;
+        if (executor == null) {
+            int threads = getContextOptions().getModuleParseThreads();
+            if (threads < 0) {
+                threads = Math.min(4, Runtime.getRuntime().availableProcessors() - 1);
+            }
+            if (threads <= 0) {
+                moduleParseExecutorDisabled = true;
+                return null;
+            }
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "graaljs-module-parser");
+                thread.setDaemon(true);
+                return thread;
+            });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+            moduleParseExecutor = executor;
+        }
+        return executor;
+    }
+
+    /**
+     * Called when a top-level realm of this context is disposed. Once no realm is left, the module
+     * parse executor is shut down; it is created again if another realm needs it.
+     */
+    public void realmDisposed() {
+        if (liveRealmCount.decrementAndGet() == 0) {
+            shutdownModuleParseExecutor();
+        }
+    }
+
+    private synchronized void shutdownModuleParseExecutor() {
+        ExecutorService executor = moduleParseExecutor;
+        if (executor != null) {
+            moduleParseExecutor = null;
+            executor.shutdownNow();
+        }
+    }
+
     public Map<Shape, JSShapeData> getShapeDataMap() {
         Map<Shape, JSShapeData> map = shapeDataMap;
         if (map == null) {
@@ -1111,6 +1206,23 @@ public class JSContext {
         return result;
     }
 
+    /**
+     * CallTarget that runs the pending promise jobs of the realm passed as argument.
+     */
+    @TruffleBoundary
+    public CallTarget getPromiseJobsDrainCallTarget() {
+        CallTarget result = promiseJobsDrainCallTargetCache;
+        if (result == null) {
+            synchronized (this) {
+                result = promiseJobsDrainCallTargetCache;
+                if (result == null) {
+                    result = promiseJobsDrainCallTargetCache = Truffle.getRuntime().createCallTarget(new PromiseJobsDrainRootNode(this));
+                }
+            }
+        }
+        return result;
+    }
+
     public JSFunctionData getBoundFunctionData(boolean constructor) {
         JSFunctionData result = constructor ? boundConstructorFunctionData : boundFunctionData;
         if (result == null) {
@@ -334,11 +334,34 @@ public final class JSContextOptions {
     public static final OptionKey<Integer> FUNCTION_CONSTRUCTOR_CACHE_SIZE = new OptionKey<>(32);
     @CompilationFinal private int functionConstructorCacheSize;
 
+    public static final String REGEX_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "regex-cache-size";
+    @Option(name = REGEX_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Maximum number of compiled regular expressions cached per engine, keyed by pattern and flags (0: disabled).") //
+    public static final OptionKey<Integer> REGEX_CACHE_SIZE = new OptionKey<>(256);
+    @CompilationFinal private int regexCacheSize;
+
+    public static final String EVAL_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "eval-cache-size";
+    @Option(name = EVAL_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Maximum number of parsed sources cached per eval call site, keyed by source code (0: disabled).") //
+    public static final OptionKey<Integer> EVAL_CACHE_SIZE = new OptionKey<>(16);
+    @CompilationFinal private int evalCacheSize;
+
     public static final String STRING_LENGTH_LIMIT_NAME = JS_OPTION_PREFIX + "string-length-limit";
     @Option(name = STRING_LENGTH_LIMIT_NAME, category = OptionCategory.EXPERT, help = "Maximum string length.") //
     public static final OptionKey<Integer> STRING_LENGTH_LIMIT = new OptionKey<>(JSTruffleOptions.StringLengthLimit);
     @CompilationFinal private int stringLengthLimit;
 
+    public static final String MODULE_PARSE_THREADS_NAME = JS_OPTION_PREFIX + "module-parse-threads";
+    @Option(name = MODULE_PARSE_THREADS_NAME, category = OptionCategory.EXPERT, help = "Number of worker threads used to parse statically imported modules ahead of time (0: parse on the evaluating thread only, -1: choose based on available processors).") //
+    public static final OptionKey<Integer> MODULE_PARSE_THREADS = new OptionKey<>(-1);
+
+    public static final String CODE_CACHE_DIR_NAME = JS_OPTION_PREFIX + "code-cache-dir";
+    @Option(name = CODE_CACHE_DIR_NAME, category = OptionCategory.EXPERT, help = "Directory used to persist parsed scripts across runs, keyed by source content and engine version.") //
+    public static final OptionKey<String> CODE_CACHE_DIR = new OptionKey<>("");
+
+    public static final String READBUFFER_MAP_THRESHOLD_NAME = JS_OPTION_PREFIX + "readbuffer-map-threshold";
+    @Option(name = READBUFFER_MAP_THRESHOLD_NAME, category = OptionCategory.EXPERT, help = "Memory-map files of at least this size (in bytes) in readbuffer() instead of reading them into memory " +
+                    "(-1: never). Only used with direct byte buffers. Files over 2GB cannot be represented as an ArrayBuffer and are rejected.") //
+    public static final OptionKey<Integer> READBUFFER_MAP_THRESHOLD = new OptionKey<>(-1);
+
     JSContextOptions(JSParserOptions parserOptions, OptionValues optionValues) {
         this.parserOptions = parserOptions;
         this.optionValues = optionValues;
@@ -407,6 +430,8 @@ public final class JSContextOptions {
         this.validateRegExpLiterals = readBooleanOption(VALIDATE_REGEXP_LITERALS);
         this.functionConstructorCacheSize = readIntegerOption(FUNCTION_CONSTRUCTOR_CACHE_SIZE);
         this.stringLengthLimit = readIntegerOption(STRING_LENGTH_LIMIT);
+        this.regexCacheSize = readIntegerOption(REGEX_CACHE_SIZE);
+        this.evalCacheSize = readIntegerOption(EVAL_CACHE_SIZE);
     }
 
     private boolean patchBooleanOption(OptionKey<Boolean> key, String name, boolean oldValue, Consumer<String> invalidate) {
@@ -649,6 +674,18 @@ public final class JSContextOptions {
         return LOCALE.getValue(optionValues);
     }
 
+    public int getModuleParseThreads() {
+        return MODULE_PARSE_THREADS.getValue(optionValues);
+    }
+
+    public String getCodeCacheDir() {
+        return CODE_CACHE_DIR.getValue(optionValues);
+    }
+
+    public int getReadBufferMapThreshold() {
+        return READBUFFER_MAP_THRESHOLD.getValue(optionValues);
+    }
+
     public int getFunctionConstructorCacheSize() {
         return functionConstructorCacheSize;
     }
@@ -657,6 +694,14 @@ public final class JSContextOptions {
         return stringLengthLimit;
     }
 
+    public int getRegexCacheSize() {
+        return regexCacheSize;
+    }
+
+    public int getEvalCacheSize() {
+        return evalCacheSize;
+    }
+
     @Override
     public int hashCode() {
         int hash = 5;
@@ -690,6 +735,8 @@ public final class JSContextOptions {
         hash = 53 * hash + (this.validateRegExpLiterals ? 1 : 0);
         hash = 53 * hash + this.functionConstructorCacheSize;
         hash = 53 * hash + this.stringLengthLimit;
+        hash = 53 * hash + this.regexCacheSize;
+        hash = 53 * hash + this.evalCacheSize;
         return hash;
     }
 
@@ -792,6 +839,12 @@ public final class JSContextOptions {
         if (this.stringLengthLimit != other.stringLengthLimit) {
             return false;
         }
+        if (this.regexCacheSize != other.regexCacheSize) {
+            return false;
+        }
+        if (this.evalCacheSize != other.evalCacheSize) {
+            return false;
+        }
         return Objects.equals(this.parserOptions, other.parserOptions);
     }
 }
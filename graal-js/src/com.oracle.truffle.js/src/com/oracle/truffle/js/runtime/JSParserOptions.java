@@ -283,4 +283,11 @@ public final class JSParserOptions {
         }
         return true;
     }
+
+    @Override
+    public String toString() {
+        return "JSParserOptions [strict=" + strict + ", scripting=" + scripting + ", shebang=" + shebang + ", ecmaScriptVersion=" + ecmaScriptVersion + ", syntaxExtensions=" +
+                        syntaxExtensions + ", constAsVar=" + constAsVar + ", functionStatementError=" + functionStatementError + ", dumpOnError=" + dumpOnError + ", emptyStatements=" +
+                        emptyStatements + ", annexB=" + annexB + ", allowBigInt=" + allowBigInt + "]";
+    }
 }
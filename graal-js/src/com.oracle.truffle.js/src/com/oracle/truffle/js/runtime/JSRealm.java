@@ -40,13 +40,11 @@
  */
 package com.oracle.truffle.js.runtime;
 
-import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.Writer;
 import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -62,12 +60,10 @@ import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.TruffleContext;
-import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.Shape;
-import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.JavaScriptNode;
 import com.oracle.truffle.js.runtime.JSContext.BuiltinFunctionKey;
@@ -119,13 +115,13 @@ import com.oracle.truffle.js.runtime.builtins.SIMDType.SIMDTypeFactory;
 import com.oracle.truffle.js.runtime.java.JavaImporter;
 import com.oracle.truffle.js.runtime.java.JavaPackage;
 import com.oracle.truffle.js.runtime.objects.Accessor;
+import com.oracle.truffle.js.runtime.objects.DefaultModuleLoader;
 import com.oracle.truffle.js.runtime.objects.JSAttributes;
 import com.oracle.truffle.js.runtime.objects.JSModuleLoader;
-import com.oracle.truffle.js.runtime.objects.JSModuleRecord;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
-import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.IntlObjectCache;
 import com.oracle.truffle.js.runtime.util.LocalTimeZoneHolder;
 import com.oracle.truffle.js.runtime.util.PrintWriterWrapper;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
@@ -310,6 +306,11 @@ public class JSRealm {
      */
     @CompilationFinal private LocalTimeZoneHolder localTimeZoneHolder;
 
+    /**
+     * Cache of Intl objects used by the locale-sensitive built-ins. Initialized lazily.
+     */
+    private IntlObjectCache intlObjectCache;
+
     public static final long NANOSECONDS_PER_MILLISECOND = 1000000;
     private SplittableRandom random;
     private long nanoToZeroTimeOffset;
@@ -926,6 +927,21 @@ public class JSRealm {
         }
     }
 
+    public final IntlObjectCache getIntlObjectCache() {
+        IntlObjectCache cache = intlObjectCache;
+        if (cache == null) {
+            cache = createIntlObjectCache();
+        }
+        return cache;
+    }
+
+    @TruffleBoundary
+    private IntlObjectCache createIntlObjectCache() {
+        IntlObjectCache cache = new IntlObjectCache();
+        intlObjectCache = cache;
+        return cache;
+    }
+
     public final Object getEvalFunctionObject() {
         return evalFunctionObject;
     }
@@ -1570,6 +1586,8 @@ public class JSRealm {
         if (localTimeZoneHolder != null) {
             localTimeZoneHolder = getTimeZoneFromEnv();
         }
+        // Cached Intl objects may have been initialized with the old default locale or timezone.
+        intlObjectCache = null;
         initTimeOffsetAndRandom();
 
         // Perform the deferred part of setting up properties in the function prototype.
@@ -1802,53 +1820,7 @@ public class JSRealm {
     @TruffleBoundary
     private synchronized void createModuleLoader() {
         if (moduleLoader == null) {
-            moduleLoader = new JSModuleLoader() {
-                private final Map<String, JSModuleRecord> moduleMap = new HashMap<>();
-
-                @Override
-                public JSModuleRecord resolveImportedModule(ScriptOrModule referrer, String specifier) {
-                    String refPath = referrer == null ? null : referrer.getSource().getPath();
-                    try {
-                        TruffleFile moduleFile;
-                        if (refPath == null) {
-                            // Importing module source does not originate from a file.
-                            moduleFile = getEnv().getPublicTruffleFile(specifier).getCanonicalFile();
-                        } else {
-                            TruffleFile refFile = getEnv().getPublicTruffleFile(refPath);
-                            moduleFile = refFile.resolveSibling(specifier).getCanonicalFile();
-                        }
-                        String canonicalPath = moduleFile.getPath();
-                        JSModuleRecord existingModule = moduleMap.get(canonicalPath);
-                        if (existingModule != null) {
-                            return existingModule;
-                        }
-                        Source source = Source.newBuilder(JavaScriptLanguage.ID, moduleFile).name(specifier).build();
-                        JSModuleRecord newModule = getContext().getEvaluator().parseModule(getContext(), source, this);
-                        moduleMap.put(canonicalPath, newModule);
-                        return newModule;
-                    } catch (IOException | SecurityException e) {
-                        throw Errors.createErrorFromException(e);
-                    }
-                }
-
-                @Override
-                public JSModuleRecord loadModule(Source source) {
-                    String path = source.getPath();
-                    String canonicalPath;
-                    if (path == null) {
-                        // Source does not originate from a file.
-                        canonicalPath = source.getName();
-                    } else {
-                        try {
-                            TruffleFile moduleFile = getEnv().getPublicTruffleFile(path);
-                            canonicalPath = moduleFile.getCanonicalFile().getPath();
-                        } catch (IOException | SecurityException e) {
-                            throw Errors.createErrorFromException(e);
-                        }
-                    }
-                    return moduleMap.computeIfAbsent(canonicalPath, (key) -> getContext().getEvaluator().parseModule(getContext(), source, this));
-                }
-            };
+            moduleLoader = new DefaultModuleLoader(this);
         }
     }
 
@@ -1892,6 +1864,14 @@ public class JSRealm {
         return getLocalTimeZoneHolder().localTZA;
     }
 
+    /**
+     * Daylight saving time adjustment of the local time zone at the given UTC time, in
+     * milliseconds.
+     */
+    public final long getLocalDaylightSavingTA(double t) {
+        return getLocalTimeZoneHolder().getDaylightSavingTA(t);
+    }
+
     private void initTimeOffsetAndRandom() {
         assert !getEnv().isPreInitialization();
 
@@ -99,12 +99,17 @@ public final class JSTruffleOptions {
     public static final boolean RestrictForceSplittingBuiltins = booleanOption("RestrictForceSplittingBuiltins", true);
     public static final int MinLazyStringLength = integerOption("MinLazyStringLength", 20);
     public static final int ConcatToLeafLimit = integerOption("ConcatToLeafLimit", MinLazyStringLength / 2);
+    public static final int MaxLazyStringTraversalDepth = integerOption("MaxLazyStringTraversalDepth", 32);
+    public static final int MaxLazyStringTraversals = integerOption("MaxLazyStringTraversals", 16);
+    public static final int MinSubstringViewLength = integerOption("MinSubstringViewLength", 1024);
     public static final int MaxCompiledRegexCacheLength = integerOption("MaxCompiledRegexCacheLength", 4);
     public static final boolean TrimCompiledRegexCache = booleanOption("TrimCompiledRegexCache", true);
     public static final int StackTraceLimit = integerOption("StackTraceLimit", 10);
     public static final int StringLengthLimit = integerOption("StringLengthLimit", (1 << 30) - 1 - 24); // v8::String::kMaxLength
     public static final int MaxTypedArrayLength = integerOption("MaxTypedArrayLength", 0x3fff_ffff);
     public static final int MaxApplyArgumentLength = integerOption("MaxApplyArgumentLength", 10_000_000);
+    /** Sort primitive arrays of at least this length with {@code Arrays.parallelSort}. */
+    public static final int ParallelSortThreshold = integerOption("ParallelSortThreshold", 1 << 20);
     public static final int MaxExpectedPrototypeChainLength = integerOption("MaxExpectedPrototypeChainLength", 32766); // regress-578775.js
     public static final boolean UseSuperOperations = booleanOption("UseSuperOperations", true);
     public static final boolean FastOwnKeys = booleanOption("FastOwnKeys", true);
@@ -159,6 +164,10 @@ public final class JSTruffleOptions {
     // Tracing
     public static final boolean TracePolymorphicPropertyAccess = booleanOption("TracePolymorphicPropertyAccess", false);
     public static final boolean TraceMegamorphicPropertyAccess = booleanOption("TraceMegamorphicPropertyAccess", false);
+    /** Prints the inline cache statistics as JSON at exit. */
+    public static final boolean PrintInlineCacheStatistics = booleanOption("PrintInlineCacheStatistics", false);
+    /** Records per-site inline cache statistics, see {@code Debug.inlineCacheStatistics()}. */
+    public static final boolean InlineCacheStatistics = booleanOption("InlineCacheStatistics", PrintInlineCacheStatistics);
     public static final boolean TraceFunctionCache = booleanOption("TraceFunctionCache", false);
     /** Traces transitions between dynamic array types. */
     public static final boolean TraceArrayTransitions = booleanOption("TraceArrayTransitions", false);
@@ -177,6 +186,8 @@ public final class JSTruffleOptions {
     public static final boolean LazyFunctionData = booleanOption("LazyFunctionData", true);
     /** Translate function bodies lazily. */
     public static final boolean LazyTranslation = booleanOption("LazyTranslation", false);
+    /** Drop parsed function bodies and reparse and translate them on first invocation. */
+    public static final boolean LazyParsing = booleanOption("LazyParsing", false);
     /** AST-level inlining of trivial built-in functions (e.g. String.prototype.charAt). */
     public static final boolean InlineTrivialBuiltins = booleanOption("InlineTrivialBuiltins", true);
     /** [Construct] as part of the CallTarget names. Off by default (footprint). */
@@ -61,8 +61,19 @@ public final class RegexCompilerInterface {
         // RegexLanguage does its own validation of the flags. This call to validateFlags only
         // serves the purpose of mimicking the error messages of Nashorn and V8.
         validateFlags(flags, context.getEcmaScriptVersion());
+        CompiledRegexCache cache = context.getCompiledRegexCache();
+        if (cache != null) {
+            Object cachedRegex = cache.get(pattern, flags);
+            if (cachedRegex != null) {
+                return cachedRegex;
+            }
+        }
         try {
-            return compileRegexNode.execute(context.getRegexEngine(), pattern, flags);
+            Object compiledRegex = compileRegexNode.execute(context.getRegexEngine(), pattern, flags);
+            if (cache != null) {
+                cache.put(pattern, flags, compiledRegex);
+            }
+            return compiledRegex;
         } catch (RuntimeException e) {
             CompilerDirectives.transferToInterpreter();
             if (e instanceof TruffleException && ((TruffleException) e).isSyntaxError()) {
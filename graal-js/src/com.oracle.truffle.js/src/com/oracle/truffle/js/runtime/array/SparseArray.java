@@ -48,19 +48,17 @@ import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arraySetLen
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Set;
-import java.util.TreeMap;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.Boundaries;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.SortedLongMap;
 
 /**
- * Array that stores its elements in a HashMap-like structure, e.g. in a TreeMap.
+ * Array that stores its elements in a sorted map keyed by primitive indices, see
+ * {@link SortedLongMap}.
  */
 public final class SparseArray extends DynamicArray {
 
@@ -75,7 +73,7 @@ public final class SparseArray extends DynamicArray {
     }
 
     public static SparseArray makeSparseArray(DynamicObject object, long length) {
-        TreeMap<Long, Object> arrayMap = createArrayMap();
+        SortedLongMap arrayMap = createArrayMap();
         arraySetLength(object, length);
         arraySetArray(object, arrayMap);
         return createSparseArray();
@@ -85,7 +83,7 @@ public final class SparseArray extends DynamicArray {
         if (fromArray instanceof SparseArray) {
             return (SparseArray) fromArray;
         }
-        TreeMap<Long, Object> arrayMap = createArrayMap();
+        SortedLongMap arrayMap = createArrayMap();
         copyArrayToMap(object, fromArray, arrayMap);
         arraySetLength(object, fromArray.length(object));
         arraySetArray(object, arrayMap);
@@ -93,20 +91,20 @@ public final class SparseArray extends DynamicArray {
     }
 
     @TruffleBoundary
-    public static TreeMap<Long, Object> createArrayMap() {
-        return new TreeMap<>();
+    public static SortedLongMap createArrayMap() {
+        return new SortedLongMap();
     }
 
-    protected static void copyArrayToMap(DynamicObject object, ScriptArray fromArray, Map<Long, Object> toMap) {
+    @TruffleBoundary
+    protected static void copyArrayToMap(DynamicObject object, ScriptArray fromArray, SortedLongMap toMap) {
         for (long index = fromArray.firstElementIndex(object); index <= fromArray.lastElementIndex(object); index = fromArray.nextElementIndex(object, index)) {
             assert fromArray.hasElement(object, index);
-            Boundaries.mapPut(toMap, index, fromArray.getElement(object, index));
+            toMap.put(index, fromArray.getElement(object, index));
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static TreeMap<Long, Object> arrayMap(DynamicObject object, boolean condition) {
-        return (TreeMap<Long, Object>) arrayGetArray(object, condition);
+    private static SortedLongMap arrayMap(DynamicObject object, boolean condition) {
+        return (SortedLongMap) arrayGetArray(object, condition);
     }
 
     @TruffleBoundary
@@ -152,42 +150,34 @@ public final class SparseArray extends DynamicArray {
     @Override
     public SparseArray setLengthImpl(DynamicObject object, long len, boolean condition, ProfileHolder profile) {
         arraySetLength(object, len);
-        arrayMap(object, condition).tailMap(len).clear();
+        arrayMap(object, condition).removeFrom(len);
         return this;
     }
 
     @TruffleBoundary
     @Override
     public long firstElementIndex(DynamicObject object, boolean condition) {
-        try {
-            return arrayMap(object, condition).firstKey();
-        } catch (NoSuchElementException ex) {
-            return 0;
-        }
+        SortedLongMap arrayMap = arrayMap(object, condition);
+        return arrayMap.isEmpty() ? 0 : arrayMap.firstKey();
     }
 
     @TruffleBoundary
     @Override
     public long lastElementIndex(DynamicObject object, boolean condition) {
-        try {
-            return arrayMap(object, condition).lastKey();
-        } catch (NoSuchElementException ex) {
-            return -1;
-        }
+        SortedLongMap arrayMap = arrayMap(object, condition);
+        return arrayMap.isEmpty() ? -1 : arrayMap.lastKey();
     }
 
     @TruffleBoundary
     @Override
     public long nextElementIndex(DynamicObject object, long index, boolean condition) {
-        Long nextIndex = arrayMap(object, condition).higherKey(index);
-        return nextIndex != null ? nextIndex.longValue() : JSRuntime.MAX_SAFE_INTEGER_LONG;
+        return arrayMap(object, condition).higherKey(index, JSRuntime.MAX_SAFE_INTEGER_LONG);
     }
 
     @TruffleBoundary
     @Override
     public long previousElementIndex(DynamicObject object, long index, boolean condition) {
-        Long nextIndex = arrayMap(object, condition).lowerKey(index);
-        return nextIndex != null ? nextIndex.longValue() : -1;
+        return arrayMap(object, condition).lowerKey(index, -1);
     }
 
     @Override
@@ -226,44 +216,35 @@ public final class SparseArray extends DynamicArray {
         return true;
     }
 
+    @TruffleBoundary
     @Override
     public ScriptArray removeRangeImpl(DynamicObject object, long start, long end) {
         assert start <= end;
         assert start >= 0;
         assert end < length(object);
 
-        long delta = end - start + 1;
-        long pos = start;
-        if (!hasElement(object, pos)) {
-            pos = nextElementIndex(object, pos, arrayCondition());
-        }
-        // delete the elements in the removed range
-        while (pos <= end) {
-            deleteElementImpl(object, pos, false, arrayCondition());
-            pos = nextElementIndex(object, pos, arrayCondition());
-        }
-        // move all element higher downwards
-        while (pos < length(object)) {
-            setElement(object, pos - delta, getElement(object, pos), false);
-            deleteElementImpl(object, pos, false, arrayCondition());
-            pos = nextElementIndex(object, pos, arrayCondition());
-        }
+        SortedLongMap arrayMap = arrayMap(object, arrayCondition());
+        // delete the elements in the removed range and move all elements above it downwards
+        arrayMap.removeRange(start, end);
+        arrayMap.shiftKeys(end + 1, -(end - start + 1));
         return this;
     }
 
+    @TruffleBoundary
     @Override
     public ScriptArray addRangeImpl(DynamicObject object, long offset, int size) {
         assert offset < length(object);
 
-        long pos = length(object);
-        if (!hasElement(object, pos)) {
-            pos = previousElementIndex(object, pos, arrayCondition());
-        }
-        // move all element higher upwards
-        while (pos >= offset) {
-            setElement(object, pos + size, getElement(object, pos), false);
-            deleteElementImpl(object, pos, false, arrayCondition());
-            pos = previousElementIndex(object, pos, arrayCondition());
+        SortedLongMap arrayMap = arrayMap(object, arrayCondition());
+        // move all elements from offset upwards
+        arrayMap.shiftKeys(offset, size);
+        long length = length(object);
+        if (!arrayMap.isEmpty() && arrayMap.lastKey() >= length) {
+            if (isLengthNotWritable()) {
+                arrayMap.removeFrom(length);
+            } else {
+                arraySetLength(object, arrayMap.lastKey() + 1);
+            }
         }
         return this;
     }
@@ -271,9 +252,9 @@ public final class SparseArray extends DynamicArray {
     @TruffleBoundary
     @Override
     public List<Object> ownPropertyKeys(DynamicObject object) {
-        Set<Long> keySet = arrayMap(object, arrayCondition()).keySet();
-        List<Object> list = new ArrayList<>(keySet.size());
-        for (long index : keySet) {
+        long[] keys = arrayMap(object, arrayCondition()).keys();
+        List<Object> list = new ArrayList<>(keys.length);
+        for (long index : keys) {
             list.add(Boundaries.stringValueOf(index));
         }
         return list;
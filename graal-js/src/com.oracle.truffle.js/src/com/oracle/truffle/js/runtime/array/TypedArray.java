@@ -51,6 +51,7 @@ import java.nio.ByteOrder;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.BigInt;
 import com.oracle.truffle.js.runtime.Errors;
@@ -58,6 +59,7 @@ import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBuffer;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.PrimitiveArraySort;
 
 import sun.misc.Unsafe;
 
@@ -298,6 +300,35 @@ public abstract class TypedArray extends ScriptArray {
             setIntImpl(getBufferFromTypedArrayT(object, condition), getOffset(object, condition), index, value);
         }
 
+        /**
+         * Sorts the elements in ascending numeric order, the default order of
+         * {@code %TypedArray%.prototype.sort}.
+         */
+        @TruffleBoundary
+        public final void sort(DynamicObject object) {
+            boolean condition = arrayCondition();
+            T buffer = getBufferFromTypedArrayT(object, condition);
+            int offset = getOffset(object, condition);
+            int length = lengthInt(object, condition);
+            int bias = getSortBias();
+            int[] values = new int[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = getIntImpl(buffer, offset, i) ^ bias;
+            }
+            PrimitiveArraySort.sort(values, 0, length);
+            for (int i = 0; i < length; i++) {
+                setIntImpl(buffer, offset, i, values[i] ^ bias);
+            }
+        }
+
+        /**
+         * Value to XOR the elements with so that their signed {@code int} order is their numeric
+         * order.
+         */
+        protected int getSortBias() {
+            return 0;
+        }
+
         @SuppressWarnings("unchecked")
         private T getBufferFromTypedArrayT(DynamicObject object, boolean condition) {
             return (T) super.getBufferFromTypedArray(object, condition);
@@ -707,6 +738,11 @@ public abstract class TypedArray extends ScriptArray {
             }
         }
 
+        @Override
+        protected final int getSortBias() {
+            return Integer.MIN_VALUE;
+        }
+
         @Override
         public Object getElementInBounds(DynamicObject object, long index, boolean condition) {
             assert hasElement(object, index, condition);
@@ -977,6 +1013,26 @@ public abstract class TypedArray extends ScriptArray {
             setDoubleImpl(getBufferFromTypedArrayT(object, condition), getOffset(object, condition), index, value);
         }
 
+        /**
+         * Sorts the elements in ascending numeric order, with -0 before +0 and NaN last, the
+         * default order of {@code %TypedArray%.prototype.sort}.
+         */
+        @TruffleBoundary
+        public final void sort(DynamicObject object) {
+            boolean condition = arrayCondition();
+            T buffer = getBufferFromTypedArrayT(object, condition);
+            int offset = getOffset(object, condition);
+            int length = lengthInt(object, condition);
+            double[] values = new double[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = getDoubleImpl(buffer, offset, i);
+            }
+            PrimitiveArraySort.sort(values, 0, length);
+            for (int i = 0; i < length; i++) {
+                setDoubleImpl(buffer, offset, i, values[i]);
+            }
+        }
+
         public abstract double getDoubleImpl(T buffer, int offset, int index);
 
         public abstract void setDoubleImpl(T buffer, int offset, int index, double value);
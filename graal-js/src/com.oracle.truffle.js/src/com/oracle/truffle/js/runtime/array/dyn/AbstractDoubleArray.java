@@ -45,10 +45,14 @@ import static com.oracle.truffle.api.CompilerDirectives.injectBranchProbability;
 import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arrayGetArray;
 import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arraySetArray;
 
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.JSTruffleOptions;
 import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.util.PrimitiveArraySort;
 
 public abstract class AbstractDoubleArray extends AbstractWritableArray {
 
@@ -126,6 +130,29 @@ public abstract class AbstractDoubleArray extends AbstractWritableArray {
         }
     }
 
+    /**
+     * Sorts the elements in the default order of {@code Array.prototype.sort}, i.e., by their
+     * string representation, and moves them to the start of the array, if all elements are safe
+     * integers (see {@link PrimitiveArraySort#sortByString(double[], int, int)}). Must not be used
+     * if there are holes between the first and the last element.
+     *
+     * @return {@code false} if the array was left unchanged because it could not be sorted
+     */
+    @TruffleBoundary
+    public final boolean sortDefault(DynamicObject object) {
+        assert !isHolesType();
+        double[] array = getArray(object);
+        int arrayOffset = getArrayOffset(object);
+        int usedLength = getUsedLength(object);
+        if (!PrimitiveArraySort.sortByString(array, arrayOffset, arrayOffset + usedLength)) {
+            return false;
+        }
+        if (firstElementIndex(object) != 0) {
+            setArrayProperties(object, Arrays.copyOfRange(array, arrayOffset, arrayOffset + usedLength), length(object), usedLength, 0, 0);
+        }
+        return true;
+    }
+
     @Override
     void fillWithHoles(Object array, int fromIndex, int toIndex) {
         double[] doubleArray = (double[]) array;
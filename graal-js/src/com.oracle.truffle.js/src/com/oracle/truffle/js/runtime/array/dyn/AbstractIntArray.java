@@ -46,9 +46,13 @@ import static com.oracle.truffle.api.CompilerDirectives.injectBranchProbability;
 import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arrayGetArray;
 import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arraySetArray;
 
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.JSTruffleOptions;
 import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.util.PrimitiveArraySort;
 
 public abstract class AbstractIntArray extends AbstractWritableArray {
 
@@ -130,6 +134,23 @@ public abstract class AbstractIntArray extends AbstractWritableArray {
         }
     }
 
+    /**
+     * Sorts the elements in the default order of {@code Array.prototype.sort}, i.e., by their
+     * string representation, and moves them to the start of the array. Must not be used if there
+     * are holes between the first and the last element.
+     */
+    @TruffleBoundary
+    public final void sortDefault(DynamicObject object) {
+        assert !isHolesType();
+        int[] array = getArray(object);
+        int arrayOffset = getArrayOffset(object);
+        int usedLength = getUsedLength(object);
+        PrimitiveArraySort.sortByString(array, arrayOffset, arrayOffset + usedLength);
+        if (firstElementIndex(object) != 0) {
+            setArrayProperties(object, Arrays.copyOfRange(array, arrayOffset, arrayOffset + usedLength), length(object), usedLength, 0, 0);
+        }
+    }
+
     @Override
     void fillWithHoles(Object array, int fromIndex, int toIndex) {
         int[] intArray = (int[]) array;
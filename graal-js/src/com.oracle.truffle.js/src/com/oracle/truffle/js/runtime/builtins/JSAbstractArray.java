@@ -47,7 +47,6 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.List;
-import java.util.TreeMap;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -79,6 +78,7 @@ import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.DefinePropertyUtil;
 import com.oracle.truffle.js.runtime.util.IteratorUtil;
+import com.oracle.truffle.js.runtime.util.SortedLongMap;
 
 public abstract class JSAbstractArray extends JSBuiltinObject {
 
@@ -203,7 +203,7 @@ public abstract class JSAbstractArray extends JSBuiltinObject {
 
     public static void arraySetArray(DynamicObject thisObj, Object array) {
         assert JSObject.hasArray(thisObj);
-        assert array != null && (array.getClass().isArray() || array instanceof TreeMap<?, ?>);
+        assert array != null && (array.getClass().isArray() || array instanceof SortedLongMap);
         JSAbstractArray.ARRAY_PROPERTY.setSafe(thisObj, array, null);
     }
 
@@ -236,6 +236,11 @@ public final class JSArrayBuffer extends JSAbstractBuffer implements JSConstruct
 
     /**
      * ES2015, 24.1.1.3 DetachArrayBuffer().
+     *
+     * A direct buffer that maps a file (see {@code readbuffer()}) is not unmapped eagerly: views of
+     * the ByteBuffer may still be held outside of the ArrayBuffer (e.g. by native code), and
+     * accessing an unmapped region would crash the VM. The mapping is released as soon as the
+     * detached buffer is garbage collected.
      */
     @TruffleBoundary
     public static void detachArrayBuffer(DynamicObject arrayBuffer) {
@@ -48,6 +48,7 @@ import java.time.Year;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
 import java.util.Locale;
 
 import com.oracle.truffle.api.CompilerDirectives;
@@ -439,7 +440,12 @@ public final class JSDate extends JSBuiltinObject implements JSConstructorFactor
      */
     @TruffleBoundary
     public static long daylightSavingTA(ZoneId zone, double t) {
-        Duration d = zone.getRules().getDaylightSavings(Instant.ofEpochMilli((long) t));
+        return daylightSavingTA(zone.getRules(), t);
+    }
+
+    @TruffleBoundary
+    public static long daylightSavingTA(ZoneRules rules, double t) {
+        Duration d = rules.getDaylightSavings(Instant.ofEpochMilli((long) t));
         long offset = d.getSeconds() * 1000L;
         assert 0 <= offset && offset <= MS_MAX_DST;
         return offset;
@@ -449,13 +455,13 @@ public final class JSDate extends JSBuiltinObject implements JSConstructorFactor
     public static double localTime(double t, JSContext context) {
         JSRealm realm = context.getRealm();
         long localTZA = realm.getLocalTZA();
-        return t + localTZA + daylightSavingTA(realm.getLocalTimeZoneId(), t);
+        return t + localTZA + realm.getLocalDaylightSavingTA(t);
     }
 
     private static double utc(double t, JSContext context) {
         JSRealm realm = context.getRealm();
         long localTZA = realm.getLocalTZA();
-        return t - localTZA - daylightSavingTA(realm.getLocalTimeZoneId(), t - localTZA);
+        return t - localTZA - realm.getLocalDaylightSavingTA(t - localTZA);
     }
 
     // 15.9.1.10
@@ -849,7 +855,9 @@ public final class JSDate extends JSBuiltinObject implements JSConstructorFactor
     /**
      * The local time zone adjustment is a value LocalTZA measured in milliseconds which when added
      * to UTC represents the local standard time. Daylight saving time is not reflected by LocalTZA.
+     * Compiled code should use the per-realm value from {@link JSRealm#getLocalTZA()} instead.
      */
+    @TruffleBoundary
     public static long getLocalTZA(ZoneId localTimeZoneId) {
         ZoneOffset localTimeZoneOffset = localTimeZoneId.getRules().getOffset(Instant.ofEpochMilli(0));
         return localTimeZoneOffset.getTotalSeconds() * 1000L;
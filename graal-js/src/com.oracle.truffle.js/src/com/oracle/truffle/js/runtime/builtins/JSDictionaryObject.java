@@ -43,9 +43,6 @@ package com.oracle.truffle.js.runtime.builtins;
 import java.util.Collections;
 import java.util.List;
 
-import org.graalvm.collections.EconomicMap;
-import org.graalvm.collections.MapCursor;
-
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
@@ -59,6 +56,7 @@ import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.JSTruffleOptions;
 import com.oracle.truffle.js.runtime.Symbol;
 import com.oracle.truffle.js.runtime.objects.Accessor;
+import com.oracle.truffle.js.runtime.objects.JSAttributes;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
@@ -66,10 +64,15 @@ import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.DictionaryPropertyMap;
 
 /**
  * This is a variant of {@link JSUserObject} that stores its contents as a HashMap of properties
  * (excepts hidden properties, incl. prototype).
+ *
+ * Properties are kept in a {@link DictionaryPropertyMap}: data properties store their value
+ * directly, accessor properties an {@link Accessor}, each with its attribute flags and the
+ * {@link JSProperty#ACCESSOR} bit.
  */
 public final class JSDictionaryObject extends JSBuiltinObject {
 
@@ -78,11 +81,13 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     private static final HiddenKey HASHMAP_PROPERTY_NAME = new HiddenKey("%hashMap");
     private static final Property HASHMAP_PROPERTY;
 
+    private static final int FLAGS_MASK = JSAttributes.ATTRIBUTES_MASK | JSProperty.ACCESSOR;
+
     public static final JSDictionaryObject INSTANCE = new JSDictionaryObject();
 
     static {
         Shape.Allocator allocator = JSShape.makeAllocator(JSObject.LAYOUT);
-        HASHMAP_PROPERTY = JSObjectUtil.makeHiddenProperty(HASHMAP_PROPERTY_NAME, allocator.locationForType(EconomicMap.class));
+        HASHMAP_PROPERTY = JSObjectUtil.makeHiddenProperty(HASHMAP_PROPERTY_NAME, allocator.locationForType(DictionaryPropertyMap.class));
     }
 
     private JSDictionaryObject() {
@@ -112,35 +117,49 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @TruffleBoundary
     @Override
     public Object getOwnHelper(DynamicObject store, Object thisObj, Object key) {
-        PropertyDescriptor desc = getHashMap(store).get(key);
-        if (desc != null) {
-            return getValue(desc, thisObj);
+        DictionaryPropertyMap hashMap = getHashMap(store);
+        int entry = hashMap.find(key);
+        if (entry >= 0) {
+            return getValue(hashMap, entry, thisObj);
         }
 
         return super.getOwnHelper(store, thisObj, key);
     }
 
-    public static Object getValue(PropertyDescriptor property, Object receiver) {
-        if (property.isAccessorDescriptor()) {
-            DynamicObject getter = (DynamicObject) property.getGet();
+    public static Object getValue(DictionaryPropertyMap hashMap, int entry, Object receiver) {
+        Object value = hashMap.getValue(entry);
+        if (isAccessor(hashMap.getFlags(entry))) {
+            DynamicObject getter = ((Accessor) value).getGetter();
             if (getter != Undefined.instance) {
                 return JSRuntime.call(getter, receiver, JSArguments.EMPTY_ARGUMENTS_ARRAY);
             } else {
                 return Undefined.instance;
             }
         } else {
-            assert property.isDataDescriptor();
-            return property.getValue();
+            return value;
         }
     }
 
+    public static boolean isAccessor(int flags) {
+        return (flags & JSProperty.ACCESSOR) != 0;
+    }
+
+    /**
+     * Whether a property with these flags is a writable data property.
+     */
+    public static boolean isWritableData(int flags) {
+        return (flags & (JSProperty.ACCESSOR | JSAttributes.NOT_WRITABLE)) == 0;
+    }
+
     @TruffleBoundary
     @Override
     public List<Object> getOwnPropertyKeys(DynamicObject thisObj, boolean strings, boolean symbols) {
         assert isJSDictionaryObject(thisObj);
         List<Object> keys = ordinaryOwnPropertyKeysSlow(thisObj, strings, symbols);
-        for (Object key : getHashMap(thisObj).getKeys()) {
-            if ((!symbols && key instanceof Symbol) || (!strings && key instanceof String)) {
+        DictionaryPropertyMap hashMap = getHashMap(thisObj);
+        for (int i = 0; i < hashMap.getEntryCount(); i++) {
+            Object key = hashMap.getKey(i);
+            if (key == null || (!symbols && key instanceof Symbol) || (!strings && key instanceof String)) {
                 continue;
             }
             keys.add(key);
@@ -152,16 +171,16 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @TruffleBoundary
     @Override
     public boolean delete(DynamicObject thisObj, Object key, boolean isStrict) {
-        EconomicMap<Object, PropertyDescriptor> hashMap = getHashMap(thisObj);
-        PropertyDescriptor desc = hashMap.get(key);
-        if (desc != null) {
-            if (!desc.getConfigurable()) {
+        DictionaryPropertyMap hashMap = getHashMap(thisObj);
+        int entry = hashMap.find(key);
+        if (entry >= 0) {
+            if (!JSAttributes.isConfigurable(hashMap.getFlags(entry))) {
                 if (isStrict) {
                     throw Errors.createTypeErrorNotConfigurableProperty(key);
                 }
                 return false;
             }
-            hashMap.removeKey(key);
+            hashMap.remove(key);
             return true;
         }
         return super.delete(thisObj, key, isStrict);
@@ -184,28 +203,28 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @TruffleBoundary
     @Override
     public boolean setOwn(DynamicObject thisObj, Object key, Object value, Object receiver, boolean isStrict) {
-        EconomicMap<Object, PropertyDescriptor> hashMap = getHashMap(thisObj);
-        PropertyDescriptor property = hashMap.get(key);
-        if (property != null) {
-            setValue(key, property, thisObj, receiver, value, isStrict);
+        DictionaryPropertyMap hashMap = getHashMap(thisObj);
+        int entry = hashMap.find(key);
+        if (entry >= 0) {
+            setValue(key, hashMap, entry, thisObj, receiver, value, isStrict);
             return true;
         }
 
         return super.setOwn(thisObj, key, value, receiver, isStrict);
     }
 
-    private static void setValue(Object key, PropertyDescriptor property, DynamicObject store, Object thisObj, Object value, boolean isStrict) {
-        if (property.isAccessorDescriptor()) {
-            DynamicObject setter = (DynamicObject) property.getSet();
+    private static void setValue(Object key, DictionaryPropertyMap hashMap, int entry, DynamicObject store, Object thisObj, Object value, boolean isStrict) {
+        int flags = hashMap.getFlags(entry);
+        if (isAccessor(flags)) {
+            DynamicObject setter = ((Accessor) hashMap.getValue(entry)).getSetter();
             if (setter != Undefined.instance) {
                 JSRuntime.call(setter, thisObj, new Object[]{value});
             } else if (isStrict) {
                 throw Errors.createTypeErrorCannotSetAccessorProperty(key, store);
             }
         } else {
-            assert property.isDataDescriptor();
-            if (property.getWritable()) {
-                property.setValue(value);
+            if (JSAttributes.isWritable(flags)) {
+                hashMap.setValue(entry, value);
             } else {
                 if (isStrict) {
                     throw Errors.createTypeErrorNotWritableProperty(key, thisObj);
@@ -218,9 +237,10 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @Override
     public PropertyDescriptor getOwnProperty(DynamicObject thisObj, Object key) {
         assert JSRuntime.isPropertyKey(key) || key instanceof HiddenKey;
-        PropertyDescriptor prop = getHashMap(thisObj).get(key);
-        if (prop != null) {
-            return prop;
+        DictionaryPropertyMap hashMap = getHashMap(thisObj);
+        int entry = hashMap.find(key);
+        if (entry >= 0) {
+            return toPropertyDescriptor(hashMap.getValue(entry), hashMap.getFlags(entry));
         }
         return super.getOwnProperty(thisObj, key);
     }
@@ -229,7 +249,7 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @Override
     public boolean defineOwnProperty(DynamicObject thisObj, Object key, PropertyDescriptor desc, boolean doThrow) {
         if (!hasOwnProperty(thisObj, key) && JSObject.isExtensible(thisObj)) {
-            getHashMap(thisObj).put(key, desc);
+            putProperty(getHashMap(thisObj), key, desc);
             return true;
         }
 
@@ -239,11 +259,28 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         return super.defineOwnProperty(thisObj, key, desc, doThrow);
     }
 
-    @SuppressWarnings("unchecked")
-    static EconomicMap<Object, PropertyDescriptor> getHashMap(DynamicObject obj) {
+    private static void putProperty(DictionaryPropertyMap hashMap, Object key, PropertyDescriptor desc) {
+        if (desc.isAccessorDescriptor()) {
+            DynamicObject getter = desc.hasGet() ? (DynamicObject) desc.getGet() : Undefined.instance;
+            DynamicObject setter = desc.hasSet() ? (DynamicObject) desc.getSet() : Undefined.instance;
+            hashMap.put(key, new Accessor(getter, setter), desc.getFlags() | JSProperty.ACCESSOR);
+        } else {
+            hashMap.put(key, desc.hasValue() ? desc.getValue() : Undefined.instance, desc.getFlags());
+        }
+    }
+
+    static DictionaryPropertyMap getHashMap(DynamicObject obj) {
         assert JSDictionaryObject.isJSDictionaryObject(obj);
         Property hashMapProperty = obj.getShape().getProperty(HASHMAP_PROPERTY_NAME);
-        return (EconomicMap<Object, PropertyDescriptor>) hashMapProperty.get(obj, false);
+        return (DictionaryPropertyMap) hashMapProperty.get(obj, false);
+    }
+
+    /**
+     * The property holding the {@link DictionaryPropertyMap} in a dictionary object shape.
+     */
+    public static Property getHashMapProperty(Shape shape) {
+        assert JSShape.getJSClass(shape) == INSTANCE;
+        return shape.getProperty(HASHMAP_PROPERTY_NAME);
     }
 
     public static void makeDictionaryObject(DynamicObject obj, String reason) {
@@ -262,7 +299,7 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         JSContext context = JSObject.getJSContext(obj);
         Shape hashedShape = makeEmptyShapeForNewType(context, currentShape, JSDictionaryObject.INSTANCE);
 
-        EconomicMap<Object, PropertyDescriptor> hashMap = newHashMap();
+        DictionaryPropertyMap hashMap = newHashMap();
         List<Property> properties = currentShape.getPropertyListInternal(true);
         for (Property p : properties) {
             Object key = p.getKey();
@@ -274,7 +311,7 @@ public final class JSDictionaryObject extends JSBuiltinObject {
             } else {
                 // normal properties
                 Object value = p.get(obj, false);
-                hashMap.put(key, toPropertyDescriptor(p, value));
+                hashMap.put(key, value, p.getFlags() & FLAGS_MASK);
 
                 // invalidate property assumptions (for final properties)
                 JSShape.invalidatePropertyAssumption(currentShape, key);
@@ -306,17 +343,12 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         }
     }
 
-    private static PropertyDescriptor toPropertyDescriptor(Property p, Object value) {
-        PropertyDescriptor desc;
-        if (JSProperty.isAccessor(p)) {
-            desc = PropertyDescriptor.createAccessor(((Accessor) value).getGetter(), ((Accessor) value).getSetter());
-            desc.setConfigurable(JSProperty.isConfigurable(p));
-            desc.setEnumerable(JSProperty.isEnumerable(p));
+    private static PropertyDescriptor toPropertyDescriptor(Object value, int flags) {
+        if (isAccessor(flags)) {
+            return PropertyDescriptor.createAccessor(((Accessor) value).getGetter(), ((Accessor) value).getSetter(), flags);
         } else {
-            assert JSProperty.isData(p);
-            desc = PropertyDescriptor.createData(value, JSProperty.isEnumerable(p), JSProperty.isWritable(p), JSProperty.isConfigurable(p));
+            return PropertyDescriptor.createData(value, flags);
         }
-        return desc;
     }
 
     private static void makeOrdinaryObject(DynamicObject obj, String reason) {
@@ -325,7 +357,7 @@ public final class JSDictionaryObject extends JSBuiltinObject {
             System.out.printf("transitioning from dictionary object to ordinary object: %s\n", reason);
         }
 
-        EconomicMap<Object, PropertyDescriptor> hashMap = getHashMap(obj);
+        DictionaryPropertyMap hashMap = getHashMap(obj);
         Shape oldShape = obj.getShape();
         JSContext context = JSObject.getJSContext(obj);
         Shape newShape = makeEmptyShapeForNewType(context, oldShape, JSUserObject.INSTANCE);
@@ -341,14 +373,16 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         }
         obj.setShapeAndGrow(oldShape, newShape);
 
-        MapCursor<Object, PropertyDescriptor> cursor = hashMap.getEntries();
-        while (cursor.advance()) {
-            Object key = cursor.getKey();
-            PropertyDescriptor desc = cursor.getValue();
-            if (desc.isDataDescriptor()) {
-                JSObjectUtil.defineDataProperty(obj, key, desc.getValue(), desc.getFlags());
+        for (int i = 0; i < hashMap.getEntryCount(); i++) {
+            Object key = hashMap.getKey(i);
+            if (key == null) {
+                continue;
+            }
+            int flags = hashMap.getFlags(i);
+            if (isAccessor(flags)) {
+                JSObjectUtil.defineAccessorProperty(obj, key, (Accessor) hashMap.getValue(i), flags & JSAttributes.ATTRIBUTES_MASK);
             } else {
-                JSObjectUtil.defineAccessorProperty(obj, key, new Accessor((DynamicObject) desc.getGet(), (DynamicObject) desc.getSet()), desc.getFlags());
+                JSObjectUtil.defineDataProperty(obj, key, hashMap.getValue(i), flags);
             }
         }
 
@@ -368,8 +402,8 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         return JSObject.create(context, context.getDictionaryObjectFactory(), newHashMap());
     }
 
-    private static EconomicMap<Object, PropertyDescriptor> newHashMap() {
-        return EconomicMap.create();
+    private static DictionaryPropertyMap newHashMap() {
+        return new DictionaryPropertyMap();
     }
 
     @Override
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.objects;
+
+import java.io.IOException;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.Evaluator;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.util.Pair;
+
+/**
+ * Default module loader resolving module specifiers as file paths.
+ *
+ * Whenever a module is loaded, its statically requested modules are parsed ahead of time on the
+ * context's module parse executor while the evaluating thread continues. Only parsing is done by
+ * the workers: module files are resolved and read on the evaluating thread, and a syntax error
+ * found by a worker is turned into a JavaScript error on the evaluating thread when the module is
+ * needed. Translation and linking happen on the evaluating thread, too, which then continues with
+ * the imports of the module.
+ */
+public final class DefaultModuleLoader implements JSModuleLoader {
+    private final JSRealm realm;
+    private final Map<String, JSModuleRecord> moduleMap = new ConcurrentHashMap<>();
+    /** Modules parsed (or being parsed) ahead of time, keyed by canonical path. */
+    private final Map<String, FutureTask<PreparsedModule>> prefetchedModules = new ConcurrentHashMap<>();
+
+    public DefaultModuleLoader(JSRealm realm) {
+        this.realm = realm;
+    }
+
+    @Override
+    public JSModuleRecord resolveImportedModule(ScriptOrModule referrer, String specifier) {
+        String refPath = referrer == null ? null : referrer.getSource().getPath();
+        try {
+            TruffleFile moduleFile = resolveModuleFile(refPath, specifier);
+            String canonicalPath = moduleFile.getPath();
+            JSModuleRecord existingModule = moduleMap.get(canonicalPath);
+            if (existingModule != null) {
+                return existingModule;
+            }
+            JSContext context = realm.getContext();
+            JSModuleRecord newModule = null;
+            FutureTask<PreparsedModule> prefetched = prefetchedModules.get(canonicalPath);
+            if (prefetched != null) {
+                PreparsedModule preparsed = awaitPrefetched(prefetched);
+                if (preparsed != null) {
+                    newModule = context.getEvaluator().parseModule(context, preparsed.source, this, preparsed.parseResult);
+                }
+            }
+            if (newModule == null) {
+                Source source = loadSource(context, canonicalPath, moduleFile, specifier);
+                newModule = context.getEvaluator().parseModule(context, source, this);
+            }
+            moduleMap.put(canonicalPath, newModule);
+            prefetchedModules.remove(canonicalPath);
+            prefetchRequestedModules(newModule);
+            return newModule;
+        } catch (IOException | SecurityException e) {
+            throw Errors.createErrorFromException(e);
+        }
+    }
+
+    @Override
+    public JSModuleRecord loadModule(Source source) {
+        String path = source.getPath();
+        String canonicalPath;
+        if (path == null) {
+            // Source does not originate from a file.
+            canonicalPath = source.getName();
+        } else {
+            try {
+                TruffleFile moduleFile = realm.getEnv().getPublicTruffleFile(path);
+                canonicalPath = moduleFile.getCanonicalFile().getPath();
+            } catch (IOException | SecurityException e) {
+                throw Errors.createErrorFromException(e);
+            }
+        }
+        JSModuleRecord existingModule = moduleMap.get(canonicalPath);
+        if (existingModule != null) {
+            return existingModule;
+        }
+        JSContext context = realm.getContext();
+        JSModuleRecord newModule = context.getEvaluator().parseModule(context, source, this);
+        moduleMap.put(canonicalPath, newModule);
+        prefetchRequestedModules(newModule);
+        return newModule;
+    }
+
+    private TruffleFile resolveModuleFile(String refPath, String specifier) throws IOException {
+        Env env = realm.getEnv();
+        if (refPath == null) {
+            // Importing module source does not originate from a file.
+            return env.getPublicTruffleFile(specifier).getCanonicalFile();
+        } else {
+            TruffleFile refFile = env.getPublicTruffleFile(refPath);
+            return refFile.resolveSibling(specifier).getCanonicalFile();
+        }
+    }
+
+    /**
+     * Loads the source of a module file, reusing the source loaded by another realm of the same
+     * context if the file has not been modified since.
+     */
+    private static Source loadSource(JSContext context, String canonicalPath, TruffleFile moduleFile, String name) throws IOException {
+        FileTime lastModified = moduleFile.getLastModifiedTime();
+        Map<String, Pair<FileTime, Source>> sourceCache = context.getModuleSourceCache();
+        Pair<FileTime, Source> cached = sourceCache.get(canonicalPath);
+        if (cached != null && cached.getFirst().equals(lastModified)) {
+            return cached.getSecond();
+        }
+        Source source = Source.newBuilder(JavaScriptLanguage.ID, moduleFile).name(name).build();
+        sourceCache.put(canonicalPath, new Pair<>(lastModified, source));
+        return source;
+    }
+
+    private static PreparsedModule awaitPrefetched(FutureTask<PreparsedModule> prefetched) {
+        // Parse on this thread if no worker has picked up the task yet.
+        prefetched.run();
+        try {
+            return prefetched.get();
+        } catch (ExecutionException e) {
+            // unexpected failure of the worker, parse again on this thread
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void prefetchRequestedModules(JSModuleRecord module) {
+        JSContext context = realm.getContext();
+        ExecutorService executor = context.getModuleParseExecutor();
+        String refPath = module.getSource().getPath();
+        if (executor == null || refPath == null) {
+            return;
+        }
+        List<String> requestedModules = ((com.oracle.js.parser.ir.Module) module.getModule()).getRequestedModules();
+        for (String specifier : requestedModules) {
+            TruffleFile moduleFile;
+            Source source;
+            try {
+                moduleFile = resolveModuleFile(refPath, specifier);
+                String canonicalPath = moduleFile.getPath();
+                if (moduleMap.containsKey(canonicalPath) || prefetchedModules.containsKey(canonicalPath)) {
+                    continue;
+                }
+                source = loadSource(context, canonicalPath, moduleFile, specifier);
+            } catch (IOException | SecurityException e) {
+                // reported when the import is resolved
+                continue;
+            }
+            FutureTask<PreparsedModule> task = new FutureTask<>(() -> preparse(context, source));
+            prefetchedModules.put(moduleFile.getPath(), task);
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // the executor has been shut down concurrently, parse on the evaluating thread
+                prefetchedModules.remove(moduleFile.getPath());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs on a worker thread that is not entered into the context.
+     */
+    private static PreparsedModule preparse(JSContext context, Source source) {
+        Evaluator evaluator = context.getEvaluator();
+        return new PreparsedModule(source, evaluator.preparseModule(context, source));
+    }
+
+    private static final class PreparsedModule {
+        final Source source;
+        final Object parseResult;
+
+        PreparsedModule(Source source, Object parseResult) {
+            this.source = source;
+            this.parseResult = parseResult;
+        }
+    }
+}
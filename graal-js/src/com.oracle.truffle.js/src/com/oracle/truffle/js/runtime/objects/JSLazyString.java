@@ -164,6 +164,8 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
     private CharSequence left;
     private CharSequence right;
     private final int length;
+    /** Number of times this rope was accessed without flattening it. */
+    private int traversals;
 
     private JSLazyString(CharSequence left, CharSequence right, int length) {
         assert left.length() > 0 && right.length() > 0 && length == left.length() + right.length();
@@ -208,6 +210,16 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
         right = null;
     }
 
+    /**
+     * Small accesses to a rope walk down to the leaf instead of flattening the whole string, which
+     * keeps patterns like appending to a string and inspecting its tail linear. To keep this
+     * bounded, a rope is flattened instead if the walk gets too deep or if the same rope is accessed
+     * too often, so that repeated accesses still amortize.
+     */
+    private boolean shouldTraverse() {
+        return traversals++ < JSTruffleOptions.MaxLazyStringTraversals;
+    }
+
     private static void flatten(CharSequence src, int srcBegin, int srcEnd, char[] dst, int dstBegin) {
         CompilerAsserts.neverPartOfCompilation();
         CharSequence str = src;
@@ -252,6 +264,9 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
             } else if (str instanceof String) {
                 ((String) str).getChars(from, to, dst, dstFrom);
                 return;
+            } else if (str instanceof SubstringView) {
+                ((SubstringView) str).getChars(from, to, dst, dstFrom);
+                return;
             } else {
                 assert JSRuntime.isString(str) || str instanceof JSLazyIntWrapper;
                 str.toString().getChars(from, to, dst, dstFrom);
@@ -262,12 +277,149 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
 
     @Override
     public char charAt(int index) {
-        return toString().charAt(index);
+        if (isFlat()) {
+            return ((String) left).charAt(index);
+        }
+        return charAtSlow(index);
+    }
+
+    @TruffleBoundary
+    private char charAtSlow(int index) {
+        if (shouldTraverse()) {
+            CharSequence str = this;
+            int i = index;
+            for (int depth = 0; depth < JSTruffleOptions.MaxLazyStringTraversalDepth; depth++) {
+                if (!(str instanceof JSLazyString)) {
+                    return str.charAt(i);
+                }
+                JSLazyString node = (JSLazyString) str;
+                CharSequence nodeLeft = node.left;
+                CharSequence nodeRight = node.right;
+                if (nodeRight == null) {
+                    return ((String) nodeLeft).charAt(i);
+                }
+                int mid = nodeLeft.length();
+                if (i < mid) {
+                    str = nodeLeft;
+                } else {
+                    str = nodeRight;
+                    i -= mid;
+                }
+            }
+        }
+        flatten();
+        return ((String) left).charAt(index);
     }
 
     @Override
     public CharSequence subSequence(int start, int end) {
-        return toString().subSequence(start, end);
+        return substring(start, end);
+    }
+
+    /**
+     * Returns the characters in the given range. Ranges that lie in a part of the rope that can be
+     * reached by a short walk are copied directly from the leaves.
+     */
+    @TruffleBoundary
+    public String substring(int start, int end) {
+        assert 0 <= start && start <= end && end <= length;
+        if (!isFlat() && end - start <= length / 2 && shouldTraverse()) {
+            CharSequence str = this;
+            int from = start;
+            int to = end;
+            for (int depth = 0; depth < JSTruffleOptions.MaxLazyStringTraversalDepth; depth++) {
+                if (!(str instanceof JSLazyString) || ((JSLazyString) str).isFlat()) {
+                    return str.subSequence(from, to).toString();
+                }
+                JSLazyString node = (JSLazyString) str;
+                int mid = node.left.length();
+                if (to <= mid) {
+                    str = node.left;
+                } else if (from >= mid) {
+                    str = node.right;
+                    from -= mid;
+                    to -= mid;
+                } else {
+                    char[] dst = new char[to - from];
+                    flatten(node, from, to, dst, 0);
+                    return new String(dst);
+                }
+            }
+        }
+        return toString().substring(start, end);
+    }
+
+    /**
+     * Returns whether the given string occurs at the given offset, without flattening the rope for
+     * short strings.
+     */
+    @TruffleBoundary
+    public boolean regionMatches(int offset, String other) {
+        if (offset < 0 || offset > length - other.length()) {
+            return false;
+        }
+        return substring(offset, offset + other.length()).equals(other);
+    }
+
+    /**
+     * Returns the index of the first occurrence of the search string at or after the given index,
+     * like {@link String#indexOf(String, int)}. Substring views are searched in their source, and
+     * searches in the tail of a rope only flatten that tail.
+     */
+    @TruffleBoundary
+    public int indexOf(String searchStr, int fromIndex) {
+        int from = Math.max(fromIndex, 0);
+        if (isSubstringView()) {
+            SubstringView view = (SubstringView) left;
+            int end = view.offset + length;
+            int index = view.source.indexOf(searchStr, view.offset + Math.min(from, length));
+            return (index >= 0 && index + searchStr.length() <= end) ? index - view.offset : -1;
+        }
+        if (from > 0 && from < length && !isFlat()) {
+            int index = substring(from, length).indexOf(searchStr);
+            return index < 0 ? index : index + from;
+        }
+        return toString().indexOf(searchStr, from);
+    }
+
+    private boolean isSubstringView() {
+        return left instanceof SubstringView && right instanceof SubstringView;
+    }
+
+    /**
+     * Creates a substring of a string value. Large substrings (relative to their source) of flat
+     * strings are represented as a view on the source string instead of a copy, which makes
+     * repeated slicing off the front of a large string (as in tokenizer loops) linear. The view is
+     * flattened (and the source released) on the first operation that needs a flat string.
+     */
+    @TruffleBoundary
+    public static CharSequence substring(CharSequence str, int start, int end) {
+        assert JSRuntime.isString(str) && 0 <= start && start <= end && end <= str.length();
+        String source;
+        int offset;
+        if (str instanceof JSLazyString) {
+            JSLazyString lazyString = (JSLazyString) str;
+            if (lazyString.isSubstringView()) {
+                SubstringView view = (SubstringView) lazyString.left;
+                source = view.source;
+                offset = view.offset;
+            } else {
+                if (end - start <= lazyString.length / 2) {
+                    return lazyString.substring(start, end);
+                }
+                source = lazyString.toString();
+                offset = 0;
+            }
+        } else {
+            source = (String) str;
+            offset = 0;
+        }
+        int resultLength = end - start;
+        if (JSTruffleOptions.LazyStrings && resultLength >= JSTruffleOptions.MinSubstringViewLength && resultLength >= source.length() / 4 && resultLength < source.length()) {
+            int mid = resultLength / 2;
+            return new JSLazyString(new SubstringView(source, offset + start, mid), new SubstringView(source, offset + start + mid, resultLength - mid), resultLength);
+        }
+        return source.substring(offset + start, offset + end);
     }
 
     public boolean isEmpty() {
@@ -316,6 +468,47 @@ public final class JSLazyString implements CharSequence, TruffleObject, JSLazySt
 
     }
 
+    /**
+     * Leaf of a rope that refers to a range of a flat string.
+     */
+    private static final class SubstringView implements CharSequence {
+
+        private final String source;
+        private final int offset;
+        private final int length;
+
+        SubstringView(String source, int offset, int length) {
+            assert length > 0 && 0 <= offset && offset + length <= source.length();
+            this.source = source;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return source.charAt(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return source.substring(offset + start, offset + end);
+        }
+
+        void getChars(int srcBegin, int srcEnd, char[] dst, int dstBegin) {
+            source.getChars(offset + srcBegin, offset + srcEnd, dst, dstBegin);
+        }
+
+        @Override
+        public String toString() {
+            return source.substring(offset, offset + length);
+        }
+    }
+
     public static boolean isInstance(TruffleObject object) {
         return object instanceof JSLazyString;
     }
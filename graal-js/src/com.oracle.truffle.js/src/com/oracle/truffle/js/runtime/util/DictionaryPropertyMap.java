@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.Arrays;
+
+/**
+ * Insertion-ordered hash map from property keys to values and property flags, used as the
+ * property store of dictionary mode objects. Keys, values and flags are kept in parallel arrays
+ * and looked up through an open addressing index table of entry numbers, so unlike a map of
+ * property descriptors there is no per-property object; the flags (attributes and the accessor
+ * bit) are kept in a separate byte array.
+ *
+ * Entries are addressed by their entry number, which stays stable until the map is modified.
+ * Removed entries leave a {@code null} key behind that is dropped when the entries are compacted.
+ */
+public final class DictionaryPropertyMap {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private Object[] keys;
+    private Object[] values;
+    private byte[] flags;
+    private int[] hashes;
+    /** Entry number + 1 per slot, 0 for empty slots. Twice as large as the entry arrays. */
+    private int[] index;
+    /** Number of used entries, including removed ones. */
+    private int count;
+    /** Number of live entries. */
+    private int size;
+
+    public DictionaryPropertyMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public DictionaryPropertyMap(int expectedSize) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        flags = new byte[capacity];
+        hashes = new int[capacity];
+        index = new int[capacity * 2];
+    }
+
+    public static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Upper bound (exclusive) of entry numbers; entries with a {@code null} key are unused.
+     */
+    public int getEntryCount() {
+        return count;
+    }
+
+    public Object getKey(int entry) {
+        return keys[entry];
+    }
+
+    public Object getValue(int entry) {
+        return values[entry];
+    }
+
+    public void setValue(int entry, Object value) {
+        assert keys[entry] != null;
+        values[entry] = value;
+    }
+
+    public int getFlags(int entry) {
+        return flags[entry];
+    }
+
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Returns the entry number of the key, or -1 if absent.
+     */
+    public int find(Object key) {
+        return find(key, hash(key));
+    }
+
+    /**
+     * Returns the entry number of the key, or -1 if absent.
+     *
+     * @param hash the hash of the key as computed by {@link #hash(Object)}
+     */
+    public int find(Object key, int hash) {
+        assert hash == hash(key);
+        int[] tab = index;
+        int mask = tab.length - 1;
+        for (int i = hash & mask;; i = (i + 1) & mask) {
+            int slot = tab[i];
+            if (slot == 0) {
+                return -1;
+            }
+            int entry = slot - 1;
+            if (hashes[entry] == hash) {
+                Object entryKey = keys[entry];
+                if (entryKey == key || (entryKey != null && entryKey.equals(key))) {
+                    return entry;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a new entry for the key, or replaces the value and flags of its existing entry.
+     */
+    public void put(Object key, Object value, int propertyFlags) {
+        assert (byte) propertyFlags == propertyFlags;
+        int hash = hash(key);
+        int entry = find(key, hash);
+        if (entry >= 0) {
+            values[entry] = value;
+            flags[entry] = (byte) propertyFlags;
+            return;
+        }
+        if (count == keys.length) {
+            // compact in place if enough entries have been removed, grow otherwise
+            resize(size < (count >> 1) + (count >> 2) ? keys.length : keys.length << 1);
+        }
+        entry = count++;
+        keys[entry] = key;
+        values[entry] = value;
+        flags[entry] = (byte) propertyFlags;
+        hashes[entry] = hash;
+        insertIndex(index, hash, entry);
+        size++;
+    }
+
+    public boolean remove(Object key) {
+        int entry = find(key);
+        if (entry < 0) {
+            return false;
+        }
+        // the index slot keeps pointing to the now unused entry until the next resize
+        keys[entry] = null;
+        values[entry] = null;
+        flags[entry] = 0;
+        size--;
+        return true;
+    }
+
+    private static void insertIndex(int[] tab, int hash, int entry) {
+        int mask = tab.length - 1;
+        int i = hash & mask;
+        while (tab[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        tab[i] = entry + 1;
+    }
+
+    private void resize(int capacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        byte[] oldFlags = flags;
+        int[] oldHashes = hashes;
+        int oldCount = count;
+        if (capacity == oldKeys.length) {
+            Arrays.fill(index, 0);
+        } else {
+            keys = new Object[capacity];
+            values = new Object[capacity];
+            flags = new byte[capacity];
+            hashes = new int[capacity];
+            index = new int[capacity * 2];
+        }
+        int j = 0;
+        for (int i = 0; i < oldCount; i++) {
+            Object key = oldKeys[i];
+            if (key != null) {
+                keys[j] = key;
+                values[j] = oldValues[i];
+                flags[j] = oldFlags[i];
+                hashes[j] = oldHashes[i];
+                insertIndex(index, oldHashes[i], j);
+                j++;
+            }
+        }
+        if (keys == oldKeys) {
+            Arrays.fill(keys, j, oldCount, null);
+            Arrays.fill(values, j, oldCount, null);
+        }
+        count = j;
+        assert count == size;
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.JSTruffleOptions;
+
+/**
+ * Per source location statistics of property, element and call inline caches, enabled with
+ * {@link JSTruffleOptions#InlineCacheStatistics}. For each site, it records the deepest cache seen,
+ * the number of distinct receiver shapes (or array types, or call targets), the number of cache
+ * rewrites, and whether the site went generic.
+ *
+ * Each {@link JSContext} has its own statistics, i.e., all realms and polyglot contexts sharing it
+ * report into the same table. At most {@link #MAX_SITES} sites are recorded; further sites are
+ * only counted. Sites are only recorded when a cache is rewritten, i.e., in the interpreter, so the
+ * statistics do not cost anything in compiled code. The report is available as JSON from
+ * {@code Debug.inlineCacheStatistics()}, and is printed at exit with
+ * {@link JSTruffleOptions#PrintInlineCacheStatistics}.
+ */
+public final class InlineCacheStatistics {
+
+    public enum Kind {
+        GET("get"),
+        SET("set"),
+        HAS("has"),
+        READ_ELEMENT("readElement"),
+        WRITE_ELEMENT("writeElement"),
+        CALL("call");
+
+        private final String name;
+
+        Kind(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    public static final int MAX_SITES = 10000;
+
+    private final Map<SiteKey, Site> sites = new LinkedHashMap<>();
+    /** Number of sites not recorded because {@link #MAX_SITES} was reached. */
+    private int droppedSites;
+
+    public InlineCacheStatistics() {
+        if (JSTruffleOptions.PrintInlineCacheStatistics) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                System.out.println(toJSON());
+            }));
+        }
+    }
+
+    /**
+     * Records that a cache entry was added at the site of {@code node}.
+     *
+     * @param key the property key, or {@code null}
+     * @param depth the number of cached entries after the rewrite
+     * @param shape the shape, array type, or call target the new entry is specialized on, or
+     *            {@code null}
+     */
+    @TruffleBoundary
+    public void recordRewrite(Node node, Kind kind, Object key, int depth, Object shape) {
+        synchronized (sites) {
+            Site site = getSite(node, kind, key);
+            if (site == null) {
+                return;
+            }
+            site.rewrites++;
+            site.depth = Math.max(site.depth, depth);
+            if (shape != null && site.seenShapes.add(shape)) {
+                site.shapes++;
+            }
+        }
+    }
+
+    /**
+     * Records that the cache at the site of {@code node} was replaced by its generic case.
+     */
+    @TruffleBoundary
+    public void recordGeneric(Node node, Kind kind, Object key, String reason) {
+        synchronized (sites) {
+            Site site = getSite(node, kind, key);
+            if (site == null) {
+                return;
+            }
+            site.rewrites++;
+            site.generic = true;
+            site.reason = reason;
+        }
+    }
+
+    private Site getSite(Node node, Kind kind, Object key) {
+        SiteKey siteKey = new SiteKey(kind, getLocation(node), key == null ? null : key.toString());
+        Site site = sites.get(siteKey);
+        if (site == null) {
+            if (sites.size() >= MAX_SITES) {
+                droppedSites++;
+                return null;
+            }
+            site = new Site(siteKey);
+            sites.put(siteKey, site);
+        }
+        return site;
+    }
+
+    private static String getLocation(Node node) {
+        SourceSection section = node.getEncapsulatingSourceSection();
+        if (section == null || !section.isAvailable()) {
+            return "<unknown>";
+        }
+        return section.getSource().getName() + ":" + section.getStartLine() + ":" + section.getStartColumn();
+    }
+
+    @TruffleBoundary
+    public void clear() {
+        synchronized (sites) {
+            sites.clear();
+            droppedSites = 0;
+        }
+    }
+
+    /**
+     * Returns the statistics as a JSON object with a {@code sites} array, generic sites first,
+     * then by descending number of rewrites, and the number of {@code droppedSites}.
+     */
+    @TruffleBoundary
+    public String toJSON() {
+        List<Site> list;
+        int dropped;
+        synchronized (sites) {
+            list = new ArrayList<>(sites.values());
+            dropped = droppedSites;
+        }
+        list.sort((a, b) -> a.generic != b.generic ? (a.generic ? -1 : 1) : Integer.compare(b.rewrites, a.rewrites));
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"sites\":[");
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            list.get(i).toJSON(sb);
+        }
+        sb.append("],\"droppedSites\":").append(dropped).append('}');
+        return sb.toString();
+    }
+
+    private static final class SiteKey {
+        final Kind kind;
+        final String location;
+        final String key;
+
+        SiteKey(Kind kind, String location, String key) {
+            this.kind = kind;
+            this.location = location;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof SiteKey)) {
+                return false;
+            }
+            SiteKey other = (SiteKey) obj;
+            return kind == other.kind && location.equals(other.location) && Objects.equals(key, other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, location, key);
+        }
+    }
+
+    private static final class Site {
+        final SiteKey id;
+        /** Shapes seen so far, weakly referenced; {@link #shapes} is their total count. */
+        final Set<Object> seenShapes = Collections.newSetFromMap(new WeakHashMap<>());
+        int shapes;
+        int depth;
+        int rewrites;
+        boolean generic;
+        String reason;
+
+        Site(SiteKey id) {
+            this.id = id;
+        }
+
+        void toJSON(StringBuilder sb) {
+            sb.append("{\"kind\":").append(JSRuntime.quote(id.kind.toString()));
+            sb.append(",\"location\":").append(JSRuntime.quote(id.location));
+            if (id.key != null) {
+                sb.append(",\"key\":").append(JSRuntime.quote(id.key));
+            }
+            sb.append(",\"depth\":").append(depth);
+            sb.append(",\"shapes\":").append(shapes);
+            sb.append(",\"rewrites\":").append(rewrites);
+            sb.append(",\"generic\":").append(generic);
+            if (reason != null) {
+                sb.append(",\"reason\":").append(JSRuntime.quote(reason));
+            }
+            sb.append('}');
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Per-realm cache of initialized internal Intl objects used by {@code toLocaleString},
+ * {@code toLocaleDateString}, {@code toLocaleTimeString} and {@code localeCompare}.
+ *
+ * Only calls whose initialization is free of observable side effects are cached, i.e., calls
+ * without an options argument and with either no locales or a single locale string. The default
+ * locale case is kept in a dedicated slot per kind; explicit locale strings go to a small LRU map.
+ *
+ * The cached objects are never exposed to user code, and a realm is never entered by more than one
+ * thread at a time, so the ICU formatter and collator instances they wrap are confined to the
+ * realm and can be shared between calls without cloning.
+ */
+public final class IntlObjectCache {
+
+    private static final int MAX_LOCALE_ENTRIES = 64;
+
+    public enum Kind {
+        DATE_TIME_FORMAT_ANY,
+        DATE_TIME_FORMAT_DATE,
+        DATE_TIME_FORMAT_TIME,
+        NUMBER_FORMAT,
+        COLLATOR
+    }
+
+    private final DynamicObject[] defaultLocaleObjects = new DynamicObject[Kind.values().length];
+    private final Map<Key, DynamicObject> localeObjects = new LinkedHashMap<Key, DynamicObject>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, DynamicObject> eldest) {
+            return size() > MAX_LOCALE_ENTRIES;
+        }
+    };
+
+    /**
+     * Returns whether an Intl object initialized with these arguments may be taken from (and put
+     * into) the cache.
+     */
+    public static boolean isCacheable(Object locales, Object options) {
+        return options == Undefined.instance && (locales == Undefined.instance || JSRuntime.isString(locales));
+    }
+
+    /**
+     * Returns the cached Intl object, or {@code null} if there is none.
+     */
+    public DynamicObject get(Kind kind, Object locales) {
+        assert isCacheable(locales, Undefined.instance);
+        if (locales == Undefined.instance) {
+            return defaultLocaleObjects[kind.ordinal()];
+        }
+        return getLocaleObject(kind, locales);
+    }
+
+    public void put(Kind kind, Object locales, DynamicObject intlObject) {
+        assert isCacheable(locales, Undefined.instance);
+        if (locales == Undefined.instance) {
+            defaultLocaleObjects[kind.ordinal()] = intlObject;
+        } else {
+            putLocaleObject(kind, locales, intlObject);
+        }
+    }
+
+    @TruffleBoundary
+    private DynamicObject getLocaleObject(Kind kind, Object locales) {
+        return localeObjects.get(new Key(kind, locales.toString()));
+    }
+
+    @TruffleBoundary
+    private void putLocaleObject(Kind kind, Object locales, DynamicObject intlObject) {
+        localeObjects.put(new Key(kind, locales.toString()), intlObject);
+    }
+
+    private static final class Key {
+        private final Kind kind;
+        private final String locale;
+
+        Key(Kind kind, String locale) {
+            this.kind = kind;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return kind == other.kind && locale.equals(other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return kind.hashCode() * 31 + locale.hashCode();
+        }
+    }
+}
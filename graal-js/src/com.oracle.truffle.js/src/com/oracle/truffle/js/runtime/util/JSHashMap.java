@@ -40,12 +40,20 @@
  */
 package com.oracle.truffle.js.runtime.util;
 
-import java.util.HashMap;
-
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.runtime.Boundaries;
 
 /**
  * ES6-compliant hash map implementation.
+ *
+ * Entries are kept in insertion order in parallel key/value arrays, indexed by a separate bucket
+ * array (deterministic hash table). Deleted entries leave a hole that is squeezed out on the next
+ * rehash. Cursors survive rehashing by following the chain of {@link Generation}s.
+ *
+ * Keys are expected to be normalized (see {@code JSSet.normalize}); {@code int} and {@code double}
+ * keys are stored unboxed in a separate {@code long} array (allocated on first use) and can be
+ * looked up without boxing. Their slot in the key array holds a marker object.
  */
 public final class JSHashMap {
     public interface Cursor {
@@ -72,188 +80,449 @@ public final class JSHashMap {
         Cursor copy();
     }
 
-    private final HashMap<Object, Node> map = new HashMap<>();
-    private final Node head = new Node(null, null, null, null);
-    private Node tail = head;
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final Object[] EMPTY_ENTRIES = new Object[0];
+    private static final int[] EMPTY_INT_ENTRIES = new int[0];
+    private static final int[] EMPTY_BUCKETS = new int[1];
+
+    /** Key array markers for keys stored in {@link #primitiveKeys}. */
+    private static final Object INT_KEY = new Object();
+    private static final Object DOUBLE_KEY = new Object();
+
+    /** Bucket heads: index + 1 of the most recently added entry of the bucket, or 0 if empty. */
+    private int[] buckets;
+    /** Per entry: index + 1 of the next entry in the same bucket, or 0 if last. */
+    private int[] chain;
+    private int[] hashes;
+    /** Keys in insertion order; {@code null} marks a deleted entry. */
+    private Object[] keys;
+    private Object[] values;
+    /**
+     * Unboxed {@code int} keys and the bits of {@code double} keys, {@code null} until the first
+     * such key is added.
+     */
+    private long[] primitiveKeys;
+    /** Number of entry slots in use, including deleted entries. */
+    private int used;
+    private int size;
+    private Generation generation;
 
     public JSHashMap() {
+        this.buckets = EMPTY_BUCKETS;
+        this.chain = EMPTY_INT_ENTRIES;
+        this.hashes = EMPTY_INT_ENTRIES;
+        this.keys = EMPTY_ENTRIES;
+        this.values = EMPTY_ENTRIES;
+        this.generation = new Generation();
     }
 
     public int size() {
-        return map.size();
+        return size;
     }
 
     /**
      * Insert new entry, if key does not already exist, otherwise update the existing entry's value.
      */
-    @TruffleBoundary
     public void put(Object key, Object value) {
-        Node newNode = new Node(key, value, null, null);
-        Node oldNode = map.putIfAbsent(key, newNode);
-        if (oldNode == null) {
-            newNode.setPrev(tail);
-            tail.setNext(newNode);
-            tail = newNode;
+        assert key != null && value != null;
+        int hash = hash(key);
+        int entry = findEntry(key, hash);
+        if (entry >= 0) {
+            values[entry] = value;
         } else {
-            oldNode.setValue(value);
+            if (key instanceof Integer) {
+                appendPrimitive(INT_KEY, (Integer) key, value, hash);
+            } else if (key instanceof Double) {
+                appendPrimitive(DOUBLE_KEY, Double.doubleToLongBits((Double) key), value, hash);
+            } else {
+                append(key, value, hash);
+            }
+        }
+    }
+
+    public void putInt(int key, Object value) {
+        assert value != null;
+        int entry = findIntEntry(key);
+        if (entry >= 0) {
+            values[entry] = value;
+        } else {
+            appendPrimitive(INT_KEY, key, value, hashInt(key));
+        }
+    }
+
+    public void putDouble(double key, Object value) {
+        assert value != null;
+        int entry = findDoubleEntry(key);
+        if (entry >= 0) {
+            values[entry] = value;
+        } else {
+            appendPrimitive(DOUBLE_KEY, Double.doubleToLongBits(key), value, hashDouble(key));
         }
     }
 
-    @TruffleBoundary
     public Object get(Object key) {
-        Node node = map.get(key);
-        return node == null ? null : node.getValue();
+        int entry = findEntry(key, hash(key));
+        return entry < 0 ? null : values[entry];
+    }
+
+    public Object getInt(int key) {
+        int entry = findIntEntry(key);
+        return entry < 0 ? null : values[entry];
+    }
+
+    public Object getDouble(double key) {
+        int entry = findDoubleEntry(key);
+        return entry < 0 ? null : values[entry];
     }
 
-    @TruffleBoundary
     public boolean has(Object key) {
-        return map.containsKey(key);
+        return findEntry(key, hash(key)) >= 0;
+    }
+
+    public boolean hasInt(int key) {
+        return findIntEntry(key) >= 0;
+    }
+
+    public boolean hasDouble(double key) {
+        return findDoubleEntry(key) >= 0;
     }
 
-    @TruffleBoundary
     public boolean remove(Object key) {
-        Node node = map.remove(key);
-        if (node == null) {
-            return false;
-        } else {
-            unlink(node);
-            return true;
-        }
+        return removeEntry(findEntry(key, hash(key)));
     }
 
-    private void unlink(Node node) {
-        Node next = node.getNext();
-        Node prev = node.getPrev();
-        prev.setNext(next);
-        if (next != null) {
-            next.setPrev(prev);
-        } else {
-            tail = prev;
-        }
-        node.setEmpty();
+    public boolean removeInt(int key) {
+        return removeEntry(findIntEntry(key));
     }
 
-    @TruffleBoundary
-    public void clear() {
-        map.clear();
-        for (Node current = head.getNext(); current != null; current = current.getNext()) {
-            current.setEmpty();
-        }
-        head.setNext(null);
-        tail = head;
+    public boolean removeDouble(double key) {
+        return removeEntry(findDoubleEntry(key));
     }
 
-    @TruffleBoundary
-    @Override
-    public String toString() {
-        return map.toString();
+    public void clear() {
+        if (used == 0) {
+            return;
+        }
+        generation = generation.transition(null);
+        buckets = EMPTY_BUCKETS;
+        chain = EMPTY_INT_ENTRIES;
+        hashes = EMPTY_INT_ENTRIES;
+        keys = EMPTY_ENTRIES;
+        values = EMPTY_ENTRIES;
+        primitiveKeys = null;
+        used = 0;
+        size = 0;
     }
 
     public Cursor getEntries() {
-        return new CursorImpl(head);
+        return new CursorImpl(this, generation, 0);
     }
 
-    private static final class CursorImpl implements Cursor {
-        private Node current;
+    private int findEntry(Object key, int hash) {
+        if (key instanceof Integer) {
+            return findIntEntry((Integer) key);
+        } else if (key instanceof Double) {
+            return findDoubleEntry((Double) key);
+        }
+        for (int entry = buckets[hash & (buckets.length - 1)] - 1; entry >= 0; entry = chain[entry] - 1) {
+            if (hashes[entry] == hash) {
+                Object entryKey = keys[entry];
+                if (entryKey == key || (entryKey != null && keyEquals(entryKey, key))) {
+                    return entry;
+                }
+            }
+        }
+        return -1;
+    }
 
-        CursorImpl(Node head) {
-            this.current = head;
+    private int findIntEntry(int key) {
+        int hash = hashInt(key);
+        for (int entry = buckets[hash & (buckets.length - 1)] - 1; entry >= 0; entry = chain[entry] - 1) {
+            if (hashes[entry] == hash) {
+                if (keys[entry] == INT_KEY && primitiveKeys[entry] == key) {
+                    return entry;
+                }
+            }
         }
+        return -1;
+    }
 
-        @Override
-        public boolean advance() {
-            if (current == null) {
-                return false;
-            } else {
-                // if current is no longer in the map, back up to a previous node still in the map
-                while (current.isEmpty() && current.getPrev() != null) {
-                    current = current.getPrev();
+    private int findDoubleEntry(double key) {
+        int hash = hashDouble(key);
+        long bits = Double.doubleToLongBits(key);
+        for (int entry = buckets[hash & (buckets.length - 1)] - 1; entry >= 0; entry = chain[entry] - 1) {
+            if (hashes[entry] == hash) {
+                if (keys[entry] == DOUBLE_KEY && primitiveKeys[entry] == bits) {
+                    return entry;
                 }
-                Node next = current.getNext();
-                assert next == null || next.getKey() != null;
-                current = next;
-                return next != null;
             }
         }
+        return -1;
+    }
 
-        @Override
-        public Object getKey() {
-            Object key = current.getKey();
-            assert key != null;
-            return key;
+    private void appendPrimitive(Object marker, long key, Object value, int hash) {
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, used == keys.length || primitiveKeys == null)) {
+            if (used == keys.length) {
+                rehash();
+            }
+            if (primitiveKeys == null) {
+                primitiveKeys = new long[keys.length];
+            }
         }
+        primitiveKeys[used] = key;
+        append(marker, value, hash);
+    }
 
-        @Override
-        public Object getValue() {
-            Object value = current.getValue();
-            assert value != null;
-            return value;
+    private void append(Object key, Object value, int hash) {
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, used == keys.length)) {
+            rehash();
         }
+        int entry = used++;
+        keys[entry] = key;
+        values[entry] = value;
+        hashes[entry] = hash;
+        int bucket = hash & (buckets.length - 1);
+        chain[entry] = buckets[bucket];
+        buckets[bucket] = entry + 1;
+        size++;
+    }
 
-        @Override
-        public String toString() {
-            return "Cursor [current=" + current + "]";
+    private boolean removeEntry(int entry) {
+        if (entry < 0) {
+            return false;
         }
+        // the entry stays linked in its bucket until the next rehash
+        keys[entry] = null;
+        values[entry] = null;
+        size--;
+        return true;
+    }
 
-        @Override
-        public Cursor copy() {
-            return new CursorImpl(current);
+    /**
+     * Squeezes out deleted entries and resizes the table to at least twice the live entry count.
+     * Existing cursors are redirected via a new {@link Generation} if entries were moved.
+     */
+    @TruffleBoundary
+    private void rehash() {
+        int newCapacity = Math.max(INITIAL_CAPACITY, nextPowerOfTwo(size * 2));
+        if (newCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("JSHashMap capacity exceeded");
+        }
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        long[] oldPrimitiveKeys = primitiveKeys;
+        int[] oldHashes = hashes;
+        int oldUsed = used;
+        int[] removed = size == oldUsed ? null : new int[oldUsed - size];
+
+        buckets = new int[newCapacity];
+        chain = new int[newCapacity];
+        hashes = new int[newCapacity];
+        keys = new Object[newCapacity];
+        values = new Object[newCapacity];
+        primitiveKeys = oldPrimitiveKeys == null ? null : new long[newCapacity];
+
+        int newUsed = 0;
+        int removedCount = 0;
+        for (int i = 0; i < oldUsed; i++) {
+            Object key = oldKeys[i];
+            if (key == null) {
+                removed[removedCount++] = i;
+                continue;
+            }
+            int hash = oldHashes[i];
+            int entry = newUsed++;
+            keys[entry] = key;
+            values[entry] = oldValues[i];
+            if (oldPrimitiveKeys != null) {
+                primitiveKeys[entry] = oldPrimitiveKeys[i];
+            }
+            hashes[entry] = hash;
+            int bucket = hash & (newCapacity - 1);
+            chain[entry] = buckets[bucket];
+            buckets[bucket] = entry + 1;
+        }
+        assert newUsed == size;
+        used = newUsed;
+        if (removed != null) {
+            generation = generation.transition(removed);
         }
     }
 
-    private static final class Node {
-        private Object key;
-        private Object value;
-        private Node prev;
-        private Node next;
-
-        Node(Object key, Object value, Node prev, Node next) {
-            this.key = key;
-            this.value = value;
-            this.prev = prev;
-            this.next = next;
+    /**
+     * Returns the key of a live entry, boxing it if it is stored unboxed.
+     */
+    private Object getKey(int entry) {
+        Object key = keys[entry];
+        if (key == INT_KEY) {
+            return (int) primitiveKeys[entry];
+        } else if (key == DOUBLE_KEY) {
+            return Double.longBitsToDouble(primitiveKeys[entry]);
         }
+        return key;
+    }
 
-        Object getKey() {
-            return key;
+    private static int nextPowerOfTwo(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    private static int hash(Object key) {
+        if (key instanceof Integer) {
+            return hashInt((Integer) key);
+        } else if (key instanceof Double) {
+            return hashDouble((Double) key);
         }
+        return spread(Boundaries.hashCode(key));
+    }
 
-        Object getValue() {
-            return value;
+    private static int hashInt(int key) {
+        return spread(key);
+    }
+
+    private static int hashDouble(double key) {
+        return spread(Double.hashCode(key));
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean keyEquals(Object entryKey, Object key) {
+        return entryKey.getClass() == key.getClass() && Boundaries.equals(entryKey, key);
+    }
+
+    @TruffleBoundary
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append('{');
+        boolean first = true;
+        for (int i = 0; i < used; i++) {
+            if (keys[i] != null) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(getKey(i)).append('=').append(values[i]);
+                first = false;
+            }
         }
+        return sb.append('}').toString();
+    }
 
-        void setValue(Object value) {
-            this.value = value;
+    /**
+     * Links the entry layout seen by outstanding cursors to the current one. A generation becomes
+     * obsolete when a rehash moves entries (or the map is cleared); it then records which entry
+     * indices were dropped, so that cursors can translate their position.
+     */
+    private static final class Generation {
+        private Generation next;
+        /** Sorted indices of entries dropped by the rehash, {@code null} if the map was cleared. */
+        private int[] removed;
+
+        Generation transition(int[] removedEntries) {
+            Generation successor = new Generation();
+            this.removed = removedEntries;
+            this.next = successor;
+            return successor;
         }
 
-        Node getPrev() {
-            return prev;
+        /**
+         * Translates an entry index of this generation to the corresponding index of the next one.
+         */
+        int translate(int index) {
+            if (removed == null) {
+                return 0;
+            }
+            // number of removed entries strictly below index
+            int low = 0;
+            int high = removed.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (removed[mid] < index) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return index - low;
         }
+    }
 
-        void setPrev(Node prev) {
-            this.prev = prev;
+    private static final class CursorImpl implements Cursor {
+        private final JSHashMap map;
+        /** Generation the index refers to, {@code null} once the cursor is exhausted. */
+        private Generation generation;
+        /** Index of the next entry to visit. */
+        private int index;
+        private Object key;
+        private Object value;
+
+        CursorImpl(JSHashMap map, Generation generation, int index) {
+            this.map = map;
+            this.generation = generation;
+            this.index = index;
         }
 
-        Node getNext() {
-            return next;
+        @Override
+        public boolean advance() {
+            if (generation == null) {
+                return false;
+            }
+            if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, generation.next != null)) {
+                // entries have been moved since the last step
+                updateGeneration();
+            }
+            Object[] keys = map.keys;
+            while (index < map.used) {
+                int entry = index++;
+                Object entryKey = keys[entry];
+                if (entryKey != null) {
+                    key = map.getKey(entry);
+                    value = map.values[entry];
+                    return true;
+                }
+            }
+            key = null;
+            value = null;
+            generation = null;
+            return false;
         }
 
-        void setNext(Node next) {
-            this.next = next;
+        private void updateGeneration() {
+            Generation current = generation;
+            int currentIndex = index;
+            while (current.next != null) {
+                currentIndex = current.translate(currentIndex);
+                current = current.next;
+            }
+            generation = current;
+            index = currentIndex;
         }
 
-        void setEmpty() {
-            this.key = null;
-            this.value = null;
+        @Override
+        public Object getKey() {
+            assert key != null;
+            return key;
         }
 
-        boolean isEmpty() {
-            return this.key == null;
+        @Override
+        public Object getValue() {
+            assert value != null;
+            return value;
         }
 
         @Override
         public String toString() {
-            return "Node [key=" + key + ", value=" + value + "]";
+            return "Cursor [index=" + index + ", key=" + key + ", value=" + value + "]";
+        }
+
+        @Override
+        public Cursor copy() {
+            CursorImpl copy = new CursorImpl(map, generation, index);
+            copy.key = key;
+            copy.value = value;
+            return copy;
         }
     }
 }
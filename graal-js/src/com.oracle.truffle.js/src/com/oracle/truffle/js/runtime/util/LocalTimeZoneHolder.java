@@ -40,16 +40,177 @@
  */
 package com.oracle.truffle.js.runtime.util;
 
+import java.time.Instant;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.js.runtime.builtins.JSDate;
 
+/**
+ * Local time zone of a realm, together with a cache of its daylight saving time adjustments.
+ *
+ * DST lookups first check the last interval between two offset transitions that was hit, which
+ * makes runs of nearby dates (the common case) allocation-free. On a miss, the interval is taken
+ * from a transition table that is computed lazily for the years 1900 to 2100. Dates outside of
+ * that range fall back to querying the zone rules directly.
+ */
 public final class LocalTimeZoneHolder {
+    /** 1900-01-01T00:00:00Z. */
+    private static final long TABLE_START = -2208988800000L;
+    /** 2100-01-01T00:00:00Z. */
+    private static final long TABLE_END = 4102444800000L;
+    private static final long MS_PER_DAY = 86400000L;
+    /** Marks intervals whose DST adjustment is not constant. */
+    private static final long UNKNOWN_OFFSET = -1;
+
     public final ZoneId localTimeZoneId;
     public final long localTZA;
+    private final boolean fixedOffset;
+
+    private Interval lastInterval = new Interval(0, 0, 0);
+    private TransitionTable transitionTable;
 
     public LocalTimeZoneHolder(ZoneId zoneId) {
         this.localTimeZoneId = zoneId;
         this.localTZA = JSDate.getLocalTZA(zoneId);
+        this.fixedOffset = zoneId.getRules().isFixedOffset();
+    }
+
+    /**
+     * Daylight saving time adjustment in milliseconds at the given UTC time, equivalent to
+     * {@link JSDate#daylightSavingTA(ZoneId, double)}.
+     */
+    public long getDaylightSavingTA(double t) {
+        if (fixedOffset) {
+            return 0;
+        }
+        long ms = (long) t;
+        Interval interval = lastInterval;
+        if (interval.start <= ms && ms < interval.end) {
+            return interval.offset;
+        }
+        return lookupDaylightSavingTA(ms);
+    }
+
+    @TruffleBoundary
+    private long lookupDaylightSavingTA(long ms) {
+        if (TABLE_START <= ms && ms < TABLE_END) {
+            TransitionTable table = getTransitionTable();
+            int index = table.indexOf(ms);
+            long offset = table.offsets[index];
+            if (offset != UNKNOWN_OFFSET) {
+                lastInterval = new Interval(table.starts[index], table.endOf(index), offset);
+                return offset;
+            }
+        }
+        return JSDate.daylightSavingTA(localTimeZoneId, ms);
+    }
+
+    private TransitionTable getTransitionTable() {
+        TransitionTable table = transitionTable;
+        if (table == null) {
+            table = new TransitionTable(localTimeZoneId.getRules());
+            transitionTable = table;
+        }
+        return table;
+    }
+
+    private static final class Interval {
+        final long start;
+        final long end;
+        final long offset;
+
+        Interval(long start, long end, long offset) {
+            this.start = start;
+            this.end = end;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * Start times of the intervals between offset transitions in [TABLE_START, TABLE_END), and the
+     * DST adjustment that applies in each of them.
+     */
+    private static final class TransitionTable {
+        final long[] starts;
+        final long[] offsets;
+
+        TransitionTable(ZoneRules rules) {
+            List<Long> startList = new ArrayList<>();
+            startList.add(TABLE_START);
+            ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(TABLE_START));
+            while (transition != null && transition.toEpochSecond() * 1000L < TABLE_END) {
+                startList.add(transition.toEpochSecond() * 1000L);
+                transition = rules.nextTransition(transition.getInstant());
+            }
+            addStandardOffsetChanges(rules, startList);
+            long[] sorted = new long[startList.size()];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = startList.get(i);
+            }
+            Arrays.sort(sorted);
+            int count = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[count++] = sorted[i];
+                }
+            }
+            this.starts = Arrays.copyOf(sorted, count);
+            this.offsets = new long[count];
+            for (int i = 0; i < count; i++) {
+                long first = JSDate.daylightSavingTA(rules, starts[i]);
+                long last = JSDate.daylightSavingTA(rules, endOf(i) - 1);
+                offsets[i] = first == last ? first : UNKNOWN_OFFSET;
+            }
+        }
+
+        /**
+         * The DST adjustment also changes when only the standard offset changes, which is not an
+         * offset transition. Such changes only occur in the historic part of the rules, so scan that
+         * part day by day and add the exact change points.
+         */
+        private static void addStandardOffsetChanges(ZoneRules rules, List<Long> startList) {
+            List<ZoneOffsetTransition> transitions = rules.getTransitions();
+            if (transitions.isEmpty()) {
+                return;
+            }
+            long historyEnd = Math.min(transitions.get(transitions.size() - 1).toEpochSecond() * 1000L + MS_PER_DAY, TABLE_END);
+            long previous = TABLE_START;
+            ZoneOffset previousOffset = rules.getStandardOffset(Instant.ofEpochMilli(previous));
+            for (long t = TABLE_START + MS_PER_DAY; t <= historyEnd; t += MS_PER_DAY) {
+                ZoneOffset offset = rules.getStandardOffset(Instant.ofEpochMilli(t));
+                if (!offset.equals(previousOffset)) {
+                    // binary search for the first second with the new standard offset
+                    long low = previous / 1000L;
+                    long high = t / 1000L;
+                    while (high - low > 1) {
+                        long mid = low + (high - low) / 2;
+                        if (rules.getStandardOffset(Instant.ofEpochSecond(mid)).equals(previousOffset)) {
+                            low = mid;
+                        } else {
+                            high = mid;
+                        }
+                    }
+                    startList.add(high * 1000L);
+                    previousOffset = offset;
+                }
+                previous = t;
+            }
+        }
+
+        int indexOf(long ms) {
+            int index = Arrays.binarySearch(starts, ms);
+            return index >= 0 ? index : -index - 2;
+        }
+
+        long endOf(int index) {
+            return index + 1 < starts.length ? starts[index + 1] : TABLE_END;
+        }
     }
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.js.runtime.JSTruffleOptions;
+
+/**
+ * Sorting of primitive arrays in the default sort orders of {@code Array.prototype.sort} and
+ * {@code %TypedArray%.prototype.sort}, without boxing the elements.
+ *
+ * Typed arrays are sorted numerically, which {@link Arrays#sort(double[])} already implements
+ * correctly for -0 and NaN. Arrays are sorted by the string representation of their elements; for
+ * integers, this order is reproduced by sorting {@code long} keys that encode the sign, the decimal
+ * digits padded to a fixed width, and the number of digits.
+ */
+public final class PrimitiveArraySort {
+
+    private static final int INT_DIGITS = 10;
+    private static final int SAFE_INTEGER_DIGITS = 16;
+    private static final double SAFE_INTEGER_LIMIT = 1L << 53;
+    private static final long[] POWERS_OF_TEN = new long[SAFE_INTEGER_DIGITS + 1];
+
+    static {
+        long power = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    private PrimitiveArraySort() {
+    }
+
+    public static void sort(int[] array, int fromIndex, int toIndex) {
+        if (toIndex - fromIndex >= JSTruffleOptions.ParallelSortThreshold) {
+            Arrays.parallelSort(array, fromIndex, toIndex);
+        } else {
+            Arrays.sort(array, fromIndex, toIndex);
+        }
+    }
+
+    public static void sort(double[] array, int fromIndex, int toIndex) {
+        if (toIndex - fromIndex >= JSTruffleOptions.ParallelSortThreshold) {
+            Arrays.parallelSort(array, fromIndex, toIndex);
+        } else {
+            Arrays.sort(array, fromIndex, toIndex);
+        }
+    }
+
+    public static void sort(long[] array, int fromIndex, int toIndex) {
+        if (toIndex - fromIndex >= JSTruffleOptions.ParallelSortThreshold) {
+            Arrays.parallelSort(array, fromIndex, toIndex);
+        } else {
+            Arrays.sort(array, fromIndex, toIndex);
+        }
+    }
+
+    /**
+     * Sorts the range by the string representation of the elements, i.e., in the same order as
+     * {@code String(a) < String(b)}.
+     */
+    public static void sortByString(int[] array, int fromIndex, int toIndex) {
+        int length = toIndex - fromIndex;
+        long[] keys = new long[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = stringOrderKey(array[fromIndex + i], INT_DIGITS);
+        }
+        sort(keys, 0, length);
+        for (int i = 0; i < length; i++) {
+            array[fromIndex + i] = (int) fromStringOrderKey(keys[i], INT_DIGITS);
+        }
+    }
+
+    /**
+     * Sorts the range by the string representation of the elements if all of them are safe
+     * integers other than -0; otherwise, leaves the array unchanged and returns {@code false}.
+     */
+    public static boolean sortByString(double[] array, int fromIndex, int toIndex) {
+        int length = toIndex - fromIndex;
+        long[] keys = new long[length];
+        for (int i = 0; i < length; i++) {
+            double value = array[fromIndex + i];
+            if (!isSafeIntegerNotNegativeZero(value)) {
+                return false;
+            }
+            keys[i] = stringOrderKey((long) value, SAFE_INTEGER_DIGITS);
+        }
+        sort(keys, 0, length);
+        for (int i = 0; i < length; i++) {
+            array[fromIndex + i] = fromStringOrderKey(keys[i], SAFE_INTEGER_DIGITS);
+        }
+        return true;
+    }
+
+    private static boolean isSafeIntegerNotNegativeZero(double value) {
+        return Math.abs(value) < SAFE_INTEGER_LIMIT && value == (long) value && !(value == 0 && 1 / value < 0);
+    }
+
+    /**
+     * Negative values sort before non-negative ones since '-' precedes all digits. Within the same
+     * sign, the digits of the magnitude are compared left-aligned (padded with zeros to
+     * {@code width} digits); a number that is a prefix of another one has fewer digits and sorts
+     * first.
+     */
+    private static long stringOrderKey(long value, int width) {
+        long magnitude = Math.abs(value);
+        int digits = digitCount(magnitude);
+        long key = (magnitude * POWERS_OF_TEN[width - digits]) << 5 | digits;
+        return value < 0 ? key : key | 1L << 60;
+    }
+
+    private static long fromStringOrderKey(long key, int width) {
+        int digits = (int) (key & 0x1f);
+        long magnitude = ((key & ~(1L << 60)) >>> 5) / POWERS_OF_TEN[width - digits];
+        return (key & 1L << 60) != 0 ? magnitude : -magnitude;
+    }
+
+    private static int digitCount(long magnitude) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && magnitude >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+}
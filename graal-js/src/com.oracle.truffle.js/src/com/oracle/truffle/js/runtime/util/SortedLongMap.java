@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A map from primitive {@code long} keys to non-null values, ordered by key. Entries are stored in
+ * chunks of sorted parallel key and value arrays (a B+-tree with a single inner level), so unlike
+ * a {@code TreeMap<Long, Object>} there is no per-entry object and no boxing of keys. Used as the
+ * backing store of sparse arrays.
+ */
+public final class SortedLongMap {
+
+    /** Maximum number of entries per chunk. */
+    static final int CHUNK_SIZE = 128;
+    private static final int INITIAL_CHUNK_CAPACITY = 4;
+    private static final Chunk[] EMPTY_CHUNKS = new Chunk[0];
+
+    private static final class Chunk {
+        long[] keys;
+        Object[] values;
+        int size;
+
+        Chunk(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+        }
+
+        long firstKey() {
+            return keys[0];
+        }
+
+        long lastKey() {
+            return keys[size - 1];
+        }
+
+        int indexOf(long key) {
+            return Arrays.binarySearch(keys, 0, size, key);
+        }
+
+        void insert(int pos, long key, Object value) {
+            assert size < CHUNK_SIZE;
+            if (size == keys.length) {
+                int newCapacity = Math.min(CHUNK_SIZE, size * 2);
+                keys = Arrays.copyOf(keys, newCapacity);
+                values = Arrays.copyOf(values, newCapacity);
+            }
+            System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            keys[pos] = key;
+            values[pos] = value;
+            size++;
+        }
+
+        /** Removes the entries in the range [from, to). */
+        void remove(int from, int to) {
+            System.arraycopy(keys, to, keys, from, size - to);
+            System.arraycopy(values, to, values, from, size - to);
+            int newSize = size - (to - from);
+            Arrays.fill(values, newSize, size, null);
+            size = newSize;
+        }
+
+        /** Moves the entries from {@code from} onwards into a new chunk. */
+        Chunk split(int from) {
+            int count = size - from;
+            Chunk tail = new Chunk(Math.max(INITIAL_CHUNK_CAPACITY, count * 2));
+            System.arraycopy(keys, from, tail.keys, 0, count);
+            System.arraycopy(values, from, tail.values, 0, count);
+            tail.size = count;
+            Arrays.fill(values, from, size, null);
+            size = from;
+            return tail;
+        }
+
+        void append(Chunk other) {
+            assert size + other.size <= CHUNK_SIZE;
+            if (size + other.size > keys.length) {
+                keys = Arrays.copyOf(keys, size + other.size);
+                values = Arrays.copyOf(values, size + other.size);
+            }
+            System.arraycopy(other.keys, 0, keys, size, other.size);
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+    }
+
+    /** Non-empty chunks in ascending key order. */
+    private Chunk[] chunks = EMPTY_CHUNKS;
+    private int chunkCount;
+    private int size;
+
+    public SortedLongMap() {
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the index of the last chunk whose first key is less than or equal to {@code key}, or
+     * -1 if there is no such chunk.
+     */
+    private int findChunk(long key) {
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (chunks[mid].firstKey() <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    public Object get(long key) {
+        int ci = findChunk(key);
+        if (ci < 0) {
+            return null;
+        }
+        Chunk chunk = chunks[ci];
+        int pos = chunk.indexOf(key);
+        return pos >= 0 ? chunk.values[pos] : null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associates {@code value} with {@code key} and returns the previous value, or {@code null}.
+     */
+    public Object put(long key, Object value) {
+        assert value != null;
+        if (chunkCount == 0) {
+            Chunk chunk = new Chunk(INITIAL_CHUNK_CAPACITY);
+            chunk.insert(0, key, value);
+            insertChunk(0, chunk);
+            size++;
+            return null;
+        }
+        int ci = Math.max(0, findChunk(key));
+        Chunk chunk = chunks[ci];
+        int pos = chunk.indexOf(key);
+        if (pos >= 0) {
+            Object previous = chunk.values[pos];
+            chunk.values[pos] = value;
+            return previous;
+        }
+        pos = -pos - 1;
+        if (chunk.size == CHUNK_SIZE) {
+            if (pos == CHUNK_SIZE && ci == chunkCount - 1) {
+                // appending after the last key: start a new chunk, keeping this one full
+                Chunk next = new Chunk(INITIAL_CHUNK_CAPACITY);
+                next.insert(0, key, value);
+                insertChunk(ci + 1, next);
+                size++;
+                return null;
+            } else if (pos == 0 && ci == 0) {
+                Chunk first = new Chunk(INITIAL_CHUNK_CAPACITY);
+                first.insert(0, key, value);
+                insertChunk(0, first);
+                size++;
+                return null;
+            }
+            int half = CHUNK_SIZE / 2;
+            insertChunk(ci + 1, chunk.split(half));
+            if (pos > half) {
+                chunk = chunks[ci + 1];
+                pos -= half;
+            }
+        }
+        chunk.insert(pos, key, value);
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the mapping for {@code key} and returns the previous value, or {@code null}.
+     */
+    public Object remove(long key) {
+        int ci = findChunk(key);
+        if (ci < 0) {
+            return null;
+        }
+        Chunk chunk = chunks[ci];
+        int pos = chunk.indexOf(key);
+        if (pos < 0) {
+            return null;
+        }
+        Object previous = chunk.values[pos];
+        chunk.remove(pos, pos + 1);
+        size--;
+        compactChunk(ci);
+        return previous;
+    }
+
+    /**
+     * Removes all mappings with keys in the range [{@code fromKey}, {@code toKey}].
+     */
+    public void removeRange(long fromKey, long toKey) {
+        if (fromKey > toKey) {
+            return;
+        }
+        int ci = Math.max(0, findChunk(fromKey));
+        while (ci < chunkCount) {
+            Chunk chunk = chunks[ci];
+            if (chunk.firstKey() > toKey) {
+                break;
+            }
+            int from = lowerBound(chunk, fromKey);
+            int to = toKey == Long.MAX_VALUE ? chunk.size : lowerBound(chunk, toKey + 1);
+            if (from < to) {
+                chunk.remove(from, to);
+                size -= to - from;
+            }
+            if (chunk.size == 0) {
+                removeChunk(ci);
+            } else {
+                ci++;
+            }
+        }
+        if (ci > 0) {
+            compactChunk(ci - 1);
+        }
+    }
+
+    /**
+     * Removes all mappings with keys greater than or equal to {@code fromKey}.
+     */
+    public void removeFrom(long fromKey) {
+        removeRange(fromKey, Long.MAX_VALUE);
+    }
+
+    /**
+     * Adds {@code delta} to all keys greater than or equal to {@code fromKey}. The relative order
+     * of the keys must not change, i.e. when shifting downwards, the target range must be empty.
+     */
+    public void shiftKeys(long fromKey, long delta) {
+        if (delta == 0 || chunkCount == 0) {
+            return;
+        }
+        int ci = Math.max(0, findChunk(fromKey));
+        int pos = lowerBound(chunks[ci], fromKey);
+        if (pos == chunks[ci].size) {
+            ci++;
+            pos = 0;
+        }
+        if (ci >= chunkCount) {
+            return;
+        }
+        assert delta > 0 || !hasKeyInRange(fromKey + delta, fromKey - 1);
+        for (; ci < chunkCount; ci++) {
+            Chunk chunk = chunks[ci];
+            long[] keys = chunk.keys;
+            for (int i = pos; i < chunk.size; i++) {
+                keys[i] += delta;
+            }
+            pos = 0;
+        }
+    }
+
+    private boolean hasKeyInRange(long fromKey, long toKey) {
+        long next = ceilingKey(fromKey, Long.MAX_VALUE);
+        return next != Long.MAX_VALUE && next <= toKey;
+    }
+
+    private static int lowerBound(Chunk chunk, long key) {
+        int pos = chunk.indexOf(key);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    public long firstKey() {
+        if (chunkCount == 0) {
+            throw new NoSuchElementException();
+        }
+        return chunks[0].firstKey();
+    }
+
+    public long lastKey() {
+        if (chunkCount == 0) {
+            throw new NoSuchElementException();
+        }
+        return chunks[chunkCount - 1].lastKey();
+    }
+
+    /**
+     * Returns the least key greater than or equal to {@code key}, or {@code notFound}.
+     */
+    public long ceilingKey(long key, long notFound) {
+        if (chunkCount == 0) {
+            return notFound;
+        }
+        int ci = Math.max(0, findChunk(key));
+        Chunk chunk = chunks[ci];
+        int pos = lowerBound(chunk, key);
+        if (pos < chunk.size) {
+            return chunk.keys[pos];
+        } else if (ci + 1 < chunkCount) {
+            return chunks[ci + 1].firstKey();
+        }
+        return notFound;
+    }
+
+    /**
+     * Returns the least key strictly greater than {@code key}, or {@code notFound}.
+     */
+    public long higherKey(long key, long notFound) {
+        return key == Long.MAX_VALUE ? notFound : ceilingKey(key + 1, notFound);
+    }
+
+    /**
+     * Returns the greatest key strictly less than {@code key}, or {@code notFound}.
+     */
+    public long lowerKey(long key, long notFound) {
+        int ci = findChunk(key);
+        if (ci < 0) {
+            return notFound;
+        }
+        Chunk chunk = chunks[ci];
+        int pos = lowerBound(chunk, key);
+        if (pos > 0) {
+            return chunk.keys[pos - 1];
+        } else if (ci > 0) {
+            return chunks[ci - 1].lastKey();
+        }
+        return notFound;
+    }
+
+    /**
+     * Returns all keys in ascending order.
+     */
+    public long[] keys() {
+        long[] result = new long[size];
+        int offset = 0;
+        for (int ci = 0; ci < chunkCount; ci++) {
+            Chunk chunk = chunks[ci];
+            System.arraycopy(chunk.keys, 0, result, offset, chunk.size);
+            offset += chunk.size;
+        }
+        assert offset == size;
+        return result;
+    }
+
+    private void insertChunk(int index, Chunk chunk) {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.max(4, chunkCount * 2));
+        }
+        System.arraycopy(chunks, index, chunks, index + 1, chunkCount - index);
+        chunks[index] = chunk;
+        chunkCount++;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(chunks, index + 1, chunks, index, chunkCount - index - 1);
+        chunks[--chunkCount] = null;
+    }
+
+    /**
+     * Removes an empty chunk, or merges a small chunk with its successor to keep the number of
+     * chunks proportional to the number of entries.
+     */
+    private void compactChunk(int index) {
+        Chunk chunk = chunks[index];
+        if (chunk.size == 0) {
+            removeChunk(index);
+        } else if (index + 1 < chunkCount && chunk.size + chunks[index + 1].size <= CHUNK_SIZE / 2) {
+            chunk.append(chunks[index + 1]);
+            removeChunk(index + 1);
+        }
+    }
+}
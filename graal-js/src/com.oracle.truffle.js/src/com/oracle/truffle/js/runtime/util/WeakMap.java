@@ -40,27 +40,72 @@
  */
 package com.oracle.truffle.js.runtime.util;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.HiddenKey;
 import com.oracle.truffle.js.nodes.access.HasHiddenKeyCacheNode;
 import com.oracle.truffle.js.nodes.access.PropertyGetNode;
 import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 
 /**
- * JavaScript WeakMap.
+ * JavaScript WeakMap and WeakSet storage.
+ *
+ * Entries with a primitive value are stored in an open addressing hash table (linear probing) over
+ * weak references to the keys, owned by the map, so adding them does not change the key's shape.
+ * Entries of collected or removed keys stay in the table as tombstones; their values are dropped
+ * when the collected references are polled from the reference queue, which happens lazily on every
+ * access, and the tombstones themselves are purged when the table is rehashed.
+ *
+ * A value that is an object may reference its own key, and Java has no ephemerons, so such a value
+ * must only be reachable through its key. It is stored in the key: a hidden property of the key holds
+ * a list of entries, one per WeakMap containing the key with an object value. An entry references
+ * its WeakMap weakly and its value strongly. Entries of collected maps drop their values whenever
+ * the list is searched, and are unlinked when it is modified.
  */
-public class WeakMap implements Map<DynamicObject, Object> {
+public final class WeakMap implements Map<DynamicObject, Object> {
     private static final HiddenKey INVERTED_WEAK_MAP_KEY = new HiddenKey("InvertedWeakMap");
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ReferenceQueue<DynamicObject> queue = new ReferenceQueue<>();
+    private Entry[] table;
+    /** Number of table entries whose key has neither been removed nor polled from the queue. */
+    private int size;
+    /** Number of non-null table slots, including tombstones. */
+    private int occupied;
 
     public WeakMap() {
+        this.table = new Entry[INITIAL_CAPACITY];
+    }
+
+    private static final class Entry extends WeakReference<DynamicObject> {
+        final int hash;
+        Object value;
+        boolean expunged;
+
+        Entry(DynamicObject key, Object value, int hash, ReferenceQueue<DynamicObject> queue) {
+            super(key, queue);
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+
+    private static final class InvertedEntry extends WeakReference<WeakMap> {
+        Object value;
+        InvertedEntry next;
+
+        InvertedEntry(WeakMap map, Object value, InvertedEntry next) {
+            super(map);
+            this.value = value;
+            this.next = next;
+        }
     }
 
     public static PropertyGetNode createInvertedKeyMapGetNode(JSContext context) {
@@ -78,54 +123,319 @@ public class WeakMap implements Map<DynamicObject, Object> {
         return (DynamicObject) key;
     }
 
-    @SuppressWarnings("unchecked")
-    private static Map<WeakMap, Object> getInvertedMap(DynamicObject k, boolean put) {
-        if (k.containsKey(INVERTED_WEAK_MAP_KEY)) {
-            return (WeakHashMap<WeakMap, Object>) k.get(INVERTED_WEAK_MAP_KEY);
+    /**
+     * Values that cannot reference a key are stored in the table, all others in the key.
+     */
+    private static boolean isTableValue(Object value) {
+        return JSRuntime.isJSPrimitive(value);
+    }
+
+    private static int hash(DynamicObject key) {
+        int h = System.identityHashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    private Entry findEntry(DynamicObject key) {
+        Entry[] tab = table;
+        int mask = tab.length - 1;
+        int h = hash(key);
+        for (int i = h & mask;; i = (i + 1) & mask) {
+            Entry e = tab[i];
+            if (e == null) {
+                return null;
+            } else if (e.hash == h && e.get() == key) {
+                return e;
+            }
+        }
+    }
+
+    /**
+     * Returns the value of a key in the table of this map, or {@code null} if it is not there.
+     */
+    public Object getTableValue(DynamicObject key) {
+        expungeStaleEntries();
+        Entry e = findEntry(key);
+        return e == null ? null : e.value;
+    }
+
+    /**
+     * Checks if a key is in the table of this map.
+     */
+    public boolean containsTableKey(DynamicObject key) {
+        expungeStaleEntries();
+        return findEntry(key) != null;
+    }
+
+    private Object putTableValue(DynamicObject k, Object value) {
+        Entry[] tab = table;
+        int mask = tab.length - 1;
+        int h = hash(k);
+        int tombstone = -1;
+        int i = h & mask;
+        for (;; i = (i + 1) & mask) {
+            Entry e = tab[i];
+            if (e == null) {
+                break;
+            }
+            DynamicObject entryKey = e.get();
+            if (entryKey == null) {
+                if (tombstone < 0) {
+                    tombstone = i;
+                }
+            } else if (e.hash == h && entryKey == k) {
+                Object oldValue = e.value;
+                e.value = value;
+                return oldValue;
+            }
+        }
+        size++;
+        if (tombstone >= 0) {
+            // The replaced entry has already been accounted for (or will be, once it is polled).
+            tab[tombstone] = new Entry(k, value, h, queue);
         } else {
-            if (put) {
-                return putInvertedMap(k);
-            } else {
-                return Collections.emptyMap();
+            tab[i] = new Entry(k, value, h, queue);
+            if (++occupied > (tab.length >> 1)) {
+                rehash();
+            }
+        }
+        return null;
+    }
+
+    private Object removeTableValue(DynamicObject k) {
+        Entry e = findEntry(k);
+        if (e == null) {
+            return null;
+        }
+        Object oldValue = e.value;
+        // Clearing a reference does not enqueue it, so the entry is accounted for here.
+        e.clear();
+        expunge(e);
+        return oldValue;
+    }
+
+    private void expunge(Entry e) {
+        if (!e.expunged) {
+            e.expunged = true;
+            e.value = null;
+            size--;
+        }
+    }
+
+    private void expungeStaleEntries() {
+        for (Object ref; (ref = queue.poll()) != null;) {
+            expunge((Entry) ref);
+        }
+    }
+
+    /**
+     * Rebuilds the table without tombstones, growing it only if the live entries need the space.
+     */
+    private void rehash() {
+        Entry[] oldTable = table;
+        int capacity = oldTable.length;
+        if (size >= (capacity >> 2)) {
+            capacity <<= 1;
+        }
+        Entry[] newTable = new Entry[capacity];
+        int mask = capacity - 1;
+        int count = 0;
+        for (Entry e : oldTable) {
+            if (e == null) {
+                continue;
+            }
+            if (e.get() == null) {
+                expunge(e);
+                continue;
+            }
+            int i = e.hash & mask;
+            while (newTable[i] != null) {
+                i = (i + 1) & mask;
             }
+            newTable[i] = e;
+            count++;
+        }
+        table = newTable;
+        occupied = count;
+    }
+
+    /**
+     * Finds the entry of this map in the entries of a key. Entries of collected maps that are
+     * passed on the way drop their values and, unless they are the head of the list, are unlinked.
+     */
+    private InvertedEntry findInvertedEntry(Object entries) {
+        InvertedEntry prev = null;
+        for (InvertedEntry e = (InvertedEntry) entries; e != null; e = e.next) {
+            WeakMap map = e.get();
+            if (map == this) {
+                return e;
+            } else if (map == null) {
+                e.value = null;
+                if (prev != null) {
+                    prev.next = e.next;
+                    continue;
+                }
+            }
+            prev = e;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of this map in the entries of a key (the value of its inverted key map
+     * property), or {@code null} if the key is not in this map with an object value.
+     */
+    public Object getInverted(Object entries) {
+        InvertedEntry e = findInvertedEntry(entries);
+        return e == null ? null : e.value;
+    }
+
+    /**
+     * Checks if this map has an entry in the entries of a key (the value of its inverted key map
+     * property).
+     */
+    public boolean containsInverted(Object entries) {
+        return findInvertedEntry(entries) != null;
+    }
+
+    /**
+     * Replaces the value of this map in the entries of a key (the value of its inverted key map
+     * property). Returns {@code false} if the key is not in the entries yet, or if the new value
+     * belongs in the table.
+     */
+    public boolean replaceInverted(Object entries, Object value) {
+        if (isTableValue(value)) {
+            return false;
+        }
+        InvertedEntry e = findInvertedEntry(entries);
+        if (e == null) {
+            return false;
         }
+        e.value = value;
+        return true;
     }
 
-    private static WeakHashMap<WeakMap, Object> putInvertedMap(DynamicObject k) {
-        WeakHashMap<WeakMap, Object> invertedMap = new WeakHashMap<>();
+    private static InvertedEntry getEntries(DynamicObject k) {
+        return (InvertedEntry) k.get(INVERTED_WEAK_MAP_KEY);
+    }
+
+    private static void setEntries(DynamicObject k, InvertedEntry entries) {
+        if (k.containsKey(INVERTED_WEAK_MAP_KEY)) {
+            k.define(INVERTED_WEAK_MAP_KEY, entries);
+            return;
+        }
         boolean wasNotExtensible = !JSShape.isExtensible(k.getShape());
-        k.define(INVERTED_WEAK_MAP_KEY, invertedMap);
+        k.define(INVERTED_WEAK_MAP_KEY, entries);
         if (wasNotExtensible && JSObject.isExtensible(k)) {
             // not-extensible marker property is expected to be the last property; ensure it is.
             k.delete(JSShape.NOT_EXTENSIBLE_KEY);
             JSObject.preventExtensions(k);
             assert !JSObject.isExtensible(k);
         }
-        return invertedMap;
+    }
+
+    private Object putInverted(DynamicObject k, Object value) {
+        InvertedEntry entries = getEntries(k);
+        InvertedEntry e = findInvertedEntry(entries);
+        if (e != null) {
+            Object oldValue = e.value;
+            e.value = value;
+            return oldValue;
+        }
+        setEntries(k, new InvertedEntry(this, value, unlinkStaleInvertedEntries(entries)));
+        return null;
+    }
+
+    /**
+     * Removes the entry of this map, and the entries of collected maps, from the entries of a key.
+     */
+    private Object removeInverted(DynamicObject k) {
+        InvertedEntry entries = getEntries(k);
+        if (entries == null) {
+            return null;
+        }
+        Object oldValue = null;
+        InvertedEntry head = entries;
+        InvertedEntry prev = null;
+        for (InvertedEntry e = entries; e != null; e = e.next) {
+            WeakMap map = e.get();
+            if (map == this || map == null) {
+                if (prev == null) {
+                    head = e.next;
+                } else {
+                    prev.next = e.next;
+                }
+                if (map == this) {
+                    oldValue = e.value;
+                    e.clear();
+                }
+                e.value = null;
+            } else {
+                prev = e;
+            }
+        }
+        if (head != entries) {
+            setEntries(k, head);
+        }
+        return oldValue;
+    }
+
+    /**
+     * Unlinks the entries of collected maps and returns the new head of the list.
+     */
+    private static InvertedEntry unlinkStaleInvertedEntries(InvertedEntry entries) {
+        InvertedEntry head = entries;
+        while (head != null && head.get() == null) {
+            head.value = null;
+            head = head.next;
+        }
+        for (InvertedEntry prev = head; prev != null;) {
+            InvertedEntry e = prev.next;
+            if (e != null && e.get() == null) {
+                e.value = null;
+                prev.next = e.next;
+            } else {
+                prev = e;
+            }
+        }
+        return head;
     }
 
     @Override
     public boolean containsKey(Object key) {
         DynamicObject k = checkKey(key);
-        return getInvertedMap(k, false).containsKey(this);
+        return containsTableKey(k) || containsInverted(getEntries(k));
     }
 
     @Override
     public Object get(Object key) {
         DynamicObject k = checkKey(key);
-        return getInvertedMap(k, false).get(this);
+        Object value = getTableValue(k);
+        return value != null ? value : getInverted(getEntries(k));
     }
 
     @Override
     public Object put(DynamicObject key, Object value) {
         DynamicObject k = checkKey(key);
-        return getInvertedMap(k, true).put(this, value);
+        expungeStaleEntries();
+        Object oldValue;
+        Object movedValue;
+        if (isTableValue(value)) {
+            movedValue = removeInverted(k);
+            oldValue = putTableValue(k, value);
+        } else {
+            movedValue = removeTableValue(k);
+            oldValue = putInverted(k, value);
+        }
+        return movedValue != null ? movedValue : oldValue;
     }
 
     @Override
     public Object remove(Object key) {
         DynamicObject k = checkKey(key);
-        return getInvertedMap(k, false).remove(this);
+        expungeStaleEntries();
+        Object oldValue = removeTableValue(k);
+        Object invertedValue = removeInverted(k);
+        return oldValue != null ? oldValue : invertedValue;
     }
 
     @Override
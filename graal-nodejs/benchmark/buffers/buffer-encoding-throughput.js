@@ -0,0 +1,32 @@
+'use strict';
+
+// Throughput of the string <-> bytes conversions of the individual encodings
+// (Buffer.prototype.<encoding>Write and <encoding>Slice).
+const common = require('../common.js');
+
+const bench = common.createBenchmark(main, {
+  encoding: ['utf8', 'latin1', 'ascii', 'hex', 'base64', 'ucs2'],
+  direction: ['write', 'slice'],
+  len: [16, 1024, 65536],
+  n: [1e5]
+});
+
+function main({ encoding, direction, len, n }) {
+  const source = Buffer.alloc(len);
+  for (var i = 0; i < len; i++)
+    source[i] = 32 + (i % 95);
+  const string = source.toString(encoding);
+  const buf = Buffer.allocUnsafe(Buffer.byteLength(string, encoding));
+
+  if (direction === 'write') {
+    bench.start();
+    for (i = 0; i < n; i++)
+      buf.write(string, 0, buf.length, encoding);
+    bench.end(n);
+  } else {
+    bench.start();
+    for (i = 0; i < n; i++)
+      source.toString(encoding, 0, len);
+    bench.end(n);
+  }
+}
@@ -0,0 +1,67 @@
+'use strict';
+
+const common = require('../common.js');
+
+// Measures promise reaction throughput: `then` chains a single long chain of
+// .then() callbacks, `await` awaits resolved values in a loop, and `all`
+// resolves many independent promises at once (breadth instead of depth).
+const bench = common.createBenchmark(main, {
+  method: ['then', 'await', 'all'],
+  n: [1e6]
+});
+
+function useThen(n) {
+  let p = Promise.resolve(0);
+  for (var i = 0; i < n; i++) {
+    p = p.then((v) => v + 1);
+  }
+  bench.start();
+  return p.then((v) => {
+    bench.end(n);
+    return v;
+  });
+}
+
+async function useAwait(n) {
+  let sum = 0;
+  bench.start();
+  for (var i = 0; i < n; i++) {
+    sum += await i;
+  }
+  bench.end(n);
+  return sum;
+}
+
+function useAll(n) {
+  const batch = 1000;
+  bench.start();
+  let p = Promise.resolve();
+  for (var i = 0; i < n; i += batch) {
+    p = p.then(() => {
+      const promises = [];
+      for (var j = 0; j < batch; j++) {
+        promises.push(Promise.resolve(j));
+      }
+      return Promise.all(promises);
+    });
+  }
+  return p.then(() => bench.end(n));
+}
+
+function main({ method, n }) {
+  switch (method) {
+    case '':
+    // Empty string falls through to next line as default, mostly for tests.
+    case 'then':
+      useThen(n);
+      break;
+    case 'await':
+      useAwait(n);
+      break;
+    case 'all':
+      useAll(n);
+      break;
+    default:
+      throw new Error(`Unexpected method "${method}"`);
+  }
+}
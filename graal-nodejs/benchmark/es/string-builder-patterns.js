@@ -0,0 +1,60 @@
+'use strict';
+
+const common = require('../common.js');
+
+// Typical string-builder patterns on concatenated (rope) strings:
+// `append-tail` appends and inspects the tail of the string being built,
+// `append-index` reads single characters of it, and `slice-front` consumes a
+// large string from the front like a tokenizer does.
+const configs = {
+  n: [1e5],
+  mode: [
+    'append-tail',
+    'append-index',
+    'slice-front',
+  ],
+};
+
+const bench = common.createBenchmark(main, configs);
+
+function main({ n, mode }) {
+  let string = '';
+  let count = 0;
+
+  switch (mode) {
+    case '':
+      // Empty string falls through to next line as default, mostly for tests.
+    case 'append-tail':
+      bench.start();
+      for (let i = 0; i < n; i++) {
+        string += 'item' + i + ';';
+        if (string.endsWith('9;'))
+          count++;
+      }
+      bench.end(n);
+      break;
+    case 'append-index':
+      bench.start();
+      for (let i = 0; i < n; i++) {
+        string += 'item' + i + ';';
+        if (string[string.length - 2] === '9' || string.charCodeAt(string.length - 1) === 0)
+          count++;
+      }
+      bench.end(n);
+      break;
+    case 'slice-front':
+      string = 'token '.repeat(n);
+      bench.start();
+      while (string.length > 0) {
+        const end = string.indexOf(' ');
+        count += string.slice(0, end).length;
+        string = string.slice(end + 1);
+      }
+      bench.end(n);
+      break;
+    default:
+      throw new Error(`Unexpected method "${mode}"`);
+  }
+
+  return count;
+}
@@ -0,0 +1,172 @@
+'use strict';
+
+const common = require('../common.js');
+
+// Measures WeakMap/WeakSet throughput with many keys in a few collections, as
+// in private-state polyfills and memoization caches. `retained` reports the
+// number of entries per MiB of heap (higher is better) instead of a rate.
+// Compare two builds with benchmark/compare.js (--old and --new).
+const bench = common.createBenchmark(main, {
+  method: ['set', 'get', 'has', 'weakset', 'private', 'retained'],
+  maps: [1, 4],
+  n: [1e6]
+}, { flags: ['--expose-gc'] });
+
+function createKeys(n) {
+  const keys = new Array(n);
+  for (var i = 0; i < n; i++) {
+    keys[i] = { id: i };
+  }
+  return keys;
+}
+
+function createMaps(count) {
+  const maps = [];
+  for (var i = 0; i < count; i++) {
+    maps.push(new WeakMap());
+  }
+  return maps;
+}
+
+function runSet(n, maps) {
+  const keys = createKeys(n);
+  bench.start();
+  for (var i = 0; i < n; i++) {
+    for (var j = 0; j < maps.length; j++) {
+      maps[j].set(keys[i], i);
+    }
+  }
+  bench.end(n * maps.length);
+}
+
+function runGet(n, maps) {
+  const keys = createKeys(n);
+  for (var i = 0; i < n; i++) {
+    for (var j = 0; j < maps.length; j++) {
+      maps[j].set(keys[i], i);
+    }
+  }
+  var sum = 0;
+  bench.start();
+  for (i = 0; i < n; i++) {
+    for (j = 0; j < maps.length; j++) {
+      sum += maps[j].get(keys[i]);
+    }
+  }
+  bench.end(n * maps.length);
+  return sum;
+}
+
+function runHas(n, maps) {
+  const keys = createKeys(n);
+  for (var i = 0; i < n; i += 2) {
+    for (var j = 0; j < maps.length; j++) {
+      maps[j].set(keys[i], i);
+    }
+  }
+  var count = 0;
+  bench.start();
+  for (i = 0; i < n; i++) {
+    for (j = 0; j < maps.length; j++) {
+      if (maps[j].has(keys[i])) {
+        count++;
+      }
+    }
+  }
+  bench.end(n * maps.length);
+  return count;
+}
+
+function runWeakSet(n, count) {
+  const sets = [];
+  for (var i = 0; i < count; i++) {
+    sets.push(new WeakSet());
+  }
+  const keys = createKeys(n);
+  var found = 0;
+  bench.start();
+  for (i = 0; i < n; i++) {
+    for (var j = 0; j < sets.length; j++) {
+      sets[j].add(keys[i]);
+      if (sets[j].has(keys[i])) {
+        found++;
+      }
+    }
+  }
+  bench.end(n * sets.length);
+  return found;
+}
+
+// Class with private state kept in WeakMaps, as emitted by class-field
+// transpilers; the instances become garbage right away.
+function runPrivate(n, maps) {
+  class Point {
+    constructor(x, y) {
+      maps[0].set(this, x);
+      maps[maps.length - 1].set(this, y);
+    }
+    get x() {
+      return maps[0].get(this);
+    }
+    get y() {
+      return maps[maps.length - 1].get(this);
+    }
+  }
+  var sum = 0;
+  bench.start();
+  for (var i = 0; i < n; i++) {
+    const p = new Point(i, 1);
+    sum += p.x + p.y;
+  }
+  bench.end(n);
+  return sum;
+}
+
+function runRetained(n, maps) {
+  global.gc();
+  const before = process.memoryUsage().heapUsed;
+  const keys = createKeys(n);
+  for (var i = 0; i < n; i++) {
+    for (var j = 0; j < maps.length; j++) {
+      maps[j].set(keys[i], i);
+    }
+  }
+  global.gc();
+  const used = process.memoryUsage().heapUsed - before;
+  common.sendResult({
+    name: bench.name,
+    conf: bench.config,
+    rate: Math.round(n * maps.length / (used / (1024 * 1024))),
+    time: 0,
+    type: 'report',
+  });
+  return keys;
+}
+
+function main({ method, maps, n }) {
+  const weakMaps = createMaps(maps);
+  switch (method) {
+    case '':
+      // Empty string falls through to next line as default, mostly for tests.
+    case 'set':
+      runSet(n, weakMaps);
+      break;
+    case 'get':
+      runGet(n, weakMaps);
+      break;
+    case 'has':
+      runHas(n, weakMaps);
+      break;
+    case 'weakset':
+      runWeakSet(n, maps);
+      break;
+    case 'private':
+      runPrivate(n, weakMaps);
+      break;
+    case 'retained':
+      runRetained(n, weakMaps);
+      break;
+    default:
+      throw new Error(`Unexpected method "${method}"`);
+  }
+}
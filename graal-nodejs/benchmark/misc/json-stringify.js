@@ -0,0 +1,59 @@
+'use strict';
+
+const common = require('../common.js');
+
+// `path=generic` passes an identity replacer function, which disables the
+// dense int/double array fast path and adds a call per value, for comparison.
+const bench = common.createBenchmark(main, {
+  payload: ['records', 'ints', 'doubles', 'nested'],
+  path: ['fast', 'generic'],
+  n: [1e3]
+});
+
+function makeRecords(count) {
+  const records = [];
+  for (var i = 0; i < count; i++) {
+    records.push({
+      id: i,
+      name: `user${i}`,
+      email: `user${i}@example.com`,
+      active: i % 3 !== 0,
+      score: i * 1.5,
+      tags: ['a', 'b']
+    });
+  }
+  return records;
+}
+
+function makePayload(payload) {
+  switch (payload) {
+    case 'records':
+      return makeRecords(1000);
+    case 'ints':
+      return Array.from({ length: 10000 }, (_, i) => i * 7);
+    case 'doubles':
+      return Array.from({ length: 10000 }, (_, i) => i / 3);
+    case 'nested':
+      return { meta: { page: 1, total: 100 }, data: makeRecords(100) };
+    default:
+      throw new Error(`Unexpected payload: ${payload}`);
+  }
+}
+
+function identity(key, value) {
+  return value;
+}
+
+function main({ payload, path, n }) {
+  const value = makePayload(payload);
+  const replacer = path === 'generic' ? identity : undefined;
+  var length = 0;
+  bench.start();
+  for (var i = 0; i < n; i++) {
+    length += JSON.stringify(value, replacer).length;
+  }
+  bench.end(n);
+  if (length === 0) {
+    throw new Error('Unexpected empty result');
+  }
+}
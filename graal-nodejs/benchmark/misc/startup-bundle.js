@@ -0,0 +1,78 @@
+'use strict';
+// Compiles and runs a large bundled script of which only a part of the
+// modules is executed at startup, like a webpack or browserify bundle.
+const common = require('../common.js');
+const vm = require('vm');
+
+const bench = common.createBenchmark(main, {
+  modules: [200, 1000],
+  used: [0.1, 1],
+  n: [20]
+});
+
+function makeModule(i) {
+  return `function(module, exports, require) {
+  'use strict';
+  const table = [${i}, ${i + 1}, ${i + 2}];
+  function weigh(values, factor) {
+    let sum = 0;
+    for (let j = 0; j < values.length; j++) {
+      sum += values[j] * factor + (j % 3 === 0 ? 1 : -1);
+    }
+    return sum;
+  }
+  class Store${i} {
+    constructor() {
+      this.items = new Map();
+    }
+    add(key, value) {
+      this.items.set(key, weigh(table, value));
+      return this;
+    }
+    get(key) {
+      return this.items.get(key);
+    }
+  }
+  exports.create = () => new Store${i}().add('key', ${i});
+  exports.format = function format(value) {
+    return JSON.stringify({ id: ${i}, value, weight: weigh([value], 2) });
+  };
+  exports.previous = () => require(${Math.max(0, i - 1)}).format;
+}`;
+}
+
+function makeBundle(modules, used) {
+  const wrappers = [];
+  for (let i = 0; i < modules; i++) {
+    wrappers.push(makeModule(i));
+  }
+  const entries = Math.max(1, Math.floor(modules * used));
+  return `(function(modules) {
+  const cache = [];
+  function require(id) {
+    if (cache[id] === undefined) {
+      const module = { exports: {} };
+      cache[id] = module;
+      modules[id](module, module.exports, require);
+    }
+    return cache[id].exports;
+  }
+  let result = '';
+  for (let i = ${modules - entries}; i < ${modules}; i++) {
+    result = require(i).format(i);
+  }
+  return result;
+})([
+${wrappers.join(',\n')}
+]);`;
+}
+
+function main({ modules, used, n }) {
+  const bundle = makeBundle(modules, used);
+  bench.start();
+  for (let i = 0; i < n; i++) {
+    // Make every iteration a distinct source so that nothing is cached.
+    vm.runInThisContext(`${bundle}\n// ${i}`);
+  }
+  bench.end(n);
+}
@@ -4,7 +4,7 @@ const common = require('../common.js');
 const path = require('path');
 const bench = common.createBenchmark(main, {
   workers: [1],
-  payload: ['string', 'object'],
+  payload: ['string', 'object', 'records', 'numbers'],
   sendsPerBroadcast: [1, 10],
   n: [1e5]
 });
@@ -30,6 +30,18 @@ function main(conf) {
     case 'object':
       payload = { action: 'pewpewpew', powerLevel: 9001 };
       break;
+    case 'records':
+      payload = [];
+      for (var j = 0; j < 100; j++)
+        payload.push({ id: j, name: `record${j}`, score: j / 3, active: true });
+      break;
+    case 'numbers':
+      payload = { ints: [], doubles: [] };
+      for (var k = 0; k < 1000; k++) {
+        payload.ints.push(k);
+        payload.doubles.push(k / 7);
+      }
+      break;
     default:
       throw new Error('Unsupported payload type');
   }
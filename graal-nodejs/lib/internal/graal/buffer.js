@@ -44,9 +44,13 @@ const NIOBufferPrototypeAllocator = typeof graalExtension === 'undefined' ? argu
 
 function patchBufferPrototype(proto) {
 	if (NIOBufferPrototypeAllocator) {
-		const bufferBuiltin = NIOBufferPrototypeAllocator(proto.utf8Write, proto.utf8Slice);
+		const bufferBuiltin = NIOBufferPrototypeAllocator(proto.utf8Write, proto.utf8Slice, proto);
 		proto.utf8Write = bufferBuiltin.utf8Write;
 		proto.utf8Slice = bufferBuiltin.utf8Slice;
+		for (const encoding of ['latin1', 'ascii', 'hex', 'base64', 'ucs2']) {
+			proto[encoding + 'Write'] = bufferBuiltin[encoding + 'Write'];
+			proto[encoding + 'Slice'] = bufferBuiltin[encoding + 'Slice'];
+		}
 	}
 }
 
@@ -54,6 +54,7 @@ public final class RealmData {
 
     private DynamicObject nativeUtf8Write;
     private DynamicObject nativeUtf8Slice;
+    private final Map<String, DynamicObject> nativeBufferFunctions = new HashMap<>();
     private DynamicObject resolverFactory;
     private DynamicObject extrasBindingObject;
 
@@ -84,6 +85,14 @@ public final class RealmData {
         this.nativeUtf8Slice = nativeUtf8Slice;
     }
 
+    public DynamicObject getNativeBufferFunction(String name) {
+        return nativeBufferFunctions.get(name);
+    }
+
+    public void setNativeBufferFunction(String name, DynamicObject function) {
+        nativeBufferFunctions.put(name, function);
+    }
+
     public void setEmbedderData(int index, Object value) {
         embedderData.put(index, value);
     }
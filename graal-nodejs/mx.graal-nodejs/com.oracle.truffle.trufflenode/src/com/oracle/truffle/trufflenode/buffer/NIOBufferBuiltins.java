@@ -52,7 +52,17 @@ public final class NIOBufferBuiltins extends JSBuiltinsContainer.SwitchEnum<NIOB
 
     public enum Buffer implements BuiltinEnum<Buffer> {
         utf8Write(0),
-        utf8Slice(0);
+        utf8Slice(0),
+        latin1Write(0),
+        latin1Slice(0),
+        asciiWrite(0),
+        asciiSlice(0),
+        hexWrite(0),
+        hexSlice(0),
+        base64Write(0),
+        base64Slice(0),
+        ucs2Write(0),
+        ucs2Slice(0);
 
         private final int length;
 
@@ -73,8 +83,36 @@ public final class NIOBufferBuiltins extends JSBuiltinsContainer.SwitchEnum<NIOB
                 return NIOBufferUTF8WriteNodeGen.create(context, builtin, args().withThis().fixedArgs(3).createArgumentNodes(context));
             case utf8Slice:
                 return NIOBufferUTF8SliceNodeGen.create(context, builtin, args().withThis().fixedArgs(2).createArgumentNodes(context));
+            case latin1Write:
+                return createWrite(context, builtin, NIOBufferEncoding.LATIN1);
+            case latin1Slice:
+                return createSlice(context, builtin, NIOBufferEncoding.LATIN1);
+            case asciiWrite:
+                return createWrite(context, builtin, NIOBufferEncoding.ASCII);
+            case asciiSlice:
+                return createSlice(context, builtin, NIOBufferEncoding.ASCII);
+            case hexWrite:
+                return createWrite(context, builtin, NIOBufferEncoding.HEX);
+            case hexSlice:
+                return createSlice(context, builtin, NIOBufferEncoding.HEX);
+            case base64Write:
+                return createWrite(context, builtin, NIOBufferEncoding.BASE64);
+            case base64Slice:
+                return createSlice(context, builtin, NIOBufferEncoding.BASE64);
+            case ucs2Write:
+                return createWrite(context, builtin, NIOBufferEncoding.UCS2);
+            case ucs2Slice:
+                return createSlice(context, builtin, NIOBufferEncoding.UCS2);
         }
         return null;
     }
 
+    private static Object createWrite(JSContext context, JSBuiltin builtin, NIOBufferEncoding encoding) {
+        return NIOBufferEncodedWriteNodeGen.create(context, builtin, encoding, args().withThis().fixedArgs(3).createArgumentNodes(context));
+    }
+
+    private static Object createSlice(JSContext context, JSBuiltin builtin, NIOBufferEncoding encoding) {
+        return NIOBufferEncodedSliceNodeGen.create(context, builtin, encoding, args().withThis().fixedArgs(2).createArgumentNodes(context));
+    }
+
 }
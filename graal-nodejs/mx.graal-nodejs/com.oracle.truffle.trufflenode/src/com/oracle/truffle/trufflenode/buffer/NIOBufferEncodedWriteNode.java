@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.trufflenode.buffer;
+
+import java.nio.ByteBuffer;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.js.nodes.function.JSBuiltin;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
+import com.oracle.truffle.js.runtime.builtins.JSFunction;
+import com.oracle.truffle.trufflenode.GraalJSAccess;
+
+/**
+ * Java implementation of the {@code latin1Write}, {@code asciiWrite}, {@code hexWrite},
+ * {@code base64Write} and {@code ucs2Write} Buffer methods. Out-of-range arguments and inputs
+ * that {@link NIOBufferEncoding} does not handle are delegated to the native implementation.
+ */
+public abstract class NIOBufferEncodedWriteNode extends NIOBufferAccessNode {
+
+    private final NIOBufferEncoding encoding;
+
+    protected final BranchProfile nativePath = BranchProfile.create();
+
+    public NIOBufferEncodedWriteNode(JSContext context, JSBuiltin builtin, NIOBufferEncoding encoding) {
+        super(context, builtin);
+        this.encoding = encoding;
+    }
+
+    @TruffleBoundary
+    private DynamicObject getNativeWrite() {
+        return GraalJSAccess.getRealmEmbedderData(getContext().getRealm()).getNativeBufferFunction(encoding.getWriteName());
+    }
+
+    @Specialization(guards = "accept(target)")
+    public Object write(DynamicObject target, String str, int destOffset, int bytes) {
+        return doWrite(target, str, destOffset, bytes, destOffset, bytes);
+    }
+
+    @Specialization(guards = {"accept(target)", "isUndefined(bytes)"})
+    public Object writeDefaultLength(DynamicObject target, String str, int destOffset, Object bytes) {
+        return doWrite(target, str, destOffset, Integer.MAX_VALUE, destOffset, bytes);
+    }
+
+    @Specialization(guards = {"accept(target)", "isUndefined(destOffset)", "isUndefined(bytes)"})
+    public Object writeDefaultValues(DynamicObject target, String str, Object destOffset, Object bytes) {
+        return doWrite(target, str, 0, Integer.MAX_VALUE, destOffset, bytes);
+    }
+
+    @Specialization
+    public Object writeDefault(DynamicObject target, Object str, Object destOffset, Object bytes) {
+        return JSFunction.call(getNativeWrite(), target, new Object[]{str, destOffset, bytes});
+    }
+
+    @Specialization(guards = {"!isJSArrayBufferView(target)"})
+    @SuppressWarnings("unused")
+    public Object writeAbort(Object target, Object str, Object destOffset, Object bytes) {
+        throw Errors.createTypeErrorArrayBufferViewExpected();
+    }
+
+    private Object doNativeFallback(DynamicObject target, String str, Object destOffset, Object bytes) {
+        nativePath.enter();
+        return JSFunction.call(getNativeWrite(), target, new Object[]{str, destOffset, bytes});
+    }
+
+    private Object doWrite(DynamicObject target, String str, int destOffset, int bytes, Object originalOffset, Object originalBytes) {
+        boolean isArrayBufferView = JSArrayBufferView.isJSArrayBufferView(target);
+        int bufferLen = getLength(target);
+        if (destOffset < 0 || destOffset > bufferLen || bytes < 0) {
+            // let the native code report the error
+            return doNativeFallback(target, str, originalOffset, originalBytes);
+        }
+        int maxLength = Math.min(bufferLen - destOffset, bytes);
+        if (maxLength == 0) {
+            return 0;
+        }
+        DynamicObject arrayBuffer = getArrayBuffer(target, isArrayBufferView);
+        int bufferOffset = getOffset(target, isArrayBufferView);
+        ByteBuffer buffer = sliceBuffer(getDirectByteBuffer(arrayBuffer), bufferOffset);
+        int written = doEncode(encoding, str, buffer, destOffset, maxLength);
+        if (written < 0) {
+            return doNativeFallback(target, str, originalOffset, originalBytes);
+        }
+        return written;
+    }
+
+    @TruffleBoundary
+    private static int doEncode(NIOBufferEncoding encoding, String str, ByteBuffer buffer, int offset, int maxLength) {
+        return encoding.write(str, buffer, offset, maxLength);
+    }
+
+}
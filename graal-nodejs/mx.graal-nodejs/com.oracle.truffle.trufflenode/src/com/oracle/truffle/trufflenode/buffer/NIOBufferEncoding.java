@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.trufflenode.buffer;
+
+import static com.oracle.truffle.js.runtime.util.BufferUtil.asBaseBuffer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Single-byte and binary-to-text encodings of the Node.js Buffer API that can be implemented
+ * directly on the backing {@link ByteBuffer}. Both directions follow the behavior of
+ * {@code StringBytes} in {@code src/string_bytes.cc}; inputs that the native implementation treats
+ * specially (e.g., lenient base64) are rejected so that the caller can fall back to the native
+ * code. The bytes are transferred with bulk operations on a duplicate of the buffer.
+ */
+public enum NIOBufferEncoding {
+    LATIN1("latin1") {
+        @Override
+        int write(String str, ByteBuffer buffer, int offset, int maxLength) {
+            int length = Math.min(str.length(), maxLength);
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) str.charAt(i);
+            }
+            putBytes(buffer, offset, bytes, length);
+            return length;
+        }
+
+        @Override
+        String slice(ByteBuffer buffer, int start, int end) {
+            return new String(getBytes(buffer, start, end), StandardCharsets.ISO_8859_1);
+        }
+    },
+    ASCII("ascii") {
+        @Override
+        int write(String str, ByteBuffer buffer, int offset, int maxLength) {
+            // Node.js writes the low byte of every char for both ascii and latin1.
+            return LATIN1.write(str, buffer, offset, maxLength);
+        }
+
+        @Override
+        String slice(ByteBuffer buffer, int start, int end) {
+            byte[] bytes = getBytes(buffer, start, end);
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] &= 0x7f;
+            }
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    },
+    HEX("hex") {
+        @Override
+        int write(String str, ByteBuffer buffer, int offset, int maxLength) {
+            byte[] bytes = new byte[Math.min(maxLength, str.length() / 2)];
+            int i;
+            for (i = 0; i < bytes.length; i++) {
+                char c0 = str.charAt(i * 2);
+                char c1 = str.charAt(i * 2 + 1);
+                if (c0 > 0xff || c1 > 0xff) {
+                    // native code truncates to the low byte first
+                    return -1;
+                }
+                int hi = hexValue(c0);
+                int lo = hexValue(c1);
+                if (hi < 0 || lo < 0) {
+                    break;
+                }
+                bytes[i] = (byte) ((hi << 4) | lo);
+            }
+            putBytes(buffer, offset, bytes, i);
+            return i;
+        }
+
+        @Override
+        String slice(ByteBuffer buffer, int start, int end) {
+            byte[] bytes = getBytes(buffer, start, end);
+            char[] chars = new char[bytes.length * 2];
+            for (int i = 0; i < bytes.length; i++) {
+                int b = bytes[i] & 0xff;
+                chars[i * 2] = HEX_DIGITS[b >>> 4];
+                chars[i * 2 + 1] = HEX_DIGITS[b & 0xf];
+            }
+            return new String(chars);
+        }
+
+        @Override
+        long sliceLength(int byteLength) {
+            return byteLength * 2L;
+        }
+    },
+    BASE64("base64") {
+        @Override
+        int write(String str, ByteBuffer buffer, int offset, int maxLength) {
+            int srcLength = str.length();
+            while (srcLength > 0 && str.charAt(srcLength - 1) == '=' && str.length() - srcLength < 2) {
+                srcLength--;
+            }
+            byte[] bytes = new byte[(int) Math.min(maxLength, srcLength * 3L / 4)];
+            int written = 0;
+            int accumulator = 0;
+            int bits = 0;
+            for (int i = 0; i < srcLength; i++) {
+                char c = str.charAt(i);
+                int value = c < UNBASE64.length ? UNBASE64[c] : -1;
+                if (value < 0) {
+                    // whitespace, misplaced padding and other characters skipped by native code
+                    return -1;
+                }
+                accumulator = (accumulator << 6) | value;
+                bits += 6;
+                if (bits >= 8) {
+                    bits -= 8;
+                    if (written < bytes.length) {
+                        bytes[written++] = (byte) (accumulator >>> bits);
+                    }
+                }
+            }
+            putBytes(buffer, offset, bytes, written);
+            return written;
+        }
+
+        @Override
+        String slice(ByteBuffer buffer, int start, int end) {
+            return new String(Base64.getEncoder().encode(getBytes(buffer, start, end)), StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        long sliceLength(int byteLength) {
+            return (byteLength + 2L) / 3 * 4;
+        }
+    },
+    UCS2("ucs2") {
+        @Override
+        int write(String str, ByteBuffer buffer, int offset, int maxLength) {
+            int length = Math.min(str.length(), maxLength / 2);
+            byte[] bytes = new byte[length * 2];
+            for (int i = 0; i < length; i++) {
+                char c = str.charAt(i);
+                bytes[i * 2] = (byte) c;
+                bytes[i * 2 + 1] = (byte) (c >>> 8);
+            }
+            putBytes(buffer, offset, bytes, bytes.length);
+            return bytes.length;
+        }
+
+        @Override
+        String slice(ByteBuffer buffer, int start, int end) {
+            int length = (end - start) / 2;
+            byte[] bytes = getBytes(buffer, start, start + length * 2);
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                int lo = bytes[i * 2] & 0xff;
+                int hi = bytes[i * 2 + 1] & 0xff;
+                chars[i] = (char) ((hi << 8) | lo);
+            }
+            return new String(chars);
+        }
+
+        @Override
+        long sliceLength(int byteLength) {
+            return byteLength / 2;
+        }
+    };
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final byte[] UNBASE64 = createUnbase64Table();
+
+    private final String writeName;
+    private final String sliceName;
+
+    NIOBufferEncoding(String name) {
+        this.writeName = name + "Write";
+        this.sliceName = name + "Slice";
+    }
+
+    /**
+     * Name of the {@code Buffer.prototype} method writing a string in this encoding.
+     */
+    public String getWriteName() {
+        return writeName;
+    }
+
+    /**
+     * Name of the {@code Buffer.prototype} method decoding bytes into a string in this encoding.
+     */
+    public String getSliceName() {
+        return sliceName;
+    }
+
+    /**
+     * Encodes {@code str} into at most {@code maxLength} bytes of {@code buffer}, starting at
+     * {@code offset}.
+     *
+     * @return the number of bytes written or -1 if the native implementation has to be used.
+     */
+    abstract int write(String str, ByteBuffer buffer, int offset, int maxLength);
+
+    /**
+     * Decodes bytes {@code [start, end)} of {@code buffer} into a string.
+     */
+    abstract String slice(ByteBuffer buffer, int start, int end);
+
+    /**
+     * Length of the string produced by {@link #slice} for the given number of bytes.
+     */
+    long sliceLength(int byteLength) {
+        return byteLength;
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        ByteBuffer duplicate = buffer.duplicate();
+        asBaseBuffer(duplicate).position(start);
+        duplicate.get(bytes);
+        return bytes;
+    }
+
+    private static void putBytes(ByteBuffer buffer, int offset, byte[] bytes, int length) {
+        if (length > 0) {
+            ByteBuffer duplicate = buffer.duplicate();
+            asBaseBuffer(duplicate).position(offset);
+            duplicate.put(bytes, 0, length);
+        }
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static byte[] createUnbase64Table() {
+        byte[] table = new byte[128];
+        Arrays.fill(table, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+        for (int i = 0; i < alphabet.length(); i++) {
+            table[alphabet.charAt(i)] = (byte) i;
+        }
+        // standard and URL-safe alphabets are accepted alike
+        table['+'] = 62;
+        table['-'] = 62;
+        table['/'] = 63;
+        table['_'] = 63;
+        return table;
+    }
+}
@@ -52,6 +52,7 @@ import com.oracle.truffle.js.runtime.JavaScriptRootNode;
 import com.oracle.truffle.js.runtime.builtins.JSBuiltinObject;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
+import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.trufflenode.GraalJSAccess;
 import com.oracle.truffle.trufflenode.RealmData;
@@ -79,6 +80,17 @@ public final class NIOBufferObject extends JSBuiltinObject {
         return CLASS_NAME;
     }
 
+    /**
+     * Keeps the native encoding methods of the Buffer prototype as fall-backs of the Java encoders.
+     */
+    @TruffleBoundary
+    private static void setNativeFallbacks(RealmData embedderData, DynamicObject bufferPrototype) {
+        for (NIOBufferEncoding encoding : NIOBufferEncoding.values()) {
+            embedderData.setNativeBufferFunction(encoding.getWriteName(), (DynamicObject) JSObject.get(bufferPrototype, encoding.getWriteName()));
+            embedderData.setNativeBufferFunction(encoding.getSliceName(), (DynamicObject) JSObject.get(bufferPrototype, encoding.getSliceName()));
+        }
+    }
+
     @TruffleBoundary
     public static Object createInitFunction(JSContext context) {
         JSRealm realm = context.getRealm();
@@ -89,12 +101,14 @@ public final class NIOBufferObject extends JSBuiltinObject {
             @Override
             public Object execute(VirtualFrame frame) {
                 Object[] args = frame.getArguments();
-                assert args.length == 4;
+                assert args.length == 5;
                 DynamicObject nativeUtf8Write = (DynamicObject) args[2];
                 DynamicObject nativeUtf8Slice = (DynamicObject) args[3];
+                DynamicObject bufferPrototype = (DynamicObject) args[4];
                 RealmData embedderData = GraalJSAccess.getRealmEmbedderData(context.getRealm());
                 embedderData.setNativeUtf8Write(nativeUtf8Write);
                 embedderData.setNativeUtf8Slice(nativeUtf8Slice);
+                setNativeFallbacks(embedderData, bufferPrototype);
                 return create(context);
             }
         };
@@ -41,6 +41,8 @@
 package com.oracle.truffle.trufflenode.serialization;
 
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.runtime.BigInt;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSContext;
@@ -64,6 +66,7 @@ import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.DebugCounter;
 import com.oracle.truffle.js.runtime.util.JSHashMap;
 import com.oracle.truffle.trufflenode.GraalJSAccess;
 import com.oracle.truffle.trufflenode.NativeAccess;
@@ -85,20 +88,22 @@ import java.util.Map;
  * Implementation of {@code v8::(internal::)ValueDeserializer}.
  */
 public class Deserializer {
+    private static final DebugCounter templateShapeObjects = DebugCounter.create("Deserializer: objects allocated with a template shape");
+
     /** Pointer to the corresponding v8::ValueDeserializer. */
     private final long delegate;
     /** Buffer used for serialization. */
     private final ByteBuffer buffer;
     /** Version of the data format used during serialization. */
     private int version;
-    /** ID of the next deserialized object. */
-    private int nextId;
-    /** Maps ID of a deserialized object to the object itself. */
-    private Map<Integer, Object> objectMap = new HashMap<>();
+    /** Deserialized objects, indexed by their ID. */
+    private final List<Object> objectMap = new ArrayList<>();
     /** Maps transfer ID to the transferred object. */
     private Map<Integer, DynamicObject> transferMap = new HashMap<>();
     /** Cache for the last VM-level communication channel. */
     private JavaMessagePortData messagePortCache = null;
+    /** Templates of the shaped objects, indexed by shape ID. */
+    private List<ShapeTemplate> shapeTemplates;
 
     public Deserializer(long delegate, ByteBuffer buffer) {
         this.delegate = delegate;
@@ -179,6 +184,12 @@ public class Deserializer {
                 return readHostObject();
             case SHARED_JAVA_OBJECT:
                 return readSharedJavaObject(context);
+            case SHAPED_JS_OBJECT:
+                return readShapedJSObject(context);
+            case PACKED_INT32_ARRAY:
+                return readPackedInt32Array(context);
+            case PACKED_DOUBLE_ARRAY:
+                return readPackedDoubleArray(context);
             default:
                 throw Errors.createError("Deserialization of a value tagged " + tag);
         }
@@ -318,10 +329,12 @@ public class Deserializer {
     private DynamicObject readJSArrayBuffer(JSContext context) {
         int byteLength = readVarInt();
         DynamicObject arrayBuffer = JSArrayBuffer.createDirectArrayBuffer(context, byteLength);
-        ByteBuffer byteBuffer = JSArrayBuffer.getDirectByteBuffer(arrayBuffer);
-        for (int i = 0; i < byteLength; i++) {
-            byteBuffer.put(i, buffer.get());
-        }
+        ByteBuffer byteBuffer = JSArrayBuffer.getDirectByteBuffer(arrayBuffer).duplicate();
+        ByteBuffer contents = buffer.duplicate();
+        asBaseBuffer(contents).limit(contents.position() + byteLength);
+        asBaseBuffer(byteBuffer).clear();
+        byteBuffer.put(contents);
+        asBaseBuffer(buffer).position(buffer.position() + byteLength);
         assignId(arrayBuffer);
         return (peekTag() == SerializationTag.ARRAY_BUFFER_VIEW) ? readJSArrayBufferView(context, arrayBuffer) : arrayBuffer;
     }
@@ -349,6 +362,159 @@ public class Deserializer {
         return count;
     }
 
+    private DynamicObject readShapedJSObject(JSContext context) {
+        int shapeId = readVarInt();
+        if (shapeTemplates == null) {
+            shapeTemplates = new ArrayList<>();
+        }
+        if (shapeId == shapeTemplates.size()) {
+            int count = readVarInt();
+            String[] keys = new String[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = readString();
+            }
+            DynamicObject object = JSUserObject.create(context);
+            assignId(object);
+            boolean complete = readShapedJSObjectProperties(context, object, keys);
+            shapeTemplates.add(new ShapeTemplate(keys, complete ? object : null));
+            return object;
+        } else if (shapeId < shapeTemplates.size()) {
+            return shapeTemplates.get(shapeId).readObject(context);
+        } else {
+            throw Errors.createError("invalid shape reference");
+        }
+    }
+
+    /**
+     * Reads the property values of a shaped object. Returns {@code false} if a property was written as {@link SerializationTag#THE_HOLE}, i.e.,
+     * it was deleted during serialization.
+     */
+    private boolean readShapedJSObjectProperties(JSContext context, DynamicObject object, String[] keys) {
+        boolean complete = true;
+        for (String key : keys) {
+            SerializationTag tag = readTag();
+            if (tag == SerializationTag.THE_HOLE) {
+                complete = false;
+            } else {
+                JSObject.defineOwnProperty(object, key, PropertyDescriptor.createDataDefault(readValue(context, tag)));
+            }
+        }
+        return complete;
+    }
+
+    /**
+     * Shape of the first object of a shape ID. The remaining objects of the ID are allocated with
+     * this shape directly, as long as their property values fit into its locations.
+     */
+    private final class ShapeTemplate {
+        private final String[] keys;
+        private final Shape shape;
+        private final Property[] properties;
+        /** Hidden properties of the shape (i.e. the prototype) and their values. */
+        private final Property[] hiddenProperties;
+        private final Object[] hiddenValues;
+
+        /**
+         * @param template the first object of the shape ID or {@code null} if it is not usable as
+         *            a template.
+         */
+        ShapeTemplate(String[] keys, DynamicObject template) {
+            this.keys = keys;
+            this.shape = template == null ? null : template.getShape();
+            this.properties = template == null ? null : templateProperties(keys, template);
+            if (properties == null) {
+                this.hiddenProperties = null;
+                this.hiddenValues = null;
+            } else {
+                List<Property> hidden = new ArrayList<>();
+                for (Property property : shape.getPropertyListInternal(true)) {
+                    if (property.isHidden() && !property.getLocation().isValue()) {
+                        hidden.add(property);
+                    }
+                }
+                this.hiddenProperties = hidden.toArray(new Property[hidden.size()]);
+                this.hiddenValues = new Object[hiddenProperties.length];
+                for (int i = 0; i < hiddenProperties.length; i++) {
+                    hiddenValues[i] = hiddenProperties[i].get(template, false);
+                }
+            }
+        }
+
+        /**
+         * Returns the properties of the given keys if the template has no other properties than
+         * these keys and the prototype, {@code null} otherwise.
+         */
+        private Property[] templateProperties(String[] templateKeys, DynamicObject template) {
+            Shape templateShape = template.getShape();
+            int visibleCount = 0;
+            for (Property property : templateShape.getPropertyListInternal(true)) {
+                if (!property.isHidden()) {
+                    visibleCount++;
+                } else if (property.getKey() != JSObject.HIDDEN_PROTO) {
+                    // other hidden properties would stay uninitialized
+                    return null;
+                }
+            }
+            if (visibleCount != templateKeys.length) {
+                return null;
+            }
+            Property[] props = new Property[templateKeys.length];
+            for (int i = 0; i < templateKeys.length; i++) {
+                props[i] = templateShape.getProperty(templateKeys[i]);
+            }
+            return props;
+        }
+
+        DynamicObject readObject(JSContext context) {
+            if (properties == null || !shape.isValid()) {
+                DynamicObject object = JSUserObject.create(context);
+                assignId(object);
+                readShapedJSObjectProperties(context, object, keys);
+                return object;
+            }
+            DynamicObject object = JSObject.create(context, shape);
+            assignId(object);
+            templateShapeObjects.inc();
+            for (int i = 0; i < hiddenProperties.length; i++) {
+                hiddenProperties[i].setSafe(object, hiddenValues[i], shape);
+            }
+            boolean sameShape = true;
+            for (Property property : properties) {
+                SerializationTag tag = readTag();
+                if (tag == SerializationTag.THE_HOLE) {
+                    JSObject.delete(object, property.getKey());
+                    sameShape = false;
+                    continue;
+                }
+                Object value = readValue(context, tag);
+                if (sameShape && property.getLocation().canStore(value)) {
+                    property.setSafe(object, value, shape);
+                } else {
+                    // the object has left the template shape
+                    sameShape = false;
+                    JSObject.defineOwnProperty(object, property.getKey(), PropertyDescriptor.createDataDefault(value));
+                }
+            }
+            return object;
+        }
+    }
+
+    private DynamicObject readPackedInt32Array(JSContext context) {
+        int length = readVarInt();
+        int[] elements = new int[length];
+        buffer.asIntBuffer().get(elements);
+        asBaseBuffer(buffer).position(buffer.position() + length * 4);
+        return assignId(JSArray.createZeroBasedIntArray(context, elements));
+    }
+
+    private DynamicObject readPackedDoubleArray(JSContext context) {
+        int length = readVarInt();
+        double[] elements = new double[length];
+        buffer.asDoubleBuffer().get(elements);
+        asBaseBuffer(buffer).position(buffer.position() + length * 8);
+        return assignId(JSArray.createZeroBasedDoubleArray(context, elements));
+    }
+
     private DynamicObject readJSMap(JSContext context) {
         DynamicObject object = JSMap.create(context);
         JSHashMap internalMap = JSMap.getInternalMap(object);
@@ -452,7 +618,7 @@ public class Deserializer {
 
     private Object readObjectReference() {
         int id = readVarInt();
-        Object object = objectMap.get(id);
+        Object object = (id >= 0 && id < objectMap.size()) ? objectMap.get(id) : null;
         if (object == null) {
             throw Errors.createError("invalid object reference");
         }
@@ -502,7 +668,7 @@ public class Deserializer {
     }
 
     private <T> T assignId(T object) {
-        objectMap.put(nextId++, object);
+        objectMap.add(object);
         return object;
     }
 
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.trufflenode.serialization;
+
+/**
+ * Identity hash map from objects to non-negative {@code int} values that avoids boxing of the
+ * values. Used by {@link Serializer} to track the IDs of already serialized objects.
+ */
+final class IdentityIntMap {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Object[] keys = new Object[INITIAL_CAPACITY];
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the value associated with {@code key} or -1 if there is none.
+     */
+    int get(Object key) {
+        Object[] k = keys;
+        int mask = k.length - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            Object current = k[i];
+            if (current == key) {
+                return values[i];
+            } else if (current == null) {
+                return -1;
+            }
+        }
+    }
+
+    void put(Object key, int value) {
+        assert key != null && value >= 0;
+        if (2 * (size + 1) > keys.length) {
+            resize(2 * keys.length);
+        }
+        if (insert(keys, values, key, value)) {
+            size++;
+        }
+    }
+
+    private static boolean insert(Object[] k, int[] v, Object key, int value) {
+        int mask = k.length - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            Object current = k[i];
+            if (current == null) {
+                k[i] = key;
+                v[i] = value;
+                return true;
+            } else if (current == key) {
+                v[i] = value;
+                return false;
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        Object[] newKeys = new Object[capacity];
+        int[] newValues = new int[capacity];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                insert(newKeys, newValues, keys[i], values[i]);
+            }
+        }
+        keys = newKeys;
+        values = newValues;
+    }
+
+    private static int hash(Object key) {
+        int h = System.identityHashCode(key);
+        // spread the bits, identity hash codes tend to have poor low bits
+        return h ^ (h >>> 16);
+    }
+}
@@ -80,7 +80,10 @@ public enum SerializationTag {
     THE_HOLE('-'), // kTheHole
     OBJECT_REFERENCE('^'), // kObjectReference
     HOST_OBJECT('\\'), // kHostObject
-    SHARED_JAVA_OBJECT('J'); // Custom, for shared interop Java objects
+    SHARED_JAVA_OBJECT('J'), // Custom, for shared interop Java objects
+    SHAPED_JS_OBJECT('O'), // Custom, for worker messages: plain object of a shape described once
+    PACKED_INT32_ARRAY('G'), // Custom, for worker messages: raw elements of an int array
+    PACKED_DOUBLE_ARRAY('H'); // Custom, for worker messages: raw elements of a double array
 
     private final byte tag;
 
@@ -42,11 +42,19 @@ package com.oracle.truffle.trufflenode.serialization;
 
 import com.oracle.truffle.api.TruffleLanguage.Env;
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.runtime.BigInt;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.array.ScriptArray;
 import com.oracle.truffle.js.runtime.array.TypedArray;
+import com.oracle.truffle.js.runtime.array.dyn.AbstractDoubleArray;
+import com.oracle.truffle.js.runtime.array.dyn.AbstractIntArray;
+import com.oracle.truffle.js.runtime.array.dyn.ConstantByteArray;
+import com.oracle.truffle.js.runtime.array.dyn.ConstantDoubleArray;
+import com.oracle.truffle.js.runtime.array.dyn.ConstantIntArray;
 import com.oracle.truffle.js.runtime.builtins.JSAbstractArray;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBuffer;
@@ -63,7 +71,9 @@ import com.oracle.truffle.js.runtime.builtins.JSRegExp;
 import com.oracle.truffle.js.runtime.builtins.JSSet;
 import com.oracle.truffle.js.runtime.builtins.JSSharedArrayBuffer;
 import com.oracle.truffle.js.runtime.builtins.JSString;
+import com.oracle.truffle.js.runtime.builtins.JSUserObject;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.JSHashMap;
@@ -71,13 +81,14 @@ import com.oracle.truffle.trufflenode.GraalJSAccess;
 import com.oracle.truffle.trufflenode.NativeAccess;
 import com.oracle.truffle.trufflenode.threading.JavaMessagePortData;
 
+import static com.oracle.truffle.js.runtime.util.BufferUtil.asBaseBuffer;
+
 import java.io.UnsupportedEncodingException;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.IdentityHashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Implementation of {@code v8::(internal::)ValueSerializer}.
@@ -86,17 +97,28 @@ public class Serializer {
     static final byte VERSION = (byte) 0xFF; // SerializationTag::kVersion
     static final byte LATEST_VERSION = (byte) 13; // kLatestVersion
     static final String NATIVE_UTF16_ENCODING = (ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN) ? "UTF-16BE" : "UTF-16LE";
+    /**
+     * Determines whether messages posted to workers may encode objects of the same shape as
+     * {@link SerializationTag#SHAPED_JS_OBJECT shaped objects}.
+     */
+    private static final boolean SERIALIZE_SHAPES = !"false".equalsIgnoreCase(System.getProperty("truffle.node.js.serializeShapes"));
+    /** Value of {@link #shapeMap} for shapes that cannot be serialized as shaped objects. */
+    private static final int UNSHAPED = Integer.MAX_VALUE;
 
     /** Pointer to the corresponding v8::ValueSerializer. */
     private final long delegate;
-    /** Buffer used for serialization. */
-    private ByteBuffer buffer = allocateBuffer(1024);
+    /** Buffer used for serialization, taken from {@link SerializerBufferPool} on first use. */
+    private ByteBuffer buffer;
     /** ID of the next serialized object. **/
     private int nextId;
     /** Maps a serialized object to its ID. */
-    private final Map<Object, Integer> objectMap = new IdentityHashMap<>();
+    private final IdentityIntMap objectMap = new IdentityIntMap();
     /** Maps a transferred object to its transfer ID. */
-    private final Map<Object, Integer> transferMap = new IdentityHashMap<>();
+    private final IdentityIntMap transferMap = new IdentityIntMap();
+    /** Maps the shape of a serialized plain object to its shape ID. */
+    private IdentityIntMap shapeMap;
+    /** Properties of the shapes in {@link #shapeMap}, in the order of their keys on the wire. */
+    private List<Property[]> shapeProperties;
     /** Determines whether {@code ArrayBuffer}s should be serialized as host objects. */
     private boolean treatArrayBufferViewsAsHostObjects;
 
@@ -113,23 +135,31 @@ public class Serializer {
         this.treatArrayBufferViewsAsHostObjects = treatArrayBufferViewsAsHostObjects;
     }
 
-    private static ByteBuffer allocateBuffer(int capacity) {
-        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
-    }
-
     private void ensureFreeSpace(int spaceNeeded) {
         ByteBuffer oldBuffer = buffer;
+        if (oldBuffer == null) {
+            buffer = SerializerBufferPool.acquire(spaceNeeded);
+            return;
+        }
         int capacity = oldBuffer.capacity();
         int capacityNeeded = oldBuffer.position() + spaceNeeded;
         if (capacityNeeded > capacity) {
             int newCapacity = Math.max(capacityNeeded, 2 * capacity);
-            ByteBuffer newBuffer = allocateBuffer(newCapacity);
+            ByteBuffer newBuffer = SerializerBufferPool.allocate(newCapacity);
             oldBuffer.flip();
             newBuffer.put(oldBuffer);
             buffer = newBuffer;
         }
     }
 
+    /**
+     * Custom (non-V8) encodings may only be used for messages between workers, which are always
+     * deserialized by {@link Deserializer}.
+     */
+    private boolean isWorkerMessage() {
+        return access.getCurrentMessagePortData() != null;
+    }
+
     public void writeHeader() {
         ensureFreeSpace(2);
         buffer.put(VERSION);
@@ -180,8 +210,8 @@ public class Serializer {
     }
 
     private void writeObject(Object object) {
-        Integer id = objectMap.get(object);
-        if (id != null) {
+        int id = objectMap.get(object);
+        if (id >= 0) {
             writeTag(SerializationTag.OBJECT_REFERENCE);
             writeVarInt(id);
             return;
@@ -249,18 +279,13 @@ public class Serializer {
     }
 
     public void writeVarInt(long value) {
+        ensureFreeSpace(10);
         long rest = value;
-        byte[] bytes = new byte[10];
-        int idx = 0;
-        do {
-            byte b = (byte) rest;
-            b |= 0x80;
-            bytes[idx] = b;
-            idx++;
+        while ((rest & ~0x7fL) != 0) {
+            buffer.put((byte) (rest | 0x80));
             rest >>>= 7;
-        } while (rest != 0);
-        bytes[idx - 1] &= 0x7f;
-        writeBytes(bytes, idx);
+        }
+        buffer.put((byte) rest);
     }
 
     private void writeBytes(byte[] bytes, int length) {
@@ -288,29 +313,29 @@ public class Serializer {
     }
 
     private void writeString(String string) {
-        try {
-            byte[] bytes;
-            SerializationTag tag;
-            String encoding;
-            if (isOneByteString(string)) {
-                tag = SerializationTag.ONE_BYTE_STRING;
-                encoding = "ISO-8859-1";
-            } else {
-                tag = SerializationTag.TWO_BYTE_STRING;
-                encoding = NATIVE_UTF16_ENCODING;
+        int length = string.length();
+        if (isOneByteString(string)) {
+            writeTag(SerializationTag.ONE_BYTE_STRING);
+            writeVarInt(length);
+            ensureFreeSpace(length);
+            for (int i = 0; i < length; i++) {
+                buffer.put((byte) string.charAt(i));
+            }
+        } else {
+            try {
+                writeTag(SerializationTag.TWO_BYTE_STRING);
+                byte[] bytes = string.getBytes(NATIVE_UTF16_ENCODING);
+                writeVarInt(bytes.length);
+                writeBytes(bytes, bytes.length);
+            } catch (UnsupportedEncodingException ueex) {
+                throw Errors.shouldNotReachHere();
             }
-            writeTag(tag);
-            bytes = string.getBytes(encoding);
-            writeVarInt(bytes.length);
-            writeBytes(bytes, bytes.length);
-        } catch (UnsupportedEncodingException ueex) {
-            throw Errors.shouldNotReachHere();
         }
     }
 
     private static boolean isOneByteString(String string) {
-        for (char c : string.toCharArray()) {
-            if (c >= 256) {
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) >= 256) {
                 return false;
             }
         }
@@ -352,16 +377,15 @@ public class Serializer {
 
     private void writeJSArrayBuffer(DynamicObject arrayBuffer) {
         assert JSArrayBuffer.isJSDirectArrayBuffer(arrayBuffer);
-        Integer id = transferMap.get(arrayBuffer);
-        if (id == null) {
+        int id = transferMap.get(arrayBuffer);
+        if (id < 0) {
             int byteLength = JSArrayBuffer.getDirectByteLength(arrayBuffer);
             ByteBuffer byteBuffer = JSArrayBuffer.getDirectByteBuffer(arrayBuffer);
             writeTag(SerializationTag.ARRAY_BUFFER);
             writeVarInt(byteLength);
-            ensureFreeSpace(byteLength);
-            for (int i = 0; i < byteLength; i++) {
-                buffer.put(byteBuffer.get(i));
-            }
+            ByteBuffer contents = byteBuffer.duplicate();
+            asBaseBuffer(contents).clear().limit(byteLength);
+            writeBytes(contents);
         } else {
             writeTag(SerializationTag.ARRAY_BUFFER_TRANSFER);
             writeVarInt(Integer.toUnsignedLong(id));
@@ -376,16 +400,28 @@ public class Serializer {
 
     private void writeJSObject(DynamicObject object) {
         assert JSObject.isJSObject(object);
+        if (SERIALIZE_SHAPES && JSUserObject.isJSUserObject(object) && isWorkerMessage() && writeShapedJSObject(object)) {
+            return;
+        }
         writeTag(SerializationTag.BEGIN_JS_OBJECT);
         List<String> names = JSObject.enumerableOwnNames(object);
-        writeJSObjectProperties(object, names);
+        int written = writeJSObjectProperties(object, names);
         writeTag(SerializationTag.END_JS_OBJECT);
-        writeVarInt(names.size());
+        writeVarInt(written);
     }
 
-    private void writeJSObjectProperties(DynamicObject object, List<String> keys) {
+    /**
+     * Writes the given properties and returns the number of properties written. Like in V8,
+     * properties deleted by a getter before they are reached are skipped.
+     */
+    private int writeJSObjectProperties(DynamicObject object, List<String> keys) {
         assert JSObject.isJSObject(object);
+        int written = 0;
         for (String key : keys) {
+            if (!JSObject.hasOwnProperty(object, key)) {
+                continue;
+            }
+            written++;
             if (JSRuntime.isArrayIndex(key)) {
                 writeIntOrDouble(Double.parseDouble(key));
             } else {
@@ -394,6 +430,74 @@ public class Serializer {
             Object value = JSObject.get(object, key);
             writeValue(value);
         }
+        return written;
+    }
+
+    /**
+     * Writes a plain object as a {@link SerializationTag#SHAPED_JS_OBJECT}: the shape ID, followed
+     * by the property keys when the shape is encountered for the first time, followed by the
+     * property values. Objects whose shape contains accessors or array index keys are not
+     * eligible. A property deleted (by a getter of a nested object) before it is reached is
+     * written as {@link SerializationTag#THE_HOLE}.
+     */
+    private boolean writeShapedJSObject(DynamicObject object) {
+        Shape shape = object.getShape();
+        if (shapeMap == null) {
+            shapeMap = new IdentityIntMap();
+            shapeProperties = new ArrayList<>();
+        }
+        int shapeId = shapeMap.get(shape);
+        Property[] properties;
+        if (shapeId == UNSHAPED) {
+            return false;
+        } else if (shapeId >= 0) {
+            properties = shapeProperties.get(shapeId);
+            writeTag(SerializationTag.SHAPED_JS_OBJECT);
+            writeVarInt(shapeId);
+        } else {
+            properties = getShapedProperties(object, shape);
+            if (properties == null) {
+                shapeMap.put(shape, UNSHAPED);
+                return false;
+            }
+            shapeId = shapeProperties.size();
+            shapeMap.put(shape, shapeId);
+            shapeProperties.add(properties);
+            writeTag(SerializationTag.SHAPED_JS_OBJECT);
+            writeVarInt(shapeId);
+            writeVarInt(properties.length);
+            for (Property property : properties) {
+                writeString((String) property.getKey());
+            }
+        }
+        for (Property property : properties) {
+            if (object.getShape() == shape) {
+                writeValue(property.get(object, false));
+            } else if (JSObject.hasOwnProperty(object, property.getKey())) {
+                // modified by a getter of a nested object
+                writeValue(JSObject.get(object, property.getKey()));
+            } else {
+                writeTag(SerializationTag.THE_HOLE);
+            }
+        }
+        return true;
+    }
+
+    private static Property[] getShapedProperties(DynamicObject object, Shape shape) {
+        if (!JSObject.getJSClass(object).hasOnlyShapeProperties(object)) {
+            return null;
+        }
+        List<String> names = JSObject.enumerableOwnNames(object);
+        Property[] properties = new Property[names.size()];
+        for (int i = 0; i < properties.length; i++) {
+            String name = names.get(i);
+            Property property = shape.getProperty(name);
+            if (JSRuntime.isArrayIndex(name) || !JSProperty.isData(property) || JSProperty.isProxy(property)) {
+                return null;
+            }
+            properties[i] = property;
+        }
+        return properties;
     }
 
     private void writeJSMap(DynamicObject object) {
@@ -438,25 +542,78 @@ public class Serializer {
                 }
             }
         }
+        if (dense && names.size() == length && isWorkerMessage() && writePackedJSArray(object, (int) length)) {
+            return;
+        }
+        int written;
         if (dense) {
             names = names.subList((int) length, names.size());
             writeTag(SerializationTag.BEGIN_DENSE_JS_ARRAY);
             writeVarInt(length);
             for (int i = 0; i < length; i++) {
-                writeValue(JSObject.get(object, i));
+                if (JSObject.hasOwnProperty(object, i)) {
+                    writeValue(JSObject.get(object, i));
+                } else {
+                    writeTag(SerializationTag.THE_HOLE);
+                }
             }
-            writeJSObjectProperties(object, names);
+            written = writeJSObjectProperties(object, names);
             writeTag(SerializationTag.END_DENSE_JS_ARRAY);
         } else {
             writeTag(SerializationTag.BEGIN_SPARSE_JS_ARRAY);
             writeVarInt(length);
-            writeJSObjectProperties(object, names);
+            written = writeJSObjectProperties(object, names);
             writeTag(SerializationTag.END_SPARSE_JS_ARRAY);
         }
-        writeVarInt(names.size());
+        writeVarInt(written);
         writeVarInt(length);
     }
 
+    /**
+     * Writes an array without holes and other properties whose elements are stored as
+     * {@code int}s or {@code double}s as a {@link SerializationTag#PACKED_INT32_ARRAY} or
+     * {@link SerializationTag#PACKED_DOUBLE_ARRAY} with the raw element values.
+     */
+    private boolean writePackedJSArray(DynamicObject array, int length) {
+        boolean arrayCondition = JSArray.isJSArray(array);
+        ScriptArray arrayType = JSAbstractArray.arrayGetArrayType(array, arrayCondition);
+        if (arrayType.isHolesType()) {
+            return false;
+        }
+        if (arrayType instanceof AbstractIntArray || arrayType instanceof ConstantIntArray || arrayType instanceof ConstantByteArray) {
+            writeTag(SerializationTag.PACKED_INT32_ARRAY);
+            writeVarInt(length);
+            ensureFreeSpace(length * 4);
+            for (int i = 0; i < length; i++) {
+                int value;
+                if (arrayType instanceof AbstractIntArray) {
+                    value = ((AbstractIntArray) arrayType).getInBoundsFastInt(array, i, arrayCondition);
+                } else if (arrayType instanceof ConstantIntArray) {
+                    value = ConstantIntArray.getElementInt(array, i, arrayCondition);
+                } else {
+                    value = ConstantByteArray.getElementByte(array, i, arrayCondition);
+                }
+                buffer.putInt(value);
+            }
+            return true;
+        } else if (arrayType instanceof AbstractDoubleArray || arrayType instanceof ConstantDoubleArray) {
+            writeTag(SerializationTag.PACKED_DOUBLE_ARRAY);
+            writeVarInt(length);
+            ensureFreeSpace(length * 8);
+            for (int i = 0; i < length; i++) {
+                double value;
+                if (arrayType instanceof AbstractDoubleArray) {
+                    value = ((AbstractDoubleArray) arrayType).getInBoundsFastDouble(array, i, arrayCondition);
+                } else {
+                    value = ConstantDoubleArray.getElementDouble(array, i, arrayCondition);
+                }
+                buffer.putDouble(value);
+            }
+            return true;
+        }
+        return false;
+    }
+
     private void writeJSArrayBufferView(DynamicObject view) {
         if (treatArrayBufferViewsAsHostObjects) {
             writeHostObject(view);
@@ -524,12 +681,16 @@ public class Serializer {
     }
 
     public int size() {
-        return buffer.position();
+        return (buffer == null) ? 0 : buffer.position();
     }
 
     public void release(ByteBuffer targetBuffer) {
-        buffer.flip();
-        targetBuffer.put(buffer);
+        if (buffer != null) {
+            buffer.flip();
+            targetBuffer.put(buffer);
+            SerializerBufferPool.release(buffer);
+            buffer = null;
+        }
     }
 
     private void assignId(Object object) {
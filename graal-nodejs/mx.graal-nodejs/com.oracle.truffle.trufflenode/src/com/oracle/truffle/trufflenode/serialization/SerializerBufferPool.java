@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.trufflenode.serialization;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+
+/**
+ * Per-thread pool of the direct buffers used by {@link Serializer}. A serializer takes a buffer
+ * when it starts writing and returns it once its content has been released, so that subsequent
+ * messages neither allocate nor grow a new buffer.
+ */
+final class SerializerBufferPool {
+    private static final int INITIAL_CAPACITY = 1024;
+    /** Buffers larger than this are left to the garbage collector. */
+    private static final int MAX_POOLED_CAPACITY = 1 << 20;
+    private static final int MAX_POOLED_BUFFERS = 4;
+
+    private static final ThreadLocal<ArrayDeque<ByteBuffer>> POOL = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private SerializerBufferPool() {
+    }
+
+    static ByteBuffer acquire(int minCapacity) {
+        ArrayDeque<ByteBuffer> pool = POOL.get();
+        ByteBuffer buffer = pool.pollFirst();
+        if (buffer != null && buffer.capacity() >= minCapacity) {
+            buffer.clear();
+            return buffer;
+        }
+        return allocate(Math.max(INITIAL_CAPACITY, minCapacity));
+    }
+
+    static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    static void release(ByteBuffer buffer) {
+        if (buffer.capacity() > MAX_POOLED_CAPACITY) {
+            return;
+        }
+        ArrayDeque<ByteBuffer> pool = POOL.get();
+        if (pool.size() < MAX_POOLED_BUFFERS) {
+            pool.addFirst(buffer);
+        }
+    }
+}
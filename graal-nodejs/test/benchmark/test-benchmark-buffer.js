@@ -13,6 +13,7 @@ runBenchmark('buffers',
                'byteLength=1',
                'charsPerLine=6',
                'difflen=false',
+               'direction=write',
                'encoding=utf8',
                'endian=BE',
                'len=256',
@@ -145,4 +145,68 @@ describe('Buffer.utf8Slice', function() {
     it('length is zero', function() {
         assert.strictEqual(Buffer.alloc(0).utf8Slice.length, 0);
     });
-});
\ No newline at end of file
+});describe('Buffer encodings', function() {
+    function roundTrip(encoding, bytes) {
+        var buffer = Buffer.from(bytes);
+        var copy = Buffer.alloc(buffer.length);
+        assert.strictEqual(copy.write(buffer.toString(encoding), encoding), buffer.length);
+        assert.deepStrictEqual(copy, buffer);
+    }
+    it('should round-trip all byte values', function() {
+        var bytes = [];
+        for (var i = 0; i < 256; i++) {
+            bytes.push(i);
+        }
+        roundTrip('hex', bytes);
+        roundTrip('base64', bytes);
+        roundTrip('latin1', bytes);
+        roundTrip('ucs2', bytes);
+        roundTrip('base64', bytes.slice(0, 254));
+        roundTrip('base64', bytes.slice(0, 255));
+    });
+    it('should ignore the last digit of odd-length hex', function() {
+        var buffer = Buffer.alloc(4);
+        assert.strictEqual(buffer.write('abc', 'hex'), 1);
+        assert.strictEqual(buffer.toString('hex'), 'ab000000');
+    });
+    it('should stop at invalid hex', function() {
+        var buffer = Buffer.alloc(4);
+        assert.strictEqual(buffer.write('0102zz03', 'hex'), 2);
+        assert.strictEqual(buffer.toString('hex'), '01020000');
+        assert.strictEqual(Buffer.from('0A0b', 'hex').toString('hex'), '0a0b');
+    });
+    it('should handle base64 padding', function() {
+        assert.strictEqual(Buffer.from('AQ==', 'base64').toString('hex'), '01');
+        assert.strictEqual(Buffer.from('AQI=', 'base64').toString('hex'), '0102');
+        assert.strictEqual(Buffer.from('AQI', 'base64').toString('hex'), '0102');
+        assert.strictEqual(Buffer.from([1]).toString('base64'), 'AQ==');
+        assert.strictEqual(Buffer.from([1, 2]).toString('base64'), 'AQI=');
+    });
+    it('should accept URL-safe base64', function() {
+        assert.strictEqual(Buffer.from('-_-_', 'base64').toString('hex'), 'fbffbf');
+        assert.strictEqual(Buffer.from('+/+/', 'base64').toString('hex'), 'fbffbf');
+    });
+    it('should skip the odd byte in ucs2', function() {
+        var buffer = Buffer.from([0x61, 0x00, 0x62, 0x00, 0x63]);
+        assert.strictEqual(buffer.toString('ucs2'), 'ab');
+        assert.strictEqual(buffer.toString('ucs2', 1, 4), '戀');
+        var target = Buffer.alloc(5);
+        assert.strictEqual(target.write('abc', 'ucs2'), 4);
+        assert.strictEqual(target.toString('hex'), '6100620000');
+    });
+    it('should write partially at the end of the buffer', function() {
+        var buffer = Buffer.alloc(8);
+        assert.strictEqual(buffer.write('aabbccdd', 6, 'hex'), 2);
+        assert.strictEqual(buffer.write('AQIDBA==', 6, 'base64'), 2);
+        assert.strictEqual(buffer.write('abc', 6, 'latin1'), 2);
+        assert.strictEqual(buffer.toString('hex'), '0000000000006162');
+        assert.strictEqual(buffer.write('abc', 5, 'ucs2'), 2);
+        assert.strictEqual(buffer.toString('hex'), '0000000000610062');
+        assert.strictEqual(buffer.write('abc', 8, 'latin1'), 0);
+    });
+    it('should keep the low byte in latin1 and ascii', function() {
+        assert.strictEqual(Buffer.from('héĀ', 'latin1').toString('hex'), '68e900');
+        assert.strictEqual(Buffer.from('héĀ', 'ascii').toString('hex'), '68e900');
+        assert.strictEqual(Buffer.from([0x68, 0xe9]).toString('ascii'), 'hi');
+    });
+});
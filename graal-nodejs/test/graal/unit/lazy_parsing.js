@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018, 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+var assert = require('assert');
+var spawnSync = require('child_process').spawnSync;
+
+function runLazy(code) {
+    var env = Object.assign({}, process.env);
+    env.NODE_JVM_OPTIONS = (env.NODE_JVM_OPTIONS || '') + ' -Dtruffle.js.LazyParsing=true';
+    var result = spawnSync(process.execPath, ['-e', code], {env: env});
+    assert.strictEqual(result.stderr.toString(), '');
+    assert.strictEqual(result.status, 0);
+    return result.stdout.toString();
+}
+
+describe('LazyParsing', function () {
+    this.timeout(20000);
+    if (typeof java !== 'undefined') {
+        it('should resolve closures in deferred function bodies', function () {
+            var code = `
+                var vm = require('vm');
+                var out = vm.runInThisContext(\`
+                    (function () {
+                        var counter = 0;
+                        function inc() { return ++counter; }
+                        var fns = [];
+                        for (let i = 0; i < 3; i++) {
+                            fns.push(function () { return i * 10 + inc(); });
+                        }
+                        function outer(a) {
+                            function inner(b) { return a + b + counter; }
+                            return inner;
+                        }
+                        return [fns[0](), fns[1](), fns[2](), outer(100)(20)].join(',');
+                    })()
+                \`);
+                console.log(out);
+            `;
+            assert.strictEqual(runLazy(code), '1,12,23,123\n');
+        });
+        it('should support eval in deferred function bodies', function () {
+            var code = `
+                var vm = require('vm');
+                var out = vm.runInThisContext(\`
+                    (function () {
+                        var x = 'outer';
+                        function direct(name) { return eval(name); }
+                        function shadow() { var x = 'inner'; return eval('x'); }
+                        function declare() { eval('var y = 7'); return y; }
+                        function nested() { return function () { return eval('x'); }; }
+                        return [direct('x'), shadow(), declare(), nested()()].join(',');
+                    })()
+                \`);
+                console.log(out);
+            `;
+            assert.strictEqual(runLazy(code), 'outer,inner,7,outer\n');
+        });
+        it('should apply a "use strict" directive of a deferred function body', function () {
+            var code = `
+                var vm = require('vm');
+                var out = vm.runInThisContext(\`
+                    (function () {
+                        function strict() { 'use strict'; return this; }
+                        function sloppy() { return this; }
+                        return [strict() === undefined, sloppy() === undefined].join(',');
+                    })()
+                \`);
+                console.log(out);
+            `;
+            assert.strictEqual(runLazy(code), 'true,false\n');
+        });
+        it('should report early errors of deferred function bodies that are never called', function () {
+            var code = `
+                var vm = require('vm');
+                var bodies = [
+                    'let a; let a;',
+                    '"use strict"; return 010;',
+                    '"use strict"; var eval = 1;',
+                    'break;',
+                    'return (1 +);',
+                    'label: label: ;'
+                ];
+                var out = bodies.map(function (body) {
+                    try {
+                        new vm.Script('function neverCalled() { ' + body + ' }');
+                        return 'none';
+                    } catch (e) {
+                        return e.name;
+                    }
+                });
+                console.log(out.join(','));
+            `;
+            assert.strictEqual(runLazy(code), 'SyntaxError,SyntaxError,SyntaxError,SyntaxError,SyntaxError,SyntaxError\n');
+        });
+    }
+});
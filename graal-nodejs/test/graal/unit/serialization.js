@@ -144,6 +144,12 @@ describe('Serialization', function () {
             assert.strictEqual(deserialized.ref1, deserialized.ref2, object);
         }
     });
+    it('should skip properties deleted during serialization', function () {
+        var object = { get a() { delete object.b; return 1; }, b: 2, c: 3 };
+        assert.deepEqual(v8.serialize(object).slice(2), Buffer.from('6f220161490222016349067b02', 'hex'));
+        var array = [{ get x() { delete array[2]; return 1; } }, 2, 3];
+        assert.deepEqual(v8.serialize(array).slice(2), Buffer.from('41036f22017849027b0149042d240003', 'hex'));
+    });
     it('should keep track of IDs of serialized objects', function () {
         var object = { top: 'secret' };
         var serialized = {
@@ -40,10 +40,91 @@
  */
 
 var assert = require('assert');
+var spawnSync = require('child_process').spawnSync;
 var Worker = require('worker_threads').Worker;
 
 describe('Worker', function () {
+    it('should preserve same-shaped objects and number arrays in messages', function (done) {
+        var worker = new Worker(`
+            const { parentPort } = require('worker_threads');
+            parentPort.on('message', (m) => parentPort.postMessage(m));
+        `, {eval: true});
+        var records = [];
+        for (var i = 0; i < 10; i++) {
+            records.push({id: i, name: 'record' + i, score: (i % 2) ? i / 2 : 'n/a', nested: {x: i}});
+        }
+        records.push({id: 10, name: undefined, score: 1.5, nested: null});
+        var cyclic = {self: null, value: 42};
+        cyclic.self = cyclic;
+        var message = {
+            records: records,
+            ints: [1, 2, 3, -4, 2147483647],
+            doubles: [0.5, -0, NaN, Infinity, 1e300],
+            mixed: [1, 'two', {three: 3}],
+            cyclic: cyclic
+        };
+        worker.on('message', function (m) {
+            assert.deepStrictEqual(m.records, records);
+            assert.deepStrictEqual(m.ints, message.ints);
+            assert.deepStrictEqual(m.doubles, message.doubles);
+            assert.ok(Object.is(m.doubles[1], -0));
+            assert.deepStrictEqual(m.mixed, message.mixed);
+            assert.strictEqual(m.cyclic.self, m.cyclic);
+            assert.strictEqual(m.cyclic.value, 42);
+            m.ints.push(1.5);
+            assert.strictEqual(m.ints.length, 6);
+            worker.terminate().then(() => done());
+        });
+        worker.postMessage(message);
+    }).timeout(10000);
+    it('should skip properties deleted during serialization of a message', function (done) {
+        var worker = new Worker(`
+            const { parentPort } = require('worker_threads');
+            parentPort.on('message', (m) => parentPort.postMessage(m));
+        `, {eval: true});
+        var records = [];
+        for (var i = 0; i < 4; i++) {
+            records.push({id: i, nested: null, score: i});
+        }
+        // getters of nested objects delete a later property of the record
+        // (of the first record of the shape and of a later one)
+        records[0].nested = {get x() { delete records[0].score; return 0; }};
+        records[2].nested = {get x() { delete records[2].score; return 2; }};
+        worker.on('message', function (m) {
+            assert.deepStrictEqual(m, [
+                {id: 0, nested: {x: 0}},
+                {id: 1, nested: null, score: 1},
+                {id: 2, nested: {x: 2}},
+                {id: 3, nested: null, score: 3}
+            ]);
+            worker.terminate().then(() => done());
+        });
+        worker.postMessage(records);
+    }).timeout(10000);
     if (typeof java !== 'undefined') {
+        it('should allocate same-shaped objects of a message with the shape of the first one', function () {
+            var code = `
+                const { Worker } = require('worker_threads');
+                const worker = new Worker("require('worker_threads').parentPort.on('message', (m) => require('worker_threads').parentPort.postMessage(m))", {eval: true});
+                const records = [];
+                for (let i = 0; i < 10; i++) {
+                    records.push({id: i, name: 'record' + i});
+                }
+                worker.on('message', (m) => {
+                    require('assert').deepStrictEqual(m, records);
+                    worker.terminate().then(() => process.exit(0));
+                });
+                worker.postMessage(records);
+            `;
+            var env = Object.assign({}, process.env);
+            env.NODE_JVM_OPTIONS = (env.NODE_JVM_OPTIONS || '') + ' -Dtruffle.js.DebugCounters=true';
+            var result = spawnSync(process.execPath, ['-e', code], {env: env});
+            assert.strictEqual(result.status, 0, result.stderr.toString());
+            var counter = /Deserializer: objects allocated with a template shape: (\d+)/.exec(result.stdout.toString());
+            assert.ok(counter, result.stdout.toString());
+            // all records but the first one (in both directions)
+            assert.ok(Number(counter[1]) >= 18, counter[0]);
+        }).timeout(20000);
         it('terminate should terminate Thread.sleep()', function (done) {
             var worker = new Worker('java.lang.Thread.sleep(1000000)', {eval: true});
             worker.on('online', function () {